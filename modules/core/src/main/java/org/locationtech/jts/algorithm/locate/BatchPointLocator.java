@@ -0,0 +1,251 @@
+/*
+ * The JTS Topology Suite is a collection of Java classes that
+ * implement the fundamental operations required to validate a given
+ * geo-spatial data set to a known topological specification.
+ *
+ * Copyright (C) 2016 Vivid Solutions
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * (http://www.eclipse.org/legal/epl-v10.html), and the Vivid Solutions BSD
+ * License v1.0 (found at the root of the repository).
+ *
+ */
+package org.locationtech.jts.algorithm.locate;
+
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+import org.locationtech.jts.geom.*;
+
+/**
+ * Determines the {@link Location}s of a batch of points
+ * relative to a geometry, using a {@link PointOnGeometryLocator}.
+ * Points are supplied either as a {@link CoordinateSequence}
+ * or as a <code>double</code> array of packed X,Y ordinate pairs,
+ * and the results are written to an <code>int</code> array
+ * of {@link Location} codes, in input order.
+ * <p>
+ * This avoids the per-point overhead of creating
+ * a {@link Point} geometry and evaluating a predicate
+ * (e.g. via {@link org.locationtech.jts.geom.prep.PreparedGeometry#contains(Geometry)}).
+ * Points which lie outside the (optional) extent of the target geometry
+ * are reported as {@link Location#EXTERIOR} without consulting the locator.
+ * <p>
+ * Optionally the query points can be processed in Y order.
+ * This improves memory locality for locators such as
+ * {@link IndexedPointInAreaLocator}, whose index is keyed on Y.
+ * The locations can also be computed in parallel,
+ * provided the locator is thread-safe.
+ */
+public class BatchPointLocator
+{
+  /**
+   * The minimum number of points processed by a single parallel task
+   */
+  private static final int PARALLEL_THRESHOLD = 1024;
+
+  private final PointOnGeometryLocator locator;
+  private final Envelope extent;
+  private boolean isSorted = true;
+  private boolean isParallel = false;
+
+  /**
+   * Creates a new batch locator using a given point locator.
+   *
+   * @param locator the locator to use
+   */
+  public BatchPointLocator(PointOnGeometryLocator locator)
+  {
+    this(locator, null);
+  }
+
+  /**
+   * Creates a new batch locator using a given point locator
+   * and the extent of the target geometry.
+   * Points outside the extent are located in the exterior
+   * without calling the locator.
+   *
+   * @param locator the locator to use
+   * @param extent the extent of the target geometry, or null if not known
+   */
+  public BatchPointLocator(PointOnGeometryLocator locator, Envelope extent)
+  {
+    this.locator = locator;
+    this.extent = extent;
+  }
+
+  /**
+   * Sets whether the query points are processed in spatial (Y) order.
+   * The default is <code>true</code>.
+   *
+   * @param isSorted true if the points should be sorted before location
+   */
+  public void setSorted(boolean isSorted)
+  {
+    this.isSorted = isSorted;
+  }
+
+  /**
+   * Sets whether the locations are computed in parallel.
+   * This requires the locator to be thread-safe
+   * (as {@link IndexedPointInAreaLocator} is).
+   * The default is <code>false</code>.
+   *
+   * @param isParallel true if the locations should be computed in parallel
+   */
+  public void setParallel(boolean isParallel)
+  {
+    this.isParallel = isParallel;
+  }
+
+  /**
+   * Determines the locations of the points in a {@link CoordinateSequence}.
+   *
+   * @param seq the points to locate
+   * @return an array of the {@link Location}s of the points
+   */
+  public int[] locate(CoordinateSequence seq)
+  {
+    int[] locations = new int[seq.size()];
+    locate(seq, locations);
+    return locations;
+  }
+
+  /**
+   * Determines the locations of the points in a {@link CoordinateSequence}.
+   *
+   * @param seq the points to locate
+   * @param locations the array to receive the {@link Location}s of the points
+   */
+  public void locate(CoordinateSequence seq, int[] locations)
+  {
+    int n = seq.size();
+    double[] xy = new double[2 * n];
+    for (int i = 0; i < n; i++) {
+      xy[2 * i] = seq.getX(i);
+      xy[2 * i + 1] = seq.getY(i);
+    }
+    locate(xy, locations);
+  }
+
+  /**
+   * Determines the locations of points supplied as X,Y ordinate pairs.
+   *
+   * @param xy an array of ordinates of the form [ x0, y0, x1, y1, ... ]
+   * @return an array of the {@link Location}s of the points
+   */
+  public int[] locate(double[] xy)
+  {
+    int[] locations = new int[xy.length / 2];
+    locate(xy, locations);
+    return locations;
+  }
+
+  /**
+   * Determines the locations of points supplied as X,Y ordinate pairs.
+   *
+   * @param xy an array of ordinates of the form [ x0, y0, x1, y1, ... ]
+   * @param locations the array to receive the {@link Location}s of the points
+   */
+  public void locate(double[] xy, int[] locations)
+  {
+    int n = xy.length / 2;
+    if (locations.length < n)
+      throw new IllegalArgumentException("Location array is too small for number of points");
+
+    int[] order = isSorted ? sortedOrder(xy, n) : null;
+    if (isParallel && n > PARALLEL_THRESHOLD) {
+      ForkJoinPool.commonPool().invoke(new LocateTask(xy, order, locations, 0, n));
+    }
+    else {
+      locate(xy, order, locations, 0, n);
+    }
+  }
+
+  /**
+   * Locates the points in a range of the processing order.
+   * A single coordinate is reused for all points in the range.
+   */
+  private void locate(double[] xy, int[] order, int[] locations, int start, int end)
+  {
+    Coordinate p = new Coordinate();
+    for (int k = start; k < end; k++) {
+      int i = order != null ? order[k] : k;
+      p.x = xy[2 * i];
+      p.y = xy[2 * i + 1];
+      if (extent != null && ! extent.intersects(p)) {
+        locations[i] = Location.EXTERIOR;
+      }
+      else {
+        locations[i] = locator.locate(p);
+      }
+    }
+  }
+
+  /**
+   * Computes an ordering of the points by Y value.
+   * The Y values are quantized into the high bits of a long key,
+   * and the point index is stored in the low bits,
+   * so that a single primitive sort suffices.
+   * The ordering is only used to improve locality,
+   * so the loss of precision does not affect the results.
+   */
+  private static int[] sortedOrder(double[] xy, int n)
+  {
+    double minY = Double.POSITIVE_INFINITY;
+    double maxY = Double.NEGATIVE_INFINITY;
+    for (int i = 0; i < n; i++) {
+      double y = xy[2 * i + 1];
+      if (y < minY) minY = y;
+      if (y > maxY) maxY = y;
+    }
+    double scale = maxY > minY ? Integer.MAX_VALUE / (maxY - minY) : 0.0;
+
+    long[] keys = new long[n];
+    for (int i = 0; i < n; i++) {
+      double y = xy[2 * i + 1];
+      // NaN ordinates are sorted to the start
+      long q = y >= minY ? (long) ((y - minY) * scale) : 0L;
+      keys[i] = (q << 32) | i;
+    }
+    Arrays.sort(keys);
+
+    int[] order = new int[n];
+    for (int k = 0; k < n; k++) {
+      order[k] = (int) keys[k];
+    }
+    return order;
+  }
+
+  private class LocateTask
+    extends RecursiveAction
+  {
+    private final double[] xy;
+    private final int[] order;
+    private final int[] locations;
+    private final int start;
+    private final int end;
+
+    LocateTask(double[] xy, int[] order, int[] locations, int start, int end)
+    {
+      this.xy = xy;
+      this.order = order;
+      this.locations = locations;
+      this.start = start;
+      this.end = end;
+    }
+
+    protected void compute()
+    {
+      if (end - start <= PARALLEL_THRESHOLD) {
+        locate(xy, order, locations, start, end);
+        return;
+      }
+      int mid = (start + end) >>> 1;
+      invokeAll(new LocateTask(xy, order, locations, start, mid),
+          new LocateTask(xy, order, locations, mid, end));
+    }
+  }
+}
@@ -28,6 +28,7 @@ import org.locationtech.jts.operation.overlay.snap.SnapIfNeededOverlayOp;
 import org.locationtech.jts.operation.predicate.RectangleContains;
 import org.locationtech.jts.operation.predicate.RectangleIntersects;
 import org.locationtech.jts.operation.relate.RelateOp;
+import org.locationtech.jts.operation.relate.RelatePredicate;
 import org.locationtech.jts.operation.union.UnaryUnionOp;
 import org.locationtech.jts.operation.valid.IsValidOp;
 import org.locationtech.jts.util.Assert;
@@ -704,7 +705,7 @@ public abstract class Geometry
     // short-circuit test
     if (! getEnvelopeInternal().intersects(g.getEnvelopeInternal()))
       return false;
-    return relate(g).isTouches(getDimension(), g.getDimension());
+    return relate(g, RelatePredicate.touches(getDimension(), g.getDimension()));
   }
 
   /**
@@ -760,7 +761,7 @@ public abstract class Geometry
       return RectangleIntersects.intersects((Polygon) g, this);
     }
     // general case
-    return relate(g).isIntersects();
+    return relate(g, RelatePredicate.intersects());
   }
 
   /**
@@ -791,7 +792,7 @@ public abstract class Geometry
     // short-circuit test
     if (! getEnvelopeInternal().intersects(g.getEnvelopeInternal()))
       return false;
-    return relate(g).isCrosses(getDimension(), g.getDimension());
+    return relate(g, RelatePredicate.crosses(getDimension(), g.getDimension()));
   }
 
   /**
@@ -862,7 +863,7 @@ public abstract class Geometry
       return RectangleContains.contains((Polygon) this, g);
     }
     // general case
-    return relate(g).isContains();
+    return relate(g, RelatePredicate.contains());
   }
 
   /**
@@ -890,7 +891,7 @@ public abstract class Geometry
     // short-circuit test
     if (! getEnvelopeInternal().intersects(g.getEnvelopeInternal()))
       return false;
-    return relate(g).isOverlaps(getDimension(), g.getDimension());
+    return relate(g, RelatePredicate.overlaps(getDimension(), g.getDimension()));
   }
 
   /**
@@ -936,7 +937,7 @@ public abstract class Geometry
     	// since we have already tested that the test envelope is covered
       return true;
     }
-    return relate(g).isCovers();
+    return relate(g, RelatePredicate.covers());
   }
 
   /**
@@ -996,7 +997,19 @@ public abstract class Geometry
    * @see IntersectionMatrix
    */
   public boolean relate(Geometry g, String intersectionPattern) {
-    return relate(g).matches(intersectionPattern);
+    return relate(g, RelatePredicate.matches(intersectionPattern));
+  }
+
+  /**
+   * Tests whether the relationship between this geometry and another
+   * satisfies a predicate.
+   * Only as much of the relationship is computed as is required
+   * to determine the result.
+   */
+  private boolean relate(Geometry g, RelatePredicate predicate) {
+    checkNotGeometryCollection(this);
+    checkNotGeometryCollection(g);
+    return RelateOp.relate(this, g, predicate);
   }
 
   /**
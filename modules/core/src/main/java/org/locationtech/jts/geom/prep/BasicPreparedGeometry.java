@@ -20,6 +20,9 @@ import org.locationtech.jts.algorithm.*;
 import org.locationtech.jts.algorithm.locate.*;
 import org.locationtech.jts.geom.*;
 import org.locationtech.jts.geom.util.ComponentCoordinateExtracter;
+import org.locationtech.jts.operation.distance.IndexedFacetDistance;
+import org.locationtech.jts.operation.relate.PreparedRelate;
+import org.locationtech.jts.operation.relate.RelatePredicate;
 
 
 /**
@@ -28,15 +31,26 @@ import org.locationtech.jts.geom.util.ComponentCoordinateExtracter;
  * to the equivalent {@link Geometry} methods.
  * This class may be used as a "no-op" class for Geometry types
  * which do not have a corresponding {@link PreparedGeometry} implementation.
+ * <p>
+ * It also provides prepared versions of {@link #relate(Geometry)},
+ * {@link #relate(Geometry, String)}, {@link #distance(Geometry)}
+ * and {@link #isWithinDistance(Geometry, double)}.
+ * These are not part of the {@link PreparedGeometry} interface,
+ * so that they do not break other implementations of it.
+ * All prepared geometries created by {@link PreparedGeometryFactory}
+ * are instances of this class.
  * 
  * @author Martin Davis
  *
  */
-class BasicPreparedGeometry 
+public class BasicPreparedGeometry 
   implements PreparedGeometry
 {
   private final Geometry baseGeom;
   private final List representativePts;  // List<Coordinate>
+  // created lazily, since it is expensive
+  private IndexedFacetDistance facetDistance = null;
+  private PreparedRelate preparedRelate = null;
 
   public BasicPreparedGeometry(Geometry geom) 
   {
@@ -130,7 +144,7 @@ class BasicPreparedGeometry
       return false;
   	
     // otherwise, compute using relate mask
-    return baseGeom.relate(g, "T**FF*FF*");
+    return relate(g, "T**FF*FF*");
   }
 
   /**
@@ -150,11 +164,13 @@ class BasicPreparedGeometry
   }
 
   /**
-   * Default implementation.
+   * Computed using the cached relate graph.
    */
   public boolean crosses(Geometry g)
   {
-    return baseGeom.crosses(g);
+    if (! envelopesIntersect(g))
+      return false;
+    return relate(g, RelatePredicate.crosses(baseGeom.getDimension(), g.getDimension()));
   }
   
   /**
@@ -175,19 +191,23 @@ class BasicPreparedGeometry
   }
   
   /**
-   * Default implementation.
+   * Computed using the cached relate graph.
    */
   public boolean overlaps(Geometry g)
   {
-    return baseGeom.overlaps(g);
+    if (! envelopesIntersect(g))
+      return false;
+    return relate(g, RelatePredicate.overlaps(baseGeom.getDimension(), g.getDimension()));
   }
   
   /**
-   * Default implementation.
+   * Computed using the cached relate graph.
    */
   public boolean touches(Geometry g)
   {
-    return baseGeom.touches(g);
+    if (! envelopesIntersect(g))
+      return false;
+    return relate(g, RelatePredicate.touches(baseGeom.getDimension(), g.getDimension()));
   }
   
   /**
@@ -198,6 +218,162 @@ class BasicPreparedGeometry
     return baseGeom.within(g);
   }
   
+  /**
+   * Computes the DE-9IM {@link IntersectionMatrix} for the relationship
+   * between the base {@link Geometry} and a given geometry,
+   * using the cached geometry graph and monotone chain index of this geometry.
+   * 
+   * @param g the Geometry to relate to
+   * @return the intersection matrix of the relationship
+   * 
+   * @see Geometry#relate(Geometry)
+   */
+  public IntersectionMatrix relate(Geometry g)
+  {
+    checkNotGeometryCollection(baseGeom);
+    checkNotGeometryCollection(g);
+    return getPreparedRelate().relate(g);
+  }
+  
+  /**
+   * Tests whether the relationship between the base {@link Geometry}
+   * and a given geometry matches a DE-9IM intersection pattern,
+   * using the cached geometry graph and monotone chain index of this geometry.
+   * 
+   * @param g the Geometry to test
+   * @param intersectionPattern the pattern against which to check the intersection matrix
+   * @return true if the relationship matches the pattern
+   * 
+   * @see Geometry#relate(Geometry, String)
+   */
+  public boolean relate(Geometry g, String intersectionPattern)
+  {
+    return relate(g, RelatePredicate.matches(intersectionPattern));
+  }
+  
+  private boolean relate(Geometry g, RelatePredicate predicate)
+  {
+    checkNotGeometryCollection(baseGeom);
+    checkNotGeometryCollection(g);
+    return getPreparedRelate().relate(g, predicate);
+  }
+  
+  /**
+   * Gets the prepared relate for this geometry.
+   * 
+   * @return the prepared relate
+   */
+  protected synchronized PreparedRelate getPreparedRelate()
+  {
+    if (preparedRelate == null)
+      preparedRelate = new PreparedRelate(baseGeom);
+    return preparedRelate;
+  }
+  
+  private static void checkNotGeometryCollection(Geometry g)
+  {
+    // Don't use instanceof because we want to allow subclasses
+    if (g.getClass().equals(GeometryCollection.class)) {
+      throw new IllegalArgumentException("This method does not support GeometryCollection arguments");
+    }
+  }
+  
+  /**
+   * Gets the indexed facet distance for this geometry.
+   * 
+   * @return the facet distance finder
+   */
+  protected synchronized IndexedFacetDistance getFacetDistance()
+  {
+    if (facetDistance == null)
+      facetDistance = new IndexedFacetDistance(baseGeom);
+    return facetDistance;
+  }
+  
+  /**
+   * Computes the distance between the base {@link Geometry} and a given geometry,
+   * using the cached facet index of this geometry.
+   * If either geometry is polygonal and contains a component 
+   * of the other the distance is zero,
+   * which is detected without computing the facet distance.
+   * 
+   * @param g the Geometry to compute the distance to
+   * @return the distance between the geometries, or 0 if either is empty
+   * 
+   * @see Geometry#distance(Geometry)
+   */
+  public double distance(Geometry g)
+  {
+    if (baseGeom.isEmpty() || g.isEmpty())
+      return 0.0;
+    if (isAnyComponentInInterior(g))
+      return 0.0;
+    return getFacetDistance().getDistance(g);
+  }
+  
+  /**
+   * Tests whether the base {@link Geometry} lies within
+   * a given distance of a given geometry,
+   * using the cached facet index of this geometry
+   * after short-circuit tests on the envelope distance and
+   * containment of components.
+   * 
+   * @param g the Geometry to test
+   * @param distance the distance value to compare
+   * @return true if the geometries are no more than the given distance apart
+   * 
+   * @see Geometry#isWithinDistance(Geometry, double)
+   */
+  public boolean isWithinDistance(Geometry g, double distance)
+  {
+    if (baseGeom.isEmpty() || g.isEmpty())
+      return true;
+    double envDist = baseGeom.getEnvelopeInternal().distance(g.getEnvelopeInternal());
+    if (envDist > distance)
+      return false;
+    if (isAnyComponentInInterior(g))
+      return true;
+    return getFacetDistance().isWithinDistance(g, distance);
+  }
+  
+  /**
+   * Tests whether some component of either geometry 
+   * lies in the area of the other.
+   * The facet distance only measures the distance to the boundary
+   * of areas, so this test is required for correctness.
+   * 
+   * @param g the test geometry
+   * @return true if some component of one geometry is inside the other
+   */
+  private boolean isAnyComponentInInterior(Geometry g)
+  {
+    if (g.getDimension() == 2 && isAnyTargetComponentInTest(g))
+      return true;
+    if (baseGeom.getDimension() == 2 && isAnyTestComponentInTarget(g))
+      return true;
+    return false;
+  }
+  
+  /**
+   * Tests whether any component of the test geometry
+   * intersects the area of this geometry.
+   * Subclasses may override this to use an indexed locator.
+   * 
+   * @param testGeom the test geometry
+   * @return true if any component of the test geometry intersects this geometry
+   */
+  protected boolean isAnyTestComponentInTarget(Geometry testGeom)
+  {
+    PointLocator locator = new PointLocator();
+    List coords = ComponentCoordinateExtracter.getCoordinates(testGeom);
+    for (Iterator i = coords.iterator(); i.hasNext(); ) {
+      Coordinate p = (Coordinate) i.next();
+      if (locator.intersects(p, baseGeom))
+        return true;
+    }
+    return false;
+  }
+  
   public String toString()
   {
   	return baseGeom.toString();
@@ -0,0 +1,321 @@
+/*
+ * The JTS Topology Suite is a collection of Java classes that
+ * implement the fundamental operations required to validate a given
+ * geo-spatial data set to a known topological specification.
+ *
+ * Copyright (C) 2016 Vivid Solutions
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * (http://www.eclipse.org/legal/epl-v10.html), and the Vivid Solutions BSD
+ * License v1.0 (found at the root of the repository).
+ *
+ */
+package org.locationtech.jts.geom.prep;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+
+import org.locationtech.jts.geom.*;
+
+/**
+ * A cache of {@link PreparedGeometry}s,
+ * allowing prepared geometries to be reused across
+ * many independent operations against the same geometries.
+ * <p>
+ * Entries are keyed either by the identity of the prepared {@link Geometry},
+ * or by a key supplied by the caller (e.g. a feature id).
+ * The memory used by the cache is bounded by a maximum total <i>weight</i>,
+ * which is an estimate in bytes of the size of the indexes
+ * which a prepared geometry may build.
+ * When the bound is exceeded the least-recently-used entries are evicted.
+ * <p>
+ * Statistics are kept of cache hits, misses and evictions,
+ * and of the total time spent preparing geometries.
+ * <p>
+ * Instances of this class are thread-safe.
+ * Geometries are prepared outside the cache lock,
+ * so concurrent misses on the same key may prepare the geometry more than once.
+ *
+ * @see PreparedGeometryFactory
+ */
+public class PreparedGeometryCache
+{
+  /**
+   * The approximate number of bytes of index structure
+   * which a prepared geometry may build per input vertex.
+   */
+  private static final long BYTES_PER_VERTEX = 200;
+
+  /**
+   * Computes an estimate of the memory used by
+   * a prepared version of a geometry, in bytes.
+   *
+   * @param geom a geometry
+   * @return the estimated size of the prepared geometry
+   */
+  public static long estimateSize(Geometry geom)
+  {
+    return BYTES_PER_VERTEX * geom.getNumPoints();
+  }
+
+  private final long maxWeight;
+  private final PreparedGeometryFactory factory;
+  /**
+   * The entries, in order from least to most recently used.
+   * The map is kept in insertion order, and an entry is moved to the end
+   * by re-inserting it, so that it can also be looked up without being promoted.
+   */
+  private final LinkedHashMap map = new LinkedHashMap();
+  private long weight = 0;
+
+  private long hitCount = 0;
+  private long missCount = 0;
+  private long evictionCount = 0;
+  private long buildTime = 0;
+
+  /**
+   * Creates a new cache with a given maximum weight.
+   *
+   * @param maxWeight the maximum total estimated size of the cached entries, in bytes
+   */
+  public PreparedGeometryCache(long maxWeight)
+  {
+    this(maxWeight, new PreparedGeometryFactory());
+  }
+
+  /**
+   * Creates a new cache with a given maximum weight,
+   * using a given factory to prepare geometries.
+   *
+   * @param maxWeight the maximum total estimated size of the cached entries, in bytes
+   * @param factory the factory to use to prepare geometries
+   */
+  public PreparedGeometryCache(long maxWeight, PreparedGeometryFactory factory)
+  {
+    if (maxWeight <= 0)
+      throw new IllegalArgumentException("Maximum weight must be positive");
+    this.maxWeight = maxWeight;
+    this.factory = factory;
+  }
+
+  /**
+   * Gets the prepared version of a geometry, keyed by the geometry identity.
+   * If the geometry is not in the cache it is prepared and added.
+   *
+   * @param geom the geometry to prepare
+   * @return the prepared geometry
+   */
+  public PreparedGeometry get(Geometry geom)
+  {
+    return get(new IdentityKey(geom), geom);
+  }
+
+  /**
+   * Gets the prepared version of a geometry, keyed by a given key.
+   * If the key is not in the cache the geometry is prepared and added.
+   * The key must have value semantics
+   * (i.e. implement <code>equals</code> and <code>hashCode</code>)
+   * and uniquely identify the geometry.
+   *
+   * @param key the key of the geometry
+   * @param geom the geometry to prepare
+   * @return the prepared geometry
+   */
+  public PreparedGeometry get(Object key, Geometry geom)
+  {
+    synchronized (this) {
+      Entry entry = (Entry) map.remove(key);
+      if (entry != null) {
+        map.put(key, entry);
+        hitCount++;
+        return entry.prepGeom;
+      }
+      missCount++;
+    }
+
+    long start = System.nanoTime();
+    PreparedGeometry prepGeom = factory.create(geom);
+    long elapsed = System.nanoTime() - start;
+
+    Entry entry = new Entry(prepGeom, estimateSize(geom));
+    synchronized (this) {
+      buildTime += elapsed;
+      Entry prev = (Entry) map.remove(key);
+      map.put(key, entry);
+      if (prev != null) weight -= prev.weight;
+      weight += entry.weight;
+      evict();
+    }
+    return prepGeom;
+  }
+
+  /**
+   * Gets the cached prepared geometry for a key, if present.
+   * This does not count as a cache hit or miss,
+   * and does not change the order in which entries are evicted.
+   *
+   * @param key the key of the geometry
+   * @return the prepared geometry, or null if the key is not cached
+   */
+  public synchronized PreparedGeometry getIfPresent(Object key)
+  {
+    Entry entry = (Entry) map.get(key);
+    if (entry == null) return null;
+    return entry.prepGeom;
+  }
+
+  /**
+   * Removes the entry for a geometry keyed by identity.
+   *
+   * @param geom the geometry to remove
+   */
+  public void invalidate(Geometry geom)
+  {
+    invalidateKey(new IdentityKey(geom));
+  }
+
+  /**
+   * Removes the entry for a given key.
+   *
+   * @param key the key to remove
+   */
+  public synchronized void invalidateKey(Object key)
+  {
+    Entry entry = (Entry) map.remove(key);
+    if (entry != null) weight -= entry.weight;
+  }
+
+  /**
+   * Removes all entries from the cache.
+   * The statistics are not reset.
+   */
+  public synchronized void clear()
+  {
+    map.clear();
+    weight = 0;
+  }
+
+  /**
+   * Evicts least-recently-used entries until the weight is within the bound.
+   * The most recent entry is always retained, even if it exceeds the bound by itself.
+   */
+  private void evict()
+  {
+    Iterator it = map.values().iterator();
+    while (weight > maxWeight && map.size() > 1) {
+      Entry entry = (Entry) it.next();
+      it.remove();
+      weight -= entry.weight;
+      evictionCount++;
+    }
+  }
+
+  /**
+   * Gets the number of entries in the cache.
+   *
+   * @return the number of entries
+   */
+  public synchronized int size() { return map.size(); }
+
+  /**
+   * Gets the total estimated size of the cached entries.
+   *
+   * @return the total weight of the entries, in bytes
+   */
+  public synchronized long getWeight() { return weight; }
+
+  /**
+   * Gets the maximum total weight of the cache.
+   *
+   * @return the maximum weight, in bytes
+   */
+  public long getMaxWeight() { return maxWeight; }
+
+  /**
+   * Gets the number of requests which found a cached entry.
+   *
+   * @return the hit count
+   */
+  public synchronized long getHitCount() { return hitCount; }
+
+  /**
+   * Gets the number of requests which required a geometry to be prepared.
+   *
+   * @return the miss count
+   */
+  public synchronized long getMissCount() { return missCount; }
+
+  /**
+   * Gets the number of entries evicted due to the weight bound.
+   *
+   * @return the eviction count
+   */
+  public synchronized long getEvictionCount() { return evictionCount; }
+
+  /**
+   * Gets the total time spent preparing geometries.
+   *
+   * @return the build time, in milliseconds
+   */
+  public synchronized long getBuildTime() { return buildTime / 1000000; }
+
+  /**
+   * Gets the fraction of requests which found a cached entry.
+   *
+   * @return the hit rate, or 0 if no requests have been made
+   */
+  public synchronized double getHitRate()
+  {
+    long total = hitCount + missCount;
+    if (total == 0) return 0.0;
+    return (double) hitCount / total;
+  }
+
+  public synchronized String toString()
+  {
+    return "PreparedGeometryCache[size=" + map.size()
+        + ", weight=" + weight + "/" + maxWeight
+        + ", hits=" + hitCount + ", misses=" + missCount
+        + ", evictions=" + evictionCount
+        + ", buildTime=" + (buildTime / 1000000) + " ms]";
+  }
+
+  private static class Entry
+  {
+    final PreparedGeometry prepGeom;
+    final long weight;
+
+    Entry(PreparedGeometry prepGeom, long weight)
+    {
+      this.prepGeom = prepGeom;
+      this.weight = weight;
+    }
+  }
+
+  /**
+   * A key which compares geometries by identity,
+   * since {@link Geometry#equals(Object)} compares coordinates
+   * and {@link Geometry#hashCode()} is based on the envelope.
+   */
+  private static class IdentityKey
+  {
+    private final Geometry geom;
+
+    IdentityKey(Geometry geom)
+    {
+      this.geom = geom;
+    }
+
+    public boolean equals(Object o)
+    {
+      if (! (o instanceof IdentityKey)) return false;
+      return ((IdentityKey) o).geom == geom;
+    }
+
+    public int hashCode()
+    {
+      return System.identityHashCode(geom);
+    }
+  }
+}
@@ -13,9 +13,12 @@
  */
 package org.locationtech.jts.geom.prep;
 
+import java.util.Iterator;
+import java.util.List;
 
 import org.locationtech.jts.algorithm.locate.*;
 import org.locationtech.jts.geom.*;
+import org.locationtech.jts.geom.util.ComponentCoordinateExtracter;
 import org.locationtech.jts.noding.*;
 import org.locationtech.jts.operation.predicate.*;
 
@@ -26,7 +29,9 @@ import org.locationtech.jts.operation.predicate.*;
  * This class does <b>not</b> support MultiPolygons which are non-valid 
  * (e.g. with overlapping elements). 
  * <p>
- * Instances of this class are thread-safe and immutable.
+ * Instances of this class are thread-safe.
+ * The indexes used by the predicates are created lazily and cached,
+ * but are not modified once created.
  * 
  * @author mbdavis
  *
@@ -69,6 +74,54 @@ public class PreparedPolygon
  		
     return pia;
   }
+
+  /**
+   * Determines the {@link Location}s of a batch of points
+   * relative to this geometry.
+   * This is more efficient than testing each point individually,
+   * since no {@link Point} geometries need to be created.
+   * 
+   * @param seq the points to locate
+   * @param locations the array to receive the locations of the points
+   * 
+   * @see BatchPointLocator
+   */
+  public void locate(CoordinateSequence seq, int[] locations)
+  {
+    new BatchPointLocator(getPointLocator(), getGeometry().getEnvelopeInternal())
+      .locate(seq, locations);
+  }
+
+  /**
+   * Determines the {@link Location}s of a batch of points
+   * supplied as X,Y ordinate pairs relative to this geometry.
+   * 
+   * @param xy an array of ordinates of the form [ x0, y0, x1, y1, ... ]
+   * @param locations the array to receive the locations of the points
+   * 
+   * @see BatchPointLocator
+   */
+  public void locate(double[] xy, int[] locations)
+  {
+    new BatchPointLocator(getPointLocator(), getGeometry().getEnvelopeInternal())
+      .locate(xy, locations);
+  }
+  
+  /**
+   * Uses the indexed point locator to test the components
+   * of the test geometry.
+   */
+  protected boolean isAnyTestComponentInTarget(Geometry testGeom)
+  {
+    PointOnGeometryLocator locator = getPointLocator();
+    List coords = ComponentCoordinateExtracter.getCoordinates(testGeom);
+    for (Iterator i = coords.iterator(); i.hasNext(); ) {
+      Coordinate p = (Coordinate) i.next();
+      if (locator.locate(p) != Location.EXTERIOR)
+        return true;
+    }
+    return false;
+  }
   
   public boolean intersects(Geometry g)
   {
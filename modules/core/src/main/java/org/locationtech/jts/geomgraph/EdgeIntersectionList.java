@@ -52,6 +52,14 @@ public class EdgeIntersectionList
     return eiNew;
   }
 
+  /**
+   * Removes all intersections from the list.
+   */
+  public void clear()
+  {
+    nodeMap.clear();
+  }
+
   /**
    * Returns an iterator of {@link EdgeIntersection}s
    *
@@ -358,8 +358,28 @@ public class GeometryGraph
     GeometryGraph g,
     LineIntersector li,
     boolean includeProper)
+  {
+    return computeEdgeIntersections(g, li, includeProper, false);
+  }
+
+  /**
+   * Computes the intersections between the edges of this graph
+   * and the edges of another graph.
+   * 
+   * @param g the other graph
+   * @param li the LineIntersector to use
+   * @param includeProper if true, proper intersections are recorded on the edges
+   * @param isDoneIfIntersection short-circuit the intersection computation if any intersection is found
+   * @return the computed SegmentIntersector containing information about the intersections found
+   */
+  public SegmentIntersector computeEdgeIntersections(
+    GeometryGraph g,
+    LineIntersector li,
+    boolean includeProper,
+    boolean isDoneIfIntersection)
   {
     SegmentIntersector si = new SegmentIntersector(li, includeProper, true);
+    si.setIsDoneIfIntersection(isDoneIfIntersection);
     si.setBoundaryNodes(this.getBoundaryNodes(), g.getBoundaryNodes());
 
     EdgeSetIntersector esi = createEdgeSetIntersector();
@@ -23,16 +23,17 @@ import java.util.*;
 import org.locationtech.jts.geom.Coordinate;
 import org.locationtech.jts.geom.Location;
 import org.locationtech.jts.geomgraph.Node;
+import org.locationtech.jts.util.CoordinateHashMap;
 
 /**
- * A map of nodes, indexed by the coordinate of the node
+ * A map of nodes, indexed by the coordinate of the node.
+ * The nodes are returned in ascending order of their coordinates.
  * @version 1.7
  */
 public class NodeMap
 
 {
-  //Map nodeMap = new HashMap();
-  Map nodeMap = new TreeMap();
+  CoordinateHashMap nodeMap = new CoordinateHashMap();
   NodeFactory nodeFact;
 
   public NodeMap(NodeFactory nodeFact) {
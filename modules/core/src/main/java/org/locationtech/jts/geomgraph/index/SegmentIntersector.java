@@ -61,6 +61,7 @@ public class SegmentIntersector
   private Collection[] bdyNodes;
   private boolean isDone = false;
   private boolean isDoneWhenProperInt = false;
+  private boolean isDoneWhenIntersection = false;
 
 
   public SegmentIntersector(LineIntersector li,  boolean includeProper, boolean recordIsolated)
@@ -81,6 +82,16 @@ public class SegmentIntersector
   public void setIsDoneIfProperInt(boolean isDoneWhenProperInt) {
 	  this.isDoneWhenProperInt = isDoneWhenProperInt;
   }
+
+  /**
+   * Sets whether the computation is done as soon as
+   * any non-trivial intersection is found.
+   * 
+   * @param isDoneWhenIntersection true if the computation should stop at the first intersection
+   */
+  public void setIsDoneIfIntersection(boolean isDoneWhenIntersection) {
+    this.isDoneWhenIntersection = isDoneWhenIntersection;
+  }
   
   public boolean isDone() {
 	  return isDone;
@@ -166,6 +177,9 @@ numTests++;
       // only intersection.
       if (! isTrivialIntersection(e0, segIndex0, e1, segIndex1)) {
         hasIntersection = true;
+        if (isDoneWhenIntersection) {
+          isDone = true;
+        }
         if (includeProper || ! li.isProper() ) {
 //Debug.println(li);
           e0.addIntersections(li, segIndex0, 0);
@@ -134,6 +134,11 @@ public class KdNode {
         return count > 1;
     }
 
+    // Sets count of points at this location
+    void setCount(int _count) {
+        count = _count;
+    }
+
     // Sets left node value
     void setLeft(KdNode _left) {
         left = _left;
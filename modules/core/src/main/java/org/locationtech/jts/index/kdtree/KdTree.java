@@ -38,6 +38,15 @@ import org.locationtech.jts.geom.Envelope;
  * is incremented.  
  * If more than one node in the tree is within tolerance of an inserted point, 
  * the closest and then lowest node is snapped to.
+ * <p>
+ * A tree built by inserting points one at a time has a shape which depends on the
+ * insertion order.  In particular, sorted input (such as gridded data)
+ * produces a deep, unbalanced tree with slow queries.
+ * The {@link #build(Coordinate[])} and {@link #build(double[])} methods
+ * bulk-load a set of points into a balanced tree, by splitting at the median.
+ * The bulk-loaded nodes are stored in flat arrays in preorder,
+ * which are used for fast queries until further points are inserted.
+ * The snapping semantics are the same as for inserting the points in order.
  * 
  * @author David Skea
  * @author Martin Davis
@@ -81,6 +90,14 @@ public class KdTree {
   private KdNode root = null;
   private long numberOfNodes;
   private double tolerance;
+  /**
+   * The flat layout of a bulk-loaded tree, or null if there is none
+   */
+  private FlatTree flatTree = null;
+  /**
+   * The nodes of the flat layout, in the same order
+   */
+  private KdNode[] flatNodes = null;
 
   /**
    * Creates a new instance of a KdTree with a snapping tolerance of 0.0. (I.e.
@@ -113,6 +130,32 @@ public class KdTree {
     return false;
   }
 
+  /**
+   * Gets the number of nodes in the tree.
+   * 
+   * @return the number of nodes
+   */
+  public int size() {
+    return (int) numberOfNodes;
+  }
+
+  /**
+   * Computes the depth of the tree.
+   * 
+   * @return the depth of the tree
+   */
+  public int depth() {
+    return depthNode(root);
+  }
+
+  private int depthNode(KdNode currentNode) {
+    if (currentNode == null)
+      return 0;
+    int dL = depthNode(currentNode.getLeft());
+    int dR = depthNode(currentNode.getRight());
+    return 1 + (dL > dR ? dL : dR);
+  }
+
   /**
    * Inserts a new point in the kd-tree, with no data.
    * 
@@ -138,6 +181,7 @@ public class KdTree {
   public KdNode insert(Coordinate p, Object data) {
     if (root == null) {
       root = new KdNode(p, data);
+      numberOfNodes = 1;
       return root;
     }
     
@@ -157,6 +201,93 @@ public class KdTree {
     return insertExact(p, data);
   }
     
+  /**
+   * Bulk-loads a set of points into an empty tree, with no data.
+   * The resulting tree is balanced.
+   * The points are snapped to nodes exactly as if they were inserted
+   * in the given order.
+   * 
+   * @param pts the points to load
+   * @throws IllegalStateException if the tree is not empty
+   */
+  public void build(Coordinate[] pts) {
+    double[] ptXY = new double[2 * pts.length];
+    for (int i = 0; i < pts.length; i++) {
+      ptXY[2 * i] = pts[i].x;
+      ptXY[2 * i + 1] = pts[i].y;
+    }
+    load(ptXY, pts);
+  }
+
+  /**
+   * Bulk-loads a set of points into an empty tree, with no data.
+   * The resulting tree is balanced.
+   * The points are snapped to nodes exactly as if they were inserted
+   * in the given order.
+   * 
+   * @param ptXY the X and Y ordinates of the points to load, in pairs
+   * @throws IllegalStateException if the tree is not empty
+   */
+  public void build(double[] ptXY) {
+    load(ptXY, null);
+  }
+
+  private void load(double[] ptXY, Coordinate[] pts) {
+    if (! isEmpty())
+      throw new IllegalStateException("Cannot bulk load a KdTree which is not empty");
+    int n = ptXY.length / 2;
+    if (n == 0) return;
+
+    /**
+     * Snap the points in input order, 
+     * using a tree containing all the points to find matches
+     * among the points which have been kept so far.
+     */
+    int[] ptIndex = new int[n];
+    for (int i = 0; i < n; i++) {
+      ptIndex[i] = i;
+    }
+    FlatTree allTree = new FlatTree(ptXY, ptIndex, n);
+    int[] nodeOfPoint = new int[n];
+    for (int node = 0; node < n; node++) {
+      nodeOfPoint[allTree.point[node]] = node;
+    }
+    boolean[] isKept = new boolean[n];
+    int[] count = new int[n];
+    int numKept = 0;
+    for (int i = 0; i < n; i++) {
+      int match = allTree.findBestMatch(ptXY[2 * i], ptXY[2 * i + 1], tolerance, isKept);
+      if (match < 0) {
+        int node = nodeOfPoint[i];
+        isKept[node] = true;
+        count[node] = 1;
+        ptIndex[numKept++] = i;
+      }
+      else {
+        count[match]++;
+      }
+    }
+
+    flatTree = new FlatTree(ptXY, ptIndex, numKept);
+    flatNodes = new KdNode[numKept];
+    for (int node = 0; node < numKept; node++) {
+      int i = flatTree.point[node];
+      KdNode kdNode = pts != null
+          ? new KdNode(pts[i], null)
+          : new KdNode(ptXY[2 * i], ptXY[2 * i + 1], null);
+      kdNode.setCount(count[nodeOfPoint[i]]);
+      flatNodes[node] = kdNode;
+    }
+    for (int node = 0; node < numKept; node++) {
+      if (flatTree.left[node] >= 0)
+        flatNodes[node].setLeft(flatNodes[flatTree.left[node]]);
+      if (flatTree.right[node] >= 0)
+        flatNodes[node].setRight(flatNodes[flatTree.right[node]]);
+    }
+    root = flatNodes[0];
+    numberOfNodes = numKept;
+  }
+
   /**
    * Finds the node in the tree which is the best match for a point
    * being inserted.
@@ -265,6 +396,9 @@ public class KdTree {
 
     // no node found, add new leaf node to tree
     numberOfNodes = numberOfNodes + 1;
+    // the flat layout no longer contains all nodes
+    flatTree = null;
+    flatNodes = null;
     KdNode node = new KdNode(p, data);
     if (isLessThan) {
       leafNode.setLeft(node);
@@ -307,6 +441,41 @@ public class KdTree {
 
   }
 
+  private void queryFlat(int node,
+      Envelope queryEnv, boolean odd, KdNodeVisitor visitor) {
+    if (node < 0)
+      return;
+    
+    double x = flatTree.xy[2 * node];
+    double y = flatTree.xy[2 * node + 1];
+    double min;
+    double max;
+    double discriminant;
+    if (odd) {
+      min = queryEnv.getMinX();
+      max = queryEnv.getMaxX();
+      discriminant = x;
+    } else {
+      min = queryEnv.getMinY();
+      max = queryEnv.getMaxY();
+      discriminant = y;
+    }
+    boolean searchLeft = min < discriminant;
+    boolean searchRight = discriminant <= max;
+
+    // same in-order traversal as queryNode
+    if (searchLeft) {
+      queryFlat(flatTree.left[node], queryEnv, !odd, visitor);
+    }
+    if (queryEnv.getMinX() <= x && x <= queryEnv.getMaxX()
+        && queryEnv.getMinY() <= y && y <= queryEnv.getMaxY()) {
+      visitor.visit(flatNodes[node]);
+    }
+    if (searchRight) {
+      queryFlat(flatTree.right[node], queryEnv, !odd, visitor);
+    }
+  }
+
   /**
    * Performs a range search of the points in the index and visits all nodes found.
    * 
@@ -315,6 +484,10 @@ public class KdTree {
    * @param a visitor to visit all nodes found by the search
    */
   public void query(Envelope queryEnv, KdNodeVisitor visitor) {
+    if (flatTree != null) {
+      queryFlat(0, queryEnv, true, visitor);
+      return;
+    }
     queryNode(root, queryEnv, true, visitor);
   }
   
@@ -340,7 +513,7 @@ public class KdTree {
    *          a list to accumulate the result nodes into
    */
   public void query(Envelope queryEnv, final List result) {
-    queryNode(root, queryEnv, true, new KdNodeVisitor() {
+    query(queryEnv, new KdNodeVisitor() {
 
       public void visit(KdNode node) {
         result.add(node);
@@ -348,4 +521,131 @@ public class KdTree {
       
     });
   }
-}
\ No newline at end of file
+
+  /**
+   * A balanced kd-tree of a set of points, 
+   * with the nodes stored in flat arrays in preorder.
+   * Each node is split at the median of its points,
+   * with points equal to the node ordinate in the right subtree.
+   */
+  private static class FlatTree {
+    double[] xy;
+    int[] left;
+    int[] right;
+    /**
+     * The index of the input point of each node
+     */
+    int[] point;
+    private int size = 0;
+
+    private int matchNode;
+    private double matchDist;
+
+    FlatTree(double[] ptXY, int[] ptIndex, int numPts) {
+      xy = new double[2 * numPts];
+      left = new int[numPts];
+      right = new int[numPts];
+      point = new int[numPts];
+      build(ptXY, ptIndex, 0, numPts, 0);
+    }
+
+    private int build(double[] ptXY, int[] ptIndex, int start, int end, int dim) {
+      if (start >= end)
+        return -1;
+      int split = select(ptXY, ptIndex, start, end, (start + end) >>> 1, dim);
+      int node = size++;
+      int i = ptIndex[split];
+      xy[2 * node] = ptXY[2 * i];
+      xy[2 * node + 1] = ptXY[2 * i + 1];
+      point[node] = i;
+      left[node] = build(ptXY, ptIndex, start, split, 1 - dim);
+      right[node] = build(ptXY, ptIndex, split + 1, end, 1 - dim);
+      return node;
+    }
+
+    /**
+     * Partitions a range of points around the k'th smallest ordinate value,
+     * using three-way quickselect.
+     * 
+     * @return the first index in the range whose point has the k'th value,
+     * with all points before it having smaller values
+     */
+    private static int select(double[] ptXY, int[] ptIndex, int start, int end, int k, int dim) {
+      int lo = start;
+      int hi = end - 1;
+      while (true) {
+        double pivot = ptXY[2 * ptIndex[(lo + hi) >>> 1] + dim];
+        int lt = lo;
+        int gt = hi;
+        int i = lo;
+        while (i <= gt) {
+          double val = ptXY[2 * ptIndex[i] + dim];
+          if (val < pivot)
+            swap(ptIndex, lt++, i++);
+          else if (val > pivot)
+            swap(ptIndex, i, gt--);
+          else
+            i++;
+        }
+        if (k < lt)
+          hi = lt - 1;
+        else if (k > gt)
+          lo = gt + 1;
+        else
+          return lt;
+      }
+    }
+
+    private static void swap(int[] a, int i, int j) {
+      int tmp = a[i];
+      a[i] = a[j];
+      a[j] = tmp;
+    }
+
+    /**
+     * Finds the best matching node for a point, 
+     * using the same rule as {@link BestMatchVisitor}.
+     * 
+     * @param isKept the nodes which may be matched
+     * @return the matching node, or -1 if none was found
+     */
+    int findBestMatch(double x, double y, double tolerance, boolean[] isKept) {
+      matchNode = -1;
+      matchDist = 0.0;
+      findBestMatch(0, true, x, y, tolerance, isKept);
+      return matchNode;
+    }
+
+    private void findBestMatch(int node, boolean odd, double x, double y, double tolerance, boolean[] isKept) {
+      if (node < 0)
+        return;
+      double nodeX = xy[2 * node];
+      double nodeY = xy[2 * node + 1];
+      double val = odd ? x : y;
+      double discriminant = odd ? nodeX : nodeY;
+      if (val - tolerance < discriminant) {
+        findBestMatch(left[node], ! odd, x, y, tolerance, isKept);
+      }
+      if (isKept[node]
+          && x - tolerance <= nodeX && nodeX <= x + tolerance
+          && y - tolerance <= nodeY && nodeY <= y + tolerance) {
+        double dx = x - nodeX;
+        double dy = y - nodeY;
+        double dist = Math.sqrt(dx * dx + dy * dy);
+        if (dist <= tolerance
+            && (matchNode < 0 || dist < matchDist
+                || (dist == matchDist && ! isGreater(nodeX, nodeY, xy[2 * matchNode], xy[2 * matchNode + 1])))) {
+          matchNode = node;
+          matchDist = dist;
+        }
+      }
+      if (discriminant <= val + tolerance) {
+        findBestMatch(right[node], ! odd, x, y, tolerance, isKept);
+      }
+    }
+
+    private static boolean isGreater(double x0, double y0, double x1, double y1) {
+      return x0 > x1 || (x0 == x1 && y0 > y1);
+    }
+  }
+}
@@ -40,7 +40,6 @@ class BoundablePair
   private Boundable boundable2;
   private double distance;
   private ItemDistance itemDistance;
-  //private double maxDistance = -1.0;
   
   public BoundablePair(Boundable boundable1, Boundable boundable2, ItemDistance itemDistance)
   {
@@ -85,34 +84,34 @@ class BoundablePair
   }
 
   
-  /*
-  public double getMaximumDistance()
-  {
-  	if (maxDistance < 0.0)
-  		maxDistance = maxDistance();
-  	return maxDistance;
-  }
-  */
-  
-  /*
-  private double maxDistance()
+  /**
+   * Computes the maximum distance between any
+   * two items in the pair of nodes.
+   * 
+   * @return the maximum distance between items in the pair
+   */
+  public double maximumDistance()
   {
     return maximumDistance( 
         (Envelope) boundable1.getBounds(),
         (Envelope) boundable2.getBounds());      	
   }
   
+  /**
+   * Computes the maximum distance between any points
+   * in two envelopes, which is the length of the diagonal
+   * of their combined extent.
+   */
   private static double maximumDistance(Envelope env1, Envelope env2)
   {
-  	double minx = Math.min(env1.getMinX(), env2.getMinX());
-  	double miny = Math.min(env1.getMinY(), env2.getMinY());
-  	double maxx = Math.max(env1.getMaxX(), env2.getMaxX());
-  	double maxy = Math.max(env1.getMaxY(), env2.getMaxY());
-    Coordinate min = new Coordinate(minx, miny);
-    Coordinate max = new Coordinate(maxx, maxy);
-    return min.distance(max);
+    double minx = Math.min(env1.getMinX(), env2.getMinX());
+    double miny = Math.min(env1.getMinY(), env2.getMinY());
+    double maxx = Math.max(env1.getMaxX(), env2.getMaxX());
+    double maxy = Math.max(env1.getMaxY(), env2.getMaxY());
+    double dx = maxx - minx;
+    double dy = maxy - miny;
+    return Math.sqrt(dx * dx + dy * dy);
   }
-  */
   
   /**
    * Gets the minimum possible distance between the Boundables in
@@ -305,6 +305,92 @@ implements SpatialIndex, Serializable
     return nearestNeighbour(bp);
   }
   
+  /**
+   * Tests whether some two items from this tree and another tree
+   * lie within a given distance,
+   * using {@link ItemDistance} as the distance metric.
+   * A Branch-and-Bound tree traversal algorithm is used
+   * to provide an efficient search.
+   * The search terminates as soon as a pair of nodes is found 
+   * whose items must all lie within the distance,
+   * or the closest remaining pair is further than the distance.
+   * 
+   * @param tree another tree
+   * @param itemDist a distance metric applicable to the items in the trees
+   * @param maxDistance the distance limit for the search
+   * @return true if there are items within the distance
+   */
+  public boolean isWithinDistance(STRtree tree, ItemDistance itemDist, double maxDistance)
+  {
+    BoundablePair bp = new BoundablePair(this.getRoot(), tree.getRoot(), itemDist);
+    return isWithinDistance(bp, maxDistance);
+  }
+  
+  private boolean isWithinDistance(BoundablePair initBndPair, double maxDistance) 
+  {
+    double distanceUpperBound = Double.POSITIVE_INFINITY;
+    
+    // initialize search queue
+    PriorityQueue priQ = new PriorityQueue();
+    priQ.add(initBndPair);
+
+    while (! priQ.isEmpty()) {
+      // pop head of queue and expand one side of pair
+      BoundablePair bndPair = (BoundablePair) priQ.poll();
+      double pairDistance = bndPair.getDistance();
+      
+      /**
+       * If the distance for the first pair in the queue
+       * is > maxDistance, all other pairs
+       * in the queue must have a greater distance as well.
+       * So can conclude no items are within the distance
+       * and terminate with result = false
+       */
+      if (pairDistance > maxDistance) 
+        return false;  
+
+      /**
+       * If the maximum distance between the nodes
+       * is less than the maxDistance,
+       * than all items in the nodes must be 
+       * closer than the max distance.
+       * Then can terminate with result = true.
+       * 
+       * NOTE: using Envelope MinMaxDistance 
+       * would provide a tighter bound,
+       * but not sure how to compute this!
+       */
+      if (bndPair.maximumDistance() <= maxDistance)
+        return true;
+      
+      /**
+       * If the pair items are leaves
+       * then their actual distance is an upper bound.
+       * Update the distanceUpperBound to reflect this
+       */
+      if (bndPair.isLeaves()) {
+        // assert: currentDistance < minimumDistanceFound
+        distanceUpperBound = pairDistance;
+        
+        /**
+         * If the items are closer than maxDistance
+         * can terminate with result = true.
+         */
+        if (distanceUpperBound <= maxDistance)
+          return true;
+      }
+      else {
+        /**
+         * Otherwise, expand one side of the pair,
+         * and insert the expanded pairs into the queue.
+         * The choice of which side to expand is determined heuristically.
+         */
+        bndPair.expandToQueue(priQ, distanceUpperBound);
+      }
+    }
+    return false;
+  }
+  
   private Object[] nearestNeighbour(BoundablePair initBndPair) 
   {
     return nearestNeighbour(initBndPair, Double.POSITIVE_INFINITY);
@@ -0,0 +1,296 @@
+/*
+ * The JTS Topology Suite is a collection of Java classes that
+ * implement the fundamental operations required to validate a given
+ * geo-spatial data set to a known topological specification.
+ *
+ * Copyright (C) 2016 Vivid Solutions
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * (http://www.eclipse.org/legal/epl-v10.html), and the Vivid Solutions BSD
+ * License v1.0 (found at the root of the repository).
+ *
+ */
+package org.locationtech.jts.index.strtree;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+import org.locationtech.jts.geom.Envelope;
+import org.locationtech.jts.util.PriorityQueue;
+
+/**
+ * Finds, for every item in one {@link STRtree},
+ * the nearest item in another {@link STRtree},
+ * using an {@link ItemDistance} as the distance metric.
+ * Optionally only neighbours within a maximum distance are reported.
+ * <p>
+ * The join is computed by a simultaneous traversal of both trees.
+ * Each node of the first tree carries a list of candidate nodes
+ * of the second tree, which is pruned using envelope distance bounds
+ * and refined as the traversal descends.
+ * A Branch-and-Bound search over the remaining candidates
+ * determines the nearest neighbour of each item.
+ * The subtrees of the first tree can be processed in parallel.
+ * <p>
+ * The distance metric must be consistent with the item envelopes
+ * (i.e. the distance between two items lies between the minimum and maximum
+ * distance of their envelopes), which is the case for geometric distances.
+ *
+ * @see STRtree#nearestNeighbour(STRtree, ItemDistance)
+ */
+public class STRtreeNearestNeighbourJoin
+{
+  private final STRtree treeA;
+  private final STRtree treeB;
+  private final ItemDistance itemDist;
+  private double maxDistance = Double.POSITIVE_INFINITY;
+  private boolean isParallel = false;
+
+  /**
+   * Creates a new join of two trees.
+   *
+   * @param treeA the tree whose items are to be matched
+   * @param treeB the tree to find nearest neighbours in
+   * @param itemDist a distance metric applicable to the items in the trees
+   */
+  public STRtreeNearestNeighbourJoin(STRtree treeA, STRtree treeB, ItemDistance itemDist)
+  {
+    this.treeA = treeA;
+    this.treeB = treeB;
+    this.itemDist = itemDist;
+  }
+
+  /**
+   * Sets the maximum distance for a neighbour to be reported.
+   * Items which have no neighbour within this distance are omitted
+   * from the result.
+   * The default is unbounded.
+   *
+   * @param maxDistance the maximum neighbour distance
+   */
+  public void setMaxDistance(double maxDistance)
+  {
+    this.maxDistance = maxDistance;
+  }
+
+  /**
+   * Sets whether the join is computed in parallel.
+   * This requires the item distance metric to be thread-safe.
+   * The default is <code>false</code>.
+   *
+   * @param isParallel true if the join should be computed in parallel
+   */
+  public void setParallel(boolean isParallel)
+  {
+    this.isParallel = isParallel;
+  }
+
+  /**
+   * Computes the nearest neighbour pairs.
+   * Each pair is an array containing an item from the first tree
+   * and its nearest item from the second tree.
+   * The pairs are in the order of the items in the first tree.
+   *
+   * @return a List of Object[2] arrays
+   */
+  public List getPairs()
+  {
+    if (treeA.isEmpty() || treeB.isEmpty())
+      return new ArrayList();
+
+    List candidates = new ArrayList();
+    candidates.add(treeB.getRoot());
+    AbstractNode rootA = treeA.getRoot();
+    if (isParallel) {
+      return (List) ForkJoinPool.commonPool().invoke(new JoinTask(rootA, candidates));
+    }
+    List result = new ArrayList();
+    join(rootA, candidates, result);
+    return result;
+  }
+
+  private void join(Boundable nodeA, List candidates, List result)
+  {
+    if (nodeA instanceof ItemBoundable) {
+      nearest((ItemBoundable) nodeA, candidates, result);
+      return;
+    }
+    List childCands = refine(nodeA, candidates);
+    if (childCands == null) return;
+
+    List children = ((AbstractNode) nodeA).getChildBoundables();
+    for (Iterator i = children.iterator(); i.hasNext(); ) {
+      join((Boundable) i.next(), childCands, result);
+    }
+  }
+
+  /**
+   * Computes the candidates for the children of a node.
+   * Candidates which cannot contain the nearest neighbour
+   * of any item in the node are discarded,
+   * and candidates larger than the node are replaced by their children.
+   *
+   * @param nodeA a node of the first tree
+   * @param candidates the candidate boundables of the second tree
+   * @return the refined candidates, or null if there are none
+   */
+  private List refine(Boundable nodeA, List candidates)
+  {
+    Envelope envA = (Envelope) nodeA.getBounds();
+
+    /**
+     * Every item in nodeA has a neighbour in each candidate
+     * no further away than the maximum envelope distance,
+     * so the least such distance bounds the neighbour distance.
+     */
+    double bound = maxDistance;
+    for (Iterator i = candidates.iterator(); i.hasNext(); ) {
+      Envelope envB = (Envelope) ((Boundable) i.next()).getBounds();
+      double d = maximumDistance(envA, envB);
+      if (d < bound) bound = d;
+    }
+
+    List refined = new ArrayList();
+    double areaA = envA.getArea();
+    for (Iterator i = candidates.iterator(); i.hasNext(); ) {
+      Boundable cand = (Boundable) i.next();
+      Envelope envB = (Envelope) cand.getBounds();
+      if (envA.distance(envB) > bound) continue;
+
+      if (cand instanceof AbstractNode && envB.getArea() > areaA) {
+        List children = ((AbstractNode) cand).getChildBoundables();
+        for (Iterator j = children.iterator(); j.hasNext(); ) {
+          Boundable child = (Boundable) j.next();
+          if (envA.distance((Envelope) child.getBounds()) <= bound)
+            refined.add(child);
+        }
+      }
+      else {
+        refined.add(cand);
+      }
+    }
+    if (refined.isEmpty()) return null;
+    return refined;
+  }
+
+  /**
+   * Finds the nearest neighbour of an item among a set of candidates,
+   * using a Branch-and-Bound search.
+   * Since the queue is ordered by distance lower bounds,
+   * the first item removed from the queue is the nearest.
+   */
+  private void nearest(ItemBoundable itemA, List candidates, List result)
+  {
+    Envelope envA = (Envelope) itemA.getBounds();
+    PriorityQueue priQ = new PriorityQueue();
+    for (Iterator i = candidates.iterator(); i.hasNext(); ) {
+      addCandidate(itemA, envA, (Boundable) i.next(), priQ);
+    }
+
+    while (! priQ.isEmpty()) {
+      Candidate cand = (Candidate) priQ.poll();
+      if (cand.boundable instanceof ItemBoundable) {
+        result.add(new Object[] {
+            itemA.getItem(),
+            ((ItemBoundable) cand.boundable).getItem() });
+        return;
+      }
+      List children = ((AbstractNode) cand.boundable).getChildBoundables();
+      for (Iterator i = children.iterator(); i.hasNext(); ) {
+        addCandidate(itemA, envA, (Boundable) i.next(), priQ);
+      }
+    }
+  }
+
+  private void addCandidate(ItemBoundable itemA, Envelope envA, Boundable bnd, PriorityQueue priQ)
+  {
+    double d;
+    if (bnd instanceof ItemBoundable) {
+      d = itemDist.distance(itemA, (ItemBoundable) bnd);
+    }
+    else {
+      d = envA.distance((Envelope) bnd.getBounds());
+    }
+    if (d <= maxDistance)
+      priQ.add(new Candidate(bnd, d));
+  }
+
+  /**
+   * Computes the maximum distance between any points
+   * in two envelopes.
+   */
+  private static double maximumDistance(Envelope env1, Envelope env2)
+  {
+    double dx = Math.max(env1.getMaxX(), env2.getMaxX()) - Math.min(env1.getMinX(), env2.getMinX());
+    double dy = Math.max(env1.getMaxY(), env2.getMaxY()) - Math.min(env1.getMinY(), env2.getMinY());
+    return Math.sqrt(dx * dx + dy * dy);
+  }
+
+  /**
+   * A boundable of the second tree,
+   * ordered by its (lower bound) distance to the query item.
+   */
+  private static class Candidate
+    implements Comparable
+  {
+    final Boundable boundable;
+    final double distance;
+
+    Candidate(Boundable boundable, double distance)
+    {
+      this.boundable = boundable;
+      this.distance = distance;
+    }
+
+    public int compareTo(Object o)
+    {
+      Candidate other = (Candidate) o;
+      if (distance < other.distance) return -1;
+      if (distance > other.distance) return 1;
+      return 0;
+    }
+  }
+
+  /**
+   * Joins a subtree of the first tree,
+   * forking a task for each child node
+   * until the nodes above the leaf level are reached.
+   */
+  private class JoinTask
+    extends RecursiveTask
+  {
+    private final AbstractNode nodeA;
+    private final List candidates;
+
+    JoinTask(AbstractNode nodeA, List candidates)
+    {
+      this.nodeA = nodeA;
+      this.candidates = candidates;
+    }
+
+    protected Object compute()
+    {
+      List result = new ArrayList();
+      if (nodeA.getLevel() < 1) {
+        STRtreeNearestNeighbourJoin.this.join(nodeA, candidates, result);
+        return result;
+      }
+      List childCands = refine(nodeA, candidates);
+      if (childCands == null) return result;
+
+      List tasks = new ArrayList();
+      for (Iterator i = nodeA.getChildBoundables().iterator(); i.hasNext(); ) {
+        tasks.add(new JoinTask((AbstractNode) i.next(), childCands));
+      }
+      invokeAll(tasks);
+      for (Iterator i = tasks.iterator(); i.hasNext(); ) {
+        result.addAll((List) ((JoinTask) i.next()).join());
+      }
+      return result;
+    }
+  }
+}
@@ -0,0 +1,252 @@
+/*
+ * The JTS Topology Suite is a collection of Java classes that
+ * implement the fundamental operations required to validate a given
+ * geo-spatial data set to a known topological specification.
+ *
+ * Copyright (C) 2016 Vivid Solutions
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * (http://www.eclipse.org/legal/epl-v10.html), and the Vivid Solutions BSD
+ * License v1.0 (found at the root of the repository).
+ *
+ */
+
+package org.locationtech.jts.linearref;
+
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+import org.locationtech.jts.geom.Geometry;
+import org.locationtech.jts.geom.GeometryFactory;
+import org.locationtech.jts.geom.impl.PackedCoordinateSequenceFactory;
+
+/**
+ * Extracts the sublines for a batch of linear-referenced events
+ * (also known as dynamic segmentation of an event table).
+ * Each event is given by the index of a route
+ * and a start and end length index along it.
+ * The result for each event is the same as that computed by
+ * {@link LengthIndexedLine#extractLine(double, double)}
+ * (including the handling of negative and out-of-range indexes,
+ * and reversal when the end index is before the start index).
+ * <p>
+ * The events are grouped by route.
+ * For each route the cumulative lengths are computed once,
+ * and the event indexes are sorted and located in a single sweep along the route,
+ * rather than walking the route for every event.
+ * <p>
+ * By default the sublines are created with {@link PackedCoordinateSequenceFactory#DOUBLE_FACTORY}
+ * (and the precision model and SRID of their route),
+ * since this uses much less memory for large numbers of events.
+ * A different factory can be provided.
+ * The routes can also be processed in parallel.
+ */
+public class BatchLineExtractor
+{
+  /**
+   * The minimum number of events processed by a single parallel task
+   */
+  private static final int PARALLEL_THRESHOLD = 256;
+
+  private Geometry[] routes;
+  private GeometryFactory geomFact = null;
+  private boolean isParallel = false;
+
+  /**
+   * Creates a new extractor for a set of routes.
+   *
+   * @param routes the linear geometries to extract events from
+   */
+  public BatchLineExtractor(Geometry[] routes)
+  {
+    this.routes = routes;
+  }
+
+  /**
+   * Sets the factory used to create the extracted sublines.
+   * If this is not set, a factory using packed coordinate sequences
+   * is created for each route.
+   *
+   * @param geomFact the factory to use
+   */
+  public void setGeometryFactory(GeometryFactory geomFact)
+  {
+    this.geomFact = geomFact;
+  }
+
+  /**
+   * Sets whether the routes are processed in parallel.
+   * The default is <code>false</code>.
+   *
+   * @param isParallel true if the routes should be processed in parallel
+   */
+  public void setParallel(boolean isParallel)
+  {
+    this.isParallel = isParallel;
+  }
+
+  /**
+   * Extracts the sublines for a set of events.
+   *
+   * @param routeIndex the index of the route of each event
+   * @param startIndex the length index of the start of each event
+   * @param endIndex the length index of the end of each event
+   * @return the subline of each event, in input order
+   */
+  public Geometry[] extractLines(int[] routeIndex, double[] startIndex, double[] endIndex)
+  {
+    int n = routeIndex.length;
+    if (startIndex.length != n || endIndex.length != n)
+      throw new IllegalArgumentException("Event arrays must have the same length");
+
+    /**
+     * Group the events by route, using a counting sort.
+     * The events of route r are eventOrder[routeStart[r] .. routeStart[r+1]).
+     */
+    int[] routeStart = new int[routes.length + 1];
+    for (int i = 0; i < n; i++) {
+      int r = routeIndex[i];
+      if (r < 0 || r >= routes.length)
+        throw new IllegalArgumentException("Invalid route index: " + r);
+      routeStart[r + 1]++;
+    }
+    for (int r = 0; r < routes.length; r++) {
+      routeStart[r + 1] += routeStart[r];
+    }
+    int[] eventOrder = new int[n];
+    int[] next = Arrays.copyOf(routeStart, routes.length);
+    for (int i = 0; i < n; i++) {
+      eventOrder[next[routeIndex[i]]++] = i;
+    }
+
+    GeometryFactory[] routeFact = new GeometryFactory[routes.length];
+    for (int r = 0; r < routes.length; r++) {
+      if (routeStart[r + 1] > routeStart[r])
+        routeFact[r] = resultFactory(routes[r]);
+    }
+
+    Geometry[] result = new Geometry[n];
+    if (isParallel && n > PARALLEL_THRESHOLD) {
+      ForkJoinPool.commonPool().invoke(
+          new ExtractTask(routeStart, eventOrder, startIndex, endIndex, routeFact, result, 0, routes.length));
+    }
+    else {
+      extractLines(routeStart, eventOrder, startIndex, endIndex, routeFact, result, 0, routes.length);
+    }
+    return result;
+  }
+
+  private GeometryFactory resultFactory(Geometry route)
+  {
+    if (geomFact != null)
+      return geomFact;
+    GeometryFactory routeFact = route.getFactory();
+    return new GeometryFactory(routeFact.getPrecisionModel(), routeFact.getSRID(),
+        PackedCoordinateSequenceFactory.DOUBLE_FACTORY);
+  }
+
+  private void extractLines(int[] routeStart, int[] eventOrder,
+      double[] startIndex, double[] endIndex,
+      GeometryFactory[] routeFact, Geometry[] result,
+      int startRoute, int endRoute)
+  {
+    for (int r = startRoute; r < endRoute; r++) {
+      if (routeStart[r + 1] > routeStart[r])
+        extractRoute(r, eventOrder, routeStart[r], routeStart[r + 1],
+            startIndex, endIndex, routeFact[r], result);
+    }
+  }
+
+  /**
+   * Extracts the events of a single route.
+   * The event indexes are clamped in the same way as {@link LengthIndexedLine},
+   * then sorted so that their locations can be found in one sweep.
+   */
+  private void extractRoute(int r, int[] eventOrder, int start, int end,
+      double[] startIndex, double[] endIndex,
+      GeometryFactory fact, Geometry[] result)
+  {
+    Geometry route = routes[r];
+    LengthLocationIndex index = new LengthLocationIndex(route);
+    int numEvents = end - start;
+    double[] eventStart = new double[numEvents];
+    double[] eventEnd = new double[numEvents];
+    double[] lengths = new double[2 * numEvents];
+    for (int k = 0; k < numEvents; k++) {
+      int i = eventOrder[start + k];
+      eventStart[k] = clampIndex(startIndex[i], index.getLength());
+      eventEnd[k] = clampIndex(endIndex[i], index.getLength());
+      lengths[2 * k] = eventStart[k];
+      lengths[2 * k + 1] = eventEnd[k];
+    }
+    Arrays.sort(lengths);
+    LinearLocation[] locs = index.getLocations(lengths);
+
+    for (int k = 0; k < numEvents; k++) {
+      LinearLocation startLoc = locs[Arrays.binarySearch(lengths, eventStart[k])];
+      LinearLocation endLoc = locs[Arrays.binarySearch(lengths, eventEnd[k])];
+      // if extracted line is zero-length, resolve start lower as well to ensure they are equal
+      if (eventStart[k] != eventEnd[k])
+        startLoc = index.resolveHigher(startLoc);
+      result[eventOrder[start + k]] = ExtractLineByLocation.extract(route, startLoc, endLoc, fact);
+    }
+  }
+
+  /**
+   * Clamps an index to the range of a route,
+   * treating negative indexes as measured from the end.
+   *
+   * @see LengthIndexedLine#clampIndex(double)
+   */
+  private static double clampIndex(double index, double length)
+  {
+    double posIndex = index;
+    if (index < 0.0)
+      posIndex = length + index;
+    if (posIndex < 0.0) return 0.0;
+    if (posIndex > length) return length;
+    return posIndex;
+  }
+
+  private class ExtractTask
+    extends RecursiveAction
+  {
+    private final int[] routeStart;
+    private final int[] eventOrder;
+    private final double[] startIndex;
+    private final double[] endIndex;
+    private final GeometryFactory[] routeFact;
+    private final Geometry[] result;
+    private final int startRoute;
+    private final int endRoute;
+
+    ExtractTask(int[] routeStart, int[] eventOrder,
+        double[] startIndex, double[] endIndex,
+        GeometryFactory[] routeFact, Geometry[] result,
+        int startRoute, int endRoute)
+    {
+      this.routeStart = routeStart;
+      this.eventOrder = eventOrder;
+      this.startIndex = startIndex;
+      this.endIndex = endIndex;
+      this.routeFact = routeFact;
+      this.result = result;
+      this.startRoute = startRoute;
+      this.endRoute = endRoute;
+    }
+
+    protected void compute()
+    {
+      int numEvents = routeStart[endRoute] - routeStart[startRoute];
+      if (endRoute - startRoute <= 1 || numEvents <= PARALLEL_THRESHOLD) {
+        extractLines(routeStart, eventOrder, startIndex, endIndex, routeFact, result, startRoute, endRoute);
+        return;
+      }
+      int mid = (startRoute + endRoute) >>> 1;
+      invokeAll(new ExtractTask(routeStart, eventOrder, startIndex, endIndex, routeFact, result, startRoute, mid),
+          new ExtractTask(routeStart, eventOrder, startIndex, endIndex, routeFact, result, mid, endRoute));
+    }
+  }
+}
@@ -40,10 +40,34 @@ class ExtractLineByLocation
     return ls.extract(start, end);
   }
 
+  /**
+   * Computes the subline of a {@link LineString} between
+   * two {@link LinearLocation}s on the line,
+   * creating it with a given {@link GeometryFactory}.
+   *
+   * @param line the line to use as the baseline
+   * @param start the start location
+   * @param end the end location
+   * @param geomFact the factory to create the subline with
+   * @return the extracted subline
+   */
+  public static Geometry extract(Geometry line, LinearLocation start, LinearLocation end,
+      GeometryFactory geomFact)
+  {
+    ExtractLineByLocation ls = new ExtractLineByLocation(line, geomFact);
+    return ls.extract(start, end);
+  }
+
   private Geometry line;
+  private GeometryFactory geomFact;
 
   public ExtractLineByLocation(Geometry line) {
+    this(line, line.getFactory());
+  }
+
+  public ExtractLineByLocation(Geometry line, GeometryFactory geomFact) {
     this.line = line;
+    this.geomFact = geomFact;
   }
 
   /**
@@ -115,7 +139,7 @@ class ExtractLineByLocation
     if (newCoordinateArray.length <= 1) {
       newCoordinateArray = new Coordinate[] { newCoordinateArray[0], newCoordinateArray[0]};
     }
-    return line.getFactory().createLineString(newCoordinateArray);
+    return geomFact.createLineString(newCoordinateArray);
   }
 
   /**
@@ -127,7 +151,7 @@ class ExtractLineByLocation
    */
   private Geometry computeLinear(LinearLocation start, LinearLocation end)
   {
-    LinearGeometryBuilder builder = new LinearGeometryBuilder(line.getFactory());
+    LinearGeometryBuilder builder = new LinearGeometryBuilder(geomFact);
     builder.setFixInvalidLines(true);
 
     if (! start.isVertex())
@@ -0,0 +1,528 @@
+/*
+ * The JTS Topology Suite is a collection of Java classes that
+ * implement the fundamental operations required to validate a given
+ * geo-spatial data set to a known topological specification.
+ *
+ * Copyright (C) 2016 Vivid Solutions
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * (http://www.eclipse.org/legal/epl-v10.html), and the Vivid Solutions BSD
+ * License v1.0 (found at the root of the repository).
+ *
+ */
+
+package org.locationtech.jts.linearref;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.locationtech.jts.geom.Coordinate;
+import org.locationtech.jts.geom.Geometry;
+import org.locationtech.jts.geom.LineSegment;
+import org.locationtech.jts.util.Assert;
+
+/**
+ * Caches the cumulative lengths along a linear {@link Geometry},
+ * to map between length indexes and {@link LinearLocation}s
+ * using binary search rather than by scanning the geometry.
+ * The positions of a {@link LinearIterator} over the geometry are recorded
+ * (both segments and component endpoints),
+ * and the lengths are accumulated in the same order as {@link LengthLocationMap},
+ * so the results are identical.
+ * <p>
+ * The segments are also indexed in a tree of envelopes
+ * over runs of consecutive segments,
+ * to find the nearest point on the geometry to a given point
+ * with the same results as {@link LengthIndexOfPoint}.
+ * <p>
+ * The index is immutable once created, so may be queried by multiple threads.
+ */
+class LengthLocationIndex
+{
+  private static final int NODE_CAPACITY = 16;
+
+  private Geometry linearGeom;
+  private double length;
+
+  /**
+   * The iterator positions, in iteration order
+   */
+  private int size = 0;
+  private int[] componentIndex;
+  private int[] vertexIndex;
+  private boolean[] isEndOfLine;
+  /**
+   * The length along the geometry to the start of each position
+   */
+  private double[] startLength;
+  /**
+   * The length to the end of each segment (for endpoints, the start length)
+   */
+  private double[] endLength;
+  private double[] segLength;
+  /**
+   * The first position of each component (-1 if it has none)
+   */
+  private int[] componentStart;
+  private Coordinate[][] componentPts;
+
+  /**
+   * The bounds of the nodes of the segment index, for each level of the tree
+   */
+  private double[][] nodeBounds;
+
+  public LengthLocationIndex(Geometry linearGeom)
+  {
+    this.linearGeom = linearGeom;
+    length = linearGeom.getLength();
+    init();
+  }
+
+  private void init()
+  {
+    int capacity = linearGeom.getNumPoints() + linearGeom.getNumGeometries();
+    componentIndex = new int[capacity];
+    vertexIndex = new int[capacity];
+    isEndOfLine = new boolean[capacity];
+    startLength = new double[capacity];
+    endLength = new double[capacity];
+    segLength = new double[capacity];
+    componentStart = new int[linearGeom.getNumGeometries()];
+    Arrays.fill(componentStart, -1);
+    componentPts = new Coordinate[linearGeom.getNumGeometries()][];
+    for (int i = 0; i < componentPts.length; i++) {
+      componentPts[i] = linearGeom.getGeometryN(i).getCoordinates();
+    }
+
+    double totalLength = 0.0;
+    LinearIterator it = new LinearIterator(linearGeom);
+    while (it.hasNext()) {
+      int i = size++;
+      componentIndex[i] = it.getComponentIndex();
+      vertexIndex[i] = it.getVertexIndex();
+      isEndOfLine[i] = it.isEndOfLine();
+      if (componentStart[componentIndex[i]] < 0)
+        componentStart[componentIndex[i]] = i;
+      startLength[i] = totalLength;
+      if (! isEndOfLine[i]) {
+        Coordinate p0 = it.getSegmentStart();
+        Coordinate p1 = it.getSegmentEnd();
+        double segLen = p1.distance(p0);
+        segLength[i] = segLen;
+        totalLength += segLen;
+      }
+      endLength[i] = totalLength;
+      it.next();
+    }
+    buildNodeBounds();
+  }
+
+  public Geometry getGeometry()
+  {
+    return linearGeom;
+  }
+
+  /**
+   * Gets the length of the geometry.
+   *
+   * @return the length of the geometry
+   */
+  public double getLength()
+  {
+    return length;
+  }
+
+  /**
+   * Computes the {@link LinearLocation} for a length along the geometry.
+   *
+   * @param length the length index of the location
+   * @param resolveLower if true lengths are resolved to the lowest possible index
+   * @return the location
+   * @see LengthLocationMap#getLocation(double, boolean)
+   */
+  public LinearLocation getLocation(double length, boolean resolveLower)
+  {
+    double forwardLength = length;
+    // negative values are measured from end of geometry
+    if (length < 0.0) {
+      forwardLength = this.length + length;
+    }
+    LinearLocation loc = getLocationForward(forwardLength, 0);
+    if (resolveLower) {
+      return loc;
+    }
+    return resolveHigher(loc);
+  }
+
+  /**
+   * Computes the {@link LinearLocation}s for a sequence of increasing lengths,
+   * in a single sweep along the geometry.
+   * The locations are resolved to the lowest possible index.
+   * Each location is found by searching forward from the previous one,
+   * so the total cost is proportional to the number of lengths
+   * plus the distance swept, rather than a binary search for each length.
+   *
+   * @param lengths non-negative lengths, in increasing order
+   * @return the locations of the lengths
+   */
+  public LinearLocation[] getLocations(double[] lengths)
+  {
+    LinearLocation[] locs = new LinearLocation[lengths.length];
+    int from = 0;
+    for (int i = 0; i < lengths.length; i++) {
+      if (lengths[i] > 0.0)
+        from = firstEndLength(lengths[i], false, from);
+      locs[i] = getLocationForward(lengths[i], from);
+    }
+    return locs;
+  }
+
+  /**
+   * Resolves a location at the end of a component
+   * to the start of the following non-empty component, if any.
+   *
+   * @param loc the location to resolve
+   * @return the highest location equivalent to the given one
+   */
+  public LinearLocation resolveHigher(LinearLocation loc)
+  {
+    return new LengthLocationMap(linearGeom).resolveHigher(loc);
+  }
+
+  /**
+   * Finds the location at a length,
+   * given a position before the first segment ending at the length.
+   */
+  private LinearLocation getLocationForward(double length, int from)
+  {
+    if (length <= 0.0)
+      return new LinearLocation();
+    /**
+     * The location is at the first segment ending after the length,
+     * unless a component endpoint at exactly the length precedes it.
+     * The end lengths are non-decreasing, so both can be found by searching.
+     */
+    int first = firstEndLength(length, false, from);
+    int after = firstEndLength(length, true, first);
+    for (int i = first; i < after; i++) {
+      if (isEndOfLine[i])
+        return new LinearLocation(componentIndex[i], vertexIndex[i], 0.0);
+    }
+    if (after < size) {
+      double frac = (length - startLength[after]) / segLength[after];
+      return new LinearLocation(componentIndex[after], vertexIndex[after], frac);
+    }
+    // length is longer than line - return end location
+    return LinearLocation.getEndLocation(linearGeom);
+  }
+
+  /**
+   * Finds the first position at or after a given one
+   * whose end length is greater than (or equal to, if not strict) a length.
+   * The search gallops forward from the starting position,
+   * so it is fast when the result is close to it.
+   */
+  private int firstEndLength(double length, boolean isStrict, int from)
+  {
+    int lo = from;
+    int hi = from;
+    int step = 1;
+    while (hi < size && ! isAfter(hi, length, isStrict)) {
+      lo = hi + 1;
+      hi += step;
+      step *= 2;
+    }
+    if (hi > size)
+      hi = size;
+    while (lo < hi) {
+      int mid = (lo + hi) >>> 1;
+      if (isAfter(mid, length, isStrict))
+        hi = mid;
+      else
+        lo = mid + 1;
+    }
+    return lo;
+  }
+
+  private boolean isAfter(int i, double length, boolean isStrict)
+  {
+    return isStrict ? endLength[i] > length : endLength[i] >= length;
+  }
+
+  private Coordinate segmentStart(int i)
+  {
+    return componentPts[componentIndex[i]][vertexIndex[i]];
+  }
+
+  private Coordinate segmentEnd(int i)
+  {
+    return componentPts[componentIndex[i]][vertexIndex[i] + 1];
+  }
+
+  /**
+   * Computes the length along the geometry to a {@link LinearLocation}.
+   *
+   * @param loc the location
+   * @return the length index of the location
+   * @see LengthLocationMap#getLength(LinearLocation)
+   */
+  public double getLength(LinearLocation loc)
+  {
+    int comp = loc.getComponentIndex();
+    if (comp >= 0 && comp < componentStart.length && componentStart[comp] >= 0) {
+      int i = componentStart[comp] + loc.getSegmentIndex();
+      if (loc.getSegmentIndex() >= 0 && i < size
+          && componentIndex[i] == comp && ! isEndOfLine[i]) {
+        return startLength[i] + segLength[i] * loc.getSegmentFraction();
+      }
+    }
+    // locations not on a segment map to the total length of the segments
+    return size == 0 ? 0.0 : endLength[size - 1];
+  }
+
+  /**
+   * Computes the length index of the point on the geometry nearest a given point.
+   * If there are several nearest points, the one with the lowest index is returned.
+   *
+   * @param pt the point to locate
+   * @return the length index of the nearest point, or -1 if the geometry has no segments
+   * @see LengthIndexOfPoint#indexOf(Coordinate)
+   */
+  public double indexOf(Coordinate pt)
+  {
+    return indexOfFromStart(pt, -1.0);
+  }
+
+  /**
+   * Computes the length index of the point on the geometry nearest a given point,
+   * after a minimum index.
+   *
+   * @param pt the point to locate
+   * @param minIndex the minimum index for the point
+   * @return the length index of the nearest point
+   * @see LengthIndexOfPoint#indexOfAfter(Coordinate, double)
+   */
+  public double indexOfAfter(Coordinate pt, double minIndex)
+  {
+    if (minIndex < 0.0) return indexOf(pt);
+
+    // sanity check for minIndex at or past end of line
+    if (length < minIndex)
+      return length;
+
+    double closestAfter = indexOfFromStart(pt, minIndex);
+    Assert.isTrue(closestAfter >= minIndex,
+                  "computed index is before specified minimum index");
+    return closestAfter;
+  }
+
+  /**
+   * Finds the nearest segment to a point
+   * whose nearest point is after a minimum index.
+   * The segments are searched in order,
+   * skipping nodes of the envelope tree which are further from the point
+   * than the nearest segment found so far.
+   * Segments at the same distance are resolved to the first one,
+   * so the result is the same as scanning every segment.
+   */
+  private double indexOfFromStart(Coordinate pt, double minIndex)
+  {
+    NearestSegmentSearch search = new NearestSegmentSearch(pt, minIndex);
+    if (size > 0) {
+      // segments ending before the minimum index cannot contain the point
+      search.firstPos = firstEndLength(minIndex, true, 0);
+      search.seed();
+      search.search(nodeBounds.length - 1, 0);
+    }
+    if (search.nearest < 0)
+      return minIndex;
+    return search.nearestLength;
+  }
+
+  private double segmentNearestLength(int i, Coordinate pt)
+  {
+    LineSegment seg = segment(i);
+    double projFactor = seg.projectionFactor(pt);
+    if (projFactor <= 0.0)
+      return startLength[i];
+    if (projFactor <= 1.0)
+      return startLength[i] + projFactor * seg.getLength();
+    // projFactor > 1.0
+    return startLength[i] + seg.getLength();
+  }
+
+  private LineSegment segment(int i)
+  {
+    return new LineSegment(segmentStart(i), segmentEnd(i));
+  }
+
+  /**
+   * Builds a tree of envelopes over the positions.
+   * Each node covers {@link #NODE_CAPACITY} consecutive nodes of the level below,
+   * and the leaves cover consecutive positions.
+   * Since consecutive segments of a line are close together,
+   * this is an effective spatial index which is cheap to build.
+   * The bounds of each level are stored as (minX, minY, maxX, maxY) for each node.
+   */
+  private void buildNodeBounds()
+  {
+    int levelSize = (size + NODE_CAPACITY - 1) / NODE_CAPACITY;
+    double[] bounds = new double[4 * Math.max(levelSize, 1)];
+    for (int node = 0; node < levelSize; node++) {
+      initBounds(bounds, node);
+      int end = Math.min(size, (node + 1) * NODE_CAPACITY);
+      for (int i = node * NODE_CAPACITY; i < end; i++) {
+        if (isEndOfLine[i])
+          continue;
+        expandBounds(bounds, node, segmentStart(i));
+        expandBounds(bounds, node, segmentEnd(i));
+      }
+    }
+    if (levelSize == 0)
+      initBounds(bounds, 0);
+    List levels = new ArrayList();
+    levels.add(bounds);
+    while (levelSize > 1) {
+      double[] child = bounds;
+      int childSize = levelSize;
+      levelSize = (childSize + NODE_CAPACITY - 1) / NODE_CAPACITY;
+      bounds = new double[4 * levelSize];
+      for (int node = 0; node < levelSize; node++) {
+        initBounds(bounds, node);
+        int end = Math.min(childSize, (node + 1) * NODE_CAPACITY);
+        for (int c = node * NODE_CAPACITY; c < end; c++) {
+          bounds[4 * node] = Math.min(bounds[4 * node], child[4 * c]);
+          bounds[4 * node + 1] = Math.min(bounds[4 * node + 1], child[4 * c + 1]);
+          bounds[4 * node + 2] = Math.max(bounds[4 * node + 2], child[4 * c + 2]);
+          bounds[4 * node + 3] = Math.max(bounds[4 * node + 3], child[4 * c + 3]);
+        }
+      }
+      levels.add(bounds);
+    }
+    nodeBounds = (double[][]) levels.toArray(new double[levels.size()][]);
+  }
+
+  private static void initBounds(double[] bounds, int node)
+  {
+    bounds[4 * node] = Double.POSITIVE_INFINITY;
+    bounds[4 * node + 1] = Double.POSITIVE_INFINITY;
+    bounds[4 * node + 2] = Double.NEGATIVE_INFINITY;
+    bounds[4 * node + 3] = Double.NEGATIVE_INFINITY;
+  }
+
+  private static void expandBounds(double[] bounds, int node, Coordinate p)
+  {
+    bounds[4 * node] = Math.min(bounds[4 * node], p.x);
+    bounds[4 * node + 1] = Math.min(bounds[4 * node + 1], p.y);
+    bounds[4 * node + 2] = Math.max(bounds[4 * node + 2], p.x);
+    bounds[4 * node + 3] = Math.max(bounds[4 * node + 3], p.y);
+  }
+
+  /**
+   * Computes the distance from a point to the bounds of a node
+   * (which is infinite if the node contains no segments).
+   */
+  private static double boundsDistance(double[] bounds, int node, Coordinate p)
+  {
+    double minX = bounds[4 * node];
+    if (minX == Double.POSITIVE_INFINITY)
+      return Double.POSITIVE_INFINITY;
+    double dx = Math.max(0.0, Math.max(minX - p.x, p.x - bounds[4 * node + 2]));
+    double dy = Math.max(0.0, Math.max(bounds[4 * node + 1] - p.y, p.y - bounds[4 * node + 3]));
+    return Math.sqrt(dx * dx + dy * dy);
+  }
+
+  /**
+   * A branch-and-bound search for the segment nearest a point.
+   */
+  private class NearestSegmentSearch
+  {
+    private Coordinate pt;
+    private double minIndex;
+    int firstPos = 0;
+    int nearest = -1;
+    double minDistance = Double.MAX_VALUE;
+    double nearestLength;
+    /**
+     * The distance beyond which nodes are skipped,
+     * allowing for rounding error in the distances
+     */
+    private double searchDistance = Double.POSITIVE_INFINITY;
+
+    NearestSegmentSearch(Coordinate pt, double minIndex)
+    {
+      this.pt = pt;
+      this.minIndex = minIndex;
+    }
+
+    /**
+     * Checks the leaf reached by descending to the nearest child at each level,
+     * to obtain a close initial distance bound.
+     */
+    void seed()
+    {
+      int node = 0;
+      for (int level = nodeBounds.length - 1; level > 0; level--) {
+        double[] child = nodeBounds[level - 1];
+        int end = Math.min(child.length / 4, (node + 1) * NODE_CAPACITY);
+        int nearestChild = node * NODE_CAPACITY;
+        double nearestDist = Double.POSITIVE_INFINITY;
+        for (int c = node * NODE_CAPACITY; c < end; c++) {
+          double dist = boundsDistance(child, c, pt);
+          if (dist < nearestDist) {
+            nearestChild = c;
+            nearestDist = dist;
+          }
+        }
+        node = nearestChild;
+      }
+      checkLeaf(node);
+    }
+
+    void search(int level, int node)
+    {
+      if (level == 0) {
+        checkLeaf(node);
+        return;
+      }
+      double[] child = nodeBounds[level - 1];
+      int end = Math.min(child.length / 4, (node + 1) * NODE_CAPACITY);
+      for (int c = node * NODE_CAPACITY; c < end; c++) {
+        if (lastPosition(level - 1, c) < firstPos)
+          continue;
+        if (boundsDistance(child, c, pt) <= searchDistance)
+          search(level - 1, c);
+      }
+    }
+
+    private int lastPosition(int level, int node)
+    {
+      long span = 1;
+      for (int i = 0; i <= level; i++) {
+        span *= NODE_CAPACITY;
+      }
+      return (int) Math.min(size - 1, (node + 1) * span - 1);
+    }
+
+    private void checkLeaf(int node)
+    {
+      int end = Math.min(size, (node + 1) * NODE_CAPACITY);
+      for (int i = Math.max(firstPos, node * NODE_CAPACITY); i < end; i++) {
+        if (isEndOfLine[i])
+          continue;
+        double dist = segment(i).distance(pt);
+        if (dist < minDistance || (dist == minDistance && i < nearest)) {
+          double segLength = segmentNearestLength(i, pt);
+          if (segLength > minIndex) {
+            nearest = i;
+            minDistance = dist;
+            nearestLength = segLength;
+            searchDistance = dist + 1e-9 * (dist + Math.abs(pt.x) + Math.abs(pt.y));
+          }
+        }
+      }
+    }
+  }
+}
@@ -165,7 +165,7 @@ public class LengthLocationMap
     return LinearLocation.getEndLocation(linearGeom);
   }
 
-  private LinearLocation resolveHigher(LinearLocation loc)
+  LinearLocation resolveHigher(LinearLocation loc)
   {
     if (! loc.isEndpoint(linearGeom)) 
       return loc;
@@ -0,0 +1,125 @@
+/*
+ * The JTS Topology Suite is a collection of Java classes that
+ * implement the fundamental operations required to validate a given
+ * geo-spatial data set to a known topological specification.
+ *
+ * Copyright (C) 2016 Vivid Solutions
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * (http://www.eclipse.org/legal/epl-v10.html), and the Vivid Solutions BSD
+ * License v1.0 (found at the root of the repository).
+ *
+ */
+
+package org.locationtech.jts.linearref;
+
+import org.locationtech.jts.geom.Coordinate;
+import org.locationtech.jts.geom.Geometry;
+
+/**
+ * A {@link LengthIndexedLine} which is optimized
+ * for repeated operations on the same linear {@link Geometry}
+ * (for instance, projecting many points onto a route).
+ * <p>
+ * The cumulative length to each vertex is cached,
+ * so locations are found by binary search
+ * instead of by scanning the line.
+ * The segments are indexed by their envelopes,
+ * so projecting a point only checks the segments near it.
+ * The results are the same as those of {@link LengthIndexedLine}.
+ * <p>
+ * The geometry must not be modified after this object is created.
+ * Instances may be used by multiple threads concurrently.
+ */
+public class PreparedLengthIndexedLine
+    extends LengthIndexedLine
+{
+  private Geometry linearGeom;
+  private LengthLocationIndex index;
+
+  /**
+   * Constructs an object which allows a linear {@link Geometry}
+   * to be linearly referenced using length as an index.
+   *
+   * @param linearGeom the linear geometry to reference along
+   */
+  public PreparedLengthIndexedLine(Geometry linearGeom) {
+    super(linearGeom);
+    this.linearGeom = linearGeom;
+    index = new LengthLocationIndex(linearGeom);
+  }
+
+  public Coordinate extractPoint(double index)
+  {
+    LinearLocation loc = locationOf(index);
+    return loc.getCoordinate(linearGeom);
+  }
+
+  public Coordinate extractPoint(double index, double offsetDistance)
+  {
+    LinearLocation loc = locationOf(index);
+    LinearLocation locLow = loc.toLowest(linearGeom);
+    return locLow.getSegment(linearGeom).pointAlongOffset(locLow.getSegmentFraction(), offsetDistance);
+  }
+
+  public Geometry extractLine(double startIndex, double endIndex)
+  {
+    double startIndex2 = clampIndex(startIndex);
+    double endIndex2 = clampIndex(endIndex);
+    // if extracted line is zero-length, resolve start lower as well to ensure they are equal
+    boolean resolveStartLower = startIndex2 == endIndex2;
+    LinearLocation startLoc = index.getLocation(startIndex2, resolveStartLower);
+    LinearLocation endLoc = locationOf(endIndex2);
+    return ExtractLineByLocation.extract(linearGeom, startLoc, endLoc);
+  }
+
+  private LinearLocation locationOf(double index)
+  {
+    return this.index.getLocation(index, true);
+  }
+
+  public double indexOf(Coordinate pt)
+  {
+    return index.indexOf(pt);
+  }
+
+  public double indexOfAfter(Coordinate pt, double minIndex)
+  {
+    return index.indexOfAfter(pt, minIndex);
+  }
+
+  public double[] indicesOf(Geometry subLine)
+  {
+    LinearLocation[] locIndex = LocationIndexOfLine.indicesOf(linearGeom, subLine);
+    double[] indices = new double[] {
+      index.getLength(locIndex[0]),
+      index.getLength(locIndex[1])
+      };
+    return indices;
+  }
+
+  public double project(Coordinate pt)
+  {
+    return index.indexOf(pt);
+  }
+
+  public double getEndIndex()
+  {
+    return index.getLength();
+  }
+
+  public double clampIndex(double index)
+  {
+    double posIndex = index;
+    if (index < 0.0)
+      posIndex = getEndIndex() + index;
+    double startIndex = getStartIndex();
+    if (posIndex < startIndex) return startIndex;
+
+    double endIndex = getEndIndex();
+    if (posIndex > endIndex) return endIndex;
+
+    return posIndex;
+  }
+}
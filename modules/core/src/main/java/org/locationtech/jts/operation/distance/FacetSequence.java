@@ -14,13 +14,22 @@
 
 package org.locationtech.jts.operation.distance;
 
-import org.locationtech.jts.algorithm.CGAlgorithms;
 import org.locationtech.jts.geom.*;
+import org.locationtech.jts.geom.impl.PackedCoordinateSequence;
 
 /**
  * Represents a sequence of facets (points or line segments)
  * of a {@link Geometry}
  * specified by a subsequence of a {@link CoordinateSequence}.
+ * <p>
+ * Distances are computed directly on the ordinate values
+ * of the sequence, without materializing {@link Coordinate}s.
+ * The ordinate array of a {@link PackedCoordinateSequence.Double}
+ * is read directly.
+ * Squared distances are used internally, and segment pairs whose envelopes
+ * are further apart than the current minimum distance are skipped.
+ * No objects are allocated during a distance computation,
+ * so a FacetSequence may be used by concurrent distance computations.
  * 
  * @author Martin Davis
  *
@@ -31,9 +40,15 @@ public class FacetSequence
   private int start;
   private int end;
   
-  // temporary Coordinates to materialize points from the CoordinateSequence
-  private Coordinate pt = new Coordinate();
-  private Coordinate seqPt = new Coordinate();
+  // the raw ordinates of the sequence, if available
+  private double[] ords = null;
+  private int dim;
+  
+  // the bounds of the facet sequence
+  private double minx;
+  private double miny;
+  private double maxx;
+  private double maxy;
   
   /**
    * Creates a new section based on a CoordinateSequence.
@@ -47,6 +62,7 @@ public class FacetSequence
     this.pts = pts;
     this.start = start;
     this.end = end;
+    init();
   }
   
   /**
@@ -57,18 +73,45 @@ public class FacetSequence
    */
   public FacetSequence(CoordinateSequence pts, int start) 
   {
-    this.pts = pts;
-    this.start = start;
-    this.end = start + 1;
+    this(pts, start, start + 1);
   }
   
-  public Envelope getEnvelope()
+  private void init()
   {
-    Envelope env = new Envelope();
+    if (pts instanceof PackedCoordinateSequence.Double) {
+      ords = ((PackedCoordinateSequence.Double) pts).getRawCoordinates();
+      dim = pts.getDimension();
+    }
+    minx = Double.POSITIVE_INFINITY;
+    miny = Double.POSITIVE_INFINITY;
+    maxx = Double.NEGATIVE_INFINITY;
+    maxy = Double.NEGATIVE_INFINITY;
     for (int i = start; i < end; i++) {
-      env.expandToInclude(pts.getX(i), pts.getY(i));
+      double x = x(i);
+      double y = y(i);
+      if (x < minx) minx = x;
+      if (x > maxx) maxx = x;
+      if (y < miny) miny = y;
+      if (y > maxy) maxy = y;
     }
-    return env;
+  }
+  
+  private double x(int i)
+  {
+    if (ords != null) return ords[i * dim];
+    return pts.getX(i);
+  }
+  
+  private double y(int i)
+  {
+    if (ords != null) return ords[i * dim + 1];
+    return pts.getY(i);
+  }
+  
+  public Envelope getEnvelope()
+  {
+    if (end <= start) return new Envelope();
+    return new Envelope(minx, maxx, miny, maxy);
   }
   
   public int size()
@@ -86,84 +129,196 @@ public class FacetSequence
     return end - start == 1;
   }
   
-
   public double distance(FacetSequence facetSeq)
+  {
+    return Math.sqrt(distanceSq(facetSeq));
+  }
+  
+  /**
+   * Computes the square of the distance to another facet sequence.
+   * 
+   * @param facetSeq a facet sequence
+   * @return the squared distance between the facet sequences
+   */
+  public double distanceSq(FacetSequence facetSeq)
   {
     boolean isPoint = isPoint();
     boolean isPointOther = facetSeq.isPoint();
     
     if (isPoint && isPointOther) {
-      pts.getCoordinate(start, pt);
-      facetSeq.pts.getCoordinate(facetSeq.start, seqPt);
-      return pt.distance(seqPt);
+      return distanceSq(x(start), y(start), 
+          facetSeq.x(facetSeq.start), facetSeq.y(facetSeq.start));
     }
     else if (isPoint) {
-      pts.getCoordinate(start, pt);      
-      return computePointLineDistance(pt, facetSeq);
+      return facetSeq.computePointLineDistanceSq(x(start), y(start));
     }
     else if (isPointOther) {
-      facetSeq.pts.getCoordinate(facetSeq.start, seqPt);
-      return computePointLineDistance(seqPt, this);
+      return computePointLineDistanceSq(facetSeq.x(facetSeq.start), facetSeq.y(facetSeq.start));
     }
-    return computeLineLineDistance(facetSeq);
-    
+    return computeLineLineDistanceSq(facetSeq);
   }
   
-  // temporary Coordinates to materialize points from the CoordinateSequence
-  private Coordinate p0 = new Coordinate();
-  private Coordinate p1 = new Coordinate();
-  private Coordinate q0 = new Coordinate();
-  private Coordinate q1 = new Coordinate();
-
-  private double computeLineLineDistance(FacetSequence facetSeq)
+  private double computeLineLineDistanceSq(FacetSequence facetSeq)
   {
     // both linear - compute minimum segment-segment distance
-    double minDistance = Double.MAX_VALUE;
+    double minDistanceSq = Double.MAX_VALUE;
 
     for (int i = start; i < end - 1; i++) {
+      double p0x = x(i);
+      double p0y = y(i);
+      double p1x = x(i + 1);
+      double p1y = y(i + 1);
+      
+      // skip segments which are further from the other sequence than the current minimum
+      if (envelopeDistanceSq(p0x, p0y, p1x, p1y, 
+          facetSeq.minx, facetSeq.miny, facetSeq.maxx, facetSeq.maxy) >= minDistanceSq)
+        continue;
+      
       for (int j = facetSeq.start; j < facetSeq.end - 1; j++) {
-        pts.getCoordinate(i, p0);
-        pts.getCoordinate(i + 1, p1);
-        facetSeq.pts.getCoordinate(j, q0);
-        facetSeq.pts.getCoordinate(j + 1, q1);
+        double q0x = facetSeq.x(j);
+        double q0y = facetSeq.y(j);
+        double q1x = facetSeq.x(j + 1);
+        double q1y = facetSeq.y(j + 1);
         
-        double dist = CGAlgorithms.distanceLineLine(p0, p1, q0, q1);
-        if (dist == 0.0) 
+        if (envelopeDistanceSq(p0x, p0y, p1x, p1y, 
+            Math.min(q0x, q1x), Math.min(q0y, q1y), 
+            Math.max(q0x, q1x), Math.max(q0y, q1y)) >= minDistanceSq)
+          continue;
+        
+        double distSq = segmentDistanceSq(p0x, p0y, p1x, p1y, q0x, q0y, q1x, q1y);
+        if (distSq == 0.0) 
           return 0.0;
-        if (dist < minDistance) {
-          minDistance = dist;
+        if (distSq < minDistanceSq) {
+          minDistanceSq = distSq;
         }
       }
     }
-    return minDistance;
+    return minDistanceSq;
   }
 
-  private double computePointLineDistance(Coordinate pt, FacetSequence facetSeq) 
+  private double computePointLineDistanceSq(double px, double py) 
+  {
+    double minDistanceSq = Double.MAX_VALUE;
+
+    for (int i = start; i < end - 1; i++) {
+      double distSq = pointSegmentDistanceSq(px, py, x(i), y(i), x(i + 1), y(i + 1));
+      if (distSq == 0.0) return 0.0;
+      if (distSq < minDistanceSq) {
+        minDistanceSq = distSq;
+      }
+    }
+    return minDistanceSq;
+  }
+  
+  private static double distanceSq(double x0, double y0, double x1, double y1)
+  {
+    double dx = x1 - x0;
+    double dy = y1 - y0;
+    return dx * dx + dy * dy;
+  }
+  
+  /**
+   * Computes the squared distance between the envelope of a segment 
+   * and an envelope.
+   */
+  private static double envelopeDistanceSq(double p0x, double p0y, double p1x, double p1y,
+      double minx, double miny, double maxx, double maxy)
+  {
+    double dx = 0.0;
+    if (Math.max(p0x, p1x) < minx) 
+      dx = minx - Math.max(p0x, p1x);
+    else if (Math.min(p0x, p1x) > maxx) 
+      dx = Math.min(p0x, p1x) - maxx;
+    
+    double dy = 0.0;
+    if (Math.max(p0y, p1y) < miny) 
+      dy = miny - Math.max(p0y, p1y);
+    else if (Math.min(p0y, p1y) > maxy) 
+      dy = Math.min(p0y, p1y) - maxy;
+    
+    return dx * dx + dy * dy;
+  }
+  
+  /**
+   * Computes the squared distance from a point to a segment.
+   * This follows {@link org.locationtech.jts.algorithm.CGAlgorithms#distancePointLine(Coordinate, Coordinate, Coordinate)}.
+   */
+  private static double pointSegmentDistanceSq(double px, double py, 
+      double ax, double ay, double bx, double by)
   {
-    double minDistance = Double.MAX_VALUE;
+    // if start = end, then just compute distance to one of the endpoints
+    if (ax == bx && ay == by)
+      return distanceSq(px, py, ax, ay);
+    
+    double dx = bx - ax;
+    double dy = by - ay;
+    double len2 = dx * dx + dy * dy;
+    double r = ((px - ax) * dx + (py - ay) * dy) / len2;
 
-    for (int i = facetSeq.start; i < facetSeq.end - 1; i++) {
-      facetSeq.pts.getCoordinate(i, q0);
-      facetSeq.pts.getCoordinate(i + 1, q1);
-      double dist = CGAlgorithms.distancePointLine(pt, q0, q1);
-      if (dist == 0.0) return 0.0;
-      if (dist < minDistance) {
-        minDistance = dist;
+    if (r <= 0.0)
+      return distanceSq(px, py, ax, ay);
+    if (r >= 1.0)
+      return distanceSq(px, py, bx, by);
+    
+    double s = (ay - py) * dx - (ax - px) * dy;
+    return s * s / len2;
+  }
+  
+  /**
+   * Computes the squared distance between two segments.
+   * This follows {@link org.locationtech.jts.algorithm.CGAlgorithms#distanceLineLine(Coordinate, Coordinate, Coordinate, Coordinate)}.
+   */
+  private static double segmentDistanceSq(double ax, double ay, double bx, double by,
+      double cx, double cy, double dx, double dy)
+  {
+    // check for zero-length segments
+    if (ax == bx && ay == by)
+      return pointSegmentDistanceSq(ax, ay, cx, cy, dx, dy);
+    if (cx == dx && cy == dy)
+      return pointSegmentDistanceSq(dx, dy, ax, ay, bx, by);
+    
+    boolean noIntersection = false;
+    if (Math.max(ax, bx) < Math.min(cx, dx) || Math.min(ax, bx) > Math.max(cx, dx)
+        || Math.max(ay, by) < Math.min(cy, dy) || Math.min(ay, by) > Math.max(cy, dy)) {
+      noIntersection = true;
+    }
+    else {
+      double denom = (bx - ax) * (dy - cy) - (by - ay) * (dx - cx);
+      
+      if (denom == 0) {
+        noIntersection = true;
       }
+      else {
+        double rNum = (ay - cy) * (dx - cx) - (ax - cx) * (dy - cy);
+        double sNum = (ay - cy) * (bx - ax) - (ax - cx) * (by - ay);
+        
+        double s = sNum / denom;
+        double r = rNum / denom;
+  
+        if ((r < 0) || (r > 1) || (s < 0) || (s > 1)) {
+          noIntersection = true;
+        }
+      }
+    }
+    if (noIntersection) {
+      return Math.min(
+          Math.min(pointSegmentDistanceSq(ax, ay, cx, cy, dx, dy),
+                   pointSegmentDistanceSq(bx, by, cx, cy, dx, dy)),
+          Math.min(pointSegmentDistanceSq(cx, cy, ax, ay, bx, by),
+                   pointSegmentDistanceSq(dx, dy, ax, ay, bx, by)));
     }
-    return minDistance;
+    // segments intersect
+    return 0.0; 
   }
   
   public String toString()
   {
     StringBuffer buf = new StringBuffer();
     buf.append("LINESTRING ( ");
-    Coordinate p = new Coordinate();
     for (int i = start; i < end; i++) {
       if (i > start)
         buf.append(", ");
-      pts.getCoordinate(i, p);
-      buf.append(p.x + " " + p.y);
+      buf.append(x(i) + " " + y(i));
     }
     buf.append(" )");
     return buf.toString();
@@ -45,7 +45,9 @@ import org.locationtech.jts.index.strtree.STRtree;
  * or when evaluating many distance computations against 
  * a single geometry.
  * <p>
- * This class is not thread-safe.
+ * Once created, an instance of this class may be used 
+ * by multiple threads concurrently, since the cached index
+ * is only read by distance queries.
  * 
  * @author Martin Davis
  *
@@ -138,22 +140,20 @@ public class IndexedFacetDistance
   /**
    * Tests whether the base geometry lies within
    * a specified distance of the given geometry.
+   * <p>
+   * Note that, as for {@link #getDistance(Geometry)},
+   * only the facets of the geometries are considered.
    * 
-//   * @param g the geometry to test
-//   * @param maximumDistance the maximum distance to test
-//   * @return true if the geometry lies with the specified distance
+   * @param g the geometry to test
+   * @param maximumDistance the maximum distance to test
+   * @return true if the geometry lies with the specified distance
    */
-  // TODO: implement this
-  /*
   public boolean isWithinDistance(Geometry g, double maximumDistance)
   {
     STRtree tree2 = FacetSequenceTreeBuilder.build(g);
-    double dist = findMinDistance(cachedTree.getRoot(), tree2.getRoot(), maximumDistance);
-    if (dist <= maximumDistance)
-      return false;
-    return true;
+    return cachedTree.isWithinDistance(tree2, 
+        new FacetSequenceDistance(), maximumDistance);
   }
-  */
   
   private static class FacetSequenceDistance
   implements ItemDistance
@@ -0,0 +1,450 @@
+/*
+ * The JTS Topology Suite is a collection of Java classes that
+ * implement the fundamental operations required to validate a given
+ * geo-spatial data set to a known topological specification.
+ *
+ * Copyright (C) 2016 Vivid Solutions
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * (http://www.eclipse.org/legal/epl-v10.html), and the Vivid Solutions BSD
+ * License v1.0 (found at the root of the repository).
+ *
+ */
+package org.locationtech.jts.operation.join;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.RecursiveTask;
+
+import org.locationtech.jts.geom.*;
+import org.locationtech.jts.geom.prep.BasicPreparedGeometry;
+import org.locationtech.jts.geom.prep.PreparedGeometryFactory;
+import org.locationtech.jts.index.strtree.STRtree;
+import org.locationtech.jts.util.Assert;
+import org.locationtech.jts.util.Stopwatch;
+
+/**
+ * Computes the pairs of geometries from two collections
+ * which satisfy a spatial predicate.
+ * The supported predicates are
+ * <ul>
+ * <li><tt>intersects</tt>
+ * <li><tt>contains</tt> (a geometry of the left collection contains one of the right)
+ * <li><tt>within</tt> (a geometry of the left collection lies within one of the right)
+ * <li><tt>isWithinDistance</tt>
+ * <li><tt>relate</tt> with a DE-9IM pattern
+ * </ul>
+ * The join is computed in three phases:
+ * <ol>
+ * <li>the smaller collection is indexed in an {@link STRtree}
+ * <li>the geometries of one collection are prepared using {@link PreparedGeometryFactory}.
+ * For <tt>contains</tt> and <tt>within</tt> these are the containing geometries,
+ * otherwise they are the geometries of the indexed collection.
+ * <li>the index is queried with each geometry of the other collection,
+ * and the predicate is evaluated for the candidates found
+ * </ol>
+ * The preparation and query phases can be executed in parallel.
+ * The time taken by each phase is recorded.
+ * <p>
+ * Only pairs whose envelopes interact are tested.
+ * Hence relate patterns should only be used if they require the geometries to intersect.
+ * Empty geometries are not matched.
+ * <p>
+ * The result is a list of pairs ordered by the index of the left geometry
+ * and then by the index of the right geometry.
+ */
+public class SpatialJoin
+{
+  /**
+   * Creates a join for pairs of geometries which intersect.
+   *
+   * @param left the left geometries
+   * @param right the right geometries
+   * @return the join operation
+   */
+  public static SpatialJoin intersects(Collection left, Collection right)
+  {
+    return new SpatialJoin(left, right, INTERSECTS, 0.0, null);
+  }
+
+  /**
+   * Creates a join for pairs where the left geometry contains the right geometry.
+   *
+   * @param left the left geometries
+   * @param right the right geometries
+   * @return the join operation
+   */
+  public static SpatialJoin contains(Collection left, Collection right)
+  {
+    return new SpatialJoin(left, right, CONTAINS, 0.0, null);
+  }
+
+  /**
+   * Creates a join for pairs where the left geometry is within the right geometry.
+   *
+   * @param left the left geometries
+   * @param right the right geometries
+   * @return the join operation
+   */
+  public static SpatialJoin within(Collection left, Collection right)
+  {
+    return new SpatialJoin(left, right, WITHIN, 0.0, null);
+  }
+
+  /**
+   * Creates a join for pairs of geometries which lie within a given distance.
+   *
+   * @param left the left geometries
+   * @param right the right geometries
+   * @param distance the distance tolerance
+   * @return the join operation
+   */
+  public static SpatialJoin isWithinDistance(Collection left, Collection right, double distance)
+  {
+    if (distance < 0.0)
+      throw new IllegalArgumentException("Distance must be non-negative");
+    return new SpatialJoin(left, right, WITHIN_DISTANCE, distance, null);
+  }
+
+  /**
+   * Creates a join for pairs whose relationship matches a DE-9IM pattern.
+   * The pattern applies to the left geometry as the first argument.
+   *
+   * @param left the left geometries
+   * @param right the right geometries
+   * @param intersectionPattern the pattern to match
+   * @return the join operation
+   */
+  public static SpatialJoin relate(Collection left, Collection right, String intersectionPattern)
+  {
+    if (intersectionPattern.length() != 9)
+      throw new IllegalArgumentException("Should be length 9: " + intersectionPattern);
+    return new SpatialJoin(left, right, RELATE, 0.0, intersectionPattern);
+  }
+
+  private static final int INTERSECTS = 0;
+  private static final int CONTAINS = 1;
+  private static final int WITHIN = 2;
+  private static final int WITHIN_DISTANCE = 3;
+  private static final int RELATE = 4;
+
+  /**
+   * The minimum number of geometries processed by a single parallel task
+   */
+  private static final int PARALLEL_THRESHOLD = 128;
+
+  private final Geometry[] left;
+  private final Geometry[] right;
+  private final int predicate;
+  private final double distance;
+  private final String pattern;
+  private boolean isParallel = false;
+
+  private boolean isLeftIndexed;
+  private boolean isLeftPrepared;
+  private STRtree index;
+  private BasicPreparedGeometry[] prepared;
+  private int[] pairs = null;
+
+  private long indexTime = 0;
+  private long prepareTime = 0;
+  private long queryTime = 0;
+
+  private SpatialJoin(Collection left, Collection right, int predicate,
+      double distance, String pattern)
+  {
+    this.left = toArray(left);
+    this.right = toArray(right);
+    this.predicate = predicate;
+    this.distance = distance;
+    this.pattern = pattern;
+  }
+
+  /**
+   * Sets whether the join is computed in parallel.
+   * The default is <code>false</code>.
+   *
+   * @param isParallel true if the join should be computed in parallel
+   */
+  public void setParallel(boolean isParallel)
+  {
+    this.isParallel = isParallel;
+  }
+
+  /**
+   * Gets the matched pairs as indexes into the input collections.
+   * The array contains the index of the left geometry
+   * followed by the index of the right geometry for each pair.
+   *
+   * @return an array of index pairs
+   */
+  public int[] getIndexPairs()
+  {
+    compute();
+    return pairs;
+  }
+
+  /**
+   * Gets the matched pairs of geometries.
+   *
+   * @return a List of Geometry[2] arrays containing a left and a right geometry
+   */
+  public List getPairs()
+  {
+    compute();
+    List result = new ArrayList();
+    for (int i = 0; i < pairs.length; i += 2) {
+      result.add(new Geometry[] { left[pairs[i]], right[pairs[i + 1]] });
+    }
+    return result;
+  }
+
+  /**
+   * Gets the time taken to index the smaller collection.
+   *
+   * @return the index time, in milliseconds
+   */
+  public long getIndexTime() { return indexTime; }
+
+  /**
+   * Gets the time taken to prepare geometries.
+   *
+   * @return the preparation time, in milliseconds
+   */
+  public long getPrepareTime() { return prepareTime; }
+
+  /**
+   * Gets the time taken to query the index and evaluate the predicate.
+   *
+   * @return the query time, in milliseconds
+   */
+  public long getQueryTime() { return queryTime; }
+
+  private void compute()
+  {
+    if (pairs != null) return;
+
+    isLeftIndexed = left.length <= right.length;
+    if (predicate == CONTAINS)
+      isLeftPrepared = true;
+    else if (predicate == WITHIN)
+      isLeftPrepared = false;
+    else
+      isLeftPrepared = isLeftIndexed;
+
+    Stopwatch sw = new Stopwatch();
+    buildIndex();
+    indexTime = sw.getTime();
+
+    sw.reset();
+    Geometry[] prepGeoms = isLeftPrepared ? left : right;
+    prepared = new BasicPreparedGeometry[prepGeoms.length];
+    if (isParallel && prepGeoms.length > PARALLEL_THRESHOLD) {
+      ForkJoinPool.commonPool().invoke(new PrepareTask(prepGeoms, 0, prepGeoms.length));
+    }
+    else {
+      prepare(prepGeoms, 0, prepGeoms.length);
+    }
+    prepareTime = sw.getTime();
+
+    sw.reset();
+    int numQuery = isLeftIndexed ? right.length : left.length;
+    long[] keys;
+    if (isParallel && numQuery > PARALLEL_THRESHOLD) {
+      keys = (long[]) ForkJoinPool.commonPool().invoke(new QueryTask(0, numQuery));
+    }
+    else {
+      keys = query(0, numQuery);
+    }
+    pairs = toPairs(keys);
+    queryTime = sw.getTime();
+  }
+
+  private void buildIndex()
+  {
+    Geometry[] geoms = isLeftIndexed ? left : right;
+    index = new STRtree();
+    for (int i = 0; i < geoms.length; i++) {
+      if (geoms[i].isEmpty()) continue;
+      index.insert(geoms[i].getEnvelopeInternal(), new Integer(i));
+    }
+    index.build();
+  }
+
+  private void prepare(Geometry[] geoms, int start, int end)
+  {
+    for (int i = start; i < end; i++) {
+      if (geoms[i].isEmpty()) continue;
+      prepared[i] = (BasicPreparedGeometry) PreparedGeometryFactory.prepare(geoms[i]);
+    }
+  }
+
+  /**
+   * Queries the index with a range of the non-indexed geometries.
+   *
+   * @return the matched pairs, encoded as longs
+   */
+  private long[] query(int start, int end)
+  {
+    Geometry[] queryGeoms = isLeftIndexed ? right : left;
+    LongList keys = new LongList();
+    for (int i = start; i < end; i++) {
+      Geometry g = queryGeoms[i];
+      if (g.isEmpty()) continue;
+      Envelope env = g.getEnvelopeInternal();
+      if (predicate == WITHIN_DISTANCE) {
+        env = new Envelope(env);
+        env.expandBy(distance);
+      }
+      List cands = index.query(env);
+      for (Iterator it = cands.iterator(); it.hasNext(); ) {
+        int j = ((Integer) it.next()).intValue();
+        int iLeft = isLeftIndexed ? j : i;
+        int iRight = isLeftIndexed ? i : j;
+        if (isMatch(iLeft, iRight))
+          keys.add(((long) iLeft << 32) | iRight);
+      }
+    }
+    return keys.toArray();
+  }
+
+  private boolean isMatch(int iLeft, int iRight)
+  {
+    if (isLeftPrepared) {
+      BasicPreparedGeometry pg = prepared[iLeft];
+      Geometry g = right[iRight];
+      switch (predicate) {
+      case INTERSECTS:      return pg.intersects(g);
+      case CONTAINS:        return pg.contains(g);
+      case WITHIN_DISTANCE: return pg.isWithinDistance(g, distance);
+      case RELATE:          return pg.relate(g, pattern);
+      }
+    }
+    else {
+      BasicPreparedGeometry pg = prepared[iRight];
+      Geometry g = left[iLeft];
+      switch (predicate) {
+      case INTERSECTS:      return pg.intersects(g);
+      case WITHIN:          return pg.contains(g);
+      case WITHIN_DISTANCE: return pg.isWithinDistance(g, distance);
+      case RELATE:          return pg.relate(g, transpose(pattern));
+      }
+    }
+    Assert.shouldNeverReachHere("Invalid predicate for prepared side");
+    return false;
+  }
+
+  /**
+   * Transposes a DE-9IM pattern, so that it applies
+   * with the arguments in the opposite order.
+   */
+  private static String transpose(String pattern)
+  {
+    char[] t = new char[9];
+    for (int i = 0; i < 3; i++) {
+      for (int j = 0; j < 3; j++) {
+        t[3 * j + i] = pattern.charAt(3 * i + j);
+      }
+    }
+    return new String(t);
+  }
+
+  private static int[] toPairs(long[] keys)
+  {
+    Arrays.sort(keys);
+    int[] pairs = new int[2 * keys.length];
+    for (int i = 0; i < keys.length; i++) {
+      pairs[2 * i] = (int) (keys[i] >>> 32);
+      pairs[2 * i + 1] = (int) keys[i];
+    }
+    return pairs;
+  }
+
+  private static Geometry[] toArray(Collection geoms)
+  {
+    return (Geometry[]) geoms.toArray(new Geometry[geoms.size()]);
+  }
+
+  /**
+   * A growable array of long values.
+   */
+  private static class LongList
+  {
+    private long[] data = new long[16];
+    private int size = 0;
+
+    void add(long value)
+    {
+      if (size == data.length)
+        data = Arrays.copyOf(data, 2 * size);
+      data[size++] = value;
+    }
+
+    long[] toArray()
+    {
+      return Arrays.copyOf(data, size);
+    }
+  }
+
+  private class PrepareTask
+    extends RecursiveAction
+  {
+    private final Geometry[] geoms;
+    private final int start;
+    private final int end;
+
+    PrepareTask(Geometry[] geoms, int start, int end)
+    {
+      this.geoms = geoms;
+      this.start = start;
+      this.end = end;
+    }
+
+    protected void compute()
+    {
+      if (end - start <= PARALLEL_THRESHOLD) {
+        prepare(geoms, start, end);
+        return;
+      }
+      int mid = (start + end) >>> 1;
+      invokeAll(new PrepareTask(geoms, start, mid),
+          new PrepareTask(geoms, mid, end));
+    }
+  }
+
+  private class QueryTask
+    extends RecursiveTask
+  {
+    private final int start;
+    private final int end;
+
+    QueryTask(int start, int end)
+    {
+      this.start = start;
+      this.end = end;
+    }
+
+    protected Object compute()
+    {
+      if (end - start <= PARALLEL_THRESHOLD) {
+        return query(start, end);
+      }
+      int mid = (start + end) >>> 1;
+      QueryTask task0 = new QueryTask(start, mid);
+      QueryTask task1 = new QueryTask(mid, end);
+      invokeAll(task0, task1);
+      long[] keys0 = (long[]) task0.join();
+      long[] keys1 = (long[]) task1.join();
+      long[] keys = new long[keys0.length + keys1.length];
+      System.arraycopy(keys0, 0, keys, 0, keys0.length);
+      System.arraycopy(keys1, 0, keys, keys0.length, keys1.length);
+      return keys;
+    }
+  }
+}
@@ -0,0 +1,456 @@
+/*
+ * The JTS Topology Suite is a collection of Java classes that
+ * implement the fundamental operations required to validate a given
+ * geo-spatial data set to a known topological specification.
+ *
+ * Copyright (C) 2016 Vivid Solutions
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * (http://www.eclipse.org/legal/epl-v10.html), and the Vivid Solutions BSD
+ * License v1.0 (found at the root of the repository).
+ *
+ */
+
+package org.locationtech.jts.operation.linemerge;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+import org.locationtech.jts.algorithm.CGAlgorithms;
+import org.locationtech.jts.geom.Coordinate;
+import org.locationtech.jts.geom.CoordinateArrays;
+import org.locationtech.jts.geom.Geometry;
+import org.locationtech.jts.geom.GeometryComponentFilter;
+import org.locationtech.jts.geom.GeometryFactory;
+import org.locationtech.jts.geom.LineString;
+import org.locationtech.jts.geomgraph.Quadrant;
+import org.locationtech.jts.util.CoordinateIndexMap;
+
+/**
+ * Merges a collection of linear components to form maximal-length linestrings,
+ * using a compact graph representation suitable for very large networks.
+ * <p>
+ * The result is the same as that of {@link LineMerger}
+ * (including the order and direction of the merged lines),
+ * but the graph is not built from {@link org.locationtech.jts.planargraph} objects.
+ * Instead the line endpoints are stored in a {@link CoordinateIndexMap},
+ * and the edges and the edges around each node are stored in integer arrays.
+ * This uses a small fraction of the memory required by {@link LineMerger}.
+ * <p>
+ * Optionally the coordinates of the merged lines can be assembled in parallel.
+ * <p>
+ * As for {@link LineMerger}, the input linework must be correctly noded
+ * for lines to be merged,
+ * and input lines which are empty or contain only a single unique coordinate
+ * are not included in the merging.
+ *
+ * @see LineMerger
+ */
+public class IndexedLineMerger
+{
+  /**
+   * The minimum number of merged lines built by each parallel task
+   */
+  private static final int PARALLEL_THRESHOLD = 256;
+
+  private GeometryFactory factory = null;
+  private boolean isParallel = false;
+  private Collection mergedLineStrings = null;
+
+  /**
+   * The nodes, given by their ordinates
+   */
+  private CoordinateIndexMap nodes = new CoordinateIndexMap();
+
+  /**
+   * The edges, given by their line and end nodes,
+   * and the direction points of the forward and reverse directed edges.
+   * The directed edges of edge e are 2e (forward) and 2e + 1 (reverse).
+   */
+  private int numEdges = 0;
+  private LineString[] edgeLine = new LineString[16];
+  private int[] edgeFrom = new int[16];
+  private int[] edgeTo = new int[16];
+  private double[] dirPt = new double[4 * 16];
+
+  /**
+   * Creates a new line merger.
+   */
+  public IndexedLineMerger()
+  {
+  }
+
+  /**
+   * Sets whether the merged lines are built in parallel.
+   * The default is <code>false</code>.
+   *
+   * @param isParallel true if the merged lines should be built in parallel
+   */
+  public void setParallel(boolean isParallel)
+  {
+    this.isParallel = isParallel;
+  }
+
+  /**
+   * Adds a Geometry to be processed. May be called multiple times.
+   * Any dimension of Geometry may be added; the constituent linework will be
+   * extracted.
+   *
+   * @param geometry geometry to be line-merged
+   */
+  public void add(Geometry geometry)
+  {
+    mergedLineStrings = null;
+    geometry.apply(new GeometryComponentFilter() {
+      public void filter(Geometry component) {
+        if (component instanceof LineString) {
+          add((LineString) component);
+        }
+      }
+    });
+  }
+
+  /**
+   * Adds a collection of Geometries to be processed. May be called multiple times.
+   * Any dimension of Geometry may be added; the constituent linework will be
+   * extracted.
+   *
+   * @param geometries the geometries to be line-merged
+   */
+  public void add(Collection geometries)
+  {
+    for (Iterator i = geometries.iterator(); i.hasNext(); ) {
+      Geometry geometry = (Geometry) i.next();
+      add(geometry);
+    }
+  }
+
+  private void add(LineString lineString)
+  {
+    if (factory == null) {
+      this.factory = lineString.getFactory();
+    }
+    if (lineString.isEmpty()) return;
+    Coordinate[] pts = lineString.getCoordinates();
+    /**
+     * The direction points are the first and last points
+     * which differ from the line endpoints
+     * (as if repeated points were removed).
+     */
+    int n = pts.length;
+    int i0 = 1;
+    while (i0 < n && pts[i0].equals2D(pts[0]))
+      i0++;
+    // don't add lines with all coordinates equal
+    if (i0 == n) return;
+    int i1 = n - 2;
+    while (pts[i1].equals2D(pts[n - 1]))
+      i1--;
+
+    int e = numEdges;
+    if (e == edgeLine.length) {
+      int capacity = 2 * e;
+      edgeLine = (LineString[]) Arrays.copyOf(edgeLine, capacity);
+      edgeFrom = Arrays.copyOf(edgeFrom, capacity);
+      edgeTo = Arrays.copyOf(edgeTo, capacity);
+      dirPt = Arrays.copyOf(dirPt, 4 * capacity);
+    }
+    edgeLine[e] = lineString;
+    edgeFrom[e] = nodes.add(pts[0]);
+    edgeTo[e] = nodes.add(pts[n - 1]);
+    dirPt[4 * e] = pts[i0].x;
+    dirPt[4 * e + 1] = pts[i0].y;
+    dirPt[4 * e + 2] = pts[i1].x;
+    dirPt[4 * e + 3] = pts[i1].y;
+    numEdges++;
+  }
+
+  /**
+   * Gets the {@link LineString}s created by the merging process.
+   *
+   * @return the collection of merged LineStrings
+   */
+  public Collection getMergedLineStrings()
+  {
+    merge();
+    return mergedLineStrings;
+  }
+
+  /**
+   * The directed edges leaving each node are
+   * nodeEdges[nodeStart[v] .. nodeStart[v+1]).
+   */
+  private int[] nodeStart;
+  private int[] nodeEdges;
+  private boolean[] isEdgeMarked;
+  /**
+   * The directed edges of each merged line are
+   * stringEdges[stringStart[s] .. stringStart[s+1]).
+   */
+  private int numStrings;
+  private int[] stringStart;
+  private int[] stringEdges;
+
+  private void merge()
+  {
+    if (mergedLineStrings != null) { return; }
+
+    buildNodeEdges();
+    isEdgeMarked = new boolean[numEdges];
+    numStrings = 0;
+    stringStart = new int[numEdges + 1];
+    stringEdges = new int[numEdges];
+
+    /**
+     * The nodes are processed in the same order as {@link LineMerger}
+     * (ascending coordinate order),
+     * first starting lines at nodes of degree other than 2,
+     * and then at the remaining nodes, which are on isolated loops.
+     */
+    int numNodes = nodes.size();
+    int[] nodeOrder = nodes.sortedIndexes();
+    for (int k = 0; k < numNodes; k++) {
+      int node = nodeOrder[k];
+      if (degree(node) != 2)
+        buildEdgeStringsStartingAt(node);
+    }
+    for (int k = 0; k < numNodes; k++) {
+      int node = nodeOrder[k];
+      if (degree(node) == 2)
+        buildEdgeStringsStartingAt(node);
+    }
+
+    LineString[] lines = new LineString[numStrings];
+    if (isParallel && numStrings > PARALLEL_THRESHOLD) {
+      ForkJoinPool.commonPool().invoke(new BuildLinesTask(lines, 0, numStrings));
+    }
+    else {
+      buildLines(lines, 0, numStrings);
+    }
+    mergedLineStrings = new ArrayList(Arrays.asList(lines));
+
+    // release the working arrays
+    nodeStart = null;
+    nodeEdges = null;
+    isEdgeMarked = null;
+    stringStart = null;
+    stringEdges = null;
+  }
+
+  private int degree(int node)
+  {
+    return nodeStart[node + 1] - nodeStart[node];
+  }
+
+  /**
+   * Builds the lists of directed edges leaving each node,
+   * in ascending order of angle.
+   * Edges are added in the same order as for a {@link LineMergeGraph},
+   * and sorted using the same comparison and a stable sort,
+   * so edges with the same direction are in the same order.
+   */
+  private void buildNodeEdges()
+  {
+    int numNodes = nodes.size();
+    nodeStart = new int[numNodes + 1];
+    for (int e = 0; e < numEdges; e++) {
+      nodeStart[edgeFrom[e] + 1]++;
+      nodeStart[edgeTo[e] + 1]++;
+    }
+    for (int v = 0; v < numNodes; v++) {
+      nodeStart[v + 1] += nodeStart[v];
+    }
+    nodeEdges = new int[2 * numEdges];
+    int[] next = Arrays.copyOf(nodeStart, numNodes);
+    for (int e = 0; e < numEdges; e++) {
+      nodeEdges[next[edgeFrom[e]]++] = 2 * e;
+      nodeEdges[next[edgeTo[e]]++] = 2 * e + 1;
+    }
+
+    DirectedEdgeComparator comp = new DirectedEdgeComparator();
+    for (int v = 0; v < numNodes; v++) {
+      int start = nodeStart[v];
+      int deg = degree(v);
+      if (deg < 2) continue;
+      comp.node = v;
+      if (deg == 2) {
+        if (comp.compare(nodeEdges[start + 1], nodeEdges[start]) < 0) {
+          int tmp = nodeEdges[start];
+          nodeEdges[start] = nodeEdges[start + 1];
+          nodeEdges[start + 1] = tmp;
+        }
+        continue;
+      }
+      Integer[] edges = new Integer[deg];
+      for (int i = 0; i < deg; i++) {
+        edges[i] = new Integer(nodeEdges[start + i]);
+      }
+      Arrays.sort(edges, comp);
+      for (int i = 0; i < deg; i++) {
+        nodeEdges[start + i] = edges[i].intValue();
+      }
+    }
+  }
+
+  private int toNode(int de)
+  {
+    int e = de >> 1;
+    return (de & 1) == 0 ? edgeTo[e] : edgeFrom[e];
+  }
+
+  /**
+   * Compares directed edges leaving a node by their angle,
+   * in the same way as {@link org.locationtech.jts.planargraph.DirectedEdge#compareDirection}.
+   */
+  private class DirectedEdgeComparator
+      implements Comparator
+  {
+    int node;
+    private Coordinate p0 = new Coordinate();
+    private Coordinate p1 = new Coordinate();
+    private Coordinate q = new Coordinate();
+
+    public int compare(Object o1, Object o2)
+    {
+      return compare(((Integer) o1).intValue(), ((Integer) o2).intValue());
+    }
+
+    int compare(int de1, int de2)
+    {
+      int quad1 = quadrant(de1);
+      int quad2 = quadrant(de2);
+      if (quad1 > quad2) return 1;
+      if (quad1 < quad2) return -1;
+      p0.x = nodes.getX(node);
+      p0.y = nodes.getY(node);
+      p1.x = dirPt[2 * de2];
+      p1.y = dirPt[2 * de2 + 1];
+      q.x = dirPt[2 * de1];
+      q.y = dirPt[2 * de1 + 1];
+      return CGAlgorithms.computeOrientation(p0, p1, q);
+    }
+
+    private int quadrant(int de)
+    {
+      return Quadrant.quadrant(dirPt[2 * de] - nodes.getX(node), dirPt[2 * de + 1] - nodes.getY(node));
+    }
+  }
+
+  private void buildEdgeStringsStartingAt(int node)
+  {
+    for (int i = nodeStart[node]; i < nodeStart[node + 1]; i++) {
+      int de = nodeEdges[i];
+      if (isEdgeMarked[de >> 1]) continue;
+      buildEdgeStringStartingWith(de);
+    }
+  }
+
+  private void buildEdgeStringStartingWith(int start)
+  {
+    int pos = stringStart[numStrings];
+    int current = start;
+    do {
+      stringEdges[pos++] = current;
+      isEdgeMarked[current >> 1] = true;
+      current = getNext(current);
+    } while (current >= 0 && current != start);
+    stringStart[++numStrings] = pos;
+  }
+
+  /**
+   * Gets the directed edge which continues a directed edge
+   * through a node of degree 2.
+   *
+   * @return the next directed edge, or -1 if the end node is not of degree 2
+   */
+  private int getNext(int de)
+  {
+    int node = toNode(de);
+    if (degree(node) != 2)
+      return -1;
+    int sym = de ^ 1;
+    int start = nodeStart[node];
+    if (nodeEdges[start] == sym)
+      return nodeEdges[start + 1];
+    return nodeEdges[start];
+  }
+
+  private void buildLines(LineString[] lines, int start, int end)
+  {
+    for (int s = start; s < end; s++) {
+      lines[s] = buildLine(s);
+    }
+  }
+
+  /**
+   * Builds a merged line in the same way as {@link EdgeString}.
+   * The direction is that of the majority of the edges.
+   */
+  private LineString buildLine(int s)
+  {
+    int size = 0;
+    for (int i = stringStart[s]; i < stringStart[s + 1]; i++) {
+      size += edgeLine[stringEdges[i] >> 1].getNumPoints();
+    }
+    Coordinate[] coords = new Coordinate[size];
+    int n = 0;
+    int forwardDirectedEdges = 0;
+    int reverseDirectedEdges = 0;
+    for (int i = stringStart[s]; i < stringStart[s + 1]; i++) {
+      int de = stringEdges[i];
+      Coordinate[] pts = edgeLine[de >> 1].getCoordinates();
+      boolean isForward = (de & 1) == 0;
+      if (isForward) {
+        forwardDirectedEdges++;
+      }
+      else {
+        reverseDirectedEdges++;
+      }
+      for (int k = 0; k < pts.length; k++) {
+        Coordinate p = pts[isForward ? k : pts.length - 1 - k];
+        // don't add repeated points
+        if (n > 0 && coords[n - 1].equals2D(p))
+          continue;
+        coords[n++] = p;
+      }
+    }
+    if (n < size)
+      coords = (Coordinate[]) Arrays.copyOf(coords, n);
+    if (reverseDirectedEdges > forwardDirectedEdges) {
+      CoordinateArrays.reverse(coords);
+    }
+    return factory.createLineString(coords);
+  }
+
+  private class BuildLinesTask
+      extends RecursiveAction
+  {
+    private final LineString[] lines;
+    private final int start;
+    private final int end;
+
+    BuildLinesTask(LineString[] lines, int start, int end)
+    {
+      this.lines = lines;
+      this.start = start;
+      this.end = end;
+    }
+
+    protected void compute()
+    {
+      if (end - start <= PARALLEL_THRESHOLD) {
+        buildLines(lines, start, end);
+        return;
+      }
+      int mid = (start + end) >>> 1;
+      invokeAll(new BuildLinesTask(lines, start, mid),
+          new BuildLinesTask(lines, mid, end));
+    }
+  }
+}
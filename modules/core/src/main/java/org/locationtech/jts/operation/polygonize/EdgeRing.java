@@ -183,6 +183,16 @@ class EdgeRing {
     deList.add(de);
   }
 
+  /**
+   * Gets the {@link DirectedEdge}s which form this ring.
+   * 
+   * @return the directed edges of this ring
+   */
+  List getDirectedEdges()
+  {
+    return deList;
+  }
+
   /**
    * Tests whether this ring is a hole.
    * @return <code>true</code> if this ring is a hole
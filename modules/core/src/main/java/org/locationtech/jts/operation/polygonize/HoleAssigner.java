@@ -0,0 +1,235 @@
+/*
+ * The JTS Topology Suite is a collection of Java classes that
+ * implement the fundamental operations required to validate a given
+ * geo-spatial data set to a known topological specification.
+ *
+ * Copyright (C) 2016 Vivid Solutions
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * (http://www.eclipse.org/legal/epl-v10.html), and the Vivid Solutions BSD
+ * License v1.0 (found at the root of the repository).
+ *
+ */
+package org.locationtech.jts.operation.polygonize;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+import org.locationtech.jts.algorithm.locate.IndexedPointInAreaLocator;
+import org.locationtech.jts.geom.Coordinate;
+import org.locationtech.jts.geom.Envelope;
+import org.locationtech.jts.geom.LinearRing;
+import org.locationtech.jts.geom.Location;
+import org.locationtech.jts.index.strtree.STRtree;
+
+/**
+ * Assigns hole rings to shell rings
+ * during polygonization.
+ * Uses spatial indexing to improve performance
+ * of shell lookup.
+ * <p>
+ * The shells which may contain a hole are found by querying
+ * an {@link STRtree} of the shell envelopes.
+ * Point containment is tested using an {@link IndexedPointInAreaLocator}
+ * for each candidate shell, which is created when the shell is first tested.
+ * The shell chosen for each hole is the same as would be found by
+ * {@link EdgeRing#findEdgeRingContaining(EdgeRing, List)}.
+ * <p>
+ * Since the shells for different holes can be found independently,
+ * this can optionally be done in parallel.
+ * The holes are added to their shells in the order of the hole list,
+ * so the result is the same in either case.
+ */
+class HoleAssigner
+{
+  /**
+   * The minimum number of holes processed by each parallel task
+   */
+  private static final int PARALLEL_THRESHOLD = 256;
+
+  /**
+   * Assigns hole rings to shell rings.
+   *
+   * @param holes list of hole rings to assign
+   * @param shells list of shell rings
+   * @param isParallel true if the shells should be found in parallel
+   */
+  public static void assignHolesToShells(List holes, List shells, boolean isParallel)
+  {
+    HoleAssigner assigner = new HoleAssigner(shells);
+    assigner.assignHolesToShells(holes, isParallel);
+  }
+
+  private List shells;
+  private STRtree shellIndex;
+  private ShellTester[] testers;
+
+  private HoleAssigner(List shells)
+  {
+    this.shells = shells;
+    testers = new ShellTester[shells.size()];
+    buildIndex();
+  }
+
+  private void buildIndex()
+  {
+    shellIndex = new STRtree();
+    for (int i = 0; i < shells.size(); i++) {
+      EdgeRing shell = (EdgeRing) shells.get(i);
+      shellIndex.insert(shell.getRing().getEnvelopeInternal(), new Integer(i));
+    }
+    // build the tree before it is queried concurrently
+    shellIndex.build();
+  }
+
+  private void assignHolesToShells(List holes, boolean isParallel)
+  {
+    EdgeRing[] holeShells = new EdgeRing[holes.size()];
+    if (isParallel && holes.size() > PARALLEL_THRESHOLD) {
+      ForkJoinPool.commonPool().invoke(new FindShellTask(holes, holeShells, 0, holes.size()));
+    }
+    else {
+      findShells(holes, holeShells, 0, holes.size());
+    }
+    for (int i = 0; i < holeShells.length; i++) {
+      if (holeShells[i] != null) {
+        holeShells[i].addHole((EdgeRing) holes.get(i));
+      }
+    }
+  }
+
+  private void findShells(List holes, EdgeRing[] holeShells, int start, int end)
+  {
+    for (int i = start; i < end; i++) {
+      holeShells[i] = findShellContaining((EdgeRing) holes.get(i));
+    }
+  }
+
+  /**
+   * Finds the smallest shell containing a hole,
+   * using the same rule as {@link EdgeRing#findEdgeRingContaining(EdgeRing, List)}.
+   * The candidate shells are scanned in the order of the shell list,
+   * since the rule depends on it.
+   *
+   * @param hole the hole ring
+   * @return the containing shell, or null if none was found
+   */
+  private EdgeRing findShellContaining(EdgeRing hole)
+  {
+    LinearRing testRing = hole.getRing();
+    Envelope testEnv = testRing.getEnvelopeInternal();
+    List candidates = shellIndex.query(testEnv);
+    int[] candidateIndex = new int[candidates.size()];
+    for (int i = 0; i < candidateIndex.length; i++) {
+      candidateIndex[i] = ((Integer) candidates.get(i)).intValue();
+    }
+    Arrays.sort(candidateIndex);
+
+    EdgeRing minShell = null;
+    Envelope minShellEnv = null;
+    for (int i = 0; i < candidateIndex.length; i++) {
+      EdgeRing tryShell = (EdgeRing) shells.get(candidateIndex[i]);
+      Envelope tryShellEnv = tryShell.getRing().getEnvelopeInternal();
+      // the hole envelope cannot equal the shell envelope
+      // (also guards against testing rings against themselves)
+      if (tryShellEnv.equals(testEnv)) continue;
+      // hole must be contained in shell
+      if (! tryShellEnv.contains(testEnv)) continue;
+
+      if (! getTester(candidateIndex[i]).contains(testRing.getCoordinates())) continue;
+
+      // check if this new containing ring is smaller than the current minimum ring
+      if (minShell == null
+          || minShellEnv.contains(tryShellEnv)) {
+        minShell = tryShell;
+        minShellEnv = tryShellEnv;
+      }
+    }
+    return minShell;
+  }
+
+  private ShellTester getTester(int shellIndex)
+  {
+    /**
+     * Testers may be created concurrently by different threads.
+     * This is harmless, since they are immutable
+     * (and safely published through their final fields).
+     */
+    ShellTester tester = testers[shellIndex];
+    if (tester == null) {
+      tester = new ShellTester((EdgeRing) shells.get(shellIndex));
+      testers[shellIndex] = tester;
+    }
+    return tester;
+  }
+
+  /**
+   * Tests whether a ring lies inside a shell.
+   */
+  private static class ShellTester
+  {
+    private final IndexedPointInAreaLocator locator;
+    private final Set vertices;
+
+    ShellTester(EdgeRing shell)
+    {
+      LinearRing ring = shell.getRing();
+      locator = new IndexedPointInAreaLocator(ring.getFactory().createPolygon(ring, null));
+      vertices = new HashSet(Arrays.asList(ring.getCoordinates()));
+    }
+
+    /**
+     * Tests whether the first point of a ring which is not a vertex of the shell
+     * lies in the shell (including its boundary).
+     *
+     * @param pts the points of the ring to test
+     * @return true if the ring lies in the shell
+     */
+    boolean contains(Coordinate[] pts)
+    {
+      for (int i = 0; i < pts.length; i++) {
+        int loc = locator.locate(pts[i]);
+        if (loc == Location.INTERIOR)
+          return true;
+        if (loc == Location.EXTERIOR)
+          return false;
+        // a boundary point determines the result only if it is not a shell vertex
+        if (! vertices.contains(pts[i]))
+          return true;
+      }
+      return false;
+    }
+  }
+
+  private class FindShellTask extends RecursiveAction
+  {
+    private List holes;
+    private EdgeRing[] holeShells;
+    private int start;
+    private int end;
+
+    FindShellTask(List holes, EdgeRing[] holeShells, int start, int end)
+    {
+      this.holes = holes;
+      this.holeShells = holeShells;
+      this.start = start;
+      this.end = end;
+    }
+
+    protected void compute()
+    {
+      if (end - start <= PARALLEL_THRESHOLD) {
+        findShells(holes, holeShells, start, end);
+        return;
+      }
+      int mid = (start + end) >>> 1;
+      invokeAll(new FindShellTask(holes, holeShells, start, mid),
+          new FindShellTask(holes, holeShells, mid, end));
+    }
+  }
+}
@@ -19,6 +19,8 @@ import java.util.Collection;
 import java.util.Collections;
 import java.util.Iterator;
 import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
 
 import org.locationtech.jts.geom.Geometry;
 import org.locationtech.jts.geom.GeometryComponentFilter;
@@ -48,6 +50,11 @@ import org.locationtech.jts.geom.Polygon;
  * The set of extracted polygons is guaranteed to be edge-disjoint.
  * This is useful for situations where it is known that the input lines form a
  * valid polygonal geometry.
+ * <p>
+ * Holes are assigned to shells using a spatial index of the shells.
+ * The validation of the rings and the assignment of holes
+ * can optionally be done in parallel (see {@link #setParallel(boolean)}).
+ * The result is the same in either case.
  *
  * @version 1.7
  */
@@ -65,6 +72,11 @@ public class Polygonizer
     }
   }
 
+  /**
+   * The minimum number of rings processed by each parallel task
+   */
+  private static final int PARALLEL_THRESHOLD = 256;
+
   // default factory
   private LineStringAdder lineStringAdder = new LineStringAdder();
 
@@ -80,6 +92,7 @@ public class Polygonizer
 
   private boolean isCheckingRingsValid = true;
   private boolean extractOnlyPolygonal;
+  private boolean isParallel = false;
 
   private GeometryFactory geomFactory = null;
 
@@ -160,6 +173,19 @@ public class Polygonizer
     this.isCheckingRingsValid = isCheckingRingsValid;
   }
   
+  /**
+   * Sets whether the edge rings are processed in parallel.
+   * This includes checking ring validity and assigning holes to shells.
+   * <p>
+   * The default is <code>false</code>.
+   * 
+   * @param isParallel true if the edge rings should be processed in parallel
+   */
+  public void setParallel(boolean isParallel)
+  {
+    this.isParallel = isParallel;
+  }
+  
   /**
    * Gets the list of polygons formed by the polygonization.
    * @return a collection of {@link Polygon}s
@@ -235,18 +261,14 @@ public class Polygonizer
 
     //Debug.printTime("Build Edge Rings");
 
+    boolean[] isValid = computeRings(edgeRingList);
     List validEdgeRingList = new ArrayList();
     invalidRingLines = new ArrayList();
-    if (isCheckingRingsValid) {
-      findValidRings(edgeRingList, validEdgeRingList, invalidRingLines);
-    }
-    else {
-      validEdgeRingList = edgeRingList;
-    }
+    findValidRings(edgeRingList, isValid, validEdgeRingList, invalidRingLines);
     //Debug.printTime("Validate Rings");
     
     findShellsAndHoles(validEdgeRingList);
-    assignHolesToShells(holeList, shellList);
+    HoleAssigner.assignHolesToShells(holeList, shellList, isParallel);
     // order the shells to make any subsequent processing deterministic
     Collections.sort(shellList, new EdgeRing.EnvelopeComparator());
 
@@ -260,11 +282,68 @@ public class Polygonizer
     polyList = extractPolygons(shellList, includeAll);
   }
 
-  private void findValidRings(List edgeRingList, List validEdgeRingList, List invalidRingList)
+  /**
+   * Checks the validity of the edge rings (if required),
+   * and computes whether the valid rings are holes.
+   * The rings are independent, so this may be done in parallel.
+   * 
+   * @param edgeRingList the edge rings
+   * @return the validity of each ring
+   */
+  private boolean[] computeRings(List edgeRingList)
   {
-    for (Iterator i = edgeRingList.iterator(); i.hasNext(); ) {
-      EdgeRing er = (EdgeRing) i.next();
-      if (er.isValid())
+    EdgeRing[] rings = (EdgeRing[]) edgeRingList.toArray(new EdgeRing[edgeRingList.size()]);
+    boolean[] isValid = new boolean[rings.length];
+    if (isParallel && rings.length > PARALLEL_THRESHOLD) {
+      ForkJoinPool.commonPool().invoke(new RingTask(rings, isValid, 0, rings.length));
+    }
+    else {
+      computeRings(rings, isValid, 0, rings.length);
+    }
+    return isValid;
+  }
+
+  private void computeRings(EdgeRing[] rings, boolean[] isValid, int start, int end)
+  {
+    for (int i = start; i < end; i++) {
+      isValid[i] = ! isCheckingRingsValid || rings[i].isValid();
+      if (isValid[i])
+        rings[i].computeHole();
+    }
+  }
+
+  private class RingTask extends RecursiveAction
+  {
+    private EdgeRing[] rings;
+    private boolean[] isValid;
+    private int start;
+    private int end;
+
+    RingTask(EdgeRing[] rings, boolean[] isValid, int start, int end)
+    {
+      this.rings = rings;
+      this.isValid = isValid;
+      this.start = start;
+      this.end = end;
+    }
+
+    protected void compute()
+    {
+      if (end - start <= PARALLEL_THRESHOLD) {
+        computeRings(rings, isValid, start, end);
+        return;
+      }
+      int mid = (start + end) >>> 1;
+      invokeAll(new RingTask(rings, isValid, start, mid),
+          new RingTask(rings, isValid, mid, end));
+    }
+  }
+
+  private void findValidRings(List edgeRingList, boolean[] isValid, List validEdgeRingList, List invalidRingList)
+  {
+    for (int i = 0; i < edgeRingList.size(); i++) {
+      EdgeRing er = (EdgeRing) edgeRingList.get(i);
+      if (isValid[i])
         validEdgeRingList.add(er);
       else
         invalidRingList.add(er.getLineString());
@@ -277,7 +356,6 @@ public class Polygonizer
     shellList = new ArrayList();
     for (Iterator i = edgeRingList.iterator(); i.hasNext(); ) {
       EdgeRing er = (EdgeRing) i.next();
-      er.computeHole();
       if (er.isHole())
         holeList.add(er);
       else
@@ -285,27 +363,6 @@ public class Polygonizer
     }
   }
 
-  private static void assignHolesToShells(List holeList, List shellList)
-  {
-    for (Iterator i = holeList.iterator(); i.hasNext(); ) {
-      EdgeRing holeER = (EdgeRing) i.next();
-      assignHoleToShell(holeER, shellList);
-      /*
-      if ( ! holeER.hasShell()) {
-        System.out.println("DEBUG: Outer hole: " + holeER);
-      }
-      */
-    }
-  }
-
-  private static void assignHoleToShell(EdgeRing holeER, List shellList)
-  {
-    EdgeRing shell = EdgeRing.findEdgeRingContaining(holeER, shellList);
-    if (shell != null) {
-      shell.addHole(holeER);
-    }
-  }
-
   private static void findDisjointShells(List shellList) {
     findOuterShells(shellList);
     
@@ -0,0 +1,350 @@
+/*
+ * The JTS Topology Suite is a collection of Java classes that
+ * implement the fundamental operations required to validate a given
+ * geo-spatial data set to a known topological specification.
+ *
+ * Copyright (C) 2016 Vivid Solutions
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * (http://www.eclipse.org/legal/epl-v10.html), and the Vivid Solutions BSD
+ * License v1.0 (found at the root of the repository).
+ *
+ */
+package org.locationtech.jts.operation.polygonize;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import org.locationtech.jts.geom.Envelope;
+import org.locationtech.jts.geom.Geometry;
+import org.locationtech.jts.geom.GeometryComponentFilter;
+import org.locationtech.jts.geom.LineString;
+import org.locationtech.jts.index.ItemVisitor;
+import org.locationtech.jts.planargraph.DirectedEdge;
+
+/**
+ * Polygonizes a set of {@link Geometry}s containing linework
+ * by partitioning the linework into a grid of rectangular tiles.
+ * This avoids building a single polygonization graph for the entire input,
+ * and so allows very large sets of linework to be polygonized
+ * using much less memory than {@link Polygonizer}.
+ * <p>
+ * The input requirements are the same as for {@link Polygonizer}:
+ * the linework must be correctly noded.
+ * The polygons produced are the same as those produced by {@link Polygonizer}
+ * (although they may be emitted in a different order).
+ * <p>
+ * Each input line is assigned to the tile which contains its envelope,
+ * or is recorded as a border line if it crosses a tile boundary.
+ * The lines of each tile are polygonized separately.
+ * Every face formed by the lines of a single tile is a face of the full polygonization,
+ * since any linework inside it must lie in the same tile.
+ * These faces are emitted as soon as the tile is processed.
+ * Afterwards, the border lines and the tile lines which do not have faces on both sides
+ * are polygonized together, to stitch the faces which cross tile boundaries.
+ * Only faces which are not formed by lines of a single tile are emitted from this stage.
+ * <p>
+ * Dangles, cut edges and invalid ring lines are not reported,
+ * since they cannot be determined within tiles.
+ * <p>
+ * The tile size should be chosen so that most faces
+ * lie inside a single tile.
+ */
+public class TiledPolygonizer
+{
+  /**
+   * Adds every linear element in a {@link Geometry} to the tiles.
+   */
+  private class LineStringAdder
+      implements GeometryComponentFilter
+  {
+    public void filter(Geometry g) {
+      if (g instanceof LineString)
+        add((LineString) g);
+    }
+  }
+
+  private LineStringAdder lineStringAdder = new LineStringAdder();
+
+  private double tileWidth;
+  private double tileHeight;
+  /**
+   * The lines of each tile, keyed by tile index
+   */
+  private Map tileLines = new TreeMap();
+  private List borderLines = new ArrayList();
+
+  private boolean isCheckingRingsValid = true;
+  private boolean isParallel = false;
+
+  private List polyList = null;
+  private boolean isPolygonized = false;
+  private int numTiles = 0;
+  private int numStitchLines = 0;
+
+  /**
+   * Creates a polygonizer using square tiles.
+   *
+   * @param tileSize the width and height of the tiles
+   */
+  public TiledPolygonizer(double tileSize)
+  {
+    this(tileSize, tileSize);
+  }
+
+  /**
+   * Creates a polygonizer using tiles of a given size.
+   * The tile grid has its origin at (0,0).
+   *
+   * @param tileWidth the width of the tiles
+   * @param tileHeight the height of the tiles
+   */
+  public TiledPolygonizer(double tileWidth, double tileHeight)
+  {
+    this.tileWidth = tileWidth;
+    this.tileHeight = tileHeight;
+  }
+
+  /**
+   * Sets whether the rings formed are checked for validity.
+   * The default is <code>true</code>.
+   *
+   * @param isCheckingRingsValid true if generated rings should be checked for validity
+   * @see Polygonizer#setCheckRingsValid(boolean)
+   */
+  public void setCheckRingsValid(boolean isCheckingRingsValid)
+  {
+    this.isCheckingRingsValid = isCheckingRingsValid;
+  }
+
+  /**
+   * Sets whether the edge rings of each tile are processed in parallel.
+   * The default is <code>false</code>.
+   *
+   * @param isParallel true if the edge rings should be processed in parallel
+   * @see Polygonizer#setParallel(boolean)
+   */
+  public void setParallel(boolean isParallel)
+  {
+    this.isParallel = isParallel;
+  }
+
+  /**
+   * Adds a collection of geometries to the edges to be polygonized.
+   * May be called multiple times.
+   *
+   * @param geomList a list of {@link Geometry}s with linework to be polygonized
+   */
+  public void add(Collection geomList)
+  {
+    for (Iterator i = geomList.iterator(); i.hasNext(); ) {
+      Geometry geometry = (Geometry) i.next();
+      add(geometry);
+    }
+  }
+
+  /**
+   * Adds a {@link Geometry} to the edges to be polygonized.
+   * May be called multiple times.
+   *
+   * @param g a {@link Geometry} with linework to be polygonized
+   */
+  public void add(Geometry g)
+  {
+    g.apply(lineStringAdder);
+  }
+
+  private void add(LineString line)
+  {
+    Long tile = tileKey(line);
+    if (tile == null) {
+      borderLines.add(line);
+      return;
+    }
+    List lines = (List) tileLines.get(tile);
+    if (lines == null) {
+      lines = new ArrayList();
+      tileLines.put(tile, lines);
+    }
+    lines.add(line);
+  }
+
+  /**
+   * Computes the key of the tile containing a line.
+   * The tile is the one containing the minimum point of the line envelope
+   * (so lines lying on a tile boundary are assigned to the higher tile).
+   *
+   * @param line a line
+   * @return the key of the tile containing the line, or null if it crosses a tile boundary
+   */
+  private Long tileKey(LineString line)
+  {
+    Envelope env = line.getEnvelopeInternal();
+    if (env.isNull())
+      return null;
+    long ix = (long) Math.floor(env.getMinX() / tileWidth);
+    long iy = (long) Math.floor(env.getMinY() / tileHeight);
+    if (env.getMaxX() > (ix + 1) * tileWidth
+        || env.getMaxY() > (iy + 1) * tileHeight)
+      return null;
+    return new Long((iy << 32) + ix);
+  }
+
+  /**
+   * Gets the polygons formed by the polygonization.
+   * The polygons of each tile are emitted in turn,
+   * followed by the polygons which cross tile boundaries.
+   *
+   * @return a collection of {@link org.locationtech.jts.geom.Polygon}s
+   * @throws IllegalStateException if {@link #polygonize(ItemVisitor)} has been called
+   */
+  public Collection getPolygons()
+  {
+    if (polyList == null) {
+      final List polys = new ArrayList();
+      polygonize(new ItemVisitor() {
+        public void visitItem(Object item) {
+          polys.add(item);
+        }
+      });
+      polyList = polys;
+    }
+    return polyList;
+  }
+
+  /**
+   * Performs the polygonization,
+   * passing each polygon to a visitor as soon as it is formed.
+   * The linework of each tile is released once the tile has been processed,
+   * so this can be called only once,
+   * and not together with {@link #getPolygons()}.
+   *
+   * @param visitor the visitor to pass the {@link org.locationtech.jts.geom.Polygon}s to
+   * @throws IllegalStateException if the polygonization has already been performed
+   */
+  public void polygonize(ItemVisitor visitor)
+  {
+    if (isPolygonized)
+      throw new IllegalStateException("polygonization cannot be performed twice");
+    isPolygonized = true;
+    List stitchLines = borderLines;
+    borderLines = new ArrayList();
+    for (Iterator i = tileLines.values().iterator(); i.hasNext(); ) {
+      List lines = (List) i.next();
+      i.remove();
+      polygonizeTile(lines, visitor, stitchLines);
+      numTiles++;
+    }
+    numStitchLines = stitchLines.size();
+    polygonizeStitch(stitchLines, visitor);
+  }
+
+  /**
+   * Gets the number of tiles which were polygonized.
+   *
+   * @return the number of tiles
+   */
+  public int getNumTiles()
+  {
+    return numTiles;
+  }
+
+  /**
+   * Gets the number of lines polygonized in the stitching stage.
+   *
+   * @return the number of stitch lines
+   */
+  public int getNumStitchLines()
+  {
+    return numStitchLines;
+  }
+
+  private Polygonizer createPolygonizer()
+  {
+    Polygonizer polygonizer = new Polygonizer();
+    polygonizer.setCheckRingsValid(isCheckingRingsValid);
+    polygonizer.setParallel(isParallel);
+    return polygonizer;
+  }
+
+  private void polygonizeTile(List lines, ItemVisitor visitor, List stitchLines)
+  {
+    Polygonizer polygonizer = createPolygonizer();
+    polygonizer.add(lines);
+    for (Iterator i = polygonizer.getPolygons().iterator(); i.hasNext(); ) {
+      visitor.visitItem(i.next());
+    }
+
+    /**
+     * Count the faces on each side of the lines.
+     * The directed edges of a shell face into the shell,
+     * and those of an assigned hole face into its shell.
+     */
+    Map sideCount = new IdentityHashMap();
+    for (Iterator i = polygonizer.shellList.iterator(); i.hasNext(); ) {
+      addSides((EdgeRing) i.next(), sideCount);
+    }
+    for (Iterator i = polygonizer.holeList.iterator(); i.hasNext(); ) {
+      EdgeRing hole = (EdgeRing) i.next();
+      if (hole.hasShell())
+        addSides(hole, sideCount);
+    }
+    for (Iterator i = lines.iterator(); i.hasNext(); ) {
+      Object line = i.next();
+      int[] count = (int[]) sideCount.get(line);
+      if (count == null || count[0] < 2)
+        stitchLines.add(line);
+    }
+  }
+
+  private static void addSides(EdgeRing ring, Map sideCount)
+  {
+    for (Iterator i = ring.getDirectedEdges().iterator(); i.hasNext(); ) {
+      DirectedEdge de = (DirectedEdge) i.next();
+      LineString line = ((PolygonizeEdge) de.getEdge()).getLine();
+      int[] count = (int[]) sideCount.get(line);
+      if (count == null) {
+        count = new int[1];
+        sideCount.put(line, count);
+      }
+      count[0]++;
+    }
+  }
+
+  private void polygonizeStitch(List lines, ItemVisitor visitor)
+  {
+    Polygonizer polygonizer = createPolygonizer();
+    polygonizer.add(lines);
+    List polys = (List) polygonizer.getPolygons();
+    List shells = polygonizer.shellList;
+    for (int i = 0; i < polys.size(); i++) {
+      EdgeRing shell = (EdgeRing) shells.get(i);
+      // faces formed by the lines of a single tile were emitted already
+      if (isInSingleTile(shell))
+        continue;
+      visitor.visitItem(polys.get(i));
+    }
+  }
+
+  private boolean isInSingleTile(EdgeRing ring)
+  {
+    Long ringTile = null;
+    for (Iterator i = ring.getDirectedEdges().iterator(); i.hasNext(); ) {
+      DirectedEdge de = (DirectedEdge) i.next();
+      Long tile = tileKey(((PolygonizeEdge) de.getEdge()).getLine());
+      if (tile == null)
+        return false;
+      if (ringTile == null)
+        ringTile = tile;
+      else if (! ringTile.equals(tile))
+        return false;
+    }
+    return true;
+  }
+}
@@ -0,0 +1,296 @@
+/*
+ * The JTS Topology Suite is a collection of Java classes that
+ * implement the fundamental operations required to validate a given
+ * geo-spatial data set to a known topological specification.
+ *
+ * Copyright (C) 2016 Vivid Solutions
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * (http://www.eclipse.org/legal/epl-v10.html), and the Vivid Solutions BSD
+ * License v1.0 (found at the root of the repository).
+ *
+ */
+package org.locationtech.jts.operation.relate;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+import org.locationtech.jts.algorithm.BoundaryNodeRule;
+import org.locationtech.jts.algorithm.LineIntersector;
+import org.locationtech.jts.algorithm.RobustLineIntersector;
+import org.locationtech.jts.algorithm.locate.IndexedPointInAreaLocator;
+import org.locationtech.jts.geom.*;
+import org.locationtech.jts.geomgraph.Edge;
+import org.locationtech.jts.geomgraph.EdgeIntersection;
+import org.locationtech.jts.geomgraph.GeometryGraph;
+import org.locationtech.jts.geomgraph.Label;
+import org.locationtech.jts.geomgraph.index.MonotoneChain;
+import org.locationtech.jts.geomgraph.index.MonotoneChainEdge;
+import org.locationtech.jts.geomgraph.index.SegmentIntersector;
+import org.locationtech.jts.index.strtree.STRtree;
+
+/**
+ * Computes the relationship between a fixed base {@link Geometry}
+ * and many test geometries.
+ * The {@link GeometryGraph} of the base geometry,
+ * including its self-intersection nodes,
+ * is computed once and reused for every relate computation.
+ * The monotone chains of the base geometry are indexed,
+ * so that computing the intersections with a test geometry
+ * only requires querying the index with the chains of the test geometry.
+ * If the base geometry is polygonal,
+ * points of the test geometry are located using an {@link IndexedPointInAreaLocator}.
+ * <p>
+ * The base geometry is always the first argument of the relationship.
+ * <p>
+ * The base graph and the chain index are not modified after they are built.
+ * Each computation records its intersections and labels
+ * on its own copies of the base edges,
+ * so instances of this class are thread-safe,
+ * and computations can run concurrently.
+ *
+ * @see RelateOp
+ */
+public class PreparedRelate
+{
+  private final Geometry baseGeom;
+  private final BoundaryNodeRule boundaryNodeRule;
+  private final List baseNodes;
+  private final Collection baseBoundaryNodes;
+  private final Edge[] baseEdges;
+  // the position of each base edge in baseEdges
+  private final Map baseEdgeIndex = new IdentityHashMap();
+  // the intersections of each base edge after self-noding
+  private final EdgeIntersection[][] baseIntersections;
+  private final STRtree chainIndex = new STRtree();
+  private final IndexedPointInAreaLocator areaLocator;
+  private boolean isSelfNoded = false;
+
+  /**
+   * Creates a new prepared relate for a base geometry,
+   * using the default (OGC SFS) Boundary Node Rule.
+   *
+   * @param baseGeom the base geometry
+   */
+  public PreparedRelate(Geometry baseGeom)
+  {
+    this(baseGeom, BoundaryNodeRule.OGC_SFS_BOUNDARY_RULE);
+  }
+
+  /**
+   * Creates a new prepared relate for a base geometry,
+   * using a specified Boundary Node Rule.
+   *
+   * @param baseGeom the base geometry
+   * @param boundaryNodeRule the Boundary Node Rule to use
+   */
+  public PreparedRelate(Geometry baseGeom, BoundaryNodeRule boundaryNodeRule)
+  {
+    this.baseGeom = baseGeom;
+    this.boundaryNodeRule = boundaryNodeRule;
+
+    GeometryGraph baseGraph = new GeometryGraph(0, baseGeom, boundaryNodeRule);
+    LineIntersector li = new RobustLineIntersector();
+    baseGraph.computeSelfNodes(li, false);
+    baseNodes = new ArrayList(baseGraph.getNodes());
+    baseBoundaryNodes = baseGraph.getBoundaryNodes();
+
+    List edges = new ArrayList();
+    for (Iterator i = baseGraph.getEdgeIterator(); i.hasNext(); ) {
+      edges.add(i.next());
+    }
+    baseEdges = (Edge[]) edges.toArray(new Edge[edges.size()]);
+    baseIntersections = new EdgeIntersection[baseEdges.length][];
+    for (int i = 0; i < baseEdges.length; i++) {
+      Edge e = baseEdges[i];
+      baseEdgeIndex.put(e, new Integer(i));
+      List eiList = new ArrayList();
+      for (Iterator j = e.getEdgeIntersectionList().iterator(); j.hasNext(); ) {
+        eiList.add(j.next());
+      }
+      baseIntersections[i] = (EdgeIntersection[]) eiList.toArray(new EdgeIntersection[eiList.size()]);
+
+      MonotoneChainEdge mce = e.getMonotoneChainEdge();
+      int[] startIndex = mce.getStartIndexes();
+      for (int k = 0; k < startIndex.length - 1; k++) {
+        chainIndex.insert(chainEnvelope(mce, k), new MonotoneChain(mce, k));
+      }
+    }
+    chainIndex.build();
+
+    areaLocator = baseGeom instanceof Polygonal
+        ? new IndexedPointInAreaLocator(baseGeom) : null;
+  }
+
+  /**
+   * Sets whether the test geometries are known to be self-noded,
+   * in which case computing their self-intersection nodes is skipped.
+   *
+   * @param isSelfNoded true if the test geometries are known to be self-noded
+   * @see RelateOp#setSelfNoded(boolean)
+   */
+  public void setSelfNoded(boolean isSelfNoded)
+  {
+    this.isSelfNoded = isSelfNoded;
+  }
+
+  /**
+   * Computes the {@link IntersectionMatrix} for the spatial relationship
+   * between the base geometry and a test geometry.
+   *
+   * @param g the test geometry
+   * @return the IntersectionMatrix for the spatial relationship between the geometries
+   */
+  public IntersectionMatrix relate(Geometry g)
+  {
+    return createComputer(g).computeIM();
+  }
+
+  /**
+   * Tests whether the spatial relationship between the base geometry
+   * and a test geometry satisfies a {@link RelatePredicate}.
+   *
+   * @param g the test geometry
+   * @param predicate the predicate to evaluate
+   * @return true if the relationship between the geometries satisfies the predicate
+   */
+  public boolean relate(Geometry g, RelatePredicate predicate)
+  {
+    return createComputer(g).isMatch(predicate);
+  }
+
+  private RelateComputer createComputer(Geometry g)
+  {
+    GeometryGraph testGraph = new GeometryGraph(1, g, boundaryNodeRule);
+    return new PreparedRelateComputer(new BaseGraphCopy(), testGraph);
+  }
+
+  private static Envelope chainEnvelope(MonotoneChainEdge mce, int chainIndex)
+  {
+    Coordinate[] pts = mce.getCoordinates();
+    int[] startIndex = mce.getStartIndexes();
+    return new Envelope(pts[startIndex[chainIndex]], pts[startIndex[chainIndex + 1]]);
+  }
+
+  /**
+   * The base graph as seen by a single computation.
+   * The edges are copies of the base edges, holding their self-intersections,
+   * to which the intersections and labels for the test geometry are added.
+   * The nodes and the geometry are those of the base graph,
+   * which are only read.
+   */
+  private class BaseGraphCopy
+    extends GeometryGraph
+  {
+    private final Edge[] edgeCopies = new Edge[baseEdges.length];
+
+    BaseGraphCopy()
+    {
+      super(0, null, boundaryNodeRule);
+      for (int i = 0; i < baseEdges.length; i++) {
+        Edge e = baseEdges[i];
+        Edge copy = new Edge(e.getCoordinates(), new Label(e.getLabel()));
+        for (int j = 0; j < baseIntersections[i].length; j++) {
+          EdgeIntersection ei = baseIntersections[i][j];
+          copy.getEdgeIntersectionList().add(ei.coord, ei.segmentIndex, ei.dist);
+        }
+        edgeCopies[i] = copy;
+        insertEdge(copy);
+      }
+    }
+
+    /**
+     * Gets the copy of a base edge.
+     */
+    Edge getCopy(Edge baseEdge)
+    {
+      return edgeCopies[((Integer) baseEdgeIndex.get(baseEdge)).intValue()];
+    }
+
+    public Geometry getGeometry() { return baseGeom; }
+
+    public Iterator getNodeIterator() { return baseNodes.iterator(); }
+
+    public Collection getBoundaryNodes() { return baseBoundaryNodes; }
+  }
+
+  /**
+   * A {@link SegmentIntersector} which records intersections
+   * on the copies of the base edges instead of the shared base edges.
+   * The base edge is always the first edge.
+   */
+  private static class CopySegmentIntersector
+    extends SegmentIntersector
+  {
+    private final BaseGraphCopy baseCopy;
+
+    CopySegmentIntersector(LineIntersector li, BaseGraphCopy baseCopy)
+    {
+      super(li, false, true);
+      this.baseCopy = baseCopy;
+    }
+
+    public void addIntersections(Edge e0, int segIndex0, Edge e1, int segIndex1)
+    {
+      super.addIntersections(baseCopy.getCopy(e0), segIndex0, e1, segIndex1);
+    }
+  }
+
+  /**
+   * A {@link RelateComputer} which uses the prepared base graph.
+   */
+  private class PreparedRelateComputer
+    extends RelateComputer
+  {
+    private final BaseGraphCopy baseCopy;
+    private final GeometryGraph testGraph;
+
+    PreparedRelateComputer(BaseGraphCopy baseCopy, GeometryGraph testGraph)
+    {
+      super(new GeometryGraph[] { baseCopy, testGraph });
+      this.baseCopy = baseCopy;
+      this.testGraph = testGraph;
+    }
+
+    void computeSelfNodes(LineIntersector li)
+    {
+      // the base graph is already self-noded
+      if (! isSelfNoded)
+        testGraph.computeSelfNodes(li, false);
+    }
+
+    SegmentIntersector computeEdgeIntersections(LineIntersector li, boolean isDoneIfIntersection)
+    {
+      SegmentIntersector si = new CopySegmentIntersector(li, baseCopy);
+      si.setBoundaryNodes(baseBoundaryNodes, testGraph.getBoundaryNodes());
+      si.setIsDoneIfIntersection(isDoneIfIntersection);
+      for (Iterator i = testGraph.getEdgeIterator(); i.hasNext(); ) {
+        MonotoneChainEdge mce = ((Edge) i.next()).getMonotoneChainEdge();
+        int[] startIndex = mce.getStartIndexes();
+        for (int k = 0; k < startIndex.length - 1; k++) {
+          MonotoneChain testChain = new MonotoneChain(mce, k);
+          List baseChains = chainIndex.query(chainEnvelope(mce, k));
+          for (Iterator j = baseChains.iterator(); j.hasNext(); ) {
+            MonotoneChain baseChain = (MonotoneChain) j.next();
+            baseChain.computeIntersections(testChain, si);
+            if (si.isDone())
+              return si;
+          }
+        }
+      }
+      return si;
+    }
+
+    int locate(Coordinate p, int argIndex)
+    {
+      if (argIndex == 0 && areaLocator != null)
+        return areaLocator.locate(p);
+      return super.locate(p, argIndex);
+    }
+  }
+}
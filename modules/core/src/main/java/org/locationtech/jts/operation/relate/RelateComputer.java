@@ -54,11 +54,28 @@ public class RelateComputer
 
   // the intersection point found (if any)
   private Coordinate invalidPoint;
+  private boolean isSelfNoded = false;
 
   public RelateComputer(GeometryGraph[] arg) {
     this.arg = arg;
   }
 
+  /**
+   * Sets whether the input geometries are known to be self-noded.
+   * In a self-noded geometry the edges intersect only at their endpoints.
+   * This is the case for simple linear geometries, 
+   * and for valid polygonal geometries whose rings do not touch.
+   * If so, computing the self-intersection nodes can be skipped.
+   * If this is set for geometries which are not self-noded,
+   * the result may be incorrect.
+   * 
+   * @param isSelfNoded true if the inputs are known to be self-noded
+   */
+  public void setSelfNoded(boolean isSelfNoded)
+  {
+    this.isSelfNoded = isSelfNoded;
+  }
+
   public IntersectionMatrix computeIM()
   {
     IntersectionMatrix im = new IntersectionMatrix();
@@ -71,12 +88,171 @@ public class RelateComputer
       computeDisjointIM(im);
       return im;
     }
-    arg[0].computeSelfNodes(li, false);
-    arg[1].computeSelfNodes(li, false);
+    computeSelfNodes(li);
 
     // compute intersections between edges of the two input geometries
-    SegmentIntersector intersector = arg[0].computeEdgeIntersections(arg[1], li, false);
+    SegmentIntersector intersector = computeEdgeIntersections(li, false);
 //System.out.println("computeIM: # segment intersection tests: " + intersector.numTests);
+    // If a proper intersection was found, we can set a lower bound on the IM.
+    computeProperIntersectionIM(intersector, im);
+
+    computeGraphIM(im);
+    return im;
+  }
+
+  /**
+   * Tests whether the relationship between the geometries satisfies a predicate.
+   * The matrix entries only ever increase during the computation,
+   * so the predicate can often be decided from the lower bound
+   * given by the intersections between the edges of the two geometries.
+   * In that case computing the self nodes and labelling the geometry graphs is skipped.
+   * For predicates which are satisfied by any intersection
+   * the search for intersections stops at the first one found.
+   * 
+   * @param predicate the predicate to evaluate
+   * @return true if the predicate is satisfied
+   */
+  public boolean isMatch(RelatePredicate predicate)
+  {
+    IntersectionMatrix im = new IntersectionMatrix();
+    im.set(Location.EXTERIOR, Location.EXTERIOR, 2);
+
+    if (! arg[0].getGeometry().getEnvelopeInternal().intersects(
+            arg[1].getGeometry().getEnvelopeInternal()) ) {
+      computeDisjointIM(im);
+      return predicate.evaluate(im);
+    }
+    boolean isDeferringSelfNodes = isSelfNodesDeferrable(predicate);
+    if (! isDeferringSelfNodes)
+      computeSelfNodes(li);
+
+    // if an intersection decides the predicate, the search is stopped before it is complete
+    SegmentIntersector intersector = computeEdgeIntersections(li, predicate.isTrueIfIntersection());
+    computeProperIntersectionIM(intersector, im);
+    
+    int partial = predicate.evaluatePartial(im, intersector.hasIntersection());
+    if (partial != RelatePredicate.UNKNOWN)
+      return partial == RelatePredicate.TRUE;
+    
+    if (isDeferringSelfNodes) {
+      /**
+       * The self nodes are created from all intersections recorded on the edges,
+       * so the mutual intersections are removed while they are computed.
+       */
+      List mutualIntersections = removeEdgeIntersections();
+      computeSelfNodes(li);
+      addEdgeIntersections(mutualIntersections);
+    }
+    computeGraphIM(im);
+    return predicate.evaluate(im);
+  }
+  
+  /**
+   * Tests whether the self nodes can be computed after the mutual intersections
+   * without changing the partial evaluation of a predicate.
+   * Self nodes of polygonal geometries are boundary nodes,
+   * which determine whether proper intersections are in the interior.
+   * This is only relevant if the predicate is not decided by any intersection.
+   * 
+   * @param predicate the predicate to evaluate
+   * @return true if the self nodes can be computed after the mutual intersections
+   */
+  private boolean isSelfNodesDeferrable(RelatePredicate predicate)
+  {
+    if (predicate.isTrueIfIntersection()) return true;
+    return arg[0].getGeometry().getDimension() < Dimension.A
+        && arg[1].getGeometry().getDimension() < Dimension.A;
+  }
+  
+  /**
+   * Removes the intersections recorded on the edges of both geometries.
+   * 
+   * @return the removed intersections of each edge, in edge order
+   */
+  private List removeEdgeIntersections()
+  {
+    List removed = new ArrayList();
+    for (int i = 0; i < 2; i++) {
+      for (Iterator it = arg[i].getEdgeIterator(); it.hasNext(); ) {
+        EdgeIntersectionList eiList = ((Edge) it.next()).getEdgeIntersectionList();
+        List eis = new ArrayList();
+        for (Iterator eiIt = eiList.iterator(); eiIt.hasNext(); ) {
+          eis.add(eiIt.next());
+        }
+        removed.add(eis);
+        eiList.clear();
+      }
+    }
+    return removed;
+  }
+  
+  /**
+   * Adds back intersections removed by {@link #removeEdgeIntersections()}.
+   * 
+   * @param removed the removed intersections of each edge
+   */
+  private void addEdgeIntersections(List removed)
+  {
+    Iterator removedIt = removed.iterator();
+    for (int i = 0; i < 2; i++) {
+      for (Iterator it = arg[i].getEdgeIterator(); it.hasNext(); ) {
+        EdgeIntersectionList eiList = ((Edge) it.next()).getEdgeIntersectionList();
+        List eis = (List) removedIt.next();
+        for (Iterator eiIt = eis.iterator(); eiIt.hasNext(); ) {
+          EdgeIntersection ei = (EdgeIntersection) eiIt.next();
+          eiList.add(ei.coord, ei.segmentIndex, ei.dist);
+        }
+      }
+    }
+  }
+  
+  /**
+   * Computes the self-intersection nodes of the input geometries,
+   * unless they are known to be self-noded.
+   * 
+   * @param li the LineIntersector to use
+   */
+  void computeSelfNodes(LineIntersector li)
+  {
+    if (isSelfNoded) return;
+    arg[0].computeSelfNodes(li, false);
+    arg[1].computeSelfNodes(li, false);
+  }
+
+  /**
+   * Computes the intersections between the edges of the two input geometries.
+   * 
+   * @param li the LineIntersector to use
+   * @param isDoneIfIntersection true if the computation can stop at the first intersection found
+   * @return the SegmentIntersector containing information about the intersections found
+   */
+  SegmentIntersector computeEdgeIntersections(LineIntersector li, boolean isDoneIfIntersection)
+  {
+    return arg[0].computeEdgeIntersections(arg[1], li, false, isDoneIfIntersection);
+  }
+
+  /**
+   * Determines the location of a point in one of the input geometries.
+   * 
+   * @param p the point to locate
+   * @param argIndex the index of the geometry to locate the point in
+   * @return the location of the point
+   */
+  int locate(Coordinate p, int argIndex)
+  {
+    return ptLocator.locate(p, arg[argIndex].getGeometry());
+  }
+
+  /**
+   * Computes the full labelling of the geometry graphs 
+   * and updates the IM from it.
+   * The self nodes and the intersections between the edges 
+   * of the two geometries must already have been computed.
+   * 
+   * @param im the matrix to update
+   */
+  private void computeGraphIM(IntersectionMatrix im)
+  {
     computeIntersectionNodes(0);
     computeIntersectionNodes(1);
     /**
@@ -92,9 +268,6 @@ public class RelateComputer
     labelIsolatedNodes();
 //Debug.printWatch();
 
-    // If a proper intersection was found, we can set a lower bound on the IM.
-    computeProperIntersectionIM(intersector, im);
-
     /**
      * Now process improper intersections
      * (eg where one or other of the geometries has a vertex at the intersection point)
@@ -129,7 +302,6 @@ public class RelateComputer
 
     // update the IM from all components
     updateIM(im);
-    return im;
   }
 
   private void insertEdgeEnds(List ee)
@@ -332,7 +504,7 @@ public class RelateComputer
     // since edge is not in boundary, may not need the full generality of PointLocator?
     // Possibly should use ptInArea locator instead?  We probably know here
     // that the edge does not touch the bdy of the target Geometry
-      int loc = ptLocator.locate(e.getCoordinate(), target);
+      int loc = locate(e.getCoordinate(), targetIndex);
       e.getLabel().setAllLocations(targetIndex, loc);
     }
     else {
@@ -371,7 +543,7 @@ public class RelateComputer
    */
   private void labelIsolatedNode(Node n, int targetIndex)
   {
-    int loc = ptLocator.locate(n.getCoordinate(), arg[targetIndex].getGeometry());
+    int loc = locate(n.getCoordinate(), targetIndex);
     n.getLabel().setAllLocations(targetIndex, loc);
 //debugPrintln(n.getLabel());
   }
@@ -82,6 +82,23 @@ public class RelateOp
     return im;
   }
 
+  /**
+   * Tests whether the spatial relationship between two {@link Geometry}s
+   * satisfies a {@link RelatePredicate}, using the default (OGC SFS) Boundary Node Rule.
+   * Only as much of the relationship is computed as is needed
+   * to determine the value of the predicate.
+   *
+   * @param a a Geometry to test
+   * @param b a Geometry to test
+   * @param predicate the predicate to evaluate
+   * @return true if the relationship between the geometries satisfies the predicate
+   */
+  public static boolean relate(Geometry a, Geometry b, RelatePredicate predicate)
+  {
+    RelateOp relOp = new RelateOp(a, b);
+    return relOp.isMatch(predicate);
+  }
+
   private RelateComputer relate;
 
   /**
@@ -109,6 +126,24 @@ public class RelateOp
     relate = new RelateComputer(arg);
   }
 
+  /**
+   * Sets whether the input geometries are known to be self-noded,
+   * i.e. their edges intersect only at their endpoints.
+   * This is the case for simple linear geometries,
+   * and for valid polygonal geometries whose rings do not touch.
+   * Computing the self-intersection nodes of self-noded inputs can be skipped,
+   * which is a significant part of the cost of the operation.
+   * If this is set for geometries which are not self-noded,
+   * the result may be incorrect.
+   * The default is <code>false</code>.
+   *
+   * @param isSelfNoded true if the inputs are known to be self-noded
+   */
+  public void setSelfNoded(boolean isSelfNoded)
+  {
+    relate.setSelfNoded(isSelfNoded);
+  }
+
   /**
    * Gets the IntersectionMatrix for the spatial relationship
    * between the input geometries.
@@ -120,4 +155,16 @@ public class RelateOp
     return relate.computeIM();
   }
 
+  /**
+   * Tests whether the spatial relationship
+   * between the input geometries satisfies a predicate.
+   *
+   * @param predicate the predicate to evaluate
+   * @return true if the relationship between the input geometries satisfies the predicate
+   */
+  public boolean isMatch(RelatePredicate predicate)
+  {
+    return relate.isMatch(predicate);
+  }
+
 }
@@ -0,0 +1,265 @@
+/*
+ * The JTS Topology Suite is a collection of Java classes that
+ * implement the fundamental operations required to validate a given
+ * geo-spatial data set to a known topological specification.
+ *
+ * Copyright (C) 2016 Vivid Solutions
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * (http://www.eclipse.org/legal/epl-v10.html), and the Vivid Solutions BSD
+ * License v1.0 (found at the root of the repository).
+ *
+ */
+package org.locationtech.jts.operation.relate;
+
+import org.locationtech.jts.geom.*;
+
+/**
+ * A spatial predicate expressed as one or more DE-9IM patterns,
+ * which is satisfied if the {@link IntersectionMatrix} matches any of the patterns.
+ * <p>
+ * A predicate can be evaluated against a <i>partial</i> matrix,
+ * whose entries are lower bounds on the final dimension values.
+ * This allows {@link RelateComputer} to stop as soon as the value
+ * of the predicate is determined:
+ * <ul>
+ * <li>a pattern is refuted as soon as an entry required to be <tt>F</tt>
+ * (or to have a given dimension) has a greater value
+ * <li>a pattern containing only <tt>T</tt> and <tt>*</tt> symbols
+ * is satisfied as soon as all the <tt>T</tt> entries are non-empty
+ * </ul>
+ * Predicates for the standard named relationships are provided.
+ *
+ * @see RelateOp#relate(Geometry, Geometry, RelatePredicate)
+ */
+public class RelatePredicate
+{
+  static final int UNKNOWN = -1;
+  static final int FALSE = 0;
+  static final int TRUE = 1;
+
+  private static final String[] INTERSECTS = new String[] {
+    "T********", "*T*******", "***T*****", "****T****" };
+  private static final String[] COVERS = new String[] {
+    "T*****FF*", "*T****FF*", "***T**FF*", "****T*FF*" };
+  private static final String[] COVERED_BY = new String[] {
+    "T*F**F***", "*TF**F***", "**FT*F***", "**F*TF***" };
+  private static final String[] TOUCHES = new String[] {
+    "FT*******", "F**T*****", "F***T****" };
+  private static final String[] NONE = new String[0];
+
+  /**
+   * Creates a predicate for the <tt>intersects</tt> relationship.
+   * This predicate is satisfied as soon as any intersection
+   * between the edges of the geometries is found.
+   *
+   * @return the predicate
+   * @see Geometry#intersects(Geometry)
+   */
+  public static RelatePredicate intersects()
+  {
+    return new RelatePredicate(INTERSECTS, true);
+  }
+
+  /**
+   * Creates a predicate for the <tt>contains</tt> relationship.
+   *
+   * @return the predicate
+   * @see Geometry#contains(Geometry)
+   */
+  public static RelatePredicate contains()
+  {
+    return matches("T*****FF*");
+  }
+
+  /**
+   * Creates a predicate for the <tt>within</tt> relationship.
+   *
+   * @return the predicate
+   * @see Geometry#within(Geometry)
+   */
+  public static RelatePredicate within()
+  {
+    return matches("T*F**F***");
+  }
+
+  /**
+   * Creates a predicate for the <tt>covers</tt> relationship.
+   *
+   * @return the predicate
+   * @see Geometry#covers(Geometry)
+   */
+  public static RelatePredicate covers()
+  {
+    return new RelatePredicate(COVERS, false);
+  }
+
+  /**
+   * Creates a predicate for the <tt>coveredBy</tt> relationship.
+   *
+   * @return the predicate
+   * @see Geometry#coveredBy(Geometry)
+   */
+  public static RelatePredicate coveredBy()
+  {
+    return new RelatePredicate(COVERED_BY, false);
+  }
+
+  /**
+   * Creates a predicate for the <tt>touches</tt> relationship
+   * between geometries of given dimensions.
+   *
+   * @param dimA the dimension of the first geometry
+   * @param dimB the dimension of the second geometry
+   * @return the predicate
+   * @see IntersectionMatrix#isTouches(int, int)
+   */
+  public static RelatePredicate touches(int dimA, int dimB)
+  {
+    if (dimA == Dimension.P && dimB == Dimension.P)
+      return new RelatePredicate(NONE, false);
+    return new RelatePredicate(TOUCHES, false);
+  }
+
+  /**
+   * Creates a predicate for the <tt>crosses</tt> relationship
+   * between geometries of given dimensions.
+   *
+   * @param dimA the dimension of the first geometry
+   * @param dimB the dimension of the second geometry
+   * @return the predicate
+   * @see IntersectionMatrix#isCrosses(int, int)
+   */
+  public static RelatePredicate crosses(int dimA, int dimB)
+  {
+    if (dimA < dimB && dimA >= Dimension.P)
+      return matches("T*T******");
+    if (dimA > dimB && dimB >= Dimension.P)
+      return matches("T*****T**");
+    if (dimA == Dimension.L && dimB == Dimension.L)
+      return matches("0********");
+    return new RelatePredicate(NONE, false);
+  }
+
+  /**
+   * Creates a predicate for the <tt>overlaps</tt> relationship
+   * between geometries of given dimensions.
+   *
+   * @param dimA the dimension of the first geometry
+   * @param dimB the dimension of the second geometry
+   * @return the predicate
+   * @see IntersectionMatrix#isOverlaps(int, int)
+   */
+  public static RelatePredicate overlaps(int dimA, int dimB)
+  {
+    if ((dimA == Dimension.P && dimB == Dimension.P)
+        || (dimA == Dimension.A && dimB == Dimension.A))
+      return matches("T*T***T**");
+    if (dimA == Dimension.L && dimB == Dimension.L)
+      return matches("1*T***T**");
+    return new RelatePredicate(NONE, false);
+  }
+
+  /**
+   * Creates a predicate for a DE-9IM pattern.
+   *
+   * @param pattern a DE-9IM pattern string
+   * @return the predicate
+   * @see IntersectionMatrix#matches(String)
+   */
+  public static RelatePredicate matches(String pattern)
+  {
+    return new RelatePredicate(new String[] { pattern }, false);
+  }
+
+  private final String[] patterns;
+  private final boolean isTrueIfIntersection;
+
+  private RelatePredicate(String[] patterns, boolean isTrueIfIntersection)
+  {
+    for (int i = 0; i < patterns.length; i++) {
+      if (patterns[i].length() != 9)
+        throw new IllegalArgumentException("Should be length 9: " + patterns[i]);
+    }
+    this.patterns = patterns;
+    this.isTrueIfIntersection = isTrueIfIntersection;
+  }
+
+  /**
+   * Tests whether the predicate is satisfied
+   * as soon as any intersection between the geometries is found.
+   *
+   * @return true if any intersection satisfies the predicate
+   */
+  boolean isTrueIfIntersection()
+  {
+    return isTrueIfIntersection;
+  }
+
+  /**
+   * Evaluates the predicate against a complete intersection matrix.
+   *
+   * @param im the intersection matrix
+   * @return true if the matrix matches any of the patterns
+   */
+  public boolean evaluate(IntersectionMatrix im)
+  {
+    for (int i = 0; i < patterns.length; i++) {
+      if (im.matches(patterns[i]))
+        return true;
+    }
+    return false;
+  }
+
+  /**
+   * Evaluates the predicate against a partial intersection matrix,
+   * whose entries are lower bounds on the final values.
+   *
+   * @param im the partial intersection matrix
+   * @param hasIntersection true if the geometries are known to intersect
+   * @return TRUE or FALSE if the value of the predicate is determined, or UNKNOWN
+   */
+  int evaluatePartial(IntersectionMatrix im, boolean hasIntersection)
+  {
+    if (isTrueIfIntersection && hasIntersection)
+      return TRUE;
+
+    boolean isAllRefuted = true;
+    for (int i = 0; i < patterns.length; i++) {
+      int result = evaluatePartial(im, patterns[i]);
+      if (result == TRUE) return TRUE;
+      if (result != FALSE) isAllRefuted = false;
+    }
+    return isAllRefuted ? FALSE : UNKNOWN;
+  }
+
+  private static int evaluatePartial(IntersectionMatrix im, String pattern)
+  {
+    boolean isSatisfied = true;
+    for (int i = 0; i < 9; i++) {
+      char sym = pattern.charAt(i);
+      int dim = im.get(i / 3, i % 3);
+      switch (sym) {
+      case Dimension.SYM_DONTCARE:
+        break;
+      case Dimension.SYM_TRUE:
+        if (dim < 0) isSatisfied = false;
+        break;
+      case Dimension.SYM_FALSE:
+        if (dim >= 0) return FALSE;
+        isSatisfied = false;
+        break;
+      case Dimension.SYM_P:
+      case Dimension.SYM_L:
+      case Dimension.SYM_A:
+        if (dim > Dimension.toDimensionValue(sym)) return FALSE;
+        isSatisfied = false;
+        break;
+      default:
+        isSatisfied = false;
+      }
+    }
+    return isSatisfied ? TRUE : UNKNOWN;
+  }
+}
@@ -17,10 +17,9 @@ package org.locationtech.jts.planargraph;
 
 import java.util.Collection;
 import java.util.Iterator;
-import java.util.Map;
-import java.util.TreeMap;
 
 import org.locationtech.jts.geom.Coordinate;
+import org.locationtech.jts.util.CoordinateHashMap;
 
 
 /**
@@ -32,7 +31,7 @@ public class NodeMap
 
 {
 
-  private Map nodeMap = new TreeMap();
+  private CoordinateHashMap nodeMap = new CoordinateHashMap();
   
   /**
    * Constructs a NodeMap without any Nodes.
@@ -31,6 +31,62 @@ class DouglasPeuckerLineSimplifier
     return simp.simplify();
   }
 
+  /**
+   * Computes the significance of each vertex of a line.
+   * This is the largest distance tolerance for which the vertex is removed
+   * by simplification.
+   * The vertices with significance greater than a distance tolerance
+   * are exactly those kept by simplifying using that tolerance.
+   * The endpoints have a significance of {@link Double#MAX_VALUE}.
+   *
+   * @param pts the points of the line
+   * @return the significance of each vertex
+   */
+  static double[] computeSignificance(Coordinate[] pts)
+  {
+    double[] significance = new double[pts.length];
+    if (pts.length == 0)
+      return significance;
+    significance[0] = Double.MAX_VALUE;
+    significance[pts.length - 1] = Double.MAX_VALUE;
+    LineSegment seg = new LineSegment();
+    /**
+     * The sections are processed using an explicit stack,
+     * since the recursion may be as deep as the number of vertices.
+     * A vertex is kept if the maximum distances of its section
+     * and all the enclosing sections exceed the tolerance.
+     */
+    int[] sectionStack = new int[2 * pts.length];
+    int top = 0;
+    sectionStack[top++] = 0;
+    sectionStack[top++] = pts.length - 1;
+    while (top > 0) {
+      int j = sectionStack[--top];
+      int i = sectionStack[--top];
+      if (j - i < 2)
+        continue;
+      seg.p0 = pts[i];
+      seg.p1 = pts[j];
+      double maxDistance = -1.0;
+      int maxIndex = i;
+      for (int k = i + 1; k < j; k++) {
+        double distance = seg.distance(pts[k]);
+        if (distance > maxDistance) {
+          maxDistance = distance;
+          maxIndex = k;
+        }
+      }
+      // the enclosing section significance is held by its endpoints
+      double enclosing = Math.min(significance[i], significance[j]);
+      significance[maxIndex] = Math.min(maxDistance, enclosing);
+      sectionStack[top++] = i;
+      sectionStack[top++] = maxIndex;
+      sectionStack[top++] = maxIndex;
+      sectionStack[top++] = j;
+    }
+    return significance;
+  }
+
   private Coordinate[] pts;
   private boolean[] usePt;
   private double distanceTolerance;
@@ -118,6 +118,19 @@ public class DouglasPeuckerSimplifier
     return (new DPTransformer(isEnsureValidTopology)).transform(inputGeom);
   }
 
+  /**
+   * Simplifies the points of a geometry component.
+   * This allows subclasses to supply precomputed simplifications.
+   *
+   * @param pts the points of the component
+   * @param component the geometry containing the points
+   * @return the simplified points
+   */
+  Coordinate[] simplifyLine(Coordinate[] pts, Geometry component)
+  {
+    return DouglasPeuckerLineSimplifier.simplify(pts, distanceTolerance);
+  }
+
 class DPTransformer
     extends GeometryTransformer
 {
@@ -136,7 +149,7 @@ class DPTransformer
       newPts = new Coordinate[0];
     }
     else {
-      newPts = DouglasPeuckerLineSimplifier.simplify(inputPts, distanceTolerance);
+      newPts = simplifyLine(inputPts, parent);
     }
     return factory.getCoordinateSequenceFactory().create(newPts);
   }
@@ -18,17 +18,63 @@ import java.util.*;
 
 import org.locationtech.jts.geom.*;
 import org.locationtech.jts.index.*;
-import org.locationtech.jts.index.quadtree.Quadtree;
 
 /**
  * An spatial index on a set of {@link LineSegment}s.
  * Supports adding and removing items.
+ * <p>
+ * The index is tuned for the access pattern of {@link TaggedLineStringSimplifier}:
+ * a large set of segments added in bulk, followed by many queries
+ * interleaved with removals and a trickle of additions.
+ * <ul>
+ * <li>The segments are packed into static STR-style R-trees
+ * (sorted along a Hilbert curve), with the segment ordinates and node bounds
+ * stored in primitive arrays.
+ * <li>Added segments are kept in a small buffer which is scanned linearly,
+ * and packed into a new tree when it fills.
+ * Trees of similar size are merged,
+ * so there are only a logarithmic number of trees.
+ * <li>Removal marks a segment as deleted,
+ * which takes constant time for segments added via a {@link TaggedLineString}.
+ * Deleted segments are dropped when their tree is merged.
+ * <li>Queries pass the segments found to an {@link ItemVisitor},
+ * without creating any objects.
+ * </ul>
  *
  * @author Martin Davis
  */
 class LineSegmentIndex
 {
-  private Quadtree index = new Quadtree();
+  private static final int NODE_CAPACITY = 16;
+  /**
+   * The maximum number of unpacked segments
+   */
+  private static final int BUFFER_SIZE = 64;
+  private static final int HILBERT_LEVEL = 15;
+
+  /**
+   * The segments and their ordinates, indexed by segment id
+   */
+  private LineSegment[] items = new LineSegment[16];
+  private double[] itemXY = new double[4 * 16];
+  private boolean[] isDeleted = new boolean[16];
+  private int numItems = 0;
+
+  /**
+   * The id of the first segment of each line added, keyed by the parent geometry
+   */
+  private Map lineBaseId = new IdentityHashMap();
+  /**
+   * The ids of segments added individually
+   */
+  private Map segmentId = new IdentityHashMap();
+
+  private List trees = new ArrayList();
+  /**
+   * The ids of the unpacked segments
+   */
+  private int[] buffer = new int[BUFFER_SIZE];
+  private int bufferSize = 0;
 
   public LineSegmentIndex()
   {
@@ -36,60 +82,346 @@ class LineSegmentIndex
 
   public void add(TaggedLineString line) {
     TaggedLineSegment[] segs = line.getSegments();
+    lineBaseId.put(line.getParent(), new Integer(numItems));
     for (int i = 0; i < segs.length; i++) {
-      TaggedLineSegment seg = segs[i];
-      add(seg);
+      addItem(segs[i]);
     }
   }
 
   public void add(LineSegment seg)
   {
-    index.insert(new Envelope(seg.p0, seg.p1), seg);
+    segmentId.put(seg, new Integer(numItems));
+    addItem(seg);
+  }
+
+  private void addItem(LineSegment seg)
+  {
+    if (numItems == items.length) {
+      int capacity = 2 * items.length;
+      items = (LineSegment[]) Arrays.copyOf(items, capacity);
+      itemXY = Arrays.copyOf(itemXY, 4 * capacity);
+      isDeleted = Arrays.copyOf(isDeleted, capacity);
+    }
+    int id = numItems++;
+    items[id] = seg;
+    itemXY[4 * id] = seg.p0.x;
+    itemXY[4 * id + 1] = seg.p0.y;
+    itemXY[4 * id + 2] = seg.p1.x;
+    itemXY[4 * id + 3] = seg.p1.y;
+    if (bufferSize == buffer.length)
+      buffer = Arrays.copyOf(buffer, 2 * buffer.length);
+    buffer[bufferSize++] = id;
   }
 
   public void remove(LineSegment seg)
   {
-    index.remove(new Envelope(seg.p0, seg.p1), seg);
+    int id = findId(seg);
+    if (id >= 0)
+      isDeleted[id] = true;
   }
 
-  public List query(LineSegment querySeg)
+  private int findId(LineSegment seg)
   {
-    Envelope env = new Envelope(querySeg.p0, querySeg.p1);
+    if (seg instanceof TaggedLineSegment) {
+      TaggedLineSegment taggedSeg = (TaggedLineSegment) seg;
+      Integer baseId = (Integer) lineBaseId.get(taggedSeg.getParent());
+      if (baseId != null) {
+        int lineId = baseId.intValue() + taggedSeg.getIndex();
+        if (lineId < numItems && items[lineId] == seg)
+          return lineId;
+      }
+    }
+    Integer id = (Integer) segmentId.get(seg);
+    if (id == null)
+      return -1;
+    return id.intValue();
+  }
 
-    LineSegmentVisitor visitor = new LineSegmentVisitor(querySeg);
-    index.query(env, visitor);
-    List itemsFound = visitor.getItems();
+  /**
+   * Packs all segments added so far.
+   * After this, queries do not modify the index,
+   * so they can be run concurrently
+   * (along with removals of segments outside the query envelopes)
+   * as long as no segments are added.
+   */
+  public void build()
+  {
+    if (bufferSize > 0)
+      packBuffer();
+  }
 
-//    List listQueryItems = index.query(env);
-//    System.out.println("visitor size = " + itemsFound.size()
-//                       + "  query size = " + listQueryItems.size());
-//    List itemsFound = index.query(env);
+  public List query(LineSegment querySeg)
+  {
+    ArrayListVisitor visitor = new ArrayListVisitor();
+    query(querySeg, visitor);
+    return visitor.getItems();
+  }
 
-    return itemsFound;
+  /**
+   * Passes the segments whose envelopes intersect
+   * the envelope of a query segment to a visitor.
+   *
+   * @param querySeg the query segment
+   * @param visitor the visitor to pass the {@link LineSegment}s found to
+   */
+  public void query(LineSegment querySeg, ItemVisitor visitor)
+  {
+    if (bufferSize > BUFFER_SIZE)
+      packBuffer();
+    double minX = Math.min(querySeg.p0.x, querySeg.p1.x);
+    double maxX = Math.max(querySeg.p0.x, querySeg.p1.x);
+    double minY = Math.min(querySeg.p0.y, querySeg.p1.y);
+    double maxY = Math.max(querySeg.p0.y, querySeg.p1.y);
+    for (int i = 0; i < trees.size(); i++) {
+      PackedTree tree = (PackedTree) trees.get(i);
+      tree.query(minX, minY, maxX, maxY, visitor);
+    }
+    for (int i = 0; i < bufferSize; i++) {
+      int id = buffer[i];
+      if (intersects(itemXY, 4 * id, minX, minY, maxX, maxY)
+          && ! isDeleted[id])
+        visitor.visitItem(items[id]);
+    }
   }
-}
 
-/**
- * ItemVisitor subclass to reduce volume of query results.
- */
-class LineSegmentVisitor
-    implements ItemVisitor
-{
-// MD - only seems to make about a 10% difference in overall time.
+  private static boolean intersects(double[] xy, int offset,
+      double minX, double minY, double maxX, double maxY)
+  {
+    double x0 = xy[offset];
+    double y0 = xy[offset + 1];
+    double x1 = xy[offset + 2];
+    double y1 = xy[offset + 3];
+    return (x0 < x1 ? x0 : x1) <= maxX && (x0 > x1 ? x0 : x1) >= minX
+        && (y0 < y1 ? y0 : y1) <= maxY && (y0 > y1 ? y0 : y1) >= minY;
+  }
 
-  private LineSegment querySeg;
-  private ArrayList items = new ArrayList();
+  /**
+   * Packs the buffered segments into a tree,
+   * then merges trees until each is less than half the size of the one before.
+   */
+  private void packBuffer()
+  {
+    PackedTree tree = new PackedTree(Arrays.copyOf(buffer, bufferSize), bufferSize);
+    bufferSize = 0;
+    if (buffer.length > BUFFER_SIZE)
+      buffer = new int[BUFFER_SIZE];
+    while (! trees.isEmpty()) {
+      PackedTree last = (PackedTree) trees.get(trees.size() - 1);
+      int lastSize = last.liveSize();
+      if (2 * tree.size() < lastSize)
+        break;
+      trees.remove(trees.size() - 1);
+      tree = merge(last, tree);
+    }
+    trees.add(tree);
+  }
 
-  public LineSegmentVisitor(LineSegment querySeg) {
-    this.querySeg = querySeg;
+  private PackedTree merge(PackedTree tree0, PackedTree tree1)
+  {
+    int[] ids = new int[tree0.size() + tree1.size()];
+    int n = tree0.addLiveIds(ids, 0);
+    n = tree1.addLiveIds(ids, n);
+    return new PackedTree(ids, n);
   }
 
-  public void visitItem(Object item)
+  /**
+   * A static packed R-tree on a set of segments.
+   * Level 0 contains the segments, in Hilbert order of their midpoints.
+   * The nodes of each level above bound consecutive runs
+   * of {@link #NODE_CAPACITY} nodes of the level below.
+   */
+  private class PackedTree
   {
-    LineSegment seg = (LineSegment) item;
-    if (Envelope.intersects(seg.p0, seg.p1, querySeg.p0, querySeg.p1))
-      items.add(item);
+    private int[] ids;
+    private int size;
+    /**
+     * The segment ordinates, in tree order
+     */
+    private double[] segXY;
+    /**
+     * The node bounds (minX, minY, maxX, maxY) of each level above the segments
+     */
+    private double[][] levelBounds;
+
+    PackedTree(int[] ids, int size)
+    {
+      this.size = size;
+      this.ids = sortHilbert(ids);
+      segXY = new double[4 * size];
+      for (int i = 0; i < size; i++) {
+        System.arraycopy(itemXY, 4 * this.ids[i], segXY, 4 * i, 4);
+      }
+      buildLevels();
+    }
+
+    int size()
+    {
+      return size;
+    }
+
+    int liveSize()
+    {
+      int n = 0;
+      for (int i = 0; i < size; i++) {
+        if (! isDeleted[ids[i]]) n++;
+      }
+      return n;
+    }
+
+    int addLiveIds(int[] dest, int n)
+    {
+      for (int i = 0; i < size; i++) {
+        if (! isDeleted[ids[i]])
+          dest[n++] = ids[i];
+      }
+      return n;
+    }
+
+    private int[] sortHilbert(int[] ids)
+    {
+      double minX = Double.POSITIVE_INFINITY;
+      double minY = Double.POSITIVE_INFINITY;
+      double maxX = Double.NEGATIVE_INFINITY;
+      double maxY = Double.NEGATIVE_INFINITY;
+      for (int i = 0; i < size; i++) {
+        double x = midX(ids[i]);
+        double y = midY(ids[i]);
+        if (x < minX) minX = x;
+        if (x > maxX) maxX = x;
+        if (y < minY) minY = y;
+        if (y > maxY) maxY = y;
+      }
+      int side = 1 << HILBERT_LEVEL;
+      double extent = Math.max(maxX - minX, maxY - minY);
+      double scale = extent > 0.0 ? (side - 1) / extent : 0.0;
+      long[] keys = new long[size];
+      for (int i = 0; i < size; i++) {
+        int x = (int) ((midX(ids[i]) - minX) * scale);
+        int y = (int) ((midY(ids[i]) - minY) * scale);
+        keys[i] = ((long) hilbertCode(HILBERT_LEVEL, x, y) << 32) | i;
+      }
+      Arrays.sort(keys);
+      int[] sorted = new int[size];
+      for (int i = 0; i < size; i++) {
+        sorted[i] = ids[(int) keys[i]];
+      }
+      return sorted;
+    }
+
+    private double midX(int id)
+    {
+      return (itemXY[4 * id] + itemXY[4 * id + 2]) / 2;
+    }
+
+    private double midY(int id)
+    {
+      return (itemXY[4 * id + 1] + itemXY[4 * id + 3]) / 2;
+    }
+
+    private void buildLevels()
+    {
+      List levels = new ArrayList();
+      int levelSize = size;
+      double[] bounds = null;
+      while (levelSize > 1 || levels.isEmpty()) {
+        int parentSize = (levelSize + NODE_CAPACITY - 1) / NODE_CAPACITY;
+        double[] parentBounds = new double[4 * parentSize];
+        for (int p = 0; p < parentSize; p++) {
+          double minX = Double.POSITIVE_INFINITY;
+          double minY = Double.POSITIVE_INFINITY;
+          double maxX = Double.NEGATIVE_INFINITY;
+          double maxY = Double.NEGATIVE_INFINITY;
+          int end = Math.min(levelSize, (p + 1) * NODE_CAPACITY);
+          for (int c = p * NODE_CAPACITY; c < end; c++) {
+            if (bounds == null) {
+              double x0 = segXY[4 * c];
+              double y0 = segXY[4 * c + 1];
+              double x1 = segXY[4 * c + 2];
+              double y1 = segXY[4 * c + 3];
+              minX = Math.min(minX, Math.min(x0, x1));
+              minY = Math.min(minY, Math.min(y0, y1));
+              maxX = Math.max(maxX, Math.max(x0, x1));
+              maxY = Math.max(maxY, Math.max(y0, y1));
+            }
+            else {
+              minX = Math.min(minX, bounds[4 * c]);
+              minY = Math.min(minY, bounds[4 * c + 1]);
+              maxX = Math.max(maxX, bounds[4 * c + 2]);
+              maxY = Math.max(maxY, bounds[4 * c + 3]);
+            }
+          }
+          parentBounds[4 * p] = minX;
+          parentBounds[4 * p + 1] = minY;
+          parentBounds[4 * p + 2] = maxX;
+          parentBounds[4 * p + 3] = maxY;
+        }
+        levels.add(parentBounds);
+        bounds = parentBounds;
+        levelSize = parentSize;
+      }
+      levelBounds = (double[][]) levels.toArray(new double[levels.size()][]);
+    }
+
+    void query(double minX, double minY, double maxX, double maxY, ItemVisitor visitor)
+    {
+      if (size == 0)
+        return;
+      query(levelBounds.length - 1, 0, minX, minY, maxX, maxY, visitor);
+    }
+
+    private void query(int level, int node,
+        double minX, double minY, double maxX, double maxY, ItemVisitor visitor)
+    {
+      double[] bounds = levelBounds[level];
+      if (! (bounds[4 * node] <= maxX && bounds[4 * node + 2] >= minX
+          && bounds[4 * node + 1] <= maxY && bounds[4 * node + 3] >= minY))
+        return;
+      int start = node * NODE_CAPACITY;
+      if (level == 0) {
+        int end = Math.min(size, start + NODE_CAPACITY);
+        for (int i = start; i < end; i++) {
+          int id = ids[i];
+          // the deletion flag is read only for segments in the query envelope
+          if (intersects(segXY, 4 * i, minX, minY, maxX, maxY)
+              && ! isDeleted[id])
+            visitor.visitItem(items[id]);
+        }
+        return;
+      }
+      int end = Math.min(levelBounds[level - 1].length / 4, start + NODE_CAPACITY);
+      for (int i = start; i < end; i++) {
+        query(level - 1, i, minX, minY, maxX, maxY, visitor);
+      }
+    }
   }
 
-  public ArrayList getItems() { return items; }
+  /**
+   * Computes the index of a grid cell along a Hilbert curve.
+   *
+   * @param level the level of the curve (the grid has 2^level cells on a side)
+   * @param x the X index of the cell
+   * @param y the Y index of the cell
+   * @return the index of the cell along the curve
+   */
+  private static int hilbertCode(int level, int x, int y)
+  {
+    int n = 1 << level;
+    int d = 0;
+    for (int s = n / 2; s > 0; s /= 2) {
+      int rx = (x & s) > 0 ? 1 : 0;
+      int ry = (y & s) > 0 ? 1 : 0;
+      d += s * s * ((3 * rx) ^ ry);
+      // rotate the quadrant
+      if (ry == 0) {
+        if (rx == 1) {
+          x = n - 1 - x;
+          y = n - 1 - y;
+        }
+        int t = x;
+        x = y;
+        y = t;
+      }
+    }
+    return d;
+  }
 }
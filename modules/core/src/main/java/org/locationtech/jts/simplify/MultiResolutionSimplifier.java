@@ -0,0 +1,263 @@
+/*
+ * The JTS Topology Suite is a collection of Java classes that
+ * implement the fundamental operations required to validate a given
+ * geo-spatial data set to a known topological specification.
+ *
+ * Copyright (C) 2016 Vivid Solutions
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * (http://www.eclipse.org/legal/epl-v10.html), and the Vivid Solutions BSD
+ * License v1.0 (found at the root of the repository).
+ *
+ */
+
+package org.locationtech.jts.simplify;
+
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+import java.util.Map;
+
+import org.locationtech.jts.geom.Coordinate;
+import org.locationtech.jts.geom.CoordinateList;
+import org.locationtech.jts.geom.Geometry;
+import org.locationtech.jts.geom.GeometryComponentFilter;
+import org.locationtech.jts.geom.LineString;
+
+/**
+ * Simplifies a {@link Geometry} to many different tolerances,
+ * using precomputed vertex significances.
+ * This is useful when the same geometry is displayed at many scales
+ * (e.g. the zoom levels of a tiled map).
+ * <p>
+ * The significance of every vertex is computed once, when the simplifier is created.
+ * For the Douglas-Peucker algorithm this is the largest tolerance
+ * for which the vertex is removed;
+ * for the Visvalingam-Whyatt algorithm it is the effective area of the vertex
+ * (see {@link VWLineRanking}).
+ * The vertices of each component are arranged in a tree in which
+ * every vertex is at least as significant as its descendants,
+ * so the vertices kept for a tolerance are found in time
+ * proportional to their number.
+ * <p>
+ * The result for a tolerance is the same as that computed by
+ * {@link DouglasPeuckerSimplifier} or {@link VWSimplifier}.
+ * Note that fixing the topology of polygonal results
+ * (which is done by default) takes time proportional to the output size
+ * multiplied by a logarithmic factor.
+ * <p>
+ * Once created, a simplifier may be used by multiple threads concurrently.
+ *
+ * @see SimplifierCache
+ */
+public class MultiResolutionSimplifier
+{
+  /**
+   * Specifies simplification using the Douglas-Peucker algorithm.
+   */
+  public static final int DOUGLAS_PEUCKER = 1;
+  /**
+   * Specifies simplification using the Visvalingam-Whyatt algorithm.
+   */
+  public static final int VISVALINGAM_WHYATT = 2;
+
+  private Geometry inputGeom;
+  private int method;
+  private boolean isEnsureValidTopology = true;
+  /**
+   * The ranking of each linear component, keyed by the component
+   */
+  private Map lineRanking = new IdentityHashMap();
+
+  /**
+   * Creates a simplifier for a geometry,
+   * computing the significance of all its vertices.
+   *
+   * @param inputGeom the geometry to simplify
+   * @param method the simplification algorithm to use
+   *     ({@link #DOUGLAS_PEUCKER} or {@link #VISVALINGAM_WHYATT})
+   */
+  public MultiResolutionSimplifier(Geometry inputGeom, int method)
+  {
+    if (method != DOUGLAS_PEUCKER && method != VISVALINGAM_WHYATT)
+      throw new IllegalArgumentException("Unknown simplification method: " + method);
+    this.inputGeom = inputGeom;
+    this.method = method;
+    computeRankings();
+  }
+
+  /**
+   * Controls whether simplified polygons will be "fixed"
+   * to have valid topology.
+   * The default is to fix polygon topology.
+   *
+   * @param isEnsureValidTopology true if polygon topology should be fixed
+   * @see DouglasPeuckerSimplifier#setEnsureValid(boolean)
+   */
+  public void setEnsureValid(boolean isEnsureValidTopology)
+  {
+    this.isEnsureValidTopology = isEnsureValidTopology;
+  }
+
+  /**
+   * Gets the geometry being simplified.
+   *
+   * @return the input geometry
+   */
+  public Geometry getInputGeometry()
+  {
+    return inputGeom;
+  }
+
+  private void computeRankings()
+  {
+    inputGeom.apply(new GeometryComponentFilter() {
+      public void filter(Geometry geom) {
+        if (geom instanceof LineString && ! geom.isEmpty())
+          lineRanking.put(geom, new LineRanking(geom.getCoordinates(), method));
+      }
+    });
+  }
+
+  /**
+   * Gets the geometry simplified using a distance tolerance.
+   *
+   * @param distanceTolerance the tolerance to use
+   * @return the simplified geometry
+   */
+  public Geometry getResultGeometry(final double distanceTolerance)
+  {
+    if (method == DOUGLAS_PEUCKER) {
+      DouglasPeuckerSimplifier simp = new DouglasPeuckerSimplifier(inputGeom) {
+        Coordinate[] simplifyLine(Coordinate[] pts, Geometry component) {
+          LineRanking ranking = (LineRanking) lineRanking.get(component);
+          if (ranking == null)
+            return super.simplifyLine(pts, component);
+          return ranking.getCoordinates(distanceTolerance);
+        }
+      };
+      simp.setDistanceTolerance(distanceTolerance);
+      simp.setEnsureValid(isEnsureValidTopology);
+      return simp.getResultGeometry();
+    }
+    VWSimplifier simp = new VWSimplifier(inputGeom) {
+      Coordinate[] simplifyLine(Coordinate[] pts, Geometry component) {
+        LineRanking ranking = (LineRanking) lineRanking.get(component);
+        if (ranking == null)
+          return super.simplifyLine(pts, component);
+        return ranking.getCoordinates(distanceTolerance);
+      }
+    };
+    simp.setDistanceTolerance(distanceTolerance);
+    simp.setEnsureValid(isEnsureValidTopology);
+    return simp.getResultGeometry();
+  }
+
+  /**
+   * The vertices of a line arranged in a Cartesian tree by significance.
+   * The tree contains the interior vertices;
+   * an in-order traversal visits them in line order,
+   * and every vertex is at least as significant as its descendants.
+   * So the vertices kept for a tolerance form a subtree containing the root.
+   */
+  private static class LineRanking
+  {
+    private Coordinate[] pts;
+    private int method;
+    private double[] significance;
+    private int[] left;
+    private int[] right;
+    private int root = -1;
+
+    LineRanking(Coordinate[] pts, int method)
+    {
+      this.pts = pts;
+      this.method = method;
+      if (method == DOUGLAS_PEUCKER)
+        significance = DouglasPeuckerLineSimplifier.computeSignificance(pts);
+      else
+        significance = VWLineSimplifier.computeEffectiveAreas(pts);
+      buildTree();
+    }
+
+    /**
+     * Builds the Cartesian tree in linear time,
+     * using a stack holding the right spine of the tree.
+     */
+    private void buildTree()
+    {
+      int n = pts.length;
+      left = new int[n];
+      right = new int[n];
+      Arrays.fill(left, -1);
+      Arrays.fill(right, -1);
+      int[] spine = new int[n];
+      int spineSize = 0;
+      for (int i = 1; i < n - 1; i++) {
+        int last = -1;
+        while (spineSize > 0 && significance[spine[spineSize - 1]] < significance[i]) {
+          last = spine[--spineSize];
+        }
+        left[i] = last;
+        if (spineSize > 0)
+          right[spine[spineSize - 1]] = i;
+        spine[spineSize++] = i;
+      }
+      if (spineSize > 0)
+        root = spine[0];
+    }
+
+    private boolean isKept(int i, double distanceTolerance)
+    {
+      if (method == DOUGLAS_PEUCKER)
+        return significance[i] > distanceTolerance;
+      return significance[i] >= distanceTolerance * distanceTolerance;
+    }
+
+    Coordinate[] getCoordinates(double distanceTolerance)
+    {
+      CoordinateList coords = new CoordinateList();
+      addPoint(coords, 0);
+      // in-order traversal of the kept subtree
+      int[] stack = new int[16];
+      int top = 0;
+      int node = root;
+      while (true) {
+        while (node >= 0 && isKept(node, distanceTolerance)) {
+          if (top == stack.length)
+            stack = Arrays.copyOf(stack, 2 * top);
+          stack[top++] = node;
+          node = left[node];
+        }
+        if (top == 0)
+          break;
+        node = stack[--top];
+        addPoint(coords, node);
+        node = right[node];
+      }
+      if (pts.length > 1)
+        addPoint(coords, pts.length - 1);
+      return toLine(coords);
+    }
+
+    /**
+     * Adds a point to the output in the same way as the line simplifiers.
+     */
+    private void addPoint(CoordinateList coords, int i)
+    {
+      if (method == DOUGLAS_PEUCKER)
+        coords.add(new Coordinate(pts[i]));
+      else
+        coords.add(pts[i], false);
+    }
+
+    private Coordinate[] toLine(CoordinateList coords)
+    {
+      Coordinate[] simp = coords.toCoordinateArray();
+      if (method == VISVALINGAM_WHYATT && simp.length < 2) {
+        return new Coordinate[] { simp[0], new Coordinate(simp[0]) };
+      }
+      return simp;
+    }
+  }
+}
@@ -0,0 +1,139 @@
+/*
+ * The JTS Topology Suite is a collection of Java classes that
+ * implement the fundamental operations required to validate a given
+ * geo-spatial data set to a known topological specification.
+ *
+ * Copyright (C) 2016 Vivid Solutions
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * (http://www.eclipse.org/legal/epl-v10.html), and the Vivid Solutions BSD
+ * License v1.0 (found at the root of the repository).
+ *
+ */
+
+package org.locationtech.jts.simplify;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.locationtech.jts.geom.Geometry;
+
+/**
+ * A bounded cache of {@link MultiResolutionSimplifier}s,
+ * allowing geometries which are simplified repeatedly
+ * (e.g. for each zoom level of a tiled map, and for each request)
+ * to have their vertex significances computed only once.
+ * <p>
+ * Geometries are matched using {@link Geometry#equals(Object)},
+ * so a geometry which is read again from its source
+ * uses the simplifier created for an earlier copy.
+ * When the cache is full, the least recently used simplifier is discarded.
+ * <p>
+ * The cache may be used by multiple threads concurrently.
+ *
+ * @see MultiResolutionSimplifier
+ */
+public class SimplifierCache
+{
+  private int method;
+  private boolean isEnsureValidTopology = true;
+  private Map simplifiers;
+
+  /**
+   * Creates a cache for a simplification method.
+   *
+   * @param method the simplification algorithm to use
+   *     ({@link MultiResolutionSimplifier#DOUGLAS_PEUCKER}
+   *     or {@link MultiResolutionSimplifier#VISVALINGAM_WHYATT})
+   * @param maxSize the maximum number of geometries to cache
+   */
+  public SimplifierCache(int method, final int maxSize)
+  {
+    if (maxSize <= 0)
+      throw new IllegalArgumentException("Cache size must be positive");
+    this.method = method;
+    simplifiers = new LinkedHashMap(16, 0.75f, true) {
+      protected boolean removeEldestEntry(Map.Entry eldest) {
+        return size() > maxSize;
+      }
+    };
+  }
+
+  /**
+   * Controls whether simplified polygons will be "fixed"
+   * to have valid topology.
+   * The default is to fix polygon topology.
+   *
+   * @param isEnsureValidTopology true if polygon topology should be fixed
+   * @see MultiResolutionSimplifier#setEnsureValid(boolean)
+   */
+  public void setEnsureValid(boolean isEnsureValidTopology)
+  {
+    this.isEnsureValidTopology = isEnsureValidTopology;
+  }
+
+  /**
+   * Simplifies a geometry using a distance tolerance.
+   *
+   * @param geom the geometry to simplify
+   * @param distanceTolerance the tolerance to use
+   * @return the simplified geometry
+   */
+  public Geometry simplify(Geometry geom, double distanceTolerance)
+  {
+    if (distanceTolerance < 0.0)
+      throw new IllegalArgumentException("Tolerance must be non-negative");
+    return getSimplifier(geom).getResultGeometry(distanceTolerance);
+  }
+
+  /**
+   * Gets the simplifier for a geometry,
+   * creating it if it is not in the cache.
+   *
+   * @param geom the geometry to simplify
+   * @return the simplifier for the geometry
+   */
+  public MultiResolutionSimplifier getSimplifier(Geometry geom)
+  {
+    MultiResolutionSimplifier simp;
+    synchronized (simplifiers) {
+      simp = (MultiResolutionSimplifier) simplifiers.get(geom);
+    }
+    if (simp != null)
+      return simp;
+    /**
+     * The simplifier is created outside the lock,
+     * so a geometry requested concurrently may be ranked more than once.
+     * This is harmless, since the rankings are identical.
+     */
+    simp = new MultiResolutionSimplifier(geom, method);
+    simp.setEnsureValid(isEnsureValidTopology);
+    synchronized (simplifiers) {
+      simplifiers.put(geom, simp);
+    }
+    return simp;
+  }
+
+  /**
+   * Gets the number of geometries in the cache.
+   *
+   * @return the number of cached geometries
+   */
+  public int size()
+  {
+    synchronized (simplifiers) {
+      return simplifiers.size();
+    }
+  }
+
+  /**
+   * Removes all geometries from the cache.
+   */
+  public void clear()
+  {
+    synchronized (simplifiers) {
+      simplifiers.clear();
+    }
+  }
+}
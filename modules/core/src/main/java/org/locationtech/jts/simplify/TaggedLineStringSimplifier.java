@@ -18,6 +18,7 @@ import java.util.*;
 
 import org.locationtech.jts.algorithm.*;
 import org.locationtech.jts.geom.*;
+import org.locationtech.jts.index.ItemVisitor;
 import org.locationtech.jts.util.Debug;
 
 /**
@@ -33,9 +34,12 @@ public class TaggedLineStringSimplifier
   private LineIntersector li = new RobustLineIntersector();
   private LineSegmentIndex inputIndex = new LineSegmentIndex();
   private LineSegmentIndex outputIndex = new LineSegmentIndex();
+  private LineSegmentIndex[] otherOutputIndexes = new LineSegmentIndex[0];
   private TaggedLineString line;
   private Coordinate[] linePts;
   private double distanceTolerance = 0.0;
+  private IntersectionVisitor inputVisitor = new IntersectionVisitor();
+  private IntersectionVisitor outputVisitor = new IntersectionVisitor();
 
   public TaggedLineStringSimplifier(LineSegmentIndex inputIndex,
                                      LineSegmentIndex outputIndex)
@@ -44,6 +48,22 @@ public class TaggedLineStringSimplifier
     this.outputIndex = outputIndex;
   }
 
+  /**
+   * Creates a simplifier which also checks for intersections
+   * with the output segments of other lines, held in separate indexes.
+   *
+   * @param inputIndex the index of the input segments
+   * @param outputIndex the index to add the output segments to
+   * @param otherOutputIndexes indexes of the output segments of other lines
+   */
+  TaggedLineStringSimplifier(LineSegmentIndex inputIndex,
+                              LineSegmentIndex outputIndex,
+                              LineSegmentIndex[] otherOutputIndexes)
+  {
+    this(inputIndex, outputIndex);
+    this.otherOutputIndexes = otherOutputIndexes;
+  }
+
   /**
    * Sets the distance tolerance for the simplification.
    * All vertices in the simplified geometry will be within this
@@ -167,30 +187,21 @@ public class TaggedLineStringSimplifier
 
   private boolean hasBadOutputIntersection(LineSegment candidateSeg)
   {
-    List querySegs = outputIndex.query(candidateSeg);
-    for (Iterator i = querySegs.iterator(); i.hasNext(); ) {
-      LineSegment querySeg = (LineSegment) i.next();
-      if (hasInteriorIntersection(querySeg, candidateSeg)) {
-          return true;
-      }
+    outputVisitor.init(null, null, candidateSeg);
+    outputIndex.query(candidateSeg, outputVisitor);
+    for (int i = 0; i < otherOutputIndexes.length; i++) {
+      otherOutputIndexes[i].query(candidateSeg, outputVisitor);
     }
-    return false;
+    return outputVisitor.hasBadIntersection();
   }
 
   private boolean hasBadInputIntersection(TaggedLineString parentLine,
                        int[] sectionIndex,
                        LineSegment candidateSeg)
   {
-    List querySegs = inputIndex.query(candidateSeg);
-    for (Iterator i = querySegs.iterator(); i.hasNext(); ) {
-      TaggedLineSegment querySeg = (TaggedLineSegment) i.next();
-      if (hasInteriorIntersection(querySeg, candidateSeg)) {
-          if (isInLineSection(parentLine, sectionIndex, querySeg))
-            continue;
-          return true;
-      }
-    }
-    return false;
+    inputVisitor.init(parentLine, sectionIndex, candidateSeg);
+    inputIndex.query(candidateSeg, inputVisitor);
+    return inputVisitor.hasBadIntersection();
   }
 
   /**
@@ -235,4 +246,45 @@ public class TaggedLineStringSimplifier
       inputIndex.remove(seg);
     }
   }
+
+  /**
+   * Checks the segments found by an index query
+   * for an interior intersection with a candidate segment.
+   * Segments in the section of the parent line being flattened are ignored.
+   * Instances are reused for each query to avoid creating objects.
+   */
+  private class IntersectionVisitor
+      implements ItemVisitor
+  {
+    private TaggedLineString parentLine;
+    private int[] sectionIndex;
+    private LineSegment candidateSeg;
+    private boolean hasBadIntersection;
+
+    void init(TaggedLineString parentLine, int[] sectionIndex, LineSegment candidateSeg)
+    {
+      this.parentLine = parentLine;
+      this.sectionIndex = sectionIndex;
+      this.candidateSeg = candidateSeg;
+      hasBadIntersection = false;
+    }
+
+    boolean hasBadIntersection()
+    {
+      return hasBadIntersection;
+    }
+
+    public void visitItem(Object item)
+    {
+      if (hasBadIntersection)
+        return;
+      LineSegment querySeg = (LineSegment) item;
+      if (! hasInteriorIntersection(querySeg, candidateSeg))
+        return;
+      if (parentLine != null
+          && isInLineSection(parentLine, sectionIndex, (TaggedLineSegment) querySeg))
+        return;
+      hasBadIntersection = true;
+    }
+  }
 }
@@ -14,20 +14,42 @@
 
 package org.locationtech.jts.simplify;
 
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+import org.locationtech.jts.index.strtree.STRtree;
 
 /**
  * Simplifies a collection of TaggedLineStrings, preserving topology
  * (in the sense that no new intersections are introduced).
  * This class is essentially just a container for the common
  * indexes used by {@link TaggedLineStringSimplifier}.
+ * <p>
+ * The lines can optionally be simplified in parallel.
+ * A line is only affected by lines whose envelopes intersect its own,
+ * since every segment checked or created lies within the envelope of its line.
+ * So the lines are grouped into <i>waves</i>, where each line is in a later wave
+ * than every preceding line whose envelope intersects it.
+ * The waves are processed in order, and the lines of each wave in parallel.
+ * Each line has its own index of output segments,
+ * which is checked by the lines intersecting it in later waves.
+ * This gives exactly the same result as simplifying the lines in sequence.
  */
 class TaggedLinesSimplifier
 {
+  /**
+   * The minimum number of lines simplified by each parallel task
+   */
+  private static final int PARALLEL_THRESHOLD = 16;
+
   private LineSegmentIndex inputIndex = new LineSegmentIndex();
   private LineSegmentIndex outputIndex = new LineSegmentIndex();
   private double distanceTolerance = 0.0;
+  private boolean isParallel = false;
 
   public TaggedLinesSimplifier()
   {
@@ -45,6 +67,17 @@ class TaggedLinesSimplifier
     this.distanceTolerance = distanceTolerance;
   }
 
+  /**
+   * Sets whether the lines are simplified in parallel.
+   * The result is the same in either case.
+   * The default is <code>false</code>.
+   *
+   * @param isParallel true if the lines should be simplified in parallel
+   */
+  public void setParallel(boolean isParallel) {
+    this.isParallel = isParallel;
+  }
+
   /**
    * Simplify a collection of TaggedLineStrings
    *
@@ -54,6 +87,10 @@ class TaggedLinesSimplifier
     for (Iterator i = taggedLines.iterator(); i.hasNext(); ) {
       inputIndex.add((TaggedLineString) i.next());
     }
+    if (isParallel) {
+      simplifyParallel((TaggedLineString[]) taggedLines.toArray(new TaggedLineString[taggedLines.size()]));
+      return;
+    }
     for (Iterator i = taggedLines.iterator(); i.hasNext(); ) {
       TaggedLineStringSimplifier tlss
                     = new TaggedLineStringSimplifier(inputIndex, outputIndex);
@@ -62,4 +99,131 @@ class TaggedLinesSimplifier
     }
   }
 
+  private void simplifyParallel(TaggedLineString[] lines) {
+    inputIndex.build();
+    int[][] preceding = findPrecedingNeighbours(lines);
+    int[][] waves = computeWaves(preceding);
+    LineSegmentIndex[] lineOutputIndex = new LineSegmentIndex[lines.length];
+    for (int w = 0; w < waves.length; w++) {
+      int[] wave = waves[w];
+      if (wave.length > PARALLEL_THRESHOLD) {
+        ForkJoinPool.commonPool().invoke(
+            new SimplifyTask(lines, preceding, lineOutputIndex, wave, 0, wave.length));
+      }
+      else {
+        simplifyLines(lines, preceding, lineOutputIndex, wave, 0, wave.length);
+      }
+    }
+  }
+
+  /**
+   * Finds the preceding lines whose envelopes intersect each line.
+   *
+   * @param lines the lines to simplify
+   * @return the indexes of the preceding neighbours of each line
+   */
+  private static int[][] findPrecedingNeighbours(TaggedLineString[] lines) {
+    STRtree lineIndex = new STRtree();
+    for (int i = 0; i < lines.length; i++) {
+      lineIndex.insert(lines[i].getParent().getEnvelopeInternal(), new Integer(i));
+    }
+    int[][] preceding = new int[lines.length][];
+    for (int i = 0; i < lines.length; i++) {
+      List neighbours = lineIndex.query(lines[i].getParent().getEnvelopeInternal());
+      int[] prev = new int[neighbours.size()];
+      int n = 0;
+      for (int k = 0; k < neighbours.size(); k++) {
+        int j = ((Integer) neighbours.get(k)).intValue();
+        if (j < i)
+          prev[n++] = j;
+      }
+      preceding[i] = Arrays.copyOf(prev, n);
+    }
+    return preceding;
+  }
+
+  /**
+   * Groups the lines into waves,
+   * with each line in a later wave than all its preceding neighbours.
+   *
+   * @param preceding the preceding neighbours of each line
+   * @return the indexes of the lines in each wave
+   */
+  private static int[][] computeWaves(int[][] preceding) {
+    int[] lineWave = new int[preceding.length];
+    int numWaves = 0;
+    for (int i = 0; i < preceding.length; i++) {
+      int w = 0;
+      for (int k = 0; k < preceding[i].length; k++) {
+        w = Math.max(w, lineWave[preceding[i][k]] + 1);
+      }
+      lineWave[i] = w;
+      numWaves = Math.max(numWaves, w + 1);
+    }
+    int[] waveSize = new int[numWaves];
+    for (int i = 0; i < lineWave.length; i++) {
+      waveSize[lineWave[i]]++;
+    }
+    int[][] waves = new int[numWaves][];
+    for (int w = 0; w < numWaves; w++) {
+      waves[w] = new int[waveSize[w]];
+      waveSize[w] = 0;
+    }
+    for (int i = 0; i < lineWave.length; i++) {
+      int w = lineWave[i];
+      waves[w][waveSize[w]++] = i;
+    }
+    return waves;
+  }
+
+  private void simplifyLines(TaggedLineString[] lines, int[][] preceding,
+      LineSegmentIndex[] lineOutputIndex, int[] wave, int start, int end) {
+    for (int k = start; k < end; k++) {
+      int i = wave[k];
+      LineSegmentIndex[] neighbourOutputIndex = new LineSegmentIndex[preceding[i].length];
+      for (int n = 0; n < neighbourOutputIndex.length; n++) {
+        neighbourOutputIndex[n] = lineOutputIndex[preceding[i][n]];
+      }
+      LineSegmentIndex lineOutput = new LineSegmentIndex();
+      TaggedLineStringSimplifier tlss
+                    = new TaggedLineStringSimplifier(inputIndex, lineOutput, neighbourOutputIndex);
+      tlss.setDistanceTolerance(distanceTolerance);
+      tlss.simplify(lines[i]);
+      // pack the output so later waves can query it concurrently
+      lineOutput.build();
+      lineOutputIndex[i] = lineOutput;
+    }
+  }
+
+  private class SimplifyTask extends RecursiveAction
+  {
+    private TaggedLineString[] lines;
+    private int[][] preceding;
+    private LineSegmentIndex[] lineOutputIndex;
+    private int[] wave;
+    private int start;
+    private int end;
+
+    SimplifyTask(TaggedLineString[] lines, int[][] preceding,
+        LineSegmentIndex[] lineOutputIndex, int[] wave, int start, int end)
+    {
+      this.lines = lines;
+      this.preceding = preceding;
+      this.lineOutputIndex = lineOutputIndex;
+      this.wave = wave;
+      this.start = start;
+      this.end = end;
+    }
+
+    protected void compute()
+    {
+      if (end - start <= PARALLEL_THRESHOLD) {
+        simplifyLines(lines, preceding, lineOutputIndex, wave, start, end);
+        return;
+      }
+      int mid = (start + end) >>> 1;
+      invokeAll(new SimplifyTask(lines, preceding, lineOutputIndex, wave, start, mid),
+          new SimplifyTask(lines, preceding, lineOutputIndex, wave, mid, end));
+    }
+  }
 }
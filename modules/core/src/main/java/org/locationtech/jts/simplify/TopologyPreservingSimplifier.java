@@ -104,6 +104,17 @@ public class TopologyPreservingSimplifier
     lineSimplifier.setDistanceTolerance(distanceTolerance);
   }
 
+  /**
+   * Sets whether the linear components are simplified in parallel.
+   * The result is the same in either case.
+   * The default is <code>false</code>.
+   *
+   * @param isParallel true if the components should be simplified in parallel
+   */
+  public void setParallel(boolean isParallel) {
+    lineSimplifier.setParallel(isParallel);
+  }
+
   public Geometry getResultGeometry() 
   {
     // empty input produces an empty result
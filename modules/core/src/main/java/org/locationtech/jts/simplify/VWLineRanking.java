@@ -0,0 +1,102 @@
+/*
+ * The JTS Topology Suite is a collection of Java classes that
+ * implement the fundamental operations required to validate a given
+ * geo-spatial data set to a known topological specification.
+ *
+ * Copyright (C) 2016 Vivid Solutions
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * (http://www.eclipse.org/legal/epl-v10.html), and the Vivid Solutions BSD
+ * License v1.0 (found at the root of the repository).
+ *
+ */
+
+package org.locationtech.jts.simplify;
+
+import org.locationtech.jts.geom.Coordinate;
+
+/**
+ * Ranks the vertices of a linestring by their
+ * Visvalingam-Whyatt <i>effective area</i>.
+ * The effective area of a vertex is the area of the triangle
+ * it forms with its neighbours when it is removed by the algorithm
+ * (or the largest area of a vertex removed before it, if that is greater).
+ * The endpoints are never removed, and have an effective area of {@link Double#MAX_VALUE}.
+ * <p>
+ * The ranking is computed once, in O(n log n) time.
+ * The line simplified to any tolerance can then be extracted
+ * by keeping the vertices whose effective area is at least the
+ * square of the tolerance.
+ * This is the same as the line computed by {@link VWSimplifier}
+ * for that tolerance, so a single ranking can be used
+ * to produce simplifications for many tolerances (e.g. for every zoom level of a map).
+ *
+ * @see VWSimplifier
+ */
+public class VWLineRanking
+{
+  private Coordinate[] pts;
+  private double[] effectiveArea;
+
+  /**
+   * Computes the ranking of the vertices of a line.
+   *
+   * @param pts the points of the line (which must not be empty)
+   */
+  public VWLineRanking(Coordinate[] pts)
+  {
+    this.pts = pts;
+    effectiveArea = VWLineSimplifier.computeEffectiveAreas(pts);
+  }
+
+  /**
+   * Gets the number of vertices in the line.
+   *
+   * @return the number of vertices
+   */
+  public int size()
+  {
+    return pts.length;
+  }
+
+  /**
+   * Gets the effective area of a vertex.
+   *
+   * @param i the index of the vertex
+   * @return the effective area of the vertex
+   */
+  public double getEffectiveArea(int i)
+  {
+    return effectiveArea[i];
+  }
+
+  /**
+   * Gets the effective areas of all the vertices.
+   * The returned array must not be modified.
+   *
+   * @return the effective area of each vertex
+   */
+  public double[] getEffectiveAreas()
+  {
+    return effectiveArea;
+  }
+
+  /**
+   * Gets the line simplified using a distance tolerance.
+   * The result has repeated points removed,
+   * and always has at least 2 points.
+   *
+   * @param distanceTolerance the distance tolerance
+   * @return the points of the simplified line
+   */
+  public Coordinate[] getCoordinates(double distanceTolerance)
+  {
+    double areaTolerance = distanceTolerance * distanceTolerance;
+    boolean[] isKept = new boolean[pts.length];
+    for (int i = 0; i < pts.length; i++) {
+      isKept[i] = effectiveArea[i] >= areaTolerance;
+    }
+    return VWLineSimplifier.extractCoordinates(pts, isKept);
+  }
+}
@@ -23,20 +23,86 @@ import org.locationtech.jts.geom.Triangle;
  * Visvalingam-Whyatt algorithm.
  * The Visvalingam-Whyatt algorithm simplifies geometry 
  * by removing vertices while trying to minimize the area changed.
- * 
+ * <p>
+ * The vertex with the smallest area is found using an indexed binary min-heap,
+ * and the line is kept as links between vertex indexes,
+ * all held in primitive arrays.
+ * So simplification takes O(n log n) time.
+ * Ties between vertices with equal area are broken by their order in the line.
+ *
  * @version 1.7
  */
 class VWLineSimplifier
 {
+  private static final double MAX_AREA = Double.MAX_VALUE;
+
   public static Coordinate[] simplify(Coordinate[] pts, double distanceTolerance)
   {
     VWLineSimplifier simp = new VWLineSimplifier(pts, distanceTolerance);
     return simp.simplify();
   }
 
+  /**
+   * Computes the effective area of each vertex of a line.
+   * This is the area of the vertex when it is removed,
+   * or the largest area of any vertex removed before it if that is greater.
+   * The endpoints have an effective area of {@link Double#MAX_VALUE}.
+   * The vertices with effective area greater than or equal to an area tolerance
+   * are exactly those kept by simplifying using that tolerance.
+   *
+   * @param pts the points of the line
+   * @return the effective area of each vertex
+   */
+  static double[] computeEffectiveAreas(Coordinate[] pts)
+  {
+    VWLineSimplifier simp = new VWLineSimplifier(pts, 0.0);
+    double[] effectiveArea = new double[pts.length];
+    simp.removeVertices(Double.POSITIVE_INFINITY, effectiveArea);
+    return effectiveArea;
+  }
+
+  /**
+   * Extracts the vertices of a line which are kept by a simplification.
+   * Repeated points are removed, and the result always has at least 2 points.
+   *
+   * @param pts the points of the line
+   * @param isKept flags indicating the vertices to keep
+   * @return the kept vertices
+   */
+  static Coordinate[] extractCoordinates(Coordinate[] pts, boolean[] isKept)
+  {
+    CoordinateList coords = new CoordinateList();
+    for (int i = 0; i < pts.length; i++) {
+      if (isKept[i])
+        coords.add(pts[i], false);
+    }
+    Coordinate[] simp = coords.toCoordinateArray();
+    // ensure computed value is a valid line
+    if (simp.length < 2) {
+      return new Coordinate[] { simp[0], new Coordinate(simp[0]) };
+    }
+    return simp;
+  }
+
   private Coordinate[] pts;
   private double tolerance;
 
+  /**
+   * The neighbours of each vertex which has not been removed (-1 for none)
+   */
+  private int[] prev;
+  private int[] next;
+  private double[] area;
+  /**
+   * The interior vertices which have not been removed, in heap order
+   */
+  private int[] heap;
+  /**
+   * The position of each vertex in the heap (-1 if not present)
+   */
+  private int[] heapPos;
+  private int heapSize = 0;
+
   public VWLineSimplifier(Coordinate[] pts, double distanceTolerance)
   {
     this.pts = pts;
@@ -45,132 +111,139 @@ class VWLineSimplifier
 
   public Coordinate[] simplify()
   {
-    VWLineSimplifier.VWVertex vwLine = VWVertex.buildLine(pts);
-    double minArea = tolerance;
-    do {
-      minArea = simplifyVertex(vwLine);
-    } while (minArea < tolerance);
-    Coordinate[] simp = vwLine.getCoordinates();
-    // ensure computed value is a valid line
-    if (simp.length < 2) {
-      return new Coordinate[] { simp[0], new Coordinate(simp[0]) };
-    }
-    return simp;
+    boolean[] isKept = removeVertices(tolerance, null);
+    return extractCoordinates(pts, isKept);
   }
 
-  private double simplifyVertex(VWLineSimplifier.VWVertex vwLine)
+  /**
+   * Repeatedly removes the vertex with the smallest area,
+   * until there is none with area less than the area tolerance.
+   *
+   * @param areaTolerance the area tolerance
+   * @param effectiveArea array to record the effective area of each vertex in, or null
+   * @return flags indicating the vertices which were not removed
+   */
+  private boolean[] removeVertices(double areaTolerance, double[] effectiveArea)
   {
-    /**
-     * Scan vertices in line and remove the one with smallest effective area.
-     */
-    // TODO: use an appropriate data structure to optimize finding the smallest area vertex
-    VWLineSimplifier.VWVertex curr = vwLine;
-    double minArea = curr.getArea();
-    VWLineSimplifier.VWVertex minVertex = null;
-    while (curr != null) {
-      double area = curr.getArea();
-      if (area < minArea) {
-        minArea = area;
-        minVertex = curr;
-      }
-      curr = curr.next;
+    init();
+    boolean[] isKept = new boolean[pts.length];
+    for (int i = 0; i < pts.length; i++) {
+      isKept[i] = true;
+      if (effectiveArea != null)
+        effectiveArea[i] = MAX_AREA;
     }
-    if (minVertex != null && minArea < tolerance) {
-      minVertex.remove();
+    double maxArea = 0.0;
+    while (heapSize > 0) {
+      int v = heap[0];
+      if (! (area[v] < areaTolerance))
+        break;
+      removeMin();
+      isKept[v] = false;
+      if (effectiveArea != null) {
+        maxArea = Math.max(maxArea, area[v]);
+        effectiveArea[v] = maxArea;
+      }
+      int p = prev[v];
+      int n = next[v];
+      next[p] = n;
+      prev[n] = p;
+      updateArea(p);
+      updateArea(n);
     }
-    if (! vwLine.isLive()) return -1;
-    return minArea;
+    return isKept;
   }
 
-
-  static class VWVertex
+  private void init()
   {
-    public static VWLineSimplifier.VWVertex buildLine(Coordinate[] pts)
-    {
-      VWLineSimplifier.VWVertex first = null;
-      VWLineSimplifier.VWVertex prev = null;
-      for (int i = 0; i < pts.length; i++) {
-        VWLineSimplifier.VWVertex v = new VWVertex(pts[i]);
-        if (first == null)
-          first = v;
-        v.setPrev(prev);
-        if (prev != null) {
-          prev.setNext(v);
-          prev.updateArea();
-        }
-        prev = v;
-      }
-      return first;
+    int size = pts.length;
+    prev = new int[size];
+    next = new int[size];
+    area = new double[size];
+    heap = new int[size];
+    heapPos = new int[size];
+    for (int i = 0; i < size; i++) {
+      prev[i] = i - 1;
+      next[i] = i + 1 < size ? i + 1 : -1;
+      heapPos[i] = -1;
     }
-    
-    public static double MAX_AREA = Double.MAX_VALUE;
-    
-    private Coordinate pt;
-    private VWLineSimplifier.VWVertex prev;
-    private VWLineSimplifier.VWVertex next;
-    private double area = MAX_AREA;
-    private boolean isLive = true;
-
-    public VWVertex(Coordinate pt)
-    {
-      this.pt = pt;
+    // the endpoints are never removed, so are not in the heap
+    for (int i = 1; i < size - 1; i++) {
+      area[i] = vertexArea(i);
+      heap[heapSize] = i;
+      heapPos[i] = heapSize;
+      heapSize++;
     }
-
-    public void setPrev(VWLineSimplifier.VWVertex prev)
-    {
-      this.prev = prev;
+    for (int i = heapSize / 2 - 1; i >= 0; i--) {
+      siftDown(i);
     }
+  }
 
-    public void setNext(VWLineSimplifier.VWVertex next)
-    {
-      this.next = next;
-    }
+  private double vertexArea(int i)
+  {
+    return Math.abs(Triangle.area(pts[prev[i]], pts[i], pts[next[i]]));
+  }
 
-    public void updateArea()
-    {
-      if (prev == null || next == null) {
-        area = MAX_AREA;
-        return;
-      }
-      area = Math.abs(Triangle.area(prev.pt, pt, next.pt));
-    }
+  private void updateArea(int i)
+  {
+    if (heapPos[i] < 0)
+      return;
+    double oldArea = area[i];
+    area[i] = vertexArea(i);
+    if (area[i] < oldArea)
+      siftUp(heapPos[i]);
+    else
+      siftDown(heapPos[i]);
+  }
 
-    public double getArea()
-    {
-      return area;
-    }
-    public boolean isLive()
-    {
-      return isLive;
+  private void removeMin()
+  {
+    heapPos[heap[0]] = -1;
+    heapSize--;
+    if (heapSize > 0) {
+      heap[0] = heap[heapSize];
+      heapPos[heap[0]] = 0;
+      siftDown(0);
     }
-    public VWLineSimplifier.VWVertex remove()
-    {
-      VWLineSimplifier.VWVertex tmpPrev = prev;
-      VWLineSimplifier.VWVertex tmpNext = next;
-      VWLineSimplifier.VWVertex result = null;
-      if (prev != null) {
-        prev.setNext(tmpNext);
-        prev.updateArea();
-        result = prev;
-      }
-      if (next != null) {
-        next.setPrev(tmpPrev);
-        next.updateArea();
-        if (result == null)
-          result = next;
-      }
-      isLive = false;
-      return result;
+  }
+
+  private boolean isLess(int v0, int v1)
+  {
+    if (area[v0] < area[v1]) return true;
+    if (area[v0] > area[v1]) return false;
+    return v0 < v1;
+  }
+
+  private void siftUp(int pos)
+  {
+    int v = heap[pos];
+    while (pos > 0) {
+      int parent = (pos - 1) / 2;
+      if (! isLess(v, heap[parent]))
+        break;
+      heap[pos] = heap[parent];
+      heapPos[heap[pos]] = pos;
+      pos = parent;
     }
-    public Coordinate[] getCoordinates()
-    {
-      CoordinateList coords = new CoordinateList();
-      VWLineSimplifier.VWVertex curr = this;
-      do {
-        coords.add(curr.pt, false);
-        curr = curr.next;
-      } while (curr != null);
-      return coords.toCoordinateArray();
+    heap[pos] = v;
+    heapPos[v] = pos;
+  }
+
+  private void siftDown(int pos)
+  {
+    int v = heap[pos];
+    while (true) {
+      int child = 2 * pos + 1;
+      if (child >= heapSize)
+        break;
+      if (child + 1 < heapSize && isLess(heap[child + 1], heap[child]))
+        child++;
+      if (! isLess(heap[child], v))
+        break;
+      heap[pos] = heap[child];
+      heapPos[heap[pos]] = pos;
+      pos = child;
     }
+    heap[pos] = v;
+    heapPos[v] = pos;
   }
 }
\ No newline at end of file
@@ -33,7 +33,6 @@ import org.locationtech.jts.geom.util.*;
  * 
  * <h3>Known Bugs</h3>
  * <ul>
- * <li>Not yet optimized for performance
  * <li>Does not simplify the endpoint of rings
  * </ul>
  * <h3>To Do</h3>
@@ -122,6 +121,19 @@ public class VWSimplifier
     return (new VWTransformer(isEnsureValidTopology)).transform(inputGeom);
   }
 
+  /**
+   * Simplifies the points of a geometry component.
+   * This allows subclasses to supply precomputed simplifications.
+   *
+   * @param pts the points of the component
+   * @param component the geometry containing the points
+   * @return the simplified points
+   */
+  Coordinate[] simplifyLine(Coordinate[] pts, Geometry component)
+  {
+    return VWLineSimplifier.simplify(pts, distanceTolerance);
+  }
+
   class VWTransformer extends GeometryTransformer
   {
     private boolean isEnsureValidTopology = true;
@@ -139,7 +151,7 @@ public class VWSimplifier
         newPts = new Coordinate[0];
       }
       else {
-        newPts = VWLineSimplifier.simplify(inputPts, distanceTolerance);
+        newPts = simplifyLine(inputPts, parent);
       }
       return factory.getCoordinateSequenceFactory().create(newPts);
     }
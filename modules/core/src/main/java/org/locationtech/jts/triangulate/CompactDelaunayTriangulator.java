@@ -0,0 +1,473 @@
+/*
+ * The JTS Topology Suite is a collection of Java classes that
+ * implement the fundamental operations required to validate a given
+ * geo-spatial data set to a known topological specification.
+ *
+ * Copyright (C) 2016 Vivid Solutions
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * (http://www.eclipse.org/legal/epl-v10.html), and the Vivid Solutions BSD
+ * License v1.0 (found at the root of the repository).
+ *
+ */
+
+package org.locationtech.jts.triangulate;
+
+import org.locationtech.jts.algorithm.CGAlgorithms;
+import org.locationtech.jts.geom.Coordinate;
+import org.locationtech.jts.triangulate.quadedge.TrianglePredicate;
+
+
+/**
+ * Computes the Delaunay Triangulation of a set of points
+ * directly into a {@link TriangleMesh},
+ * without creating a {@link org.locationtech.jts.triangulate.quadedge.QuadEdgeSubdivision}.
+ * <p>
+ * The triangulation is computed with the same divide-and-conquer algorithm
+ * as {@link DivideAndConquerDelaunayTriangulator},
+ * but the quad-edge structure is held in primitive arrays,
+ * with an edge denoted by an integer index
+ * whose two low bits give its rotation within its quad-edge.
+ * No objects are created per site or per edge,
+ * so very large point sets can be triangulated in a small amount of memory.
+ * <p>
+ * The vertices of the mesh are the input points, in the order given.
+ * Exactly coincident points are triangulated once;
+ * the duplicates are not referenced by any triangle.
+ * The mesh contains no triangles if the points are all collinear.
+ *
+ * @see TriangleMesh
+ */
+public class CompactDelaunayTriangulator
+{
+  private static final int INSERTION_SORT_SIZE = 16;
+
+  private double[] xy;
+  private int[] sites;
+
+  /**
+   * The next edge around the origin of each edge (Onext), 4 per quad-edge
+   */
+  private int[] next;
+  /**
+   * The origin vertex of each primal edge, 2 per quad-edge,
+   * or -1 if the quad-edge has been deleted
+   */
+  private int[] org;
+  private int numQuads = 0;
+  private int freeQuad = -1;
+
+  // work coordinates for the geometric predicates
+  private Coordinate p0 = new Coordinate();
+  private Coordinate p1 = new Coordinate();
+  private Coordinate p2 = new Coordinate();
+  private Coordinate p3 = new Coordinate();
+
+  /**
+   * Creates a new triangulator for an array of X,Y ordinates.
+   * The array is used as the coordinate array of the mesh, and is not copied.
+   *
+   * @param xy the point ordinates, as X,Y pairs
+   */
+  public CompactDelaunayTriangulator(double[] xy)
+  {
+    this.xy = xy;
+  }
+
+  /**
+   * Creates a new triangulator for an array of points.
+   *
+   * @param pts the points to triangulate
+   */
+  public CompactDelaunayTriangulator(Coordinate[] pts)
+  {
+    xy = new double[2 * pts.length];
+    for (int i = 0; i < pts.length; i++) {
+      xy[2 * i] = pts[i].x;
+      xy[2 * i + 1] = pts[i].y;
+    }
+  }
+
+  /**
+   * Computes the triangulation.
+   *
+   * @return the triangulation mesh
+   */
+  public TriangleMesh triangulate()
+  {
+    int n = xy.length / 2;
+    sites = new int[n];
+    for (int i = 0; i < n; i++) {
+      sites[i] = i;
+    }
+    sort(0, n);
+    int numSites = removeDuplicates();
+
+    int capacity = Math.max(3 * numSites, 4);
+    next = new int[4 * capacity];
+    org = new int[2 * capacity];
+    if (numSites >= 2)
+      triangulate(0, numSites);
+    sites = null;
+    return extractMesh(numSites);
+  }
+
+  private int removeDuplicates()
+  {
+    int n = 0;
+    for (int i = 0; i < sites.length; i++) {
+      if (n > 0 && compare(sites[i], sites[n - 1]) == 0)
+        continue;
+      sites[n++] = sites[i];
+    }
+    return n;
+  }
+
+  /**
+   * Triangulates a range of the sorted sites.
+   *
+   * @return the counterclockwise convex hull edge out of the leftmost vertex,
+   * and the clockwise convex hull edge out of the rightmost vertex,
+   * packed into a long
+   */
+  private long triangulate(int start, int end)
+  {
+    int n = end - start;
+    if (n == 2) {
+      int a = makeEdge(sites[start], sites[start + 1]);
+      return pack(a, sym(a));
+    }
+    if (n == 3) {
+      int s1 = sites[start];
+      int s2 = sites[start + 1];
+      int s3 = sites[start + 2];
+      int a = makeEdge(s1, s2);
+      int b = makeEdge(s2, s3);
+      splice(sym(a), b);
+      if (isCCW(s1, s2, s3)) {
+        connect(b, a);
+        return pack(a, sym(b));
+      }
+      if (isCCW(s1, s3, s2)) {
+        int c = connect(b, a);
+        return pack(sym(c), c);
+      }
+      // the vertices are collinear
+      return pack(a, sym(b));
+    }
+
+    int mid = start + n / 2;
+    long left = triangulate(start, mid);
+    long right = triangulate(mid, end);
+    int ldo = first(left);
+    int ldi = second(left);
+    int rdi = first(right);
+    int rdo = second(right);
+
+    // compute the lower common tangent of the two halves
+    while (true) {
+      if (isLeftOf(org(rdi), ldi))
+        ldi = lNext(ldi);
+      else if (isRightOf(org(ldi), rdi))
+        rdi = rPrev(rdi);
+      else
+        break;
+    }
+
+    int basel = connect(sym(rdi), ldi);
+    if (org(ldi) == org(ldo))
+      ldo = sym(basel);
+    if (org(rdi) == org(rdo))
+      rdo = basel;
+
+    // merge the halves, from the bottom up
+    while (true) {
+      int lcand = next[sym(basel)];
+      if (isValid(lcand, basel)) {
+        while (isInCircle(dest(basel), org(basel), dest(lcand), dest(next[lcand]))) {
+          int t = next[lcand];
+          deleteEdge(lcand);
+          lcand = t;
+        }
+      }
+      int rcand = oPrev(basel);
+      if (isValid(rcand, basel)) {
+        while (isInCircle(dest(basel), org(basel), dest(rcand), dest(oPrev(rcand)))) {
+          int t = oPrev(rcand);
+          deleteEdge(rcand);
+          rcand = t;
+        }
+      }
+      boolean isLeftValid = isValid(lcand, basel);
+      boolean isRightValid = isValid(rcand, basel);
+      // basel is the upper common tangent
+      if (! isLeftValid && ! isRightValid)
+        break;
+
+      if (! isLeftValid
+          || (isRightValid && isInCircle(dest(lcand), org(lcand), org(rcand), dest(rcand))))
+        basel = connect(rcand, sym(basel));
+      else
+        basel = connect(sym(basel), sym(lcand));
+    }
+    return pack(ldo, rdo);
+  }
+
+  private static long pack(int e1, int e2)
+  {
+    return ((long) e1 << 32) | (e2 & 0xffffffffL);
+  }
+
+  private static int first(long edges) { return (int) (edges >>> 32); }
+
+  private static int second(long edges) { return (int) edges; }
+
+  /**
+   * Extracts the triangles of the quad-edge structure.
+   * Each primal directed edge is assigned to the half-edge
+   * of the triangle on its left, if there is one.
+   */
+  private TriangleMesh extractMesh(int numSites)
+  {
+    int[] halfEdgeOf = new int[2 * numQuads];
+    for (int i = 0; i < halfEdgeOf.length; i++) {
+      halfEdgeOf[i] = -1;
+    }
+    int maxTriangles = Math.max(2 * numSites, 1);
+    int[] triangles = new int[3 * maxTriangles];
+    int[] triEdges = new int[3 * maxTriangles];
+    int numHalfEdges = 0;
+    for (int e = 0; e < 4 * numQuads; e += 2) {
+      if (org[e >> 1] < 0) continue;
+      if (halfEdgeOf[e >> 1] >= 0) continue;
+      int e1 = lNext(e);
+      int e2 = lNext(e1);
+      if (lNext(e2) != e) continue;
+      // the outer face is a triangle if the hull has three vertices
+      if (! isCCW(org(e), org(e1), org(e2))) continue;
+
+      int h = numHalfEdges;
+      triangles[h] = org(e);
+      triangles[h + 1] = org(e1);
+      triangles[h + 2] = org(e2);
+      triEdges[h] = e;
+      triEdges[h + 1] = e1;
+      triEdges[h + 2] = e2;
+      halfEdgeOf[e >> 1] = h;
+      halfEdgeOf[e1 >> 1] = h + 1;
+      halfEdgeOf[e2 >> 1] = h + 2;
+      numHalfEdges += 3;
+    }
+    next = null;
+    org = null;
+
+    int[] halfedges = new int[numHalfEdges];
+    for (int h = 0; h < numHalfEdges; h++) {
+      halfedges[h] = halfEdgeOf[sym(triEdges[h]) >> 1];
+    }
+    int[] tris = new int[numHalfEdges];
+    System.arraycopy(triangles, 0, tris, 0, numHalfEdges);
+    return new TriangleMesh(xy, tris, halfedges);
+  }
+
+  //-------------  quad-edge operations  ----------------
+
+  private static int rot(int e) { return (e & ~3) | ((e + 1) & 3); }
+
+  private static int invRot(int e) { return (e & ~3) | ((e + 3) & 3); }
+
+  private static int sym(int e) { return e ^ 2; }
+
+  private int oPrev(int e) { return rot(next[rot(e)]); }
+
+  private int lNext(int e) { return rot(next[invRot(e)]); }
+
+  private int rPrev(int e) { return next[sym(e)]; }
+
+  private int org(int e) { return org[e >> 1]; }
+
+  private int dest(int e) { return org[sym(e) >> 1]; }
+
+  private int makeEdge(int o, int d)
+  {
+    int q;
+    if (freeQuad >= 0) {
+      q = freeQuad;
+      freeQuad = next[4 * q];
+    }
+    else {
+      if (numQuads == org.length / 2)
+        grow();
+      q = numQuads++;
+    }
+    int e = 4 * q;
+    next[e] = e;
+    next[e + 1] = e + 3;
+    next[e + 2] = e + 2;
+    next[e + 3] = e + 1;
+    org[2 * q] = o;
+    org[2 * q + 1] = d;
+    return e;
+  }
+
+  private void grow()
+  {
+    int[] newNext = new int[2 * next.length];
+    System.arraycopy(next, 0, newNext, 0, next.length);
+    next = newNext;
+    int[] newOrg = new int[2 * org.length];
+    System.arraycopy(org, 0, newOrg, 0, org.length);
+    org = newOrg;
+  }
+
+  private void splice(int a, int b)
+  {
+    int alpha = rot(next[a]);
+    int beta = rot(next[b]);
+    int t1 = next[b];
+    int t2 = next[a];
+    int t3 = next[beta];
+    int t4 = next[alpha];
+    next[a] = t1;
+    next[b] = t2;
+    next[alpha] = t3;
+    next[beta] = t4;
+  }
+
+  private int connect(int a, int b)
+  {
+    int e = makeEdge(dest(a), org(b));
+    splice(e, lNext(a));
+    splice(sym(e), b);
+    return e;
+  }
+
+  /**
+   * Removes an edge from the triangulation,
+   * and adds its quad-edge to the free list.
+   */
+  private void deleteEdge(int e)
+  {
+    splice(e, oPrev(e));
+    splice(sym(e), oPrev(sym(e)));
+    int q = e >> 2;
+    org[2 * q] = -1;
+    org[2 * q + 1] = -1;
+    next[4 * q] = freeQuad;
+    freeQuad = q;
+  }
+
+  //-------------  predicates  ----------------
+
+  private boolean isValid(int e, int basel)
+  {
+    return isRightOf(dest(e), basel);
+  }
+
+  private boolean isRightOf(int v, int e)
+  {
+    return isCCW(v, dest(e), org(e));
+  }
+
+  private boolean isLeftOf(int v, int e)
+  {
+    return isCCW(v, org(e), dest(e));
+  }
+
+  private boolean isCCW(int a, int b, int c)
+  {
+    setCoordinate(p0, a);
+    setCoordinate(p1, b);
+    setCoordinate(p2, c);
+    return CGAlgorithms.orientationIndex(p0, p1, p2) == CGAlgorithms.COUNTERCLOCKWISE;
+  }
+
+  /**
+   * Tests whether vertex p is inside the circle through the
+   * counterclockwise triangle a, b, c.
+   */
+  private boolean isInCircle(int a, int b, int c, int p)
+  {
+    setCoordinate(p0, a);
+    setCoordinate(p1, b);
+    setCoordinate(p2, c);
+    setCoordinate(p3, p);
+    return TrianglePredicate.isInCircleRobust(p0, p1, p2, p3);
+  }
+
+  private void setCoordinate(Coordinate p, int v)
+  {
+    p.x = xy[2 * v];
+    p.y = xy[2 * v + 1];
+  }
+
+  //-------------  sorting  ----------------
+
+  /**
+   * Compares two vertices by X and then Y ordinate.
+   */
+  private int compare(int v1, int v2)
+  {
+    double x1 = xy[2 * v1];
+    double x2 = xy[2 * v2];
+    if (x1 < x2) return -1;
+    if (x1 > x2) return 1;
+    double y1 = xy[2 * v1 + 1];
+    double y2 = xy[2 * v2 + 1];
+    if (y1 < y2) return -1;
+    if (y1 > y2) return 1;
+    return 0;
+  }
+
+  /**
+   * Sorts a range of the site array using quicksort,
+   * recursing on the smaller partition.
+   */
+  private void sort(int start, int end)
+  {
+    while (end - start > INSERTION_SORT_SIZE) {
+      int mid = (start + end) >>> 1;
+      if (compare(sites[mid], sites[start]) < 0) swap(mid, start);
+      if (compare(sites[end - 1], sites[start]) < 0) swap(end - 1, start);
+      if (compare(sites[end - 1], sites[mid]) < 0) swap(end - 1, mid);
+      int pivot = sites[mid];
+
+      int i = start;
+      int j = end - 1;
+      while (i <= j) {
+        while (compare(sites[i], pivot) < 0) i++;
+        while (compare(sites[j], pivot) > 0) j--;
+        if (i <= j) {
+          swap(i, j);
+          i++;
+          j--;
+        }
+      }
+      if (j - start < end - i) {
+        sort(start, j + 1);
+        start = i;
+      }
+      else {
+        sort(i, end);
+        end = j + 1;
+      }
+    }
+    for (int i = start + 1; i < end; i++) {
+      int v = sites[i];
+      int j = i - 1;
+      while (j >= start && compare(sites[j], v) > 0) {
+        sites[j + 1] = sites[j];
+        j--;
+      }
+      sites[j + 1] = v;
+    }
+  }
+
+  private void swap(int i, int j)
+  {
+    int t = sites[i];
+    sites[i] = sites[j];
+    sites[j] = t;
+  }
+}
@@ -33,6 +33,7 @@ public class ConformingDelaunayTriangulationBuilder
 	private Collection siteCoords;
 	private Geometry constraintLines;
 	private double tolerance = 0.0;
+	private boolean isParallel = false;
 	private QuadEdgeSubdivision subdiv = null;
 
 	private Map constraintVertexMap = new TreeMap();
@@ -82,6 +83,18 @@ public class ConformingDelaunayTriangulationBuilder
 		this.tolerance = tolerance;
 	}
 	
+	/**
+	 * Sets whether constraint encroachment is tested in parallel.
+	 * The triangulation computed is the same in either case.
+	 * 
+	 * @param isParallel true if encroachment should be tested in parallel
+	 * 
+	 * @see ConformingDelaunayTriangulator#setParallel(boolean)
+	 */
+	public void setParallel(boolean isParallel)
+	{
+		this.isParallel = isParallel;
+	}
 	
 	private void create()
 	{
@@ -98,6 +111,7 @@ public class ConformingDelaunayTriangulationBuilder
     List sites = createSiteVertices(siteCoords);
 
 		ConformingDelaunayTriangulator cdt = new ConformingDelaunayTriangulator(sites, tolerance);
+		cdt.setParallel(isParallel);
 		
 		cdt.setConstraints(segments, new ArrayList(constraintVertexMap.values()));
 		
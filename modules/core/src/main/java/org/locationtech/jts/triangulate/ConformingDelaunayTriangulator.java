@@ -16,8 +16,12 @@ package org.locationtech.jts.triangulate;
 
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.IdentityHashMap;
 import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
 
 import org.locationtech.jts.algorithm.ConvexHull;
 import org.locationtech.jts.geom.Coordinate;
@@ -26,6 +30,7 @@ import org.locationtech.jts.geom.Geometry;
 import org.locationtech.jts.geom.GeometryFactory;
 import org.locationtech.jts.index.kdtree.KdNode;
 import org.locationtech.jts.index.kdtree.KdTree;
+import org.locationtech.jts.index.quadtree.Quadtree;
 import org.locationtech.jts.triangulate.quadedge.LastFoundQuadEdgeLocator;
 import org.locationtech.jts.triangulate.quadedge.QuadEdgeSubdivision;
 import org.locationtech.jts.triangulate.quadedge.Vertex;
@@ -63,6 +68,13 @@ import org.locationtech.jts.util.Debug;
  *	 cdt.enforceConstraints();
  *	 subdiv = cdt.getSubdivision();
  * </pre>
+ * <p>
+ * During constraint enforcement the constraint segments are indexed,
+ * so that each iteration only tests the segments which
+ * may have been encroached by the sites inserted since they were last tested.
+ * The encroachment tests can optionally be run in parallel
+ * (see {@link #setParallel(boolean)}).
+ * The result is the same as for sequential enforcement.
  * 
  * @author David Skea
  * @author Martin Davis
@@ -98,6 +110,16 @@ public class ConformingDelaunayTriangulator
 
 	private double tolerance; // defines if two sites are the same.
 
+	private boolean isParallel = false;
+	private ConstraintEnforcementListener listener = null;
+	// constraint segments indexed by the envelope of their diametral circle
+	private Quadtree segIndex = null;
+	// the segments which must be tested for encroachment, mapped to their state
+	private Map segsToTest = new IdentityHashMap();
+	private int iterationCount = 0;
+	private int splitCount = 0;
+	private int encroachTestCount = 0;
+
 	/**
 	 * Creates a Conforming Delaunay Triangulation based on the given
 	 * unconstrained initial vertices. The initial vertex set should not contain
@@ -144,6 +166,56 @@ public class ConformingDelaunayTriangulator
 		this.splitFinder = splitFinder;
 	}
 
+	/**
+	 * Sets whether the segment encroachment tests 
+	 * during constraint enforcement are run in parallel.
+	 * Site insertion and segment splitting are always sequential.
+	 * The default is <code>false</code>.
+	 * 
+	 * @param isParallel true if encroachment should be tested in parallel
+	 */
+	public void setParallel(boolean isParallel) {
+		this.isParallel = isParallel;
+	}
+
+	/**
+	 * Sets a listener to be notified of the progress of constraint enforcement.
+	 * 
+	 * @param listener the listener to notify
+	 */
+	public void setEnforcementListener(ConstraintEnforcementListener listener) {
+		this.listener = listener;
+	}
+
+	/**
+	 * Gets the number of iterations performed to enforce the constraints.
+	 * 
+	 * @return the number of iterations
+	 */
+	public int getIterationCount() {
+		return iterationCount;
+	}
+
+	/**
+	 * Gets the number of constraint segments split
+	 * while enforcing the constraints.
+	 * 
+	 * @return the number of segment splits
+	 */
+	public int getSplitCount() {
+		return splitCount;
+	}
+
+	/**
+	 * Gets the number of segment encroachment tests
+	 * performed while enforcing the constraints.
+	 * 
+	 * @return the number of encroachment tests
+	 */
+	public int getEncroachmentTestCount() {
+		return encroachTestCount;
+	}
+
 	/**
 	 * Gets the tolerance value used to construct the triangulation.
 	 * 
@@ -387,6 +459,7 @@ public class ConformingDelaunayTriangulator
 	public void enforceConstraints() {
 		addConstraintVertices();
 		// if (true) return;
+		indexSegments();
 
 		int count = 0;
 		int splits = 0;
@@ -394,9 +467,15 @@ public class ConformingDelaunayTriangulator
 			splits = enforceGabriel(segments);
 
 			count++;
+			iterationCount = count;
+			splitCount += splits;
 			Debug.println("Iter: " + count + "   Splits: " + splits
 					+ "   Current # segments = " + segments.size());
+			if (listener != null)
+				listener.iterationCompleted(count, splits, segments.size());
 		} while (splits > 0 && count < MAX_SPLIT_ITER);
+		segIndex = null;
+		segsToTest.clear();
 		if (count == MAX_SPLIT_ITER) {
 			Debug.println("ABORTED! Too many iterations while enforcing constraints");
 			if (!Debug.isDebugging())
@@ -419,10 +498,119 @@ public class ConformingDelaunayTriangulator
 	 * (q == null) missingSegs.add(s); } return missingSegs; }
 	 */
 
+	/**
+	 * Indexes the constraint segments, 
+	 * and marks them all as requiring an encroachment test.
+	 */
+	private void indexSegments() {
+		segIndex = new Quadtree();
+		segsToTest.clear();
+		for (Iterator i = segments.iterator(); i.hasNext();) {
+			addSegment((Segment) i.next());
+		}
+	}
+
+	private void addSegment(Segment seg) {
+		segIndex.insert(diametralEnvelope(seg), seg);
+		segsToTest.put(seg, null);
+	}
+
+	private void removeSegment(Segment seg) {
+		segIndex.remove(diametralEnvelope(seg), seg);
+		segsToTest.remove(seg);
+	}
+
+	private static Envelope diametralEnvelope(Segment seg) {
+		Coordinate p = seg.getStart();
+		Coordinate q = seg.getEnd();
+		Coordinate midPt = new Coordinate((p.x + q.x) / 2.0, (p.y + q.y) / 2.0);
+		Envelope env = new Envelope(midPt);
+		env.expandBy(p.distance(midPt));
+		return env;
+	}
+
+	/**
+	 * Marks the segments whose diametral circle may contain 
+	 * a newly inserted site as requiring an encroachment test.
+	 * Any encroaching point computed for them in advance is discarded.
+	 * 
+	 * @param p the inserted site
+	 */
+	private void markEncroached(Coordinate p) {
+		List segs = segIndex.query(new Envelope(p));
+		for (Iterator i = segs.iterator(); i.hasNext();) {
+			Segment seg = (Segment) i.next();
+			if (diametralEnvelope(seg).contains(p))
+				segsToTest.put(seg, null);
+		}
+	}
+
+	/**
+	 * Finds the encroaching points for the segments which require testing,
+	 * using concurrent read-only queries of the kd-tree.
+	 * 
+	 * @return a map from each tested segment to its encroaching point, if any
+	 */
+	private Map findEncroachingPointsParallel() {
+		Segment[] segs = (Segment[]) segsToTest.keySet().toArray(new Segment[segsToTest.size()]);
+		Coordinate[] encroachPts = new Coordinate[segs.length];
+		ForkJoinPool.commonPool().invoke(new EncroachTask(segs, encroachPts, 0, segs.length));
+		encroachTestCount += segs.length;
+		Map result = new IdentityHashMap();
+		for (int i = 0; i < segs.length; i++) {
+			result.put(segs[i], encroachPts[i]);
+		}
+		return result;
+	}
+
+	private static final int PARALLEL_THRESHOLD = 256;
+
+	private class EncroachTask extends RecursiveAction {
+		private Segment[] segs;
+		private Coordinate[] encroachPts;
+		private int start;
+		private int end;
+
+		EncroachTask(Segment[] segs, Coordinate[] encroachPts, int start, int end) {
+			this.segs = segs;
+			this.encroachPts = encroachPts;
+			this.start = start;
+			this.end = end;
+		}
+
+		protected void compute() {
+			if (end - start <= PARALLEL_THRESHOLD) {
+				for (int i = start; i < end; i++) {
+					encroachPts[i] = findNonGabrielPoint(segs[i]);
+				}
+				return;
+			}
+			int mid = (start + end) >>> 1;
+			invokeAll(new EncroachTask(segs, encroachPts, start, mid),
+					new EncroachTask(segs, encroachPts, mid, end));
+		}
+	}
+
 	private int enforceGabriel(Collection segsToInsert) {
 		List newSegments = new ArrayList();
 		int splits = 0;
-		List segsToRemove = new ArrayList();
+		Map segsToRemove = new IdentityHashMap();
+
+		/**
+		 * Segments which have been tested and not encroached upon 
+		 * since are skipped.
+		 * In parallel mode the encroaching points are found in advance, 
+		 * and are recomputed for segments encroached upon 
+		 * by a site inserted earlier in this iteration.
+		 */
+		Map precomputed = null;
+		if (isParallel && segsToTest.size() > PARALLEL_THRESHOLD)
+			precomputed = findEncroachingPointsParallel();
+		// segments tested in this iteration are marked with this value
+		Object tested = Boolean.TRUE;
+		for (Iterator i = segsToTest.keySet().iterator(); i.hasNext();) {
+			segsToTest.put(i.next(), tested);
+		}
 
 		/**
 		 * On each iteration must always scan all constraint (sub)segments, since
@@ -433,8 +621,18 @@ public class ConformingDelaunayTriangulator
 		for (Iterator i = segsToInsert.iterator(); i.hasNext();) {
 			Segment seg = (Segment) i.next();
 			// System.out.println(seg);
+			if (! segsToTest.containsKey(seg))
+				continue;
 
-			Coordinate encroachPt = findNonGabrielPoint(seg);
+			Coordinate encroachPt;
+			if (precomputed != null && segsToTest.get(seg) == tested) {
+				encroachPt = (Coordinate) precomputed.get(seg);
+			}
+			else {
+				encroachPt = findNonGabrielPoint(seg);
+				encroachTestCount++;
+			}
+			segsToTest.remove(seg);
 			// no encroachment found - segment must already be in subdivision
 			if (encroachPt == null)
 				continue;
@@ -462,6 +660,8 @@ public class ConformingDelaunayTriangulator
 			 * </ul>
 			 */
 			ConstraintVertex insertedVertex = insertSite(splitVertex);
+			if (insertedVertex == splitVertex)
+				markEncroached(splitVertex.getCoordinate());
 			if (!insertedVertex.getCoordinate().equals2D(splitPt)) {
 				Debug.println("Split pt snapped to: " + insertedVertex);
 				// throw new ConstraintEnforcementException("Split point snapped to
@@ -479,11 +679,26 @@ public class ConformingDelaunayTriangulator
 							.getData());
 			newSegments.add(s1);
 			newSegments.add(s2);
-			segsToRemove.add(seg);
+			segsToRemove.put(seg, seg);
 
 			splits = splits + 1;
 		}
-		segsToInsert.removeAll(segsToRemove);
+		if (splits == 0)
+			return 0;
+		
+		List remainingSegs = new ArrayList();
+		for (Iterator i = segsToInsert.iterator(); i.hasNext();) {
+			Segment seg = (Segment) i.next();
+			if (segsToRemove.containsKey(seg))
+				removeSegment(seg);
+			else
+				remainingSegs.add(seg);
+		}
+		for (Iterator i = newSegments.iterator(); i.hasNext();) {
+			addSegment((Segment) i.next());
+		}
+		segsToInsert.clear();
+		segsToInsert.addAll(remainingSegs);
 		segsToInsert.addAll(newSegments);
 
 		return splits;
@@ -0,0 +1,30 @@
+/*
+ * The JTS Topology Suite is a collection of Java classes that
+ * implement the fundamental operations required to validate a given
+ * geo-spatial data set to a known topological specification.
+ *
+ * Copyright (C) 2016 Vivid Solutions
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * (http://www.eclipse.org/legal/epl-v10.html), and the Vivid Solutions BSD
+ * License v1.0 (found at the root of the repository).
+ *
+ */
+
+package org.locationtech.jts.triangulate;
+
+/**
+ * An interface for classes which are notified of the progress
+ * of constraint enforcement by a {@link ConformingDelaunayTriangulator}.
+ */
+public interface ConstraintEnforcementListener {
+    /**
+     * Called when an iteration of constraint enforcement has completed.
+     *
+     * @param iteration the number of the iteration (starting at 1)
+     * @param numSplits the number of segments split in the iteration
+     * @param numSegments the current number of constraint segments
+     */
+    void iterationCompleted(int iteration, int numSplits, int numSegments);
+}
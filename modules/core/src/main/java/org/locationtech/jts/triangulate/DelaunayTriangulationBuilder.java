@@ -84,6 +84,8 @@ public class DelaunayTriangulationBuilder
 	
 	private Collection siteCoords;
 	private double tolerance = 0.0;
+	private boolean isDivideAndConquer = false;
+	private int insertionOrder = InsertionOrder.NONE;
 	private QuadEdgeSubdivision subdiv = null;
 	
 	/**
@@ -130,6 +132,43 @@ public class DelaunayTriangulationBuilder
 		this.tolerance = tolerance;
 	}
 	
+	/**
+	 * Sets whether the triangulation is computed using the
+	 * divide-and-conquer algorithm
+	 * rather than by incremental insertion.
+	 * This is much faster for large numbers of sites.
+	 * Sites closer than the tolerance distance are not merged 
+	 * by the divide-and-conquer algorithm.
+	 * The default is <code>false</code>.
+	 * 
+	 * @param isDivideAndConquer true if the divide-and-conquer algorithm should be used
+	 * 
+	 * @see DivideAndConquerDelaunayTriangulator
+	 */
+	public void setDivideAndConquer(boolean isDivideAndConquer)
+	{
+		this.isDivideAndConquer = isDivideAndConquer;
+	}
+	
+	/**
+	 * Sets the order in which sites are inserted
+	 * into the incremental triangulation.
+	 * A spatially coherent order such as {@link InsertionOrder#HILBERT}
+	 * or {@link InsertionOrder#BRIO} 
+	 * shortens the walks which locate the triangle containing each site.
+	 * The default is {@link InsertionOrder#NONE},
+	 * which inserts the sites in X,Y order.
+	 * The order is not used by the divide-and-conquer algorithm.
+	 * 
+	 * @param insertionOrder the insertion order to use
+	 * 
+	 * @see InsertionOrder
+	 */
+	public void setInsertionOrder(int insertionOrder)
+	{
+		this.insertionOrder = insertionOrder;
+	}
+	
 	private void create()
 	{
 		if (subdiv != null) return;
@@ -137,6 +176,12 @@ public class DelaunayTriangulationBuilder
 		Envelope siteEnv = envelope(siteCoords);
 		List vertices = toVertices(siteCoords);
 		subdiv = new QuadEdgeSubdivision(siteEnv, tolerance);
+		if (isDivideAndConquer) {
+			DivideAndConquerDelaunayTriangulator triangulator = new DivideAndConquerDelaunayTriangulator(subdiv);
+			triangulator.triangulate(vertices);
+			return;
+		}
+		InsertionOrder.sort(vertices, insertionOrder);
 		IncrementalDelaunayTriangulator triangulator = new IncrementalDelaunayTriangulator(subdiv);
 		triangulator.insertSites(vertices);
 	}
@@ -152,6 +197,25 @@ public class DelaunayTriangulationBuilder
 		return subdiv;
 	}
 	
+	/**
+	 * Gets the computed triangulation as a compact {@link TriangleMesh}.
+	 * If the divide-and-conquer algorithm is used
+	 * and the subdivision has not been computed,
+	 * the mesh is built directly by a {@link CompactDelaunayTriangulator},
+	 * without creating a subdivision.
+	 * 
+	 * @return the triangulation mesh
+	 */
+	public TriangleMesh getMesh()
+	{
+		if (isDivideAndConquer && subdiv == null) {
+			Coordinate[] pts = CoordinateArrays.toCoordinateArray(siteCoords);
+			return new CompactDelaunayTriangulator(pts).triangulate();
+		}
+		create();
+		return TriangleMesh.create(subdiv);
+	}
+	
 	/**
 	 * Gets the edges of the computed triangulation as a {@link MultiLineString}.
 	 * 
@@ -0,0 +1,255 @@
+/*
+ * The JTS Topology Suite is a collection of Java classes that
+ * implement the fundamental operations required to validate a given
+ * geo-spatial data set to a known topological specification.
+ *
+ * Copyright (C) 2016 Vivid Solutions
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * (http://www.eclipse.org/legal/epl-v10.html), and the Vivid Solutions BSD
+ * License v1.0 (found at the root of the repository).
+ *
+ */
+
+package org.locationtech.jts.triangulate;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+
+import org.locationtech.jts.algorithm.CGAlgorithms;
+import org.locationtech.jts.triangulate.quadedge.QuadEdge;
+import org.locationtech.jts.triangulate.quadedge.QuadEdgeSubdivision;
+import org.locationtech.jts.triangulate.quadedge.Vertex;
+
+
+/**
+ * Computes a Delaunay Triangulation of a set of {@link Vertex}es, using the
+ * divide-and-conquer algorithm of Guibas and Stolfi (1985).
+ * The vertices are sorted, and the triangulations of the left and right halves
+ * are computed recursively and then merged.
+ * This takes O(n log n) time regardless of the distribution of the vertices,
+ * and avoids the point location walks required by incremental insertion.
+ * <p>
+ * The frame vertices of the {@link QuadEdgeSubdivision} are triangulated
+ * together with the sites, so that the result has the same structure
+ * as one computed by an {@link IncrementalDelaunayTriangulator}.
+ * The subdivision must not contain any sites.
+ * <p>
+ * Sites which are closer than the subdivision tolerance are not merged.
+ * Exactly coincident sites are triangulated once.
+ *
+ * @see IncrementalDelaunayTriangulator
+ */
+public class DivideAndConquerDelaunayTriangulator
+{
+  private static final Comparator VERTEX_COMPARATOR = new Comparator() {
+    public int compare(Object o1, Object o2)
+    {
+      return ((Vertex) o1).getCoordinate().compareTo(((Vertex) o2).getCoordinate());
+    }
+  };
+
+  private QuadEdgeSubdivision subdiv;
+  private Vertex[] vertices;
+  private List edges = new ArrayList();
+
+  /**
+   * Creates a new triangulator which builds into the given {@link QuadEdgeSubdivision}.
+   *
+   * @param subdiv a subdivision containing only the frame triangle
+   * @throws IllegalArgumentException if the subdivision contains sites
+   */
+  public DivideAndConquerDelaunayTriangulator(QuadEdgeSubdivision subdiv)
+  {
+    if (subdiv.getEdges().size() != 3)
+      throw new IllegalArgumentException("Subdivision must not contain sites");
+    this.subdiv = subdiv;
+  }
+
+  /**
+   * Triangulates a collection of sites,
+   * replacing the edges of the subdivision with the triangulation.
+   *
+   * @param sites a Collection of Vertex
+   */
+  public void triangulate(Collection sites)
+  {
+    Collection frame = subdiv.getVertices(true);
+    Vertex[] verts = new Vertex[sites.size() + frame.size()];
+    int n = 0;
+    for (Iterator i = sites.iterator(); i.hasNext(); ) {
+      verts[n++] = (Vertex) i.next();
+    }
+    for (Iterator i = frame.iterator(); i.hasNext(); ) {
+      verts[n++] = (Vertex) i.next();
+    }
+    vertices = unique(verts);
+
+    triangulate(0, vertices.length);
+    subdiv.setEdges(edges);
+  }
+
+  private static Vertex[] unique(Vertex[] verts)
+  {
+    Arrays.sort(verts, VERTEX_COMPARATOR);
+    int n = 0;
+    for (int i = 0; i < verts.length; i++) {
+      if (n > 0 && verts[i].equals(verts[n - 1]))
+        continue;
+      verts[n++] = verts[i];
+    }
+    if (n == verts.length) return verts;
+    return (Vertex[]) Arrays.copyOf(verts, n);
+  }
+
+  /**
+   * Triangulates the vertices in a range of the sorted vertex array.
+   *
+   * @return the counterclockwise convex hull edge out of the leftmost vertex,
+   * and the clockwise convex hull edge out of the rightmost vertex
+   */
+  private QuadEdge[] triangulate(int start, int end)
+  {
+    int n = end - start;
+    if (n == 2) {
+      QuadEdge a = makeEdge(vertices[start], vertices[start + 1]);
+      return new QuadEdge[] { a, a.sym() };
+    }
+    if (n == 3) {
+      Vertex s1 = vertices[start];
+      Vertex s2 = vertices[start + 1];
+      Vertex s3 = vertices[start + 2];
+      QuadEdge a = makeEdge(s1, s2);
+      QuadEdge b = makeEdge(s2, s3);
+      QuadEdge.splice(a.sym(), b);
+      if (isCCW(s1, s2, s3)) {
+        connect(b, a);
+        return new QuadEdge[] { a, b.sym() };
+      }
+      if (isCCW(s1, s3, s2)) {
+        QuadEdge c = connect(b, a);
+        return new QuadEdge[] { c.sym(), c };
+      }
+      // the vertices are collinear
+      return new QuadEdge[] { a, b.sym() };
+    }
+
+    int mid = start + n / 2;
+    QuadEdge[] left = triangulate(start, mid);
+    QuadEdge[] right = triangulate(mid, end);
+    QuadEdge ldo = left[0];
+    QuadEdge ldi = left[1];
+    QuadEdge rdi = right[0];
+    QuadEdge rdo = right[1];
+
+    // compute the lower common tangent of the two halves
+    while (true) {
+      if (isLeftOf(rdi.orig(), ldi))
+        ldi = ldi.lNext();
+      else if (isRightOf(ldi.orig(), rdi))
+        rdi = rdi.rPrev();
+      else
+        break;
+    }
+
+    QuadEdge basel = connect(rdi.sym(), ldi);
+    if (ldi.orig() == ldo.orig())
+      ldo = basel.sym();
+    if (rdi.orig() == rdo.orig())
+      rdo = basel;
+
+    // merge the halves, from the bottom up
+    while (true) {
+      QuadEdge lcand = basel.sym().oNext();
+      if (isValid(lcand, basel)) {
+        while (lcand.oNext().dest().isInCircle(basel.dest(), basel.orig(), lcand.dest())) {
+          QuadEdge t = lcand.oNext();
+          deleteEdge(lcand);
+          lcand = t;
+        }
+      }
+      QuadEdge rcand = basel.oPrev();
+      if (isValid(rcand, basel)) {
+        while (rcand.oPrev().dest().isInCircle(basel.dest(), basel.orig(), rcand.dest())) {
+          QuadEdge t = rcand.oPrev();
+          deleteEdge(rcand);
+          rcand = t;
+        }
+      }
+      boolean isLeftValid = isValid(lcand, basel);
+      boolean isRightValid = isValid(rcand, basel);
+      // basel is the upper common tangent
+      if (! isLeftValid && ! isRightValid)
+        break;
+
+      if (! isLeftValid
+          || (isRightValid && rcand.dest().isInCircle(lcand.dest(), lcand.orig(), rcand.orig())))
+        basel = connect(rcand, basel.sym());
+      else
+        basel = connect(basel.sym(), lcand.sym());
+    }
+    return new QuadEdge[] { ldo, rdo };
+  }
+
+  private QuadEdge makeEdge(Vertex o, Vertex d)
+  {
+    QuadEdge e = QuadEdge.makeEdge(o, d);
+    edges.add(e);
+    return e;
+  }
+
+  private QuadEdge connect(QuadEdge a, QuadEdge b)
+  {
+    QuadEdge e = QuadEdge.connect(a, b);
+    edges.add(e);
+    return e;
+  }
+
+  /**
+   * Removes an edge from the triangulation.
+   * The edge is marked as deleted, and is removed from the
+   * edge list when the triangulation is complete.
+   */
+  private static void deleteEdge(QuadEdge e)
+  {
+    QuadEdge.splice(e, e.oPrev());
+    QuadEdge.splice(e.sym(), e.sym().oPrev());
+    QuadEdge eSym = e.sym();
+    QuadEdge eRot = e.rot();
+    QuadEdge eRotSym = e.rot().sym();
+    e.delete();
+    eSym.delete();
+    eRot.delete();
+    eRotSym.delete();
+  }
+
+  /**
+   * Tests whether a candidate edge lies above the base edge,
+   * and hence can be used to continue the merge.
+   */
+  private static boolean isValid(QuadEdge e, QuadEdge basel)
+  {
+    return isRightOf(e.dest(), basel);
+  }
+
+  private static boolean isRightOf(Vertex v, QuadEdge e)
+  {
+    return isCCW(v, e.dest(), e.orig());
+  }
+
+  private static boolean isLeftOf(Vertex v, QuadEdge e)
+  {
+    return isCCW(v, e.orig(), e.dest());
+  }
+
+  private static boolean isCCW(Vertex a, Vertex b, Vertex c)
+  {
+    return CGAlgorithms.orientationIndex(a.getCoordinate(), b.getCoordinate(), c.getCoordinate())
+        == CGAlgorithms.COUNTERCLOCKWISE;
+  }
+}
@@ -0,0 +1,192 @@
+/*
+ * The JTS Topology Suite is a collection of Java classes that
+ * implement the fundamental operations required to validate a given
+ * geo-spatial data set to a known topological specification.
+ *
+ * Copyright (C) 2016 Vivid Solutions
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * (http://www.eclipse.org/legal/epl-v10.html), and the Vivid Solutions BSD
+ * License v1.0 (found at the root of the repository).
+ *
+ */
+
+package org.locationtech.jts.triangulate;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import org.locationtech.jts.geom.Coordinate;
+import org.locationtech.jts.geom.Envelope;
+import org.locationtech.jts.triangulate.quadedge.Vertex;
+
+
+/**
+ * Orders a list of {@link Vertex}es for insertion into
+ * an incremental triangulation.
+ * <p>
+ * The time taken by incremental insertion is dominated by the walks
+ * which locate the triangle containing each new vertex.
+ * When consecutive vertices are close together the walks are short.
+ * The orders provided are:
+ * <ul>
+ * <li>{@link #HILBERT} - the vertices are sorted along a Hilbert curve
+ * covering their envelope
+ * <li>{@link #BRIO} - a Biased Randomized Insertion Order (Amenta, Choi and Rote 2003).
+ * The vertices are randomly assigned to rounds of geometrically increasing size,
+ * and each round is sorted along a Hilbert curve.
+ * This retains the spatial locality of the Hilbert order,
+ * while avoiding the worst cases of a fully sorted order
+ * </ul>
+ */
+public class InsertionOrder
+{
+  /**
+   * Specifies that vertices are inserted in the order given.
+   */
+  public static final int NONE = 0;
+  /**
+   * Specifies that vertices are inserted in Hilbert curve order.
+   */
+  public static final int HILBERT = 1;
+  /**
+   * Specifies that vertices are inserted in Biased Randomized Insertion Order.
+   */
+  public static final int BRIO = 2;
+
+  /**
+   * The level of the Hilbert curve used for sorting.
+   * This gives a grid of 2^15 x 2^15 cells,
+   * so that a Hilbert code and a list index fit in a long.
+   */
+  private static final int HILBERT_LEVEL = 15;
+
+  private static final int MAX_ROUNDS = 31;
+
+  /**
+   * Orders a list of vertices in place.
+   *
+   * @param vertices a list of Vertex
+   * @param order the order to use ({@link #NONE}, {@link #HILBERT} or {@link #BRIO})
+   */
+  public static void sort(List vertices, int order)
+  {
+    switch (order) {
+    case HILBERT:
+      sortHilbert(vertices);
+      return;
+    case BRIO:
+      sortBRIO(vertices, new Random(1));
+      return;
+    }
+  }
+
+  /**
+   * Sorts a list of vertices in place along a Hilbert curve.
+   *
+   * @param vertices a list of Vertex
+   */
+  public static void sortHilbert(List vertices)
+  {
+    Vertex[] verts = (Vertex[]) vertices.toArray(new Vertex[vertices.size()]);
+    int[] codes = hilbertCodes(verts);
+    long[] keys = new long[verts.length];
+    for (int i = 0; i < verts.length; i++) {
+      keys[i] = ((long) codes[i] << 32) | i;
+    }
+    Arrays.sort(keys);
+    for (int i = 0; i < keys.length; i++) {
+      vertices.set(i, verts[(int) keys[i]]);
+    }
+  }
+
+  /**
+   * Orders a list of vertices in place using
+   * a Biased Randomized Insertion Order.
+   * Each vertex is placed in the last round with probability 1/2,
+   * in the previous round with probability 1/4, and so on.
+   * The rounds are sorted along a Hilbert curve.
+   *
+   * @param vertices a list of Vertex
+   * @param random the random number generator to use
+   */
+  public static void sortBRIO(List vertices, Random random)
+  {
+    Vertex[] verts = (Vertex[]) vertices.toArray(new Vertex[vertices.size()]);
+    int[] codes = hilbertCodes(verts);
+    int[] round = new int[verts.length];
+    int[] roundStart = new int[MAX_ROUNDS + 1];
+    for (int i = 0; i < verts.length; i++) {
+      // the number of trailing zeros has a geometric distribution
+      int r = Integer.numberOfTrailingZeros(random.nextInt() | (1 << (MAX_ROUNDS - 1)));
+      round[i] = MAX_ROUNDS - 1 - r;
+      roundStart[round[i] + 1]++;
+    }
+    for (int r = 1; r < roundStart.length; r++) {
+      roundStart[r] += roundStart[r - 1];
+    }
+    long[] keys = new long[verts.length];
+    int[] fill = new int[MAX_ROUNDS];
+    for (int i = 0; i < verts.length; i++) {
+      int r = round[i];
+      keys[roundStart[r] + fill[r]++] = ((long) codes[i] << 32) | i;
+    }
+    for (int r = 0; r < MAX_ROUNDS; r++) {
+      Arrays.sort(keys, roundStart[r], roundStart[r + 1]);
+    }
+    for (int i = 0; i < keys.length; i++) {
+      vertices.set(i, verts[(int) keys[i]]);
+    }
+  }
+
+  private static int[] hilbertCodes(Vertex[] verts)
+  {
+    Envelope env = new Envelope();
+    for (int i = 0; i < verts.length; i++) {
+      env.expandToInclude(verts[i].getCoordinate());
+    }
+    int side = 1 << HILBERT_LEVEL;
+    double extent = Math.max(env.getWidth(), env.getHeight());
+    double scale = extent > 0.0 ? (side - 1) / extent : 0.0;
+    int[] codes = new int[verts.length];
+    for (int i = 0; i < verts.length; i++) {
+      Coordinate p = verts[i].getCoordinate();
+      int x = (int) ((p.x - env.getMinX()) * scale);
+      int y = (int) ((p.y - env.getMinY()) * scale);
+      codes[i] = hilbertCode(HILBERT_LEVEL, x, y);
+    }
+    return codes;
+  }
+
+  /**
+   * Computes the index of a grid cell along a Hilbert curve.
+   *
+   * @param level the level of the curve (the grid has 2^level cells on a side)
+   * @param x the X index of the cell
+   * @param y the Y index of the cell
+   * @return the index of the cell along the curve
+   */
+  static int hilbertCode(int level, int x, int y)
+  {
+    int n = 1 << level;
+    int d = 0;
+    for (int s = n / 2; s > 0; s /= 2) {
+      int rx = (x & s) > 0 ? 1 : 0;
+      int ry = (y & s) > 0 ? 1 : 0;
+      d += s * s * ((3 * rx) ^ ry);
+      // rotate the quadrant
+      if (ry == 0) {
+        if (rx == 1) {
+          x = n - 1 - x;
+          y = n - 1 - y;
+        }
+        int t = x;
+        x = y;
+        y = t;
+      }
+    }
+    return d;
+  }
+}
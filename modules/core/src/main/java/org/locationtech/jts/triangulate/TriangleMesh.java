@@ -0,0 +1,257 @@
+/*
+ * The JTS Topology Suite is a collection of Java classes that
+ * implement the fundamental operations required to validate a given
+ * geo-spatial data set to a known topological specification.
+ *
+ * Copyright (C) 2016 Vivid Solutions
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * (http://www.eclipse.org/legal/epl-v10.html), and the Vivid Solutions BSD
+ * License v1.0 (found at the root of the repository).
+ *
+ */
+
+package org.locationtech.jts.triangulate;
+
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+import org.locationtech.jts.geom.Coordinate;
+import org.locationtech.jts.geom.Geometry;
+import org.locationtech.jts.geom.GeometryCollection;
+import org.locationtech.jts.geom.GeometryFactory;
+import org.locationtech.jts.geom.LineString;
+import org.locationtech.jts.geom.MultiLineString;
+import org.locationtech.jts.geom.Polygon;
+import org.locationtech.jts.triangulate.quadedge.QuadEdge;
+import org.locationtech.jts.triangulate.quadedge.QuadEdgeSubdivision;
+import org.locationtech.jts.triangulate.quadedge.Vertex;
+
+
+/**
+ * A compact, index-based representation of a triangulation.
+ * The mesh is stored in three primitive arrays:
+ * <ul>
+ * <li>the vertex coordinates, as a <code>double</code> array of X,Y pairs
+ * <li>the triangles, as an <code>int</code> array containing
+ * three vertex indices for each triangle, in counterclockwise order
+ * <li>the half-edges, as an <code>int</code> array containing
+ * for each half-edge the index of the oppositely-oriented half-edge
+ * in the adjacent triangle, or -1 if the half-edge lies on the boundary
+ * </ul>
+ * Half-edge <code>h</code> belongs to triangle <code>h / 3</code>,
+ * and runs from vertex <code>getVertex(h)</code>
+ * to vertex <code>getVertex(nextHalfEdge(h))</code>.
+ * <p>
+ * Since a triangulation has about two triangles per vertex,
+ * this requires about 64 bytes per vertex
+ * (16 for the coordinates, and 24 each for the triangles and half-edges),
+ * compared to several hundred for a {@link QuadEdgeSubdivision},
+ * and allows large triangulations to be held in memory.
+ * The mesh is immutable, and the arrays it is created from are not copied.
+ *
+ * @see CompactDelaunayTriangulator
+ */
+public class TriangleMesh
+{
+  /**
+   * Creates a mesh from the triangles of a {@link QuadEdgeSubdivision}.
+   * Triangles which contain a frame vertex are not included.
+   *
+   * @param subdiv the subdivision to convert
+   * @return a new mesh
+   */
+  public static TriangleMesh create(QuadEdgeSubdivision subdiv)
+  {
+    List triEdges = subdiv.getTriangleEdges(false);
+    Map vertexIndex = new IdentityHashMap();
+    Map halfEdgeIndex = new IdentityHashMap();
+    int[] triangles = new int[3 * triEdges.size()];
+    double[] coords = new double[2 * 3 * triEdges.size()];
+    int numVertices = 0;
+    int h = 0;
+    for (Iterator i = triEdges.iterator(); i.hasNext(); ) {
+      QuadEdge[] tri = (QuadEdge[]) i.next();
+      for (int j = 0; j < 3; j++) {
+        Vertex v = tri[j].orig();
+        Integer index = (Integer) vertexIndex.get(v);
+        if (index == null) {
+          index = new Integer(numVertices);
+          vertexIndex.put(v, index);
+          coords[2 * numVertices] = v.getX();
+          coords[2 * numVertices + 1] = v.getY();
+          numVertices++;
+        }
+        triangles[h] = index.intValue();
+        halfEdgeIndex.put(tri[j], new Integer(h));
+        h++;
+      }
+    }
+    int[] halfedges = new int[triangles.length];
+    h = 0;
+    for (Iterator i = triEdges.iterator(); i.hasNext(); ) {
+      QuadEdge[] tri = (QuadEdge[]) i.next();
+      for (int j = 0; j < 3; j++) {
+        Integer opp = (Integer) halfEdgeIndex.get(tri[j].sym());
+        halfedges[h++] = opp == null ? -1 : opp.intValue();
+      }
+    }
+    double[] vertCoords = new double[2 * numVertices];
+    System.arraycopy(coords, 0, vertCoords, 0, vertCoords.length);
+    return new TriangleMesh(vertCoords, triangles, halfedges);
+  }
+
+  /**
+   * Gets the half-edge following a given one in its triangle.
+   *
+   * @param h a half-edge index
+   * @return the index of the next half-edge
+   */
+  public static int nextHalfEdge(int h)
+  {
+    return (h % 3 == 2) ? h - 2 : h + 1;
+  }
+
+  /**
+   * Gets the half-edge preceding a given one in its triangle.
+   *
+   * @param h a half-edge index
+   * @return the index of the previous half-edge
+   */
+  public static int prevHalfEdge(int h)
+  {
+    return (h % 3 == 0) ? h + 2 : h - 1;
+  }
+
+  private double[] coords;
+  private int[] triangles;
+  private int[] halfedges;
+
+  /**
+   * Creates a new mesh.
+   *
+   * @param coords the vertex coordinates, as X,Y pairs
+   * @param triangles the vertex indices of the triangles
+   * @param halfedges the opposite half-edge of each half-edge, or -1
+   */
+  public TriangleMesh(double[] coords, int[] triangles, int[] halfedges)
+  {
+    this.coords = coords;
+    this.triangles = triangles;
+    this.halfedges = halfedges;
+  }
+
+  /**
+   * Gets the number of vertices in the mesh.
+   * Some vertices may not be used by any triangle
+   * (e.g. if they are duplicates).
+   *
+   * @return the number of vertices
+   */
+  public int getNumVertices() { return coords.length / 2; }
+
+  /**
+   * Gets the number of triangles in the mesh.
+   *
+   * @return the number of triangles
+   */
+  public int getNumTriangles() { return triangles.length / 3; }
+
+  public double getX(int v) { return coords[2 * v]; }
+
+  public double getY(int v) { return coords[2 * v + 1]; }
+
+  public Coordinate getCoordinate(int v)
+  {
+    return new Coordinate(coords[2 * v], coords[2 * v + 1]);
+  }
+
+  /**
+   * Gets the vertex at the origin of a half-edge.
+   *
+   * @param h a half-edge index
+   * @return the index of the origin vertex
+   */
+  public int getVertex(int h) { return triangles[h]; }
+
+  /**
+   * Gets the half-edge opposite a given one.
+   *
+   * @param h a half-edge index
+   * @return the opposite half-edge, or -1 if the half-edge is on the boundary
+   */
+  public int getOpposite(int h) { return halfedges[h]; }
+
+  /**
+   * Gets the array of vertex coordinates.
+   * This array must not be modified.
+   *
+   * @return the vertex X,Y pairs
+   */
+  public double[] getCoordinateArray() { return coords; }
+
+  /**
+   * Gets the array of triangle vertex indices.
+   * This array must not be modified.
+   *
+   * @return the triangle vertex indices
+   */
+  public int[] getTriangleArray() { return triangles; }
+
+  /**
+   * Gets the array of opposite half-edges.
+   * This array must not be modified.
+   *
+   * @return the opposite half-edge indices
+   */
+  public int[] getHalfEdgeArray() { return halfedges; }
+
+  /**
+   * Gets the edges of the mesh as a {@link MultiLineString}.
+   * Each edge is included once.
+   *
+   * @param geomFact the geometry factory to use to create the output
+   * @return the edges of the mesh
+   */
+  public Geometry getEdges(GeometryFactory geomFact)
+  {
+    int numEdges = 0;
+    for (int h = 0; h < halfedges.length; h++) {
+      if (halfedges[h] < h) numEdges++;
+    }
+    LineString[] edges = new LineString[numEdges];
+    int i = 0;
+    for (int h = 0; h < halfedges.length; h++) {
+      if (halfedges[h] >= h) continue;
+      edges[i++] = geomFact.createLineString(new Coordinate[] {
+          getCoordinate(triangles[h]),
+          getCoordinate(triangles[nextHalfEdge(h)]) });
+    }
+    return geomFact.createMultiLineString(edges);
+  }
+
+  /**
+   * Gets the triangles of the mesh as a {@link GeometryCollection}
+   * of {@link Polygon}.
+   *
+   * @param geomFact the geometry factory to use to create the output
+   * @return the triangles of the mesh
+   */
+  public Geometry getTriangles(GeometryFactory geomFact)
+  {
+    Polygon[] tris = new Polygon[getNumTriangles()];
+    for (int t = 0; t < tris.length; t++) {
+      Coordinate p0 = getCoordinate(triangles[3 * t]);
+      Coordinate[] pts = new Coordinate[] {
+          p0,
+          getCoordinate(triangles[3 * t + 1]),
+          getCoordinate(triangles[3 * t + 2]),
+          new Coordinate(p0) };
+      tris[t] = geomFact.createPolygon(geomFact.createLinearRing(pts), null);
+    }
+    return geomFact.createGeometryCollection(tris);
+  }
+}
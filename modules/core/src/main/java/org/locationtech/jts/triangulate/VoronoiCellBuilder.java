@@ -0,0 +1,358 @@
+/*
+ * The JTS Topology Suite is a collection of Java classes that
+ * implement the fundamental operations required to validate a given
+ * geo-spatial data set to a known topological specification.
+ *
+ * Copyright (C) 2016 Vivid Solutions
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * (http://www.eclipse.org/legal/epl-v10.html), and the Vivid Solutions BSD
+ * License v1.0 (found at the root of the repository).
+ *
+ */
+
+package org.locationtech.jts.triangulate;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+import org.locationtech.jts.geom.Coordinate;
+import org.locationtech.jts.geom.Envelope;
+import org.locationtech.jts.geom.GeometryFactory;
+import org.locationtech.jts.geom.Polygon;
+
+
+/**
+ * Builds the Voronoi cells of the vertices of a Delaunay {@link TriangleMesh},
+ * clipped to an envelope.
+ * <p>
+ * The circumcentres of the triangles are computed once into an array.
+ * The cell of a vertex is formed by the circumcentres of the triangles around it,
+ * and is clipped to the envelope using the Sutherland-Hodgman algorithm.
+ * Since the cells are convex this takes time linear in the size of the cell,
+ * and avoids the cost of a full overlay.
+ * <p>
+ * Vertices on the boundary of the mesh have unbounded cells,
+ * and so no cell is built for them.
+ * To obtain cells for all sites the mesh should include
+ * a frame of vertices enclosing them.
+ * <p>
+ * The cells are independent, so they can optionally be built in parallel.
+ */
+public class VoronoiCellBuilder
+{
+  /**
+   * The minimum number of cells built by each parallel task
+   */
+  private static final int PARALLEL_THRESHOLD = 1024;
+
+  private TriangleMesh mesh;
+  private Envelope clipEnv;
+  private boolean isParallel = false;
+  private double[] circumcentres;
+  /**
+   * An outgoing half-edge of each vertex,
+   * or -1 if the vertex is on the boundary or is not used by the mesh
+   */
+  private int[] vertexEdge;
+
+  /**
+   * Creates a new builder for the cells of a mesh.
+   *
+   * @param mesh a Delaunay triangulation mesh
+   * @param clipEnv the envelope to clip the cells to
+   */
+  public VoronoiCellBuilder(TriangleMesh mesh, Envelope clipEnv)
+  {
+    this.mesh = mesh;
+    this.clipEnv = clipEnv;
+  }
+
+  /**
+   * Sets whether the cells are built in parallel.
+   * The default is <code>false</code>.
+   *
+   * @param isParallel true if the cells should be built in parallel
+   */
+  public void setParallel(boolean isParallel)
+  {
+    this.isParallel = isParallel;
+  }
+
+  /**
+   * Gets the clipped Voronoi cells of the mesh vertices.
+   * The array is indexed by vertex.
+   * The entry for a vertex is <code>null</code> if the vertex is on the
+   * boundary of the mesh, is not used by the mesh,
+   * or if its cell lies outside the clip envelope.
+   *
+   * @param geomFact the geometry factory to use to create the cells
+   * @return an array of the cell polygons
+   */
+  public Polygon[] getCells(GeometryFactory geomFact)
+  {
+    computeCircumcentres();
+    computeVertexEdges();
+    Polygon[] cells = new Polygon[mesh.getNumVertices()];
+    if (isParallel && cells.length > PARALLEL_THRESHOLD) {
+      ForkJoinPool.commonPool().invoke(new CellTask(geomFact, cells, 0, cells.length));
+    }
+    else {
+      buildCells(geomFact, cells, 0, cells.length);
+    }
+    return cells;
+  }
+
+  private void computeCircumcentres()
+  {
+    int[] tri = mesh.getTriangleArray();
+    circumcentres = new double[2 * mesh.getNumTriangles()];
+    for (int t = 0; t < mesh.getNumTriangles(); t++) {
+      int a = tri[3 * t];
+      int b = tri[3 * t + 1];
+      int c = tri[3 * t + 2];
+      // same computation as Triangle.circumcentre
+      double cx = mesh.getX(c);
+      double cy = mesh.getY(c);
+      double ax = mesh.getX(a) - cx;
+      double ay = mesh.getY(a) - cy;
+      double bx = mesh.getX(b) - cx;
+      double by = mesh.getY(b) - cy;
+
+      double denom = 2 * det(ax, ay, bx, by);
+      double numx = det(ay, ax * ax + ay * ay, by, bx * bx + by * by);
+      double numy = det(ax, ax * ax + ay * ay, bx, bx * bx + by * by);
+      circumcentres[2 * t] = cx - numx / denom;
+      circumcentres[2 * t + 1] = cy + numy / denom;
+    }
+  }
+
+  private static double det(double m00, double m01, double m10, double m11)
+  {
+    return m00 * m11 - m01 * m10;
+  }
+
+  private void computeVertexEdges()
+  {
+    int[] tri = mesh.getTriangleArray();
+    vertexEdge = new int[mesh.getNumVertices()];
+    for (int v = 0; v < vertexEdge.length; v++) {
+      vertexEdge[v] = -1;
+    }
+    for (int h = 0; h < tri.length; h++) {
+      vertexEdge[tri[h]] = h;
+    }
+    for (int h = 0; h < tri.length; h++) {
+      if (mesh.getOpposite(h) < 0) {
+        vertexEdge[tri[h]] = -1;
+        vertexEdge[tri[TriangleMesh.nextHalfEdge(h)]] = -1;
+      }
+    }
+  }
+
+  private void buildCells(GeometryFactory geomFact, Polygon[] cells, int start, int end)
+  {
+    CellClipper clipper = new CellClipper(clipEnv);
+    for (int v = start; v < end; v++) {
+      int startEdge = vertexEdge[v];
+      if (startEdge < 0) continue;
+      clipper.clear();
+      int h = startEdge;
+      do {
+        int t = h / 3;
+        clipper.add(circumcentres[2 * t], circumcentres[2 * t + 1]);
+        // move to the next triangle clockwise around the vertex
+        h = TriangleMesh.nextHalfEdge(mesh.getOpposite(h));
+      } while (h != startEdge);
+      cells[v] = clipper.getPolygon(geomFact);
+    }
+  }
+
+  private class CellTask extends RecursiveAction
+  {
+    private GeometryFactory geomFact;
+    private Polygon[] cells;
+    private int start;
+    private int end;
+
+    CellTask(GeometryFactory geomFact, Polygon[] cells, int start, int end)
+    {
+      this.geomFact = geomFact;
+      this.cells = cells;
+      this.start = start;
+      this.end = end;
+    }
+
+    protected void compute()
+    {
+      if (end - start <= PARALLEL_THRESHOLD) {
+        buildCells(geomFact, cells, start, end);
+        return;
+      }
+      int mid = (start + end) >>> 1;
+      invokeAll(new CellTask(geomFact, cells, start, mid),
+          new CellTask(geomFact, cells, mid, end));
+    }
+  }
+
+  /**
+   * Clips a convex {@link Polygon} to an envelope.
+   *
+   * @param poly a convex polygon
+   * @param clipEnv the envelope to clip to
+   * @return the clipped polygon, or null if it does not intersect the envelope
+   */
+  public static Polygon clip(Polygon poly, Envelope clipEnv)
+  {
+    Coordinate[] pts = poly.getExteriorRing().getCoordinates();
+    CellClipper clipper = new CellClipper(clipEnv);
+    for (int i = 0; i < pts.length - 1; i++) {
+      clipper.add(pts[i].x, pts[i].y);
+    }
+    Polygon result = clipper.getPolygon(poly.getFactory());
+    if (result != null)
+      result.setUserData(poly.getUserData());
+    return result;
+  }
+
+  /**
+   * Accumulates the vertices of a convex polygon
+   * and clips it against each side of an envelope in turn.
+   */
+  private static class CellClipper
+  {
+    private Envelope clipEnv;
+    private double[] x = new double[16];
+    private double[] y = new double[16];
+    private double[] clipX = new double[16];
+    private double[] clipY = new double[16];
+    private int size = 0;
+
+    CellClipper(Envelope clipEnv)
+    {
+      this.clipEnv = clipEnv;
+    }
+
+    void clear()
+    {
+      size = 0;
+    }
+
+    void add(double px, double py)
+    {
+      if (size > 0 && x[size - 1] == px && y[size - 1] == py)
+        return;
+      if (size + 4 >= x.length) {
+        x = grow(x);
+        y = grow(y);
+        clipX = grow(clipX);
+        clipY = grow(clipY);
+      }
+      x[size] = px;
+      y[size] = py;
+      size++;
+    }
+
+    private static double[] grow(double[] array)
+    {
+      double[] newArray = new double[2 * array.length];
+      System.arraycopy(array, 0, newArray, 0, array.length);
+      return newArray;
+    }
+
+    Polygon getPolygon(GeometryFactory geomFact)
+    {
+      if (size > 1 && x[size - 1] == x[0] && y[size - 1] == y[0])
+        size--;
+      if (! isInside()) {
+        for (int side = 0; side < 4 && size > 0; side++) {
+          clipSide(side);
+        }
+      }
+      if (size < 3)
+        return null;
+      Coordinate[] pts = new Coordinate[size + 1];
+      for (int i = 0; i < size; i++) {
+        pts[i] = new Coordinate(x[i], y[i]);
+      }
+      pts[size] = new Coordinate(pts[0]);
+      return geomFact.createPolygon(geomFact.createLinearRing(pts), null);
+    }
+
+    private boolean isInside()
+    {
+      for (int i = 0; i < size; i++) {
+        if (x[i] < clipEnv.getMinX() || x[i] > clipEnv.getMaxX()
+            || y[i] < clipEnv.getMinY() || y[i] > clipEnv.getMaxY())
+          return false;
+      }
+      return true;
+    }
+
+    /**
+     * Clips the polygon against the half-plane inside one side of the envelope.
+     */
+    private void clipSide(int side)
+    {
+      int n = 0;
+      double px = x[size - 1];
+      double py = y[size - 1];
+      boolean isPrevInside = isInside(side, px, py);
+      for (int i = 0; i < size; i++) {
+        double cx = x[i];
+        double cy = y[i];
+        boolean isCurrInside = isInside(side, cx, cy);
+        if (isCurrInside != isPrevInside) {
+          n = addIntersection(side, px, py, cx, cy, n);
+        }
+        if (isCurrInside) {
+          n = addClip(cx, cy, n);
+        }
+        px = cx;
+        py = cy;
+        isPrevInside = isCurrInside;
+      }
+      double[] tmp = x;
+      x = clipX;
+      clipX = tmp;
+      tmp = y;
+      y = clipY;
+      clipY = tmp;
+      size = n;
+      if (size > 1 && x[size - 1] == x[0] && y[size - 1] == y[0])
+        size--;
+    }
+
+    private int addClip(double px, double py, int n)
+    {
+      if (n > 0 && clipX[n - 1] == px && clipY[n - 1] == py)
+        return n;
+      clipX[n] = px;
+      clipY[n] = py;
+      return n + 1;
+    }
+
+    private int addIntersection(int side, double x0, double y0, double x1, double y1, int n)
+    {
+      if (side < 2) {
+        double clipVal = side == 0 ? clipEnv.getMinX() : clipEnv.getMaxX();
+        double frac = (clipVal - x0) / (x1 - x0);
+        return addClip(clipVal, y0 + frac * (y1 - y0), n);
+      }
+      double clipVal = side == 2 ? clipEnv.getMinY() : clipEnv.getMaxY();
+      double frac = (clipVal - y0) / (y1 - y0);
+      return addClip(x0 + frac * (x1 - x0), clipVal, n);
+    }
+
+    private boolean isInside(int side, double px, double py)
+    {
+      switch (side) {
+      case 0: return px >= clipEnv.getMinX();
+      case 1: return px <= clipEnv.getMaxX();
+      case 2: return py >= clipEnv.getMinY();
+      }
+      return py <= clipEnv.getMaxY();
+    }
+  }
+}
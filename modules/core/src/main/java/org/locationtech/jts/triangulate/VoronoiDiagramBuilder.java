@@ -43,6 +43,7 @@ public class VoronoiDiagramBuilder
 	private QuadEdgeSubdivision subdiv = null;
 	private Envelope clipEnv = null;
 	private Envelope diagramEnv = null; 
+	private boolean isParallel = false;
 	
 	/**
 	 * Creates a new Voronoi diagram builder.
@@ -99,24 +100,42 @@ public class VoronoiDiagramBuilder
 		this.tolerance = tolerance;
 	}
 	
+	/**
+	 * Sets whether the cells of the diagram are built in parallel.
+	 * The default is <code>false</code>.
+	 * 
+	 * @param isParallel true if the cells should be built in parallel
+	 */
+	public void setParallel(boolean isParallel)
+	{
+		this.isParallel = isParallel;
+	}
+	
 	private void create()
 	{
 		if (subdiv != null) return;
 		
 		Envelope siteEnv = DelaunayTriangulationBuilder.envelope(siteCoords);
-		diagramEnv = siteEnv;
-		// add a buffer around the final envelope
-		double expandBy = Math.max(diagramEnv.getWidth(), diagramEnv.getHeight());
-		diagramEnv.expandBy(expandBy);
-		if (clipEnv != null)
-			diagramEnv.expandToInclude(clipEnv);
+		diagramEnv = computeDiagramEnvelope(siteEnv);
 		
 		List vertices = DelaunayTriangulationBuilder.toVertices(siteCoords);
-		subdiv = new QuadEdgeSubdivision(siteEnv, tolerance);
+		// the frame is sized from the diagram envelope, so it also encloses the clip envelope
+		subdiv = new QuadEdgeSubdivision(diagramEnv, tolerance);
 		IncrementalDelaunayTriangulator triangulator = new IncrementalDelaunayTriangulator(subdiv);
 		triangulator.insertSites(vertices);
 	}
 	
+	private Envelope computeDiagramEnvelope(Envelope siteEnv)
+	{
+		Envelope env = new Envelope(siteEnv);
+		// add a buffer around the final envelope
+		double expandBy = Math.max(env.getWidth(), env.getHeight());
+		env.expandBy(expandBy);
+		if (clipEnv != null)
+			env.expandToInclude(clipEnv);
+		return env;
+	}
+	
 	/**
 	 * Gets the {@link QuadEdgeSubdivision} which models the computed diagram.
 	 * 
@@ -136,11 +155,18 @@ public class VoronoiDiagramBuilder
 	 * the <tt>Coordinate</tt>  of the corresponding input site.
 	 * This allows using a <tt>Map</tt> to link faces to data associated with sites.
 	 * 
+	 * If no snapping tolerance is set, the cells are built directly from
+	 * the circumcentres of a compact triangulation of the sites
+	 * (see {@link VoronoiCellBuilder}).
+	 * 
 	 * @param geomFact the geometry factory to use to create the output
 	 * @return a <tt>GeometryCollection</tt> containg the face <tt>Polgyon</tt>s of the diagram
 	 */
 	public Geometry getDiagram(GeometryFactory geomFact)
 	{
+		if (tolerance == 0.0)
+			return computeDiagram(geomFact);
+		
 		create();
 		Geometry polys = subdiv.getVoronoiDiagram(geomFact);
 		
@@ -148,9 +174,45 @@ public class VoronoiDiagramBuilder
 		return clipGeometryCollection(polys, diagramEnv);
 	}
 	
+	private Geometry computeDiagram(GeometryFactory geomFact)
+	{
+		Coordinate[] sites = CoordinateArrays.toCoordinateArray(siteCoords);
+		if (sites.length == 0)
+			return geomFact.createGeometryCollection(new Geometry[0]);
+		
+		Envelope diagramEnv = computeDiagramEnvelope(DelaunayTriangulationBuilder.envelope(siteCoords));
+		Coordinate[] pts = new Coordinate[sites.length + 3];
+		System.arraycopy(sites, 0, pts, 0, sites.length);
+		addFrame(diagramEnv, pts, sites.length);
+		TriangleMesh mesh = new CompactDelaunayTriangulator(pts).triangulate();
+		
+		VoronoiCellBuilder cellBuilder = new VoronoiCellBuilder(mesh, diagramEnv);
+		cellBuilder.setParallel(isParallel);
+		Polygon[] cells = cellBuilder.getCells(geomFact);
+		
+		List result = new ArrayList();
+		for (int i = 0; i < sites.length; i++) {
+			if (cells[i] == null) continue;
+			cells[i].setUserData(sites[i]);
+			result.add(cells[i]);
+		}
+		return geomFact.createGeometryCollection(GeometryFactory.toGeometryArray(result));
+	}
+	
+	/**
+	 * Adds the vertices of a frame triangle enclosing the diagram envelope,
+	 * located in the same way as the frame of the {@link QuadEdgeSubdivision}.
+	 */
+	private static void addFrame(Envelope env, Coordinate[] pts, int start)
+	{
+		double offset = Math.max(env.getWidth(), env.getHeight()) * 10.0;
+		pts[start] = new Coordinate((env.getMaxX() + env.getMinX()) / 2.0, env.getMaxY() + offset);
+		pts[start + 1] = new Coordinate(env.getMinX() - offset, env.getMinY() - offset);
+		pts[start + 2] = new Coordinate(env.getMaxX() + offset, env.getMinY() - offset);
+	}
+	
 	private static Geometry clipGeometryCollection(Geometry geom, Envelope clipEnv)
 	{
-		Geometry clipPoly = geom.getFactory().toGeometry(clipEnv);
 		List clipped = new ArrayList();
 		for (int i = 0; i < geom.getNumGeometries(); i++) {
 			Geometry g = geom.getGeometryN(i);
@@ -159,9 +221,8 @@ public class VoronoiDiagramBuilder
 			if (clipEnv.contains(g.getEnvelopeInternal()))
 					result = g;
 			else if (clipEnv.intersects(g.getEnvelopeInternal())) {
-				result = clipPoly.intersection(g);
-				// keep vertex key info
-				result.setUserData(g.getUserData());
+				// cells are convex, so a simple clip can be used
+				result = VoronoiCellBuilder.clip((Polygon) g, clipEnv);
 			}
 
 			if (result != null && ! result.isEmpty()) {
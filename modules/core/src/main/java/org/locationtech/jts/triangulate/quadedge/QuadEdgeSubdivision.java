@@ -78,6 +78,10 @@ public class QuadEdgeSubdivision {
 	private Vertex[] frameVertex = new Vertex[3];
 	private Envelope frameEnv;
 	private QuadEdgeLocator locator = null;
+	// statistics of the locate walks
+	private long locateCount = 0;
+	private long locateWalkLength = 0;
+	private int maxLocateWalkLength = 0;
 
 	/**
 	 * Creates a new instance of a quad-edge subdivision based on a frame triangle
@@ -229,6 +233,54 @@ public class QuadEdgeSubdivision {
 		eRotSym.delete();
 	}
 
+	/**
+	 * Replaces the edges of this subdivision with the edges of a triangulation
+	 * which has been computed externally
+	 * (e.g. by a divide-and-conquer algorithm).
+	 * The triangulation must contain the frame vertices of this subdivision,
+	 * and its boundary must be the frame triangle.
+	 * Edges in the collection which have been deleted are ignored.
+	 * Edges previously in the subdivision which are not in the collection are deleted.
+	 *
+	 * @param edges
+	 *          a collection of the primary QuadEdges of the triangulation
+	 * @throws IllegalArgumentException
+	 *           if the triangulation does not contain the frame
+	 */
+	public void setEdges(Collection edges) {
+		List newEdges = new ArrayList();
+		Set newEdgeSet = new HashSet();
+		QuadEdge frameEdge = null;
+		for (Iterator i = edges.iterator(); i.hasNext();) {
+			QuadEdge e = (QuadEdge) i.next();
+			if (!e.isLive())
+				continue;
+			newEdges.add(e);
+			newEdgeSet.add(e);
+			if (e.orig() == frameVertex[0] && e.dest() == frameVertex[1])
+				frameEdge = e;
+			else if (e.orig() == frameVertex[1] && e.dest() == frameVertex[0])
+				frameEdge = e.sym();
+		}
+		if (frameEdge == null)
+			throw new IllegalArgumentException("Triangulation does not contain the frame");
+
+		for (Iterator i = quadEdges.iterator(); i.hasNext();) {
+			QuadEdge e = (QuadEdge) i.next();
+			if (newEdgeSet.contains(e))
+				continue;
+			QuadEdge eSym = e.sym();
+			QuadEdge eRot = e.rot();
+			QuadEdge eRotSym = e.rot().sym();
+			e.delete();
+			eSym.delete();
+			eRot.delete();
+			eRotSym.delete();
+		}
+		quadEdges = newEdges;
+		startingEdge = frameEdge;
+	}
+
 	/**
 	 * Locates an edge of a triangle which contains a location 
 	 * specified by a Vertex v. 
@@ -287,9 +339,43 @@ public class QuadEdgeSubdivision {
 			}
 		}
 		// System.out.println("Locate count: " + iter);
+		locateCount++;
+		locateWalkLength += iter;
+		if (iter > maxLocateWalkLength)
+			maxLocateWalkLength = iter;
 		return e;
 	}
 
+	/**
+	 * Gets the number of locate walks performed in this subdivision.
+	 * 
+	 * @return the number of locate walks
+	 */
+	public long getLocateCount() {
+		return locateCount;
+	}
+
+	/**
+	 * Gets the total number of edges visited by all locate walks
+	 * performed in this subdivision.
+	 * The average walk length is this value divided by {@link #getLocateCount()}.
+	 * 
+	 * @return the total length of the locate walks
+	 */
+	public long getLocateWalkLength() {
+		return locateWalkLength;
+	}
+
+	/**
+	 * Gets the number of edges visited by the longest locate walk
+	 * performed in this subdivision.
+	 * 
+	 * @return the maximum length of a locate walk
+	 */
+	public int getMaxLocateWalkLength() {
+		return maxLocateWalkLength;
+	}
+
 	/**
 	 * Finds a quadedge of a triangle containing a location 
 	 * specified by a {@link Vertex}, if one exists.
@@ -0,0 +1,101 @@
+/*
+ * The JTS Topology Suite is a collection of Java classes that
+ * implement the fundamental operations required to validate a given
+ * geo-spatial data set to a known topological specification.
+ *
+ * Copyright (C) 2016 Vivid Solutions
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * (http://www.eclipse.org/legal/epl-v10.html), and the Vivid Solutions BSD
+ * License v1.0 (found at the root of the repository).
+ *
+ */
+package org.locationtech.jts.triangulate.quadedge;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Random;
+
+import org.locationtech.jts.geom.Coordinate;
+
+/**
+ * Locates {@link QuadEdge}s in a {@link QuadEdgeSubdivision}
+ * using the jump-and-walk strategy of Muecke, Saias and Zhu (1999).
+ * A random sample of edges is taken, together with the last edge found,
+ * and the walk starts from the edge whose origin is closest to the vertex
+ * being located.
+ * With a sample size of about the cube root of the number of edges
+ * the expected walk length is O(n<sup>1/3</sup>) for any insertion order,
+ * whereas a walk from the last edge found
+ * (as in {@link LastFoundQuadEdgeLocator})
+ * is short only if the vertices are located in a spatially coherent order.
+ * <p>
+ * The sampling uses a fixed random seed, so the location is deterministic.
+ */
+public class SamplingQuadEdgeLocator implements QuadEdgeLocator {
+  private QuadEdgeSubdivision subdiv;
+  private QuadEdge lastEdge = null;
+  private int sampleSize = -1;
+  private Random random = new Random(1);
+
+  /**
+   * Creates a locator which uses a sample size
+   * of the cube root of the number of edges in the subdivision.
+   *
+   * @param subdiv the subdivision to locate in
+   */
+  public SamplingQuadEdgeLocator(QuadEdgeSubdivision subdiv) {
+    this.subdiv = subdiv;
+  }
+
+  /**
+   * Creates a locator which uses a fixed sample size.
+   *
+   * @param subdiv the subdivision to locate in
+   * @param sampleSize the number of edges to sample
+   */
+  public SamplingQuadEdgeLocator(QuadEdgeSubdivision subdiv, int sampleSize) {
+    this.subdiv = subdiv;
+    this.sampleSize = sampleSize;
+  }
+
+  /**
+   * Locates an edge e, such that either v is on e, or e is an edge of a triangle containing v.
+   * The search starts from the closest of a sample of edges,
+   * and proceeds on the general direction of v.
+   */
+  public QuadEdge locate(Vertex v) {
+    QuadEdge start = findStartEdge(v.getCoordinate());
+    QuadEdge e = subdiv.locateFromEdge(v, start);
+    lastEdge = e;
+    return e;
+  }
+
+  private QuadEdge findStartEdge(Coordinate p) {
+    Collection edges = subdiv.getEdges();
+    QuadEdge start = null;
+    double minDist = Double.MAX_VALUE;
+    if (lastEdge != null && lastEdge.isLive()) {
+      start = lastEdge;
+      minDist = p.distance(lastEdge.orig().getCoordinate());
+    }
+    if (! (edges instanceof List)) {
+      return start != null ? start : (QuadEdge) edges.iterator().next();
+    }
+    List edgeList = (List) edges;
+    int size = edgeList.size();
+    int n = sampleSize >= 0 ? sampleSize : (int) Math.cbrt(size);
+    for (int i = 0; i < n; i++) {
+      QuadEdge e = (QuadEdge) edgeList.get(random.nextInt(size));
+      double dist = p.distance(e.orig().getCoordinate());
+      if (dist < minDist) {
+        minDist = dist;
+        start = e;
+      }
+    }
+    if (start == null)
+      start = (QuadEdge) edgeList.get(0);
+    return start;
+  }
+}
@@ -0,0 +1,260 @@
+/*
+ * The JTS Topology Suite is a collection of Java classes that
+ * implement the fundamental operations required to validate a given
+ * geo-spatial data set to a known topological specification.
+ *
+ * Copyright (C) 2016 Vivid Solutions
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * (http://www.eclipse.org/legal/epl-v10.html), and the Vivid Solutions BSD
+ * License v1.0 (found at the root of the repository).
+ *
+ */
+package org.locationtech.jts.util;
+
+import java.util.AbstractCollection;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Iterator;
+
+import org.locationtech.jts.geom.Coordinate;
+
+/**
+ * A hash map from the X and Y ordinates of {@link Coordinate}s to objects.
+ * Two keys are equal if they are equal in the sense of
+ * {@link Coordinate#equals2D(Coordinate)} (i.e. the Z ordinate is ignored).
+ * <p>
+ * The map uses open addressing with linear probing,
+ * and stores the key ordinates in primitive arrays.
+ * Lookups take constant time and do not create key objects.
+ * <p>
+ * To keep results deterministic, the values are returned
+ * in ascending order of their keys (as for a <code>TreeMap</code>
+ * keyed by <code>Coordinate</code>).
+ * The values are sorted once when they are first accessed after a change to the map.
+ * <p>
+ * <code>null</code> values are not supported.
+ */
+public class CoordinateHashMap
+{
+  private static final int MIN_CAPACITY = 16;
+
+  private double[] keyX;
+  private double[] keyY;
+  private Object[] values;
+  private int mask;
+  private int size = 0;
+  /**
+   * The values sorted by key, or null if they must be recomputed
+   */
+  private Object[] sortedValues = null;
+
+  /**
+   * Creates a new empty map.
+   */
+  public CoordinateHashMap() {
+    this(MIN_CAPACITY);
+  }
+
+  /**
+   * Creates a new empty map with space for a given number of entries.
+   *
+   * @param expectedSize the expected number of entries
+   */
+  public CoordinateHashMap(int expectedSize) {
+    int capacity = MIN_CAPACITY;
+    while (capacity < 2 * expectedSize)
+      capacity *= 2;
+    allocate(capacity);
+  }
+
+  private void allocate(int capacity) {
+    keyX = new double[capacity];
+    keyY = new double[capacity];
+    values = new Object[capacity];
+    mask = capacity - 1;
+  }
+
+  /**
+   * Gets the number of entries in the map.
+   *
+   * @return the number of entries
+   */
+  public int size() {
+    return size;
+  }
+
+  /**
+   * Tests whether the map has no entries.
+   *
+   * @return true if the map is empty
+   */
+  public boolean isEmpty() {
+    return size == 0;
+  }
+
+  /**
+   * Gets the value for a key.
+   *
+   * @param key the key coordinate
+   * @return the value for the key, or null if there is none
+   */
+  public Object get(Coordinate key) {
+    return get(key.x, key.y);
+  }
+
+  /**
+   * Gets the value for a key given by its ordinates.
+   *
+   * @param x the X ordinate of the key
+   * @param y the Y ordinate of the key
+   * @return the value for the key, or null if there is none
+   */
+  public Object get(double x, double y) {
+    int i = findSlot(x, y);
+    return values[i];
+  }
+
+  /**
+   * Sets the value for a key.
+   *
+   * @param key the key coordinate
+   * @param value the value (which must not be null)
+   * @return the previous value for the key, or null if there was none
+   */
+  public Object put(Coordinate key, Object value) {
+    if (value == null)
+      throw new IllegalArgumentException("Null values are not supported");
+    int i = findSlot(key.x, key.y);
+    Object prev = values[i];
+    values[i] = value;
+    sortedValues = null;
+    if (prev != null)
+      return prev;
+
+    keyX[i] = key.x;
+    keyY[i] = key.y;
+    size++;
+    if (2 * size > values.length)
+      resize(2 * values.length);
+    return null;
+  }
+
+  /**
+   * Removes the entry for a key.
+   *
+   * @param key the key coordinate
+   * @return the removed value, or null if there was none
+   */
+  public Object remove(Coordinate key) {
+    int i = findSlot(key.x, key.y);
+    Object prev = values[i];
+    if (prev == null)
+      return null;
+    deleteSlot(i);
+    size--;
+    sortedValues = null;
+    return prev;
+  }
+
+  /**
+   * Removes all entries from the map.
+   */
+  public void clear() {
+    Arrays.fill(values, null);
+    size = 0;
+    sortedValues = null;
+  }
+
+  /**
+   * Gets a view of the values in the map,
+   * in ascending order of their keys.
+   * The view reflects later changes to the map,
+   * but does not support removal.
+   *
+   * @return the values in the map
+   */
+  public Collection values() {
+    return new AbstractCollection() {
+      public Iterator iterator() {
+        return Arrays.asList(getSortedValues()).iterator();
+      }
+
+      public int size() {
+        return size;
+      }
+    };
+  }
+
+  private Object[] getSortedValues() {
+    if (sortedValues != null)
+      return sortedValues;
+    int[] slots = new int[size];
+    int n = 0;
+    for (int i = 0; i < values.length; i++) {
+      if (values[i] != null)
+        slots[n++] = i;
+    }
+    CoordinateIndexMap.sort(slots, n, keyX, keyY);
+    Object[] sorted = new Object[n];
+    for (int i = 0; i < n; i++) {
+      sorted[i] = values[slots[i]];
+    }
+    sortedValues = sorted;
+    return sortedValues;
+  }
+
+  /**
+   * Finds the slot containing a key, or the empty slot where it would be inserted.
+   */
+  private int findSlot(double x, double y) {
+    int i = CoordinateIndexMap.hash(x, y) & mask;
+    while (values[i] != null) {
+      if (CoordinateIndexMap.isEqual(keyX[i], x) && CoordinateIndexMap.isEqual(keyY[i], y))
+        return i;
+      i = (i + 1) & mask;
+    }
+    return i;
+  }
+
+  /**
+   * Empties a slot, moving following entries back
+   * so that every entry remains reachable from its hash slot.
+   */
+  private void deleteSlot(int i) {
+    values[i] = null;
+    int j = i;
+    while (true) {
+      j = (j + 1) & mask;
+      if (values[j] == null)
+        return;
+      int home = CoordinateIndexMap.hash(keyX[j], keyY[j]) & mask;
+      boolean isReachable = i <= j
+          ? (i < home && home <= j)
+          : (i < home || home <= j);
+      if (isReachable)
+        continue;
+      keyX[i] = keyX[j];
+      keyY[i] = keyY[j];
+      values[i] = values[j];
+      values[j] = null;
+      i = j;
+    }
+  }
+
+  private void resize(int capacity) {
+    double[] oldX = keyX;
+    double[] oldY = keyY;
+    Object[] oldValues = values;
+    allocate(capacity);
+    for (int i = 0; i < oldValues.length; i++) {
+      if (oldValues[i] == null)
+        continue;
+      int j = findSlot(oldX[i], oldY[i]);
+      keyX[j] = oldX[i];
+      keyY[j] = oldY[i];
+      values[j] = oldValues[i];
+    }
+  }
+}
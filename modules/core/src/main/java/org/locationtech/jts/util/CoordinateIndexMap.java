@@ -0,0 +1,251 @@
+/*
+ * The JTS Topology Suite is a collection of Java classes that
+ * implement the fundamental operations required to validate a given
+ * geo-spatial data set to a known topological specification.
+ *
+ * Copyright (C) 2016 Vivid Solutions
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * (http://www.eclipse.org/legal/epl-v10.html), and the Vivid Solutions BSD
+ * License v1.0 (found at the root of the repository).
+ *
+ */
+package org.locationtech.jts.util;
+
+import java.util.Arrays;
+
+import org.locationtech.jts.geom.Coordinate;
+
+/**
+ * A hash map from the X and Y ordinates of {@link Coordinate}s
+ * to consecutive integer indexes, assigned in the order the keys are added.
+ * Two keys are equal in the same sense as for {@link CoordinateHashMap}.
+ * <p>
+ * This is an <code>int</code>-valued variant of {@link CoordinateHashMap}
+ * which does not create an object for each entry.
+ * The ordinates of the keys can be retrieved by their index,
+ * so that other data for the keys can be stored in arrays
+ * indexed in the same way.
+ * Entries cannot be removed.
+ */
+public class CoordinateIndexMap
+{
+  private static final int MIN_CAPACITY = 16;
+
+  private double[] keyX;
+  private double[] keyY;
+  private int size = 0;
+  /**
+   * A hash table of key indexes
+   * (offset by 1, so that 0 indicates an empty slot)
+   */
+  private int[] table;
+
+  /**
+   * Creates a new empty map.
+   */
+  public CoordinateIndexMap() {
+    this(MIN_CAPACITY);
+  }
+
+  /**
+   * Creates a new empty map with space for a given number of entries.
+   *
+   * @param expectedSize the expected number of entries
+   */
+  public CoordinateIndexMap(int expectedSize) {
+    int capacity = MIN_CAPACITY;
+    while (capacity < 2 * expectedSize)
+      capacity *= 2;
+    keyX = new double[capacity / 2];
+    keyY = new double[capacity / 2];
+    table = new int[capacity];
+  }
+
+  /**
+   * Gets the number of entries in the map.
+   *
+   * @return the number of entries
+   */
+  public int size() {
+    return size;
+  }
+
+  /**
+   * Gets the index of a key.
+   *
+   * @param key the key coordinate
+   * @return the index of the key, or -1 if it is not in the map
+   */
+  public int indexOf(Coordinate key) {
+    return table[findSlot(key.x, key.y)] - 1;
+  }
+
+  /**
+   * Adds a key to the map, if it is not already present.
+   *
+   * @param key the key coordinate
+   * @return the index of the key
+   */
+  public int add(Coordinate key) {
+    int i = findSlot(key.x, key.y);
+    if (table[i] != 0)
+      return table[i] - 1;
+
+    int index = size++;
+    if (index == keyX.length) {
+      keyX = Arrays.copyOf(keyX, 2 * index);
+      keyY = Arrays.copyOf(keyY, 2 * index);
+    }
+    keyX[index] = key.x;
+    keyY[index] = key.y;
+    table[i] = index + 1;
+    if (2 * size > table.length)
+      resize(2 * table.length);
+    return index;
+  }
+
+  /**
+   * Gets the X ordinate of the key with a given index.
+   *
+   * @param index the index of the key
+   * @return the X ordinate of the key
+   */
+  public double getX(int index) {
+    return keyX[index];
+  }
+
+  /**
+   * Gets the Y ordinate of the key with a given index.
+   *
+   * @param index the index of the key
+   * @return the Y ordinate of the key
+   */
+  public double getY(int index) {
+    return keyY[index];
+  }
+
+  /**
+   * Gets the indexes of the keys in ascending order of the keys
+   * (as for a <code>TreeMap</code> keyed by <code>Coordinate</code>).
+   *
+   * @return the sorted key indexes
+   */
+  public int[] sortedIndexes() {
+    int[] indexes = new int[size];
+    for (int i = 0; i < size; i++) {
+      indexes[i] = i;
+    }
+    sort(indexes, size, keyX, keyY);
+    return indexes;
+  }
+
+  /**
+   * Finds the slot containing a key, or the empty slot where it would be inserted.
+   */
+  private int findSlot(double x, double y) {
+    int mask = table.length - 1;
+    int i = hash(x, y) & mask;
+    while (table[i] != 0) {
+      int index = table[i] - 1;
+      if (isEqual(keyX[index], x) && isEqual(keyY[index], y))
+        return i;
+      i = (i + 1) & mask;
+    }
+    return i;
+  }
+
+  private void resize(int capacity) {
+    table = new int[capacity];
+    int mask = capacity - 1;
+    for (int index = 0; index < size; index++) {
+      int i = hash(keyX[index], keyY[index]) & mask;
+      while (table[i] != 0)
+        i = (i + 1) & mask;
+      table[i] = index + 1;
+    }
+  }
+
+  /**
+   * Tests ordinates for equality,
+   * with NaN equal to itself and 0.0 equal to -0.0.
+   */
+  static boolean isEqual(double a, double b) {
+    return a == b || (a != a && b != b);
+  }
+
+  private static long bits(double x) {
+    // ensure -0.0 hashes the same as 0.0
+    if (x == 0.0)
+      return 0L;
+    return Double.doubleToLongBits(x);
+  }
+
+  /**
+   * Computes a hash code for a pair of ordinates,
+   * consistent with {@link #isEqual(double, double)}.
+   */
+  static int hash(double x, double y) {
+    long h = bits(x) * 0x9E3779B97F4A7C15L + bits(y);
+    h ^= h >>> 31;
+    h *= 0xBF58476D1CE4E5B9L;
+    h ^= h >>> 29;
+    return (int) h;
+  }
+
+  /**
+   * Sorts the first <code>n</code> of a set of indexes
+   * into arrays of X and Y ordinates
+   * in ascending order of the ordinates.
+   */
+  static void sort(int[] indexes, int n, double[] x, double[] y) {
+    sort(indexes, 0, n - 1, x, y);
+  }
+
+  private static int compare(int i, int j, double[] x, double[] y) {
+    if (x[i] < x[j]) return -1;
+    if (x[i] > x[j]) return 1;
+    if (y[i] < y[j]) return -1;
+    if (y[i] > y[j]) return 1;
+    return 0;
+  }
+
+  private static void sort(int[] indexes, int lo, int hi, double[] x, double[] y) {
+    while (hi - lo > 16) {
+      int pivot = indexes[(lo + hi) >>> 1];
+      int i = lo;
+      int j = hi;
+      while (i <= j) {
+        while (compare(indexes[i], pivot, x, y) < 0) i++;
+        while (compare(indexes[j], pivot, x, y) > 0) j--;
+        if (i <= j) {
+          int tmp = indexes[i];
+          indexes[i] = indexes[j];
+          indexes[j] = tmp;
+          i++;
+          j--;
+        }
+      }
+      // recurse into the smaller part
+      if (j - lo < hi - i) {
+        sort(indexes, lo, j, x, y);
+        lo = i;
+      }
+      else {
+        sort(indexes, i, hi, x, y);
+        hi = j;
+      }
+    }
+    // insertion sort for small ranges
+    for (int i = lo + 1; i <= hi; i++) {
+      int s = indexes[i];
+      int j = i - 1;
+      while (j >= lo && compare(indexes[j], s, x, y) > 0) {
+        indexes[j + 1] = indexes[j];
+        j--;
+      }
+      indexes[j + 1] = s;
+    }
+  }
+}
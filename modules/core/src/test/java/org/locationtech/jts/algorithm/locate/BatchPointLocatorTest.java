@@ -0,0 +1,113 @@
+/*
+ * The JTS Topology Suite is a collection of Java classes that
+ * implement the fundamental operations required to validate a given
+ * geo-spatial data set to a known topological specification.
+ *
+ * Copyright (C) 2016 Vivid Solutions
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * (http://www.eclipse.org/legal/epl-v10.html), and the Vivid Solutions BSD
+ * License v1.0 (found at the root of the repository).
+ *
+ */
+package org.locationtech.jts.algorithm.locate;
+
+import org.locationtech.jts.geom.*;
+import org.locationtech.jts.geom.impl.PackedCoordinateSequenceFactory;
+import org.locationtech.jts.geom.prep.*;
+import org.locationtech.jts.io.WKTReader;
+
+import junit.framework.TestCase;
+import junit.textui.TestRunner;
+
+/**
+ * Tests {@link BatchPointLocator}.
+ */
+public class BatchPointLocatorTest extends TestCase
+{
+  private static final String POLY_WITH_HOLE =
+    "POLYGON ((0 0, 0 100, 100 100, 100 0, 0 0), (20 20, 20 80, 80 80, 80 20, 20 20))";
+
+  private WKTReader reader = new WKTReader();
+
+  public static void main(String args[]) {
+    TestRunner.run(BatchPointLocatorTest.class);
+  }
+
+  public BatchPointLocatorTest(String name) { super(name); }
+
+  public void testSimple() throws Exception
+  {
+    Geometry poly = reader.read(POLY_WITH_HOLE);
+    double[] xy = new double[] { 10, 10,   50, 50,   0, 50,   200, 200,   20, 50 };
+    int[] loc = new BatchPointLocator(new IndexedPointInAreaLocator(poly)).locate(xy);
+    assertEquals(Location.INTERIOR, loc[0]);
+    assertEquals(Location.EXTERIOR, loc[1]);
+    assertEquals(Location.BOUNDARY, loc[2]);
+    assertEquals(Location.EXTERIOR, loc[3]);
+    assertEquals(Location.BOUNDARY, loc[4]);
+  }
+
+  public void testGridSorted() throws Exception
+  {
+    checkGrid(true, false);
+  }
+
+  public void testGridUnsorted() throws Exception
+  {
+    checkGrid(false, false);
+  }
+
+  public void testGridParallel() throws Exception
+  {
+    checkGrid(true, true);
+  }
+
+  public void testPreparedPolygonSequence() throws Exception
+  {
+    Geometry poly = reader.read(POLY_WITH_HOLE);
+    PreparedPolygon prep = (PreparedPolygon) PreparedGeometryFactory.prepare(poly);
+    double[] xy = gridPoints(-10, 110, 50);
+    CoordinateSequence seq = PackedCoordinateSequenceFactory.DOUBLE_FACTORY.create(xy, 2);
+
+    int[] loc = new int[seq.size()];
+    prep.locate(seq, loc);
+    checkLocations(new IndexedPointInAreaLocator(poly), xy, loc);
+  }
+
+  private void checkGrid(boolean isSorted, boolean isParallel) throws Exception
+  {
+    Geometry poly = reader.read(POLY_WITH_HOLE);
+    PointOnGeometryLocator locator = new IndexedPointInAreaLocator(poly);
+    BatchPointLocator batch = new BatchPointLocator(locator, poly.getEnvelopeInternal());
+    batch.setSorted(isSorted);
+    batch.setParallel(isParallel);
+
+    double[] xy = gridPoints(-10, 110, 100);
+    int[] loc = batch.locate(xy);
+    checkLocations(locator, xy, loc);
+  }
+
+  private void checkLocations(PointOnGeometryLocator locator, double[] xy, int[] loc)
+  {
+    for (int i = 0; i < loc.length; i++) {
+      Coordinate p = new Coordinate(xy[2 * i], xy[2 * i + 1]);
+      assertEquals(locator.locate(p), loc[i]);
+    }
+  }
+
+  private static double[] gridPoints(double min, double max, int n)
+  {
+    double[] xy = new double[2 * n * n];
+    double step = (max - min) / (n - 1);
+    int k = 0;
+    for (int i = 0; i < n; i++) {
+      for (int j = 0; j < n; j++) {
+        xy[k++] = min + j * step;
+        xy[k++] = min + i * step;
+      }
+    }
+    return xy;
+  }
+}
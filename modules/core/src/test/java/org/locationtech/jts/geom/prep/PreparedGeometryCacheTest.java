@@ -0,0 +1,109 @@
+/*
+ * The JTS Topology Suite is a collection of Java classes that
+ * implement the fundamental operations required to validate a given
+ * geo-spatial data set to a known topological specification.
+ *
+ * Copyright (C) 2016 Vivid Solutions
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * (http://www.eclipse.org/legal/epl-v10.html), and the Vivid Solutions BSD
+ * License v1.0 (found at the root of the repository).
+ *
+ */
+package org.locationtech.jts.geom.prep;
+
+import org.locationtech.jts.geom.*;
+import org.locationtech.jts.io.WKTReader;
+
+import junit.framework.TestCase;
+import junit.textui.TestRunner;
+
+/**
+ * Tests {@link PreparedGeometryCache}.
+ */
+public class PreparedGeometryCacheTest extends TestCase
+{
+  private WKTReader reader = new WKTReader();
+
+  public static void main(String args[]) {
+    TestRunner.run(PreparedGeometryCacheTest.class);
+  }
+
+  public PreparedGeometryCacheTest(String name) { super(name); }
+
+  public void testHitMiss() throws Exception
+  {
+    Geometry poly = reader.read("POLYGON ((0 0, 0 10, 10 10, 10 0, 0 0))");
+    PreparedGeometryCache cache = new PreparedGeometryCache(1000000);
+
+    PreparedGeometry pg1 = cache.get(poly);
+    PreparedGeometry pg2 = cache.get(poly);
+    assertSame(pg1, pg2);
+    assertSame(poly, pg1.getGeometry());
+    assertEquals(1, cache.getHitCount());
+    assertEquals(1, cache.getMissCount());
+    assertEquals(1, cache.size());
+  }
+
+  public void testIdentityKey() throws Exception
+  {
+    Geometry poly1 = reader.read("POLYGON ((0 0, 0 10, 10 10, 10 0, 0 0))");
+    Geometry poly2 = reader.read("POLYGON ((0 0, 0 10, 10 10, 10 0, 0 0))");
+    PreparedGeometryCache cache = new PreparedGeometryCache(1000000);
+
+    assertTrue(cache.get(poly1) != cache.get(poly2));
+    assertEquals(2, cache.size());
+  }
+
+  public void testUserKey() throws Exception
+  {
+    Geometry poly = reader.read("POLYGON ((0 0, 0 10, 10 10, 10 0, 0 0))");
+    PreparedGeometryCache cache = new PreparedGeometryCache(1000000);
+
+    PreparedGeometry pg = cache.get("A", poly);
+    assertSame(pg, cache.getIfPresent("A"));
+    cache.invalidateKey("A");
+    assertNull(cache.getIfPresent("A"));
+    assertEquals(0, cache.getWeight());
+  }
+
+  public void testLRUEviction() throws Exception
+  {
+    Geometry poly = reader.read("POLYGON ((0 0, 0 10, 10 10, 10 0, 0 0))");
+    long size = PreparedGeometryCache.estimateSize(poly);
+    PreparedGeometryCache cache = new PreparedGeometryCache(2 * size);
+
+    cache.get("A", poly);
+    cache.get("B", poly);
+    // touch A so that B is least recently used
+    cache.get("A", poly);
+    cache.get("C", poly);
+
+    assertEquals(2, cache.size());
+    assertEquals(1, cache.getEvictionCount());
+    assertNotNull(cache.getIfPresent("A"));
+    assertNull(cache.getIfPresent("B"));
+    assertNotNull(cache.getIfPresent("C"));
+    assertTrue(cache.getWeight() <= cache.getMaxWeight());
+  }
+
+  public void testGetIfPresentDoesNotPromote() throws Exception
+  {
+    Geometry poly = reader.read("POLYGON ((0 0, 0 10, 10 10, 10 0, 0 0))");
+    long size = PreparedGeometryCache.estimateSize(poly);
+    PreparedGeometryCache cache = new PreparedGeometryCache(2 * size);
+
+    cache.get("A", poly);
+    cache.get("B", poly);
+    // peeking at A leaves it least recently used
+    assertNotNull(cache.getIfPresent("A"));
+    cache.get("C", poly);
+
+    assertNull(cache.getIfPresent("A"));
+    assertNotNull(cache.getIfPresent("B"));
+    assertNotNull(cache.getIfPresent("C"));
+    assertEquals(0, cache.getHitCount());
+    assertEquals(3, cache.getMissCount());
+  }
+}
@@ -0,0 +1,96 @@
+/*
+ * The JTS Topology Suite is a collection of Java classes that
+ * implement the fundamental operations required to validate a given
+ * geo-spatial data set to a known topological specification.
+ *
+ * Copyright (C) 2016 Vivid Solutions
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * (http://www.eclipse.org/legal/epl-v10.html), and the Vivid Solutions BSD
+ * License v1.0 (found at the root of the repository).
+ *
+ */
+package org.locationtech.jts.geom.prep;
+
+import org.locationtech.jts.geom.*;
+import org.locationtech.jts.io.WKTReader;
+
+import junit.framework.TestCase;
+import junit.textui.TestRunner;
+
+/**
+ * Tests {@link BasicPreparedGeometry#distance(Geometry)} 
+ * and {@link BasicPreparedGeometry#isWithinDistance(Geometry, double)}.
+ */
+public class PreparedGeometryDistanceTest extends TestCase
+{
+  private static final String POLY = 
+    "POLYGON ((0 0, 0 100, 100 100, 100 0, 0 0), (20 20, 20 80, 80 80, 80 20, 20 20))";
+  
+  private WKTReader reader = new WKTReader();
+
+  public static void main(String args[]) {
+    TestRunner.run(PreparedGeometryDistanceTest.class);
+  }
+
+  public PreparedGeometryDistanceTest(String name) { super(name); }
+
+  public void testPointOutside() throws Exception
+  {
+    checkDistance(POLY, "POINT (110 50)", 10);
+  }
+
+  public void testPointInHole() throws Exception
+  {
+    checkDistance(POLY, "POINT (50 50)", 30);
+  }
+
+  public void testPointInside() throws Exception
+  {
+    checkDistance(POLY, "POINT (10 50)", 0);
+  }
+
+  public void testLineInside() throws Exception
+  {
+    checkDistance(POLY, "LINESTRING (5 5, 5 95)", 0);
+  }
+
+  public void testPolygonContainingTarget() throws Exception
+  {
+    checkDistance("LINESTRING (50 50, 60 60)", "POLYGON ((0 0, 0 100, 100 100, 100 0, 0 0))", 0);
+  }
+
+  public void testMultiComponent() throws Exception
+  {
+    checkDistance(POLY, "MULTIPOINT ((200 200), (10 10))", 0);
+  }
+
+  public void testLines() throws Exception
+  {
+    checkDistance("LINESTRING (0 0, 10 10, 20 0)", "LINESTRING (0 20, 10 15, 20 20)", 5);
+  }
+
+  public void testEmpty() throws Exception
+  {
+    checkDistance(POLY, "POINT EMPTY", 0);
+  }
+
+  private void checkDistance(String wktTarget, String wktTest, double expected)
+    throws Exception
+  {
+    Geometry target = reader.read(wktTarget);
+    Geometry test = reader.read(wktTest);
+    BasicPreparedGeometry prep = (BasicPreparedGeometry) PreparedGeometryFactory.prepare(target);
+    
+    double dist = prep.distance(test);
+    assertEquals(expected, dist, 1e-10);
+    assertEquals(target.distance(test), dist, 1e-10);
+    
+    assertTrue(prep.isWithinDistance(test, expected));
+    assertTrue(prep.isWithinDistance(test, expected + 1));
+    if (expected > 0) {
+      assertTrue(! prep.isWithinDistance(test, expected - 0.1));
+    }
+  }
+}
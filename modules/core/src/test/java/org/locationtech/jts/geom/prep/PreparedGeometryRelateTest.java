@@ -0,0 +1,152 @@
+/*
+ * The JTS Topology Suite is a collection of Java classes that
+ * implement the fundamental operations required to validate a given
+ * geo-spatial data set to a known topological specification.
+ *
+ * Copyright (C) 2016 Vivid Solutions
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * (http://www.eclipse.org/legal/epl-v10.html), and the Vivid Solutions BSD
+ * License v1.0 (found at the root of the repository).
+ *
+ */
+package org.locationtech.jts.geom.prep;
+
+import org.locationtech.jts.geom.*;
+import org.locationtech.jts.io.WKTReader;
+
+import junit.framework.TestCase;
+import junit.textui.TestRunner;
+
+/**
+ * Tests {@link BasicPreparedGeometry#relate(Geometry)}
+ * and {@link BasicPreparedGeometry#relate(Geometry, String)}.
+ */
+public class PreparedGeometryRelateTest extends TestCase
+{
+  private static final String POLY =
+    "POLYGON ((0 0, 0 100, 100 100, 100 0, 0 0), (20 20, 20 80, 80 80, 80 20, 20 20))";
+
+  private static final String[] TEST_WKT = new String[] {
+    "POINT (10 50)",
+    "POINT (0 50)",
+    "POINT (50 50)",
+    "MULTIPOINT ((10 10), (50 50))",
+    "LINESTRING (-10 50, 10 50)",
+    "LINESTRING (5 5, 5 95)",
+    "LINESTRING (10 50, 50 50)",
+    "LINESTRING (0 0, 0 100)",
+    "POLYGON ((90 90, 90 110, 110 110, 110 90, 90 90))",
+    "POLYGON ((30 30, 30 70, 70 70, 70 30, 30 30))",
+    "POLYGON ((20 20, 20 80, 80 80, 80 20, 20 20))",
+    "POLYGON ((200 200, 200 300, 300 300, 300 200, 200 200))",
+    "MULTIPOLYGON (((5 5, 5 10, 10 10, 10 5, 5 5)), ((40 40, 40 60, 60 60, 60 40, 40 40)))",
+  };
+
+  private WKTReader reader = new WKTReader();
+
+  public static void main(String args[]) {
+    TestRunner.run(PreparedGeometryRelateTest.class);
+  }
+
+  public PreparedGeometryRelateTest(String name) { super(name); }
+
+  public void testPolygon() throws Exception
+  {
+    checkAll(POLY);
+  }
+
+  public void testLine() throws Exception
+  {
+    checkAll("LINESTRING (-10 50, 50 50, 50 -10)");
+  }
+
+  public void testMultiPoint() throws Exception
+  {
+    checkAll("MULTIPOINT ((10 50), (50 50), (0 0))");
+  }
+
+  public void testPattern() throws Exception
+  {
+    BasicPreparedGeometry prep = (BasicPreparedGeometry) PreparedGeometryFactory.prepare(reader.read(POLY));
+    Geometry line = reader.read("LINESTRING (-10 50, 10 50)");
+    assertTrue(prep.relate(line, "1020F1102"));
+    assertTrue(! prep.relate(line, "1020F11F2"));
+  }
+
+  public void testGeometryCollection() throws Exception
+  {
+    BasicPreparedGeometry prep = (BasicPreparedGeometry) PreparedGeometryFactory.prepare(reader.read(POLY));
+    Geometry gc = reader.read("GEOMETRYCOLLECTION (POINT (10 50))");
+    try {
+      prep.relate(gc);
+      fail("expected IllegalArgumentException");
+    }
+    catch (IllegalArgumentException ex) {
+      // expected
+    }
+  }
+
+  /**
+   * Relates the test geometries from several threads at once,
+   * to check that concurrent computations do not interfere.
+   */
+  public void testConcurrent() throws Exception
+  {
+    final Geometry target = reader.read(POLY);
+    final BasicPreparedGeometry prep = (BasicPreparedGeometry) PreparedGeometryFactory.prepare(target);
+    final Geometry[] tests = new Geometry[TEST_WKT.length];
+    final String[] expected = new String[TEST_WKT.length];
+    for (int i = 0; i < TEST_WKT.length; i++) {
+      tests[i] = reader.read(TEST_WKT[i]);
+      expected[i] = target.relate(tests[i]).toString();
+    }
+    final String[] failure = new String[1];
+    Thread[] threads = new Thread[4];
+    for (int t = 0; t < threads.length; t++) {
+      threads[t] = new Thread() {
+        public void run() {
+          for (int n = 0; n < 200; n++) {
+            for (int i = 0; i < tests.length; i++) {
+              String im = prep.relate(tests[i]).toString();
+              if (! im.equals(expected[i])
+                  || ! prep.relate(tests[i], expected[i])) {
+                synchronized (failure) {
+                  failure[0] = TEST_WKT[i] + " : " + im;
+                }
+                return;
+              }
+            }
+          }
+        }
+      };
+      threads[t].start();
+    }
+    for (int t = 0; t < threads.length; t++) {
+      threads[t].join();
+    }
+    assertNull(failure[0]);
+  }
+
+  /**
+   * Relates each test geometry twice,
+   * to check that the prepared state is not changed by a computation.
+   */
+  private void checkAll(String wktTarget) throws Exception
+  {
+    Geometry target = reader.read(wktTarget);
+    BasicPreparedGeometry prep = (BasicPreparedGeometry) PreparedGeometryFactory.prepare(target);
+    for (int pass = 0; pass < 2; pass++) {
+      for (int i = 0; i < TEST_WKT.length; i++) {
+        Geometry g = reader.read(TEST_WKT[i]);
+        IntersectionMatrix expected = target.relate(g);
+        assertEquals(TEST_WKT[i], expected.toString(), prep.relate(g).toString());
+        assertTrue(prep.relate(g, expected.toString()));
+        assertEquals(target.touches(g), prep.touches(g));
+        assertEquals(target.crosses(g), prep.crosses(g));
+        assertEquals(target.overlaps(g), prep.overlaps(g));
+      }
+    }
+  }
+}
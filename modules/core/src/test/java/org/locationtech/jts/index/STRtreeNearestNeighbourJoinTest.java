@@ -0,0 +1,117 @@
+/*
+ * The JTS Topology Suite is a collection of Java classes that
+ * implement the fundamental operations required to validate a given
+ * geo-spatial data set to a known topological specification.
+ *
+ * Copyright (C) 2016 Vivid Solutions
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * (http://www.eclipse.org/legal/epl-v10.html), and the Vivid Solutions BSD
+ * License v1.0 (found at the root of the repository).
+ *
+ */
+package org.locationtech.jts.index;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Random;
+
+import org.locationtech.jts.geom.Coordinate;
+import org.locationtech.jts.geom.Geometry;
+import org.locationtech.jts.geom.GeometryFactory;
+import org.locationtech.jts.index.strtree.GeometryItemDistance;
+import org.locationtech.jts.index.strtree.STRtree;
+import org.locationtech.jts.index.strtree.STRtreeNearestNeighbourJoin;
+
+import junit.framework.TestCase;
+import junit.textui.TestRunner;
+
+/**
+ * Tests {@link STRtreeNearestNeighbourJoin} against a brute-force search.
+ */
+public class STRtreeNearestNeighbourJoinTest extends TestCase {
+
+  private GeometryFactory factory = new GeometryFactory();
+
+  public static void main(String args[]) {
+    TestRunner.run(STRtreeNearestNeighbourJoinTest.class);
+  }
+
+  public STRtreeNearestNeighbourJoinTest(String name) { super(name); }
+
+  public void testJoin() {
+    checkJoin(2000, 500, Double.POSITIVE_INFINITY, false);
+  }
+
+  public void testJoinMaxDistance() {
+    checkJoin(2000, 500, 2.0, false);
+  }
+
+  public void testJoinParallel() {
+    checkJoin(5000, 1000, Double.POSITIVE_INFINITY, true);
+  }
+
+  public void testJoinParallelMaxDistance() {
+    checkJoin(5000, 1000, 1.5, true);
+  }
+
+  public void testEmpty() {
+    STRtree treeA = createTree(createPoints(10, 1));
+    STRtree treeB = new STRtree();
+    STRtreeNearestNeighbourJoin join = new STRtreeNearestNeighbourJoin(treeA, treeB, new GeometryItemDistance());
+    assertEquals(0, join.getPairs().size());
+  }
+
+  private void checkJoin(int nA, int nB, double maxDist, boolean isParallel) {
+    List ptsA = createPoints(nA, 1);
+    List ptsB = createPoints(nB, 2);
+    STRtreeNearestNeighbourJoin join = new STRtreeNearestNeighbourJoin(
+        createTree(ptsA), createTree(ptsB), new GeometryItemDistance());
+    join.setMaxDistance(maxDist);
+    join.setParallel(isParallel);
+    List pairs = join.getPairs();
+
+    int expectedCount = 0;
+    for (Iterator i = ptsA.iterator(); i.hasNext(); ) {
+      Geometry a = (Geometry) i.next();
+      if (bruteForceNearestDistance(a, ptsB) <= maxDist) expectedCount++;
+    }
+    assertEquals(expectedCount, pairs.size());
+
+    for (Iterator i = pairs.iterator(); i.hasNext(); ) {
+      Object[] pair = (Object[]) i.next();
+      Geometry a = (Geometry) pair[0];
+      Geometry b = (Geometry) pair[1];
+      assertEquals(bruteForceNearestDistance(a, ptsB), a.distance(b), 0.0);
+    }
+  }
+
+  private static double bruteForceNearestDistance(Geometry a, List geoms) {
+    double minDist = Double.POSITIVE_INFINITY;
+    for (Iterator i = geoms.iterator(); i.hasNext(); ) {
+      double d = a.distance((Geometry) i.next());
+      if (d < minDist) minDist = d;
+    }
+    return minDist;
+  }
+
+  private STRtree createTree(List geoms) {
+    STRtree tree = new STRtree();
+    for (Iterator i = geoms.iterator(); i.hasNext(); ) {
+      Geometry g = (Geometry) i.next();
+      tree.insert(g.getEnvelopeInternal(), g);
+    }
+    return tree;
+  }
+
+  private List createPoints(int n, long seed) {
+    Random rnd = new Random(seed);
+    List pts = new ArrayList();
+    for (int i = 0; i < n; i++) {
+      pts.add(factory.createPoint(new Coordinate(100 * rnd.nextDouble(), 100 * rnd.nextDouble())));
+    }
+    return pts;
+  }
+}
@@ -16,6 +16,7 @@ package org.locationtech.jts.index.kdtree;
 
 import java.util.Arrays;
 import java.util.List;
+import java.util.Random;
 
 import org.locationtech.jts.geom.Coordinate;
 import org.locationtech.jts.geom.CoordinateArrays;
@@ -101,6 +102,99 @@ public class KdTreeTest extends TestCase {
         "MULTIPOINT ( (10 60), (20 60), (20 60))");
   }
   
+  public void testBuildSnapToNearest() {
+    KdTree index = new KdTree(5);
+    index.build(IOUtil.read("MULTIPOINT ( (10 60), (20 60), (16 60))").getCoordinates());
+    testQuery(index, new Envelope(0,99, 0, 99), true,
+        IOUtil.read("MULTIPOINT ( (10 60), (20 60), (20 60))").getCoordinates());
+  }
+
+  public void testBuildSameAsInsert() {
+    checkBuildSameAsInsert(randomPoints(2000, 1), 0);
+    checkBuildSameAsInsert(randomPoints(2000, 2), 3);
+    checkBuildSameAsInsert(gridPoints(40), 0);
+    checkBuildSameAsInsert(gridPoints(40), 1);
+  }
+
+  public void testBuildBalanced() {
+    Coordinate[] pts = gridPoints(100);
+    KdTree index = new KdTree();
+    index.build(pts);
+    assertEquals(pts.length, index.size());
+    // a balanced tree of 10000 nodes has depth 14
+    assertTrue(index.depth() <= 16);
+  }
+
+  public void testBuildOrdinates() {
+    Coordinate[] pts = randomPoints(500, 3);
+    double[] ptXY = new double[2 * pts.length];
+    for (int i = 0; i < pts.length; i++) {
+      ptXY[2 * i] = pts[i].x;
+      ptXY[2 * i + 1] = pts[i].y;
+    }
+    KdTree expected = new KdTree(2);
+    expected.build(pts);
+    KdTree actual = new KdTree(2);
+    actual.build(ptXY);
+    Envelope queryEnv = new Envelope(0, 100, 0, 100);
+    testQuery(actual, queryEnv, true, 
+        KdTree.toCoordinates(expected.query(queryEnv), true));
+  }
+
+  public void testInsertAfterBuild() {
+    KdTree index = new KdTree();
+    index.build(gridPoints(10));
+    index.insert(new Coordinate(3.5, 3.5));
+    index.insert(new Coordinate(3, 3));
+    assertEquals(101, index.size());
+    List result = index.query(new Envelope(3, 4, 3, 4));
+    assertEquals(5, result.size());
+  }
+
+  private void checkBuildSameAsInsert(Coordinate[] pts, double tolerance) {
+    KdTree expected = new KdTree(tolerance);
+    for (int i = 0; i < pts.length; i++) {
+      expected.insert(pts[i]);
+    }
+    KdTree actual = new KdTree(tolerance);
+    actual.build(pts);
+    assertEquals(expected.size(), actual.size());
+    assertTrue(actual.depth() <= expected.depth());
+
+    Envelope env = new Envelope();
+    for (int i = 0; i < pts.length; i++) {
+      env.expandToInclude(pts[i]);
+    }
+    Random rnd = new Random(0);
+    for (int i = 0; i < 20; i++) {
+      double x = env.getMinX() + rnd.nextDouble() * env.getWidth();
+      double y = env.getMinY() + rnd.nextDouble() * env.getHeight();
+      Envelope queryEnv = new Envelope(x, x + env.getWidth() / 4, y, y + env.getHeight() / 4);
+      testQuery(actual, queryEnv, true, 
+          KdTree.toCoordinates(expected.query(queryEnv), true));
+    }
+  }
+
+  private static Coordinate[] randomPoints(int n, long seed) {
+    Random rnd = new Random(seed);
+    Coordinate[] pts = new Coordinate[n];
+    for (int i = 0; i < n; i++) {
+      pts[i] = new Coordinate(Math.floor(rnd.nextDouble() * 1000) / 10, 
+          Math.floor(rnd.nextDouble() * 1000) / 10);
+    }
+    return pts;
+  }
+
+  private static Coordinate[] gridPoints(int size) {
+    Coordinate[] pts = new Coordinate[size * size];
+    for (int i = 0; i < size; i++) {
+      for (int j = 0; j < size; j++) {
+        pts[i * size + j] = new Coordinate(i, j);
+      }
+    }
+    return pts;
+  }
+
   private void testQuery(String wktInput, double tolerance,
       Envelope queryEnv, String wktExpected) {
     KdTree index = build(wktInput, tolerance);
@@ -0,0 +1,157 @@
+/*
+ * The JTS Topology Suite is a collection of Java classes that
+ * implement the fundamental operations required to validate a given
+ * geo-spatial data set to a known topological specification.
+ *
+ * Copyright (C) 2016 Vivid Solutions
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * (http://www.eclipse.org/legal/epl-v10.html), and the Vivid Solutions BSD
+ * License v1.0 (found at the root of the repository).
+ *
+ */
+
+package org.locationtech.jts.linearref;
+
+import java.util.Random;
+
+import junit.framework.TestCase;
+import junit.textui.TestRunner;
+
+import org.locationtech.jts.geom.Coordinate;
+import org.locationtech.jts.geom.Geometry;
+import org.locationtech.jts.geom.GeometryFactory;
+import org.locationtech.jts.geom.LineString;
+import org.locationtech.jts.geom.impl.PackedCoordinateSequence;
+import org.locationtech.jts.io.WKTReader;
+
+/**
+ * Tests {@link BatchLineExtractor}.
+ */
+public class BatchLineExtractorTest
+    extends TestCase
+{
+  private GeometryFactory geomFact = new GeometryFactory();
+  private WKTReader reader = new WKTReader(geomFact);
+
+  public static void main(String args[]) {
+    TestRunner.run(BatchLineExtractorTest.class);
+  }
+
+  public BatchLineExtractorTest(String name) { super(name); }
+
+  public void testSimple() throws Exception
+  {
+    Geometry[] routes = new Geometry[] {
+        reader.read("LINESTRING (0 0, 10 0, 10 10)"),
+        reader.read("MULTILINESTRING ((0 0, 10 0), (20 0, 25 0, 30 0))")
+    };
+    Geometry[] result = new BatchLineExtractor(routes).extractLines(
+        new int[] { 0, 1, 0, 1 },
+        new double[] { 5, 19, 15, -10 },
+        new double[] { 15, 1, 5, 10 });
+    checkExpected(result[0], "LINESTRING (5 0, 10 0, 10 5)");
+    checkExpected(result[1], "MULTILINESTRING ((29 0, 25 0, 20 0), (10 0, 1 0))");
+    checkExpected(result[2], "LINESTRING (10 5, 10 0, 5 0)");
+    checkExpected(result[3], "LINESTRING (10 0, 10 0)");
+  }
+
+  public void testPackedResult() throws Exception
+  {
+    Geometry[] routes = new Geometry[] { reader.read("LINESTRING (0 0, 10 0, 10 10)") };
+    Geometry[] result = new BatchLineExtractor(routes).extractLines(
+        new int[] { 0 }, new double[] { 1 }, new double[] { 12 });
+    LineString line = (LineString) result[0];
+    assertTrue(line.getCoordinateSequence() instanceof PackedCoordinateSequence);
+  }
+
+  public void testInvalidRoute() throws Exception
+  {
+    Geometry[] routes = new Geometry[] { reader.read("LINESTRING (0 0, 10 0)") };
+    try {
+      new BatchLineExtractor(routes).extractLines(
+          new int[] { 1 }, new double[] { 1 }, new double[] { 2 });
+      fail("Expected exception for invalid route index");
+    }
+    catch (IllegalArgumentException ex) {
+      // expected
+    }
+  }
+
+  public void testSameAsLengthIndexedLine() throws Exception
+  {
+    checkSameAsLengthIndexedLine(false);
+  }
+
+  public void testSameAsLengthIndexedLineParallel() throws Exception
+  {
+    checkSameAsLengthIndexedLine(true);
+  }
+
+  private void checkSameAsLengthIndexedLine(boolean isParallel) throws Exception
+  {
+    Random rnd = new Random(1234);
+    Geometry[] routes = new Geometry[20];
+    for (int r = 0; r < routes.length; r++) {
+      LineString[] lines = new LineString[1 + rnd.nextInt(3)];
+      for (int j = 0; j < lines.length; j++) {
+        lines[j] = randomLine(rnd, 2 + rnd.nextInt(30));
+      }
+      routes[r] = lines.length == 1 ? (Geometry) lines[0] : geomFact.createMultiLineString(lines);
+    }
+    routes[0] = reader.read("MULTILINESTRING ((0 0, 10 0, 10 0, 20 0), (20 0, 20 0), (20 0, 30 0))");
+
+    int n = 2000;
+    int[] routeIndex = new int[n];
+    double[] startIndex = new double[n];
+    double[] endIndex = new double[n];
+    for (int i = 0; i < n; i++) {
+      routeIndex[i] = rnd.nextInt(routes.length);
+      double len = routes[routeIndex[i]].getLength();
+      startIndex[i] = randomIndex(rnd, routes[routeIndex[i]], len);
+      endIndex[i] = rnd.nextInt(10) == 0 ? startIndex[i] : randomIndex(rnd, routes[routeIndex[i]], len);
+    }
+
+    BatchLineExtractor extractor = new BatchLineExtractor(routes);
+    extractor.setParallel(isParallel);
+    Geometry[] result = extractor.extractLines(routeIndex, startIndex, endIndex);
+    for (int i = 0; i < n; i++) {
+      Geometry expected = new LengthIndexedLine(routes[routeIndex[i]])
+          .extractLine(startIndex[i], endIndex[i]);
+      assertTrue(expected.equalsExact(result[i]));
+    }
+  }
+
+  /**
+   * Creates an index which is often at a vertex
+   * (to check the resolution of component endpoints),
+   * and sometimes negative or out of range.
+   */
+  private double randomIndex(Random rnd, Geometry route, double len)
+  {
+    switch (rnd.nextInt(4)) {
+    case 0:
+      Coordinate[] pts = route.getCoordinates();
+      return new LengthIndexedLine(route).project(pts[rnd.nextInt(pts.length)]);
+    case 1:
+      return rnd.nextDouble() * 1.4 * len - 0.2 * len - len;
+    }
+    return rnd.nextDouble() * 1.4 * len - 0.2 * len;
+  }
+
+  private LineString randomLine(Random rnd, int n)
+  {
+    Coordinate[] pts = new Coordinate[n];
+    for (int i = 0; i < n; i++) {
+      pts[i] = new Coordinate(rnd.nextInt(10), rnd.nextInt(10));
+    }
+    return geomFact.createLineString(pts);
+  }
+
+  private void checkExpected(Geometry result, String expected) throws Exception
+  {
+    Geometry expectedGeom = reader.read(expected);
+    assertTrue(expectedGeom.equalsExact(result));
+  }
+}
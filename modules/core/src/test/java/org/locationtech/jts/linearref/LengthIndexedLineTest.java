@@ -106,7 +106,7 @@ public class LengthIndexedLineTest
   public void testProjectExtractPoint()
   {
     Geometry linearGeom = read("MULTILINESTRING ((0 2, 0 0), (-1 1, 1 1))");
-    LengthIndexedLine indexedLine = new LengthIndexedLine(linearGeom);
+    LengthIndexedLine indexedLine = createIndexedLine(linearGeom);
     double index = indexedLine.project(new Coordinate(1, 0));
     Coordinate pt = indexedLine.extractPoint(index);
     assertTrue(pt.equals(new Coordinate(0, 0)));
@@ -115,7 +115,7 @@ public class LengthIndexedLineTest
   public void testExtractPointBeyondRange()
   {
     Geometry linearGeom = read("LINESTRING (0 0, 10 10)");
-    LengthIndexedLine indexedLine = new LengthIndexedLine(linearGeom);
+    LengthIndexedLine indexedLine = createIndexedLine(linearGeom);
     Coordinate pt = indexedLine.extractPoint(100);
     assertTrue(pt.equals(new Coordinate(10, 10)));
 
@@ -126,7 +126,7 @@ public class LengthIndexedLineTest
   public void testProjectPointWithDuplicateCoords()
   {
     Geometry linearGeom = read("LINESTRING (0 0, 10 0, 10 0, 20 0)");
-    LengthIndexedLine indexedLine = new LengthIndexedLine(linearGeom);
+    LengthIndexedLine indexedLine = createIndexedLine(linearGeom);
     double projIndex = indexedLine.project(new Coordinate(10, 1));
     assertTrue(projIndex == 10.0);
   }
@@ -150,7 +150,7 @@ public class LengthIndexedLineTest
   public void testComputeZ()
   {
   	Geometry linearGeom = read("LINESTRING (0 0 0, 10 10 10)");
-    LengthIndexedLine indexedLine = new LengthIndexedLine(linearGeom);
+    LengthIndexedLine indexedLine = createIndexedLine(linearGeom);
     double projIndex = indexedLine.project(new Coordinate(5, 5));
     Coordinate projPt = indexedLine.extractPoint(projIndex);
 //    System.out.println(projPt);
@@ -164,7 +164,7 @@ public class LengthIndexedLineTest
   public void testComputeZNaN()
   {
   	Geometry linearGeom = read("LINESTRING (0 0, 10 10 10)");
-    LengthIndexedLine indexedLine = new LengthIndexedLine(linearGeom);
+    LengthIndexedLine indexedLine = createIndexedLine(linearGeom);
     double projIndex = indexedLine.project(new Coordinate(5, 5));
     Coordinate projPt = indexedLine.extractPoint(projIndex);
     assertTrue(Double.isNaN(projPt.z ));  
@@ -173,14 +173,14 @@ public class LengthIndexedLineTest
   private void checkExtractLine(String wkt, double start, double end, String expected)
   {
     Geometry linearGeom = read(wkt);
-    LengthIndexedLine indexedLine = new LengthIndexedLine(linearGeom);
+    LengthIndexedLine indexedLine = createIndexedLine(linearGeom);
     Geometry result = indexedLine.extractLine(start, end);
     checkExpected(result, expected);
   }
 
   protected Geometry indicesOfThenExtract(Geometry linearGeom, Geometry subLine)
   {
-    LengthIndexedLine indexedLine = new LengthIndexedLine(linearGeom);
+    LengthIndexedLine indexedLine = createIndexedLine(linearGeom);
     double[] loc = indexedLine.indicesOf(subLine);
     Geometry result = indexedLine.extractLine(loc[0], loc[1]);
     return result;
@@ -188,7 +188,7 @@ public class LengthIndexedLineTest
 
   protected boolean indexOfAfterCheck(Geometry linearGeom, Coordinate testPt)
   {
-    LengthIndexedLine indexedLine = new LengthIndexedLine(linearGeom);
+    LengthIndexedLine indexedLine = createIndexedLine(linearGeom);
     
     // check locations are consecutive
     double loc1 = indexedLine.indexOf(testPt);
@@ -206,7 +206,7 @@ public class LengthIndexedLineTest
 
   protected boolean indexOfAfterCheck(Geometry linearGeom, Coordinate testPt, Coordinate checkPt)
   {
-    LengthIndexedLine indexedLine = new LengthIndexedLine(linearGeom);
+    LengthIndexedLine indexedLine = createIndexedLine(linearGeom);
     
     // check that computed location is after check location
     double checkLoc = indexedLine.indexOf(checkPt);
@@ -218,9 +218,14 @@ public class LengthIndexedLineTest
 
   protected Coordinate extractOffsetAt(Geometry linearGeom, Coordinate testPt, double offsetDistance)
   {
-    LengthIndexedLine indexedLine = new LengthIndexedLine(linearGeom);
+    LengthIndexedLine indexedLine = createIndexedLine(linearGeom);
     double index = indexedLine.indexOf(testPt);
     return indexedLine.extractPoint(index, offsetDistance);
   }
 
-}
\ No newline at end of file
+  protected LengthIndexedLine createIndexedLine(Geometry linearGeom)
+  {
+    return new LengthIndexedLine(linearGeom);
+  }
+
+}
@@ -0,0 +1,122 @@
+/*
+ * The JTS Topology Suite is a collection of Java classes that
+ * implement the fundamental operations required to validate a given
+ * geo-spatial data set to a known topological specification.
+ *
+ * Copyright (C) 2016 Vivid Solutions
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * (http://www.eclipse.org/legal/epl-v10.html), and the Vivid Solutions BSD
+ * License v1.0 (found at the root of the repository).
+ *
+ */
+
+package org.locationtech.jts.linearref;
+
+import java.util.Random;
+
+import org.locationtech.jts.geom.Coordinate;
+import org.locationtech.jts.geom.Geometry;
+import org.locationtech.jts.geom.GeometryFactory;
+import org.locationtech.jts.geom.LineString;
+
+/**
+ * Tests the {@link PreparedLengthIndexedLine} class,
+ * by running the {@link LengthIndexedLine} tests
+ * and comparing results with {@link LengthIndexedLine}.
+ */
+public class PreparedLengthIndexedLineTest
+    extends LengthIndexedLineTest
+{
+  private GeometryFactory geomFact = new GeometryFactory();
+
+  public static void main(String[] args) {
+      junit.textui.TestRunner.run(PreparedLengthIndexedLineTest.class);
+  }
+
+  public PreparedLengthIndexedLineTest(String name) {
+    super(name);
+  }
+
+  public void testEmpty()
+  {
+    LengthIndexedLine indexedLine = createIndexedLine(read("LINESTRING EMPTY"));
+    assertEquals(-1.0, indexedLine.project(new Coordinate(1, 1)), 0.0);
+    assertEquals(0.0, indexedLine.getEndIndex(), 0.0);
+  }
+
+  public void testSameAsLengthIndexedLine()
+  {
+    Random rnd = new Random(1234);
+    for (int i = 0; i < 20; i++) {
+      checkSameResults(randomLine(rnd, 2 + rnd.nextInt(40)), rnd);
+    }
+  }
+
+  public void testSameAsLengthIndexedLineMulti()
+  {
+    Random rnd = new Random(4321);
+    for (int i = 0; i < 20; i++) {
+      LineString[] lines = new LineString[1 + rnd.nextInt(4)];
+      for (int j = 0; j < lines.length; j++) {
+        lines[j] = randomLine(rnd, 2 + rnd.nextInt(20));
+      }
+      checkSameResults(geomFact.createMultiLineString(lines), rnd);
+    }
+  }
+
+  public void testSameAsLengthIndexedLineRepeatedPoints()
+  {
+    checkSameResults(read("MULTILINESTRING ((0 0, 10 0, 10 0, 20 0), (20 0, 20 0), (20 0, 30 0, 30 10, 20 0))"),
+        new Random(99));
+  }
+
+  /**
+   * Creates a line with vertices on a coarse grid,
+   * so that it has repeated points and coincident segments.
+   */
+  private LineString randomLine(Random rnd, int n)
+  {
+    Coordinate[] pts = new Coordinate[n];
+    for (int i = 0; i < n; i++) {
+      pts[i] = new Coordinate(rnd.nextInt(10), rnd.nextInt(10));
+    }
+    return geomFact.createLineString(pts);
+  }
+
+  private void checkSameResults(Geometry linearGeom, Random rnd)
+  {
+    LengthIndexedLine expected = new LengthIndexedLine(linearGeom);
+    LengthIndexedLine actual = createIndexedLine(linearGeom);
+    double len = linearGeom.getLength();
+    assertEquals(expected.getEndIndex(), actual.getEndIndex(), 0.0);
+
+    for (int i = 0; i < 50; i++) {
+      Coordinate pt = new Coordinate(rnd.nextDouble() * 12 - 1, rnd.nextDouble() * 12 - 1);
+      if (rnd.nextInt(4) == 0) {
+        pt = linearGeom.getCoordinates()[rnd.nextInt(linearGeom.getNumPoints())];
+      }
+      double index = expected.project(pt);
+      assertEquals(index, actual.project(pt), 0.0);
+
+      double minIndex = rnd.nextDouble() * len;
+      assertEquals(expected.indexOfAfter(pt, minIndex), actual.indexOfAfter(pt, minIndex), 0.0);
+      assertEquals(expected.indexOfAfter(pt, index), actual.indexOfAfter(pt, index), 0.0);
+
+      double start = rnd.nextDouble() * 1.4 * len - 0.2 * len;
+      double end = rnd.nextDouble() * 1.4 * len - 0.2 * len;
+      assertTrue(expected.extractPoint(start).equals2D(actual.extractPoint(start)));
+      assertTrue(expected.extractPoint(index).equals2D(actual.extractPoint(index)));
+      assertTrue(expected.extractPoint(start, 1.0).equals2D(actual.extractPoint(start, 1.0)));
+      assertTrue(expected.extractLine(start, end).equalsExact(actual.extractLine(start, end)));
+      assertTrue(expected.extractLine(index, index).equalsExact(actual.extractLine(index, index)));
+    }
+  }
+
+  protected LengthIndexedLine createIndexedLine(Geometry linearGeom)
+  {
+    return new PreparedLengthIndexedLine(linearGeom);
+  }
+
+}
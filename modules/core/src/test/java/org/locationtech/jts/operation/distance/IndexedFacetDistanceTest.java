@@ -0,0 +1,86 @@
+/*
+ * The JTS Topology Suite is a collection of Java classes that
+ * implement the fundamental operations required to validate a given
+ * geo-spatial data set to a known topological specification.
+ *
+ * Copyright (C) 2016 Vivid Solutions
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * (http://www.eclipse.org/legal/epl-v10.html), and the Vivid Solutions BSD
+ * License v1.0 (found at the root of the repository).
+ *
+ */
+package org.locationtech.jts.operation.distance;
+
+import org.locationtech.jts.geom.Geometry;
+import org.locationtech.jts.geom.GeometryFactory;
+import org.locationtech.jts.geom.impl.PackedCoordinateSequenceFactory;
+import org.locationtech.jts.io.WKTReader;
+
+import junit.framework.TestCase;
+import junit.textui.TestRunner;
+
+/**
+ * Tests {@link IndexedFacetDistance}, 
+ * using both array-based and packed coordinate sequences.
+ */
+public class IndexedFacetDistanceTest extends TestCase {
+
+  WKTReader reader = new WKTReader();
+  WKTReader packedReader = new WKTReader(
+      new GeometryFactory(PackedCoordinateSequenceFactory.DOUBLE_FACTORY));
+
+  public static void main(String args[]) {
+    TestRunner.run(IndexedFacetDistanceTest.class);
+  }
+
+  public IndexedFacetDistanceTest(String name) { super(name); }
+
+  public void testPointPoint() throws Exception {
+    checkDistance("POINT (0 0)", "POINT (3 4)", 5);
+  }
+
+  public void testPointLine() throws Exception {
+    checkDistance("POINT (5 5)", "LINESTRING (0 0, 10 0)", 5);
+  }
+
+  public void testDisjointCollinearSegments() throws Exception {
+    checkDistance("LINESTRING (0.0 0.0, 9.9 1.4)", "LINESTRING (11.88 1.68, 21.78 3.08)", 1.99969997);
+  }
+
+  public void testCrossingLines() throws Exception {
+    checkDistance("LINESTRING (0 0, 10 10, 20 0, 30 10)", "LINESTRING (0 10, 30 0)", 0);
+  }
+
+  public void testLongLines() throws Exception {
+    checkDistance("LINESTRING (0 0, 10 1, 20 0, 30 1, 40 0, 50 1, 60 0, 70 1, 80 0, 90 1, 100 0)", 
+        "LINESTRING (0 5, 10 4, 20 5, 30 3, 40 5, 50 4, 60 5, 70 4, 80 5, 90 4, 100 5)", 2);
+  }
+
+  public void testPolygonBoundary() throws Exception {
+    checkDistance("POLYGON ((40 320, 200 380, 320 80, 40 40, 40 320),  (180 280, 80 280, 100 100, 220 140, 180 280))", 
+        "POLYGON ((160 240, 120 240, 120 160, 160 140, 160 240))", 18.97366596);
+  }
+
+  public void testWithinDistance() throws Exception {
+    Geometry g1 = reader.read("LINESTRING (0 0, 10 0, 20 0)");
+    Geometry g2 = reader.read("LINESTRING (0 10, 10 10, 20 10)");
+    IndexedFacetDistance dist = new IndexedFacetDistance(g1);
+    assertTrue(dist.isWithinDistance(g2, 10));
+    assertTrue(dist.isWithinDistance(g2, 100));
+    assertTrue(! dist.isWithinDistance(g2, 9.9));
+  }
+
+  private void checkDistance(String wkt1, String wkt2, double expected) throws Exception {
+    checkDistance(reader, wkt1, wkt2, expected);
+    checkDistance(packedReader, wkt1, wkt2, expected);
+  }
+
+  private void checkDistance(WKTReader rdr, String wkt1, String wkt2, double expected) throws Exception {
+    Geometry g1 = rdr.read(wkt1);
+    Geometry g2 = rdr.read(wkt2);
+    assertEquals(expected, IndexedFacetDistance.distance(g1, g2), 1e-6);
+    assertEquals(expected, IndexedFacetDistance.distance(g2, g1), 1e-6);
+  }
+}
@@ -0,0 +1,192 @@
+/*
+ * The JTS Topology Suite is a collection of Java classes that
+ * implement the fundamental operations required to validate a given
+ * geo-spatial data set to a known topological specification.
+ *
+ * Copyright (C) 2016 Vivid Solutions
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * (http://www.eclipse.org/legal/epl-v10.html), and the Vivid Solutions BSD
+ * License v1.0 (found at the root of the repository).
+ *
+ */
+package org.locationtech.jts.operation.join;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.locationtech.jts.geom.*;
+
+import junit.framework.TestCase;
+import junit.textui.TestRunner;
+
+/**
+ * Tests {@link SpatialJoin} against a nested-loop join.
+ */
+public class SpatialJoinTest extends TestCase
+{
+  private GeometryFactory fact = new GeometryFactory();
+
+  public static void main(String args[]) {
+    TestRunner.run(SpatialJoinTest.class);
+  }
+
+  public SpatialJoinTest(String name) { super(name); }
+
+  public void testIntersects()
+  {
+    List polys = randomBuffers(300, 1000, 20, 1);
+    List lines = randomLines(500, 1000, 50, 2);
+    checkJoin(SpatialJoin.intersects(polys, lines), polys, lines, "intersects");
+    checkJoin(SpatialJoin.intersects(lines, polys), lines, polys, "intersects");
+  }
+
+  public void testContains()
+  {
+    List polys = randomBuffers(300, 1000, 40, 3);
+    List points = randomPoints(2000, 1000, 4);
+    checkJoin(SpatialJoin.contains(polys, points), polys, points, "contains");
+    checkJoin(SpatialJoin.contains(points, polys), points, polys, "contains");
+  }
+
+  public void testWithin()
+  {
+    List polys = randomBuffers(300, 1000, 40, 5);
+    List points = randomPoints(2000, 1000, 6);
+    checkJoin(SpatialJoin.within(points, polys), points, polys, "within");
+    checkJoin(SpatialJoin.within(polys, points), polys, points, "within");
+  }
+
+  public void testWithinDistance()
+  {
+    List lines = randomLines(300, 1000, 30, 7);
+    List points = randomPoints(1000, 1000, 8);
+    checkJoin(SpatialJoin.isWithinDistance(lines, points, 10), lines, points, "distance");
+    checkJoin(SpatialJoin.isWithinDistance(points, lines, 10), points, lines, "distance");
+  }
+
+  public void testRelate()
+  {
+    List polys = randomBuffers(200, 1000, 40, 9);
+    List lines = randomLines(400, 1000, 50, 10);
+    // line crosses the boundary of the polygon
+    checkJoin(SpatialJoin.relate(polys, lines, "1*****1**"), polys, lines, "1*****1**");
+    checkJoin(SpatialJoin.relate(lines, polys, "1*1******"), lines, polys, "1*1******");
+  }
+
+  public void testEmpty()
+  {
+    List polys = randomBuffers(10, 100, 20, 11);
+    List empty = new ArrayList();
+    assertEquals(0, SpatialJoin.intersects(polys, empty).getIndexPairs().length);
+    List emptyGeoms = new ArrayList();
+    emptyGeoms.add(fact.createPoint((Coordinate) null));
+    assertEquals(0, SpatialJoin.isWithinDistance(polys, emptyGeoms, 10).getIndexPairs().length);
+  }
+
+  public void testPairs()
+  {
+    List polys = randomBuffers(50, 1000, 40, 12);
+    List points = randomPoints(200, 1000, 13);
+    SpatialJoin join = SpatialJoin.contains(polys, points);
+    int[] index = join.getIndexPairs();
+    List pairs = join.getPairs();
+    assertEquals(index.length / 2, pairs.size());
+    for (int i = 0; i < pairs.size(); i++) {
+      Geometry[] pair = (Geometry[]) pairs.get(i);
+      assertTrue(pair[0] == polys.get(index[2 * i]));
+      assertTrue(pair[1] == points.get(index[2 * i + 1]));
+    }
+  }
+
+  private void checkJoin(SpatialJoin join, List left, List right, String predicate)
+  {
+    int[] expected = nestedLoopJoin(left, right, predicate);
+    assertPairsEqual(expected, join.getIndexPairs());
+
+    SpatialJoin parJoin = copy(join, left, right, predicate);
+    parJoin.setParallel(true);
+    assertPairsEqual(expected, parJoin.getIndexPairs());
+  }
+
+  private static SpatialJoin copy(SpatialJoin join, List left, List right, String predicate)
+  {
+    if (predicate.equals("intersects")) return SpatialJoin.intersects(left, right);
+    if (predicate.equals("contains")) return SpatialJoin.contains(left, right);
+    if (predicate.equals("within")) return SpatialJoin.within(left, right);
+    if (predicate.equals("distance")) return SpatialJoin.isWithinDistance(left, right, 10);
+    return SpatialJoin.relate(left, right, predicate);
+  }
+
+  private static int[] nestedLoopJoin(List left, List right, String predicate)
+  {
+    List pairs = new ArrayList();
+    for (int i = 0; i < left.size(); i++) {
+      Geometry a = (Geometry) left.get(i);
+      for (int j = 0; j < right.size(); j++) {
+        Geometry b = (Geometry) right.get(j);
+        boolean isMatch;
+        if (predicate.equals("intersects")) isMatch = a.intersects(b);
+        else if (predicate.equals("contains")) isMatch = a.contains(b);
+        else if (predicate.equals("within")) isMatch = a.within(b);
+        else if (predicate.equals("distance")) isMatch = a.isWithinDistance(b, 10);
+        else isMatch = a.relate(b, predicate);
+        if (isMatch) pairs.add(new int[] { i, j });
+      }
+    }
+    int[] result = new int[2 * pairs.size()];
+    for (int k = 0; k < pairs.size(); k++) {
+      int[] pair = (int[]) pairs.get(k);
+      result[2 * k] = pair[0];
+      result[2 * k + 1] = pair[1];
+    }
+    return result;
+  }
+
+  private static void assertPairsEqual(int[] expected, int[] actual)
+  {
+    assertEquals(expected.length, actual.length);
+    for (int i = 0; i < expected.length; i++) {
+      assertEquals(expected[i], actual[i]);
+    }
+  }
+
+  private List randomPoints(int n, double extent, long seed)
+  {
+    Random rnd = new Random(seed);
+    List points = new ArrayList();
+    for (int i = 0; i < n; i++) {
+      points.add(fact.createPoint(new Coordinate(rnd.nextDouble() * extent, rnd.nextDouble() * extent)));
+    }
+    return points;
+  }
+
+  private List randomBuffers(int n, double extent, double maxRadius, long seed)
+  {
+    Random rnd = new Random(seed);
+    List polys = new ArrayList();
+    for (int i = 0; i < n; i++) {
+      Point pt = fact.createPoint(new Coordinate(rnd.nextDouble() * extent, rnd.nextDouble() * extent));
+      polys.add(pt.buffer(1 + rnd.nextDouble() * maxRadius, 4));
+    }
+    return polys;
+  }
+
+  private List randomLines(int n, double extent, double maxLen, long seed)
+  {
+    Random rnd = new Random(seed);
+    List lines = new ArrayList();
+    for (int i = 0; i < n; i++) {
+      double x = rnd.nextDouble() * extent;
+      double y = rnd.nextDouble() * extent;
+      Coordinate[] pts = new Coordinate[] {
+          new Coordinate(x, y),
+          new Coordinate(x + rnd.nextDouble() * maxLen, y + rnd.nextDouble() * maxLen),
+          new Coordinate(x + rnd.nextDouble() * maxLen, y - rnd.nextDouble() * maxLen) };
+      lines.add(fact.createLineString(pts));
+    }
+    return lines;
+  }
+}
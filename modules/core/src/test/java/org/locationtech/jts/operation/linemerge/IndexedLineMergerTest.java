@@ -0,0 +1,144 @@
+/*
+ * The JTS Topology Suite is a collection of Java classes that
+ * implement the fundamental operations required to validate a given
+ * geo-spatial data set to a known topological specification.
+ *
+ * Copyright (C) 2016 Vivid Solutions
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * (http://www.eclipse.org/legal/epl-v10.html), and the Vivid Solutions BSD
+ * License v1.0 (found at the root of the repository).
+ *
+ */
+
+package org.locationtech.jts.operation.linemerge;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Random;
+
+import junit.framework.TestCase;
+
+import org.locationtech.jts.geom.Coordinate;
+import org.locationtech.jts.geom.Geometry;
+import org.locationtech.jts.geom.GeometryFactory;
+
+/**
+ * Tests {@link IndexedLineMerger},
+ * by checking that it gives the same results as {@link LineMerger}.
+ */
+public class IndexedLineMergerTest extends TestCase {
+  private GeometryFactory geomFact = new GeometryFactory();
+
+  public IndexedLineMergerTest(String name) {
+    super(name);
+  }
+
+  public static void main(String[] args) {
+    junit.textui.TestRunner.run(IndexedLineMergerTest.class);
+  }
+
+  public void testSimple() {
+    checkSameAsLineMerger(new String[] {
+        "LINESTRING (120 120, 180 140)", "LINESTRING (200 180, 180 140)",
+        "LINESTRING (200 180, 240 180)"
+      });
+  }
+
+  public void testLoops() {
+    checkSameAsLineMerger(new String[]{"LINESTRING (120 300, 80 340)",
+      "LINESTRING (120 300, 140 320, 160 320)",
+      "LINESTRING (40 320, 20 340, 0 320)",
+      "LINESTRING (0 320, 20 300, 40 320)",
+      "LINESTRING (40 320, 60 320, 80 340)",
+      "LINESTRING (160 320, 180 340, 200 320)",
+      "LINESTRING (200 320, 180 300, 160 320)"});
+  }
+
+  public void testClosedLines() {
+    checkSameAsLineMerger(new String[]{
+      "LINESTRING (0 0, 10 0, 10 10, 0 0)",
+      "LINESTRING (20 0, 30 0, 30 10, 20 0)",
+      "LINESTRING (20 0, 20 -10)"});
+  }
+
+  public void testRepeatedPoints() {
+    checkSameAsLineMerger(new String[]{
+      "LINESTRING (0 0, 0 0, 10 0, 10 0)",
+      "LINESTRING (20 0, 10 0, 10 0)",
+      "LINESTRING (20 0, 20 0)",
+      "LINESTRING (20 0, 30 0)"});
+  }
+
+  public void testEmpty() {
+    checkSameAsLineMerger(new String[]{"LINESTRING EMPTY", "LINESTRING EMPTY"});
+    checkSameAsLineMerger(new String[]{});
+    checkSameAsLineMerger(new String[]{"LINESTRING (10642 31441, 10642 31441)", "LINESTRING EMPTY"});
+  }
+
+  public void testRandomNetwork() {
+    checkSameAsLineMerger(randomNetwork(new Random(1234), 30), false);
+  }
+
+  public void testRandomNetworkParallel() {
+    checkSameAsLineMerger(randomNetwork(new Random(4321), 60), true);
+  }
+
+  /**
+   * Creates a random subset of the edges of a grid,
+   * with random orientations and some edges split at their midpoint.
+   */
+  private Collection randomNetwork(Random rnd, int size) {
+    List lines = new ArrayList();
+    for (int i = 0; i < size; i++) {
+      for (int j = 0; j < size; j++) {
+        if (rnd.nextInt(3) > 0)
+          lines.add(randomEdge(rnd, i, j, i + 1, j));
+        if (rnd.nextInt(3) > 0)
+          lines.add(randomEdge(rnd, i, j, i, j + 1));
+      }
+    }
+    return lines;
+  }
+
+  private Geometry randomEdge(Random rnd, double x0, double y0, double x1, double y1) {
+    Coordinate p0 = new Coordinate(x0, y0);
+    Coordinate p1 = new Coordinate(x1, y1);
+    if (rnd.nextBoolean()) {
+      Coordinate tmp = p0;
+      p0 = p1;
+      p1 = tmp;
+    }
+    if (rnd.nextInt(4) == 0) {
+      Coordinate mid = new Coordinate((x0 + x1) / 2 + 0.1, (y0 + y1) / 2 + 0.1);
+      return geomFact.createLineString(new Coordinate[] { p0, mid, p1 });
+    }
+    return geomFact.createLineString(new Coordinate[] { p0, p1 });
+  }
+
+  private void checkSameAsLineMerger(String[] inputWKT) {
+    checkSameAsLineMerger(LineMergerTest.toGeometries(inputWKT), false);
+  }
+
+  private void checkSameAsLineMerger(Collection input, boolean isParallel) {
+    LineMerger lineMerger = new LineMerger();
+    lineMerger.add(input);
+    Collection expected = lineMerger.getMergedLineStrings();
+
+    IndexedLineMerger indexedMerger = new IndexedLineMerger();
+    indexedMerger.setParallel(isParallel);
+    indexedMerger.add(input);
+    Collection actual = indexedMerger.getMergedLineStrings();
+
+    assertEquals(expected.size(), actual.size());
+    Iterator it = actual.iterator();
+    for (Iterator i = expected.iterator(); i.hasNext(); ) {
+      Geometry expectedLine = (Geometry) i.next();
+      Geometry actualLine = (Geometry) it.next();
+      assertTrue(expectedLine.equalsExact(actualLine));
+    }
+  }
+}
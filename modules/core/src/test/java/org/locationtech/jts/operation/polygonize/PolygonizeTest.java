@@ -14,9 +14,14 @@
  */
 package org.locationtech.jts.operation.polygonize;
 
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Iterator;
 import java.util.List;
 
+import org.locationtech.jts.geom.Coordinate;
+import org.locationtech.jts.geom.GeometryFactory;
+import org.locationtech.jts.geom.Polygon;
 import org.locationtech.jts.operation.polygonize.Polygonizer;
 
 import test.jts.GeometryTestCase;
@@ -172,6 +177,73 @@ public class PolygonizeTest extends GeometryTestCase {
   }
 */
 
+  /**
+   * Tests hole assignment for a grid of cells containing islands,
+   * some of which contain inner islands.
+   */
+  public void testNestedIslands() {
+    List lines = islandGrid(20);
+    Polygonizer polygonizer = new Polygonizer();
+    polygonizer.add(lines);
+    Collection polys = polygonizer.getPolygons();
+    checkIslandPolygons(polys, 20);
+
+    Polygonizer parallel = new Polygonizer();
+    parallel.setParallel(true);
+    parallel.add(lines);
+    List parallelPolys = new ArrayList(parallel.getPolygons());
+    List seqPolys = new ArrayList(polys);
+    assertEquals(seqPolys.size(), parallelPolys.size());
+    // ring start points are not deterministic, so compare normalized polygons
+    for (int i = 0; i < seqPolys.size(); i++) {
+      Polygon expected = (Polygon) seqPolys.get(i);
+      Polygon actual = (Polygon) parallelPolys.get(i);
+      expected.normalize();
+      actual.normalize();
+      assertTrue(expected.equalsExact(actual));
+    }
+  }
+
+  private void checkIslandPolygons(Collection polys, int size) {
+    int numInner = (size * size + 1) / 2;
+    assertEquals(2 * size * size + numInner, polys.size());
+    double area = 0;
+    for (Iterator i = polys.iterator(); i.hasNext(); ) {
+      Polygon poly = (Polygon) i.next();
+      // an incorrectly assigned hole produces nested holes
+      assertTrue(poly.isValid());
+      area += poly.getArea();
+    }
+    assertEquals(size * size * 100.0, area, 1.0e-6);
+  }
+
+  private static List islandGrid(int size) {
+    GeometryFactory fact = new GeometryFactory();
+    List lines = new ArrayList();
+    for (int i = 0; i <= size; i++) {
+      for (int j = 0; j < size; j++) {
+        lines.add(fact.createLineString(new Coordinate[] {
+            new Coordinate(10 * i, 10 * j), new Coordinate(10 * i, 10 * j + 10) }));
+        lines.add(fact.createLineString(new Coordinate[] {
+            new Coordinate(10 * j, 10 * i), new Coordinate(10 * j + 10, 10 * i) }));
+      }
+    }
+    for (int i = 0; i < size; i++) {
+      for (int j = 0; j < size; j++) {
+        lines.add(square(fact, 10 * i + 3, 10 * j + 3, 4));
+        if ((i + j) % 2 == 0)
+          lines.add(square(fact, 10 * i + 4, 10 * j + 4, 2));
+      }
+    }
+    return lines;
+  }
+
+  private static Object square(GeometryFactory fact, double x, double y, double side) {
+    return fact.createLineString(new Coordinate[] {
+        new Coordinate(x, y), new Coordinate(x, y + side), new Coordinate(x + side, y + side),
+        new Coordinate(x + side, y), new Coordinate(x, y) });
+  }
+
   private void checkPolygonize(String[] inputWKT, String[] expectedWKT) {
     checkPolygonize(false, inputWKT, expectedWKT);
   }
@@ -0,0 +1,167 @@
+/*
+ * The JTS Topology Suite is a collection of Java classes that
+ * implement the fundamental operations required to validate a given
+ * geo-spatial data set to a known topological specification.
+ *
+ * Copyright (C) 2016 Vivid Solutions
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * (http://www.eclipse.org/legal/epl-v10.html), and the Vivid Solutions BSD
+ * License v1.0 (found at the root of the repository).
+ *
+ */
+package org.locationtech.jts.operation.polygonize;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Random;
+import java.util.TreeSet;
+
+import org.locationtech.jts.geom.Coordinate;
+import org.locationtech.jts.geom.Geometry;
+import org.locationtech.jts.geom.GeometryFactory;
+import org.locationtech.jts.geom.LineString;
+import org.locationtech.jts.index.ItemVisitor;
+
+import test.jts.GeometryTestCase;
+
+/**
+ * Tests {@link TiledPolygonizer} against {@link Polygonizer}.
+ */
+public class TiledPolygonizerTest extends GeometryTestCase {
+
+  public TiledPolygonizerTest(String name) {
+    super(name);
+  }
+
+  public static void main(String[] args) {
+    junit.textui.TestRunner.run(TiledPolygonizerTest.class);
+  }
+
+  private GeometryFactory geomFact = new GeometryFactory();
+
+  public void testSimple() {
+    checkTiled(readList(new String[] {
+        "LINESTRING (0 0, 0 10, 10 10, 10 0, 0 0)",
+        "LINESTRING (3 3, 3 7, 7 7, 7 3, 3 3)",
+        "LINESTRING (10 0, 30 0, 30 10, 10 10)"
+    }), 12);
+  }
+
+  public void testIslandsUnaligned() {
+    TiledPolygonizer tiled = checkTiled(islandGrid(10), 35);
+    assertEquals(9, tiled.getNumTiles());
+  }
+
+  /**
+   * Tests tiles whose boundaries coincide with input lines.
+   */
+  public void testIslandsAligned() {
+    checkTiled(islandGrid(10), 20);
+  }
+
+  public void testRandomNoded() {
+    Random rnd = new Random(1);
+    List segs = new ArrayList();
+    for (int i = 0; i < 200; i++) {
+      double x = rnd.nextDouble() * 100;
+      double y = rnd.nextDouble() * 100;
+      segs.add(geomFact.createLineString(new Coordinate[] {
+          new Coordinate(x, y),
+          new Coordinate(x + rnd.nextDouble() * 20 - 10, y + rnd.nextDouble() * 20 - 10) }));
+    }
+    // union nodes the linework
+    Geometry noded = geomFact.buildGeometry(segs).union();
+    List lines = new ArrayList();
+    for (int i = 0; i < noded.getNumGeometries(); i++) {
+      lines.add(noded.getGeometryN(i));
+    }
+    TiledPolygonizer tiled = checkTiled(lines, 25);
+    assertTrue(tiled.getNumStitchLines() < lines.size());
+  }
+
+  public void testStreaming() {
+    final List polys = new ArrayList();
+    TiledPolygonizer tiled = new TiledPolygonizer(35);
+    tiled.add(islandGrid(5));
+    tiled.polygonize(new ItemVisitor() {
+      public void visitItem(Object item) {
+        polys.add(item);
+      }
+    });
+    Polygonizer polygonizer = new Polygonizer();
+    polygonizer.add(islandGrid(5));
+    assertEquals(polygonizer.getPolygons().size(), polys.size());
+
+    // the linework has been released, so the polygons cannot be computed again
+    try {
+      tiled.getPolygons();
+      fail("Expected exception for second polygonization");
+    }
+    catch (IllegalStateException ex) {
+      // expected
+    }
+  }
+
+  public void testGetPolygonsTwice() {
+    TiledPolygonizer tiled = new TiledPolygonizer(35);
+    tiled.add(islandGrid(3));
+    Collection polys = tiled.getPolygons();
+    assertSame(polys, tiled.getPolygons());
+  }
+
+  private TiledPolygonizer checkTiled(List lines, double tileSize) {
+    Polygonizer polygonizer = new Polygonizer();
+    polygonizer.add(lines);
+    Collection expected = polygonizer.getPolygons();
+
+    TiledPolygonizer tiled = new TiledPolygonizer(tileSize);
+    tiled.add(lines);
+    Collection actual = tiled.getPolygons();
+    assertEquals(normalizedSet(expected), normalizedSet(actual));
+    assertEquals(expected.size(), actual.size());
+    return tiled;
+  }
+
+  private static TreeSet normalizedSet(Collection geoms) {
+    TreeSet set = new TreeSet();
+    for (Iterator i = geoms.iterator(); i.hasNext(); ) {
+      Geometry g = (Geometry) ((Geometry) i.next()).clone();
+      g.normalize();
+      set.add(g.toText());
+    }
+    return set;
+  }
+
+  private List islandGrid(int size) {
+    List lines = new ArrayList();
+    for (int i = 0; i <= size; i++) {
+      for (int j = 0; j < size; j++) {
+        lines.add(line(10 * i, 10 * j, 10 * i, 10 * j + 10));
+        lines.add(line(10 * j, 10 * i, 10 * j + 10, 10 * i));
+      }
+    }
+    for (int i = 0; i < size; i++) {
+      for (int j = 0; j < size; j++) {
+        lines.add(square(10 * i + 3, 10 * j + 3, 4));
+        if ((i + j) % 2 == 0)
+          lines.add(square(10 * i + 4, 10 * j + 4, 2));
+      }
+    }
+    return lines;
+  }
+
+  private LineString line(double x0, double y0, double x1, double y1) {
+    return geomFact.createLineString(new Coordinate[] {
+        new Coordinate(x0, y0), new Coordinate(x1, y1) });
+  }
+
+  private LineString square(double x, double y, double side) {
+    return geomFact.createLineString(new Coordinate[] {
+        new Coordinate(x, y), new Coordinate(x, y + side), new Coordinate(x + side, y + side),
+        new Coordinate(x + side, y), new Coordinate(x, y) });
+  }
+}
@@ -0,0 +1,182 @@
+/*
+ * The JTS Topology Suite is a collection of Java classes that
+ * implement the fundamental operations required to validate a given
+ * geo-spatial data set to a known topological specification.
+ *
+ * Copyright (C) 2016 Vivid Solutions
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * (http://www.eclipse.org/legal/epl-v10.html), and the Vivid Solutions BSD
+ * License v1.0 (found at the root of the repository).
+ *
+ */
+
+package org.locationtech.jts.operation.relate;
+
+import org.locationtech.jts.geom.Geometry;
+import org.locationtech.jts.geom.IntersectionMatrix;
+import org.locationtech.jts.io.ParseException;
+import org.locationtech.jts.io.WKTReader;
+
+import junit.framework.TestCase;
+import junit.textui.TestRunner;
+
+
+/**
+ * Tests that evaluating a {@link RelatePredicate}
+ * gives the same result as matching the full intersection matrix.
+ */
+public class RelatePredicateTest
+    extends TestCase
+{
+  public static void main(String args[]) {
+    TestRunner.run(RelatePredicateTest.class);
+  }
+
+  private WKTReader rdr = new WKTReader();
+
+  public RelatePredicateTest(String name)
+  {
+    super(name);
+  }
+
+  public void testPolygonsOverlapping() throws ParseException
+  {
+    checkAll("POLYGON ((0 0, 0 10, 10 10, 10 0, 0 0))",
+        "POLYGON ((5 5, 5 15, 15 15, 15 5, 5 5))");
+  }
+
+  public void testPolygonsTouching() throws ParseException
+  {
+    checkAll("POLYGON ((0 0, 0 10, 10 10, 10 0, 0 0))",
+        "POLYGON ((10 0, 10 10, 20 10, 20 0, 10 0))");
+  }
+
+  public void testPolygonContainsPolygon() throws ParseException
+  {
+    checkAll("POLYGON ((0 0, 0 10, 10 10, 10 0, 0 0))",
+        "POLYGON ((2 2, 2 8, 8 8, 8 2, 2 2))");
+  }
+
+  public void testPolygonCoversPolygon() throws ParseException
+  {
+    checkAll("POLYGON ((0 0, 0 10, 10 10, 10 0, 0 0))",
+        "POLYGON ((0 0, 0 8, 8 8, 8 0, 0 0))");
+  }
+
+  public void testPolygonInHole() throws ParseException
+  {
+    checkAll("POLYGON ((0 0, 0 10, 10 10, 10 0, 0 0), (2 2, 2 8, 8 8, 8 2, 2 2))",
+        "POLYGON ((3 3, 3 7, 7 7, 7 3, 3 3))");
+  }
+
+  public void testLinesCrossing() throws ParseException
+  {
+    checkAll("LINESTRING (0 0, 10 10)", "LINESTRING (0 10, 10 0)");
+  }
+
+  public void testLinesOverlapping() throws ParseException
+  {
+    checkAll("LINESTRING (0 0, 10 10)", "LINESTRING (5 5, 20 20)");
+  }
+
+  public void testLinesTouching() throws ParseException
+  {
+    checkAll("LINESTRING (0 0, 10 10)", "LINESTRING (10 10, 20 0)");
+  }
+
+  public void testLineCrossingPolygon() throws ParseException
+  {
+    checkAll("LINESTRING (-5 5, 15 5)", "POLYGON ((0 0, 0 10, 10 10, 10 0, 0 0))");
+  }
+
+  public void testLineInPolygon() throws ParseException
+  {
+    checkAll("LINESTRING (0 5, 5 5)", "POLYGON ((0 0, 0 10, 10 10, 10 0, 0 0))");
+  }
+
+  public void testPointOnPolygonBoundary() throws ParseException
+  {
+    checkAll("POINT (0 5)", "POLYGON ((0 0, 0 10, 10 10, 10 0, 0 0))");
+  }
+
+  public void testPointsOverlapping() throws ParseException
+  {
+    checkAll("MULTIPOINT ((0 0), (1 1))", "MULTIPOINT ((1 1), (2 2))");
+  }
+
+  public void testDisjoint() throws ParseException
+  {
+    checkAll("POLYGON ((0 0, 0 10, 10 10, 10 0, 0 0))",
+        "LINESTRING (20 20, 30 30)");
+  }
+
+  public void testSelfCrossingLines() throws ParseException
+  {
+    checkAll("LINESTRING (0 0, 10 10, 10 0, 0 10)", "LINESTRING (0 0, 10 10, 10 0, 0 10)");
+  }
+
+  public void testSelfCrossingLineInLine() throws ParseException
+  {
+    checkAll("LINESTRING (0 0, 10 10, 10 0, 0 10, 0 20)", "LINESTRING (0 0, 10 10, 10 0, 0 10)");
+  }
+
+  public void testSelfCrossingLineTouchingLine() throws ParseException
+  {
+    checkAll("LINESTRING (0 0, 10 10, 10 0, 0 10)", "LINESTRING (5 5, 5 20)");
+  }
+
+  public void testSelfCrossingLineInPolygon() throws ParseException
+  {
+    checkAll("LINESTRING (1 1, 9 9, 9 1, 1 9)", "POLYGON ((0 0, 0 10, 10 10, 10 0, 0 0))");
+  }
+
+  public void testPolygonsTouchingAtSelfNode() throws ParseException
+  {
+    checkAll("MULTIPOLYGON (((0 0, 0 10, 10 10, 10 0, 0 0)), ((10 10, 10 20, 20 20, 20 10, 10 10)))",
+        "POLYGON ((10 10, 0 20, 5 25, 10 10))");
+  }
+
+  public void testPattern() throws ParseException
+  {
+    Geometry a = rdr.read("POLYGON ((0 0, 0 10, 10 10, 10 0, 0 0))");
+    Geometry b = rdr.read("POLYGON ((5 5, 5 15, 15 15, 15 5, 5 5))");
+    assertTrue(RelateOp.relate(a, b, RelatePredicate.matches("212101212")));
+    assertTrue(! RelateOp.relate(a, b, RelatePredicate.matches("2121012F2")));
+  }
+
+  public void testInvalidPattern()
+  {
+    try {
+      RelatePredicate.matches("T*F");
+      fail("expected IllegalArgumentException");
+    }
+    catch (IllegalArgumentException ex) {
+      // expected
+    }
+  }
+
+  private void checkAll(String wktA, String wktB) throws ParseException
+  {
+    Geometry a = rdr.read(wktA);
+    Geometry b = rdr.read(wktB);
+    check(a, b);
+    check(b, a);
+  }
+
+  private void check(Geometry a, Geometry b)
+  {
+    IntersectionMatrix im = RelateOp.relate(a, b);
+    int dimA = a.getDimension();
+    int dimB = b.getDimension();
+    assertEquals(im.isIntersects(), RelateOp.relate(a, b, RelatePredicate.intersects()));
+    assertEquals(im.isContains(), RelateOp.relate(a, b, RelatePredicate.contains()));
+    assertEquals(im.isWithin(), RelateOp.relate(a, b, RelatePredicate.within()));
+    assertEquals(im.isCovers(), RelateOp.relate(a, b, RelatePredicate.covers()));
+    assertEquals(im.isCoveredBy(), RelateOp.relate(a, b, RelatePredicate.coveredBy()));
+    assertEquals(im.isTouches(dimA, dimB), RelateOp.relate(a, b, RelatePredicate.touches(dimA, dimB)));
+    assertEquals(im.isCrosses(dimA, dimB), RelateOp.relate(a, b, RelatePredicate.crosses(dimA, dimB)));
+    assertEquals(im.isOverlaps(dimA, dimB), RelateOp.relate(a, b, RelatePredicate.overlaps(dimA, dimB)));
+  }
+}
@@ -65,6 +65,38 @@ public class RelateTest
     runRelateTest(a, b,  "001F001F2"    );
   }
 
+  public void testSelfNodedPolygons()
+      throws Exception
+  {
+    runSelfNodedTest("POLYGON ((0 0, 0 10, 10 10, 10 0, 0 0), (2 2, 2 8, 8 8, 8 2, 2 2))",
+        "POLYGON ((5 5, 5 15, 15 15, 15 5, 5 5))");
+  }
+
+  public void testSelfNodedLines()
+      throws Exception
+  {
+    runSelfNodedTest("MULTILINESTRING ((0 0, 5 5), (5 5, 10 0))",
+        "LINESTRING (0 3, 10 3)");
+  }
+
+  public void testSelfNodedLinePolygon()
+      throws Exception
+  {
+    runSelfNodedTest("LINESTRING (-5 5, 5 5, 5 15)",
+        "MULTIPOLYGON (((0 0, 0 10, 10 10, 10 0, 0 0)), ((20 0, 20 10, 30 10, 30 0, 20 0)))");
+  }
+
+  void runSelfNodedTest(String wkt1, String wkt2)
+      throws ParseException
+  {
+    Geometry g1 = rdr.read(wkt1);
+    Geometry g2 = rdr.read(wkt2);
+    IntersectionMatrix expected = RelateOp.relate(g1, g2);
+    RelateOp op = new RelateOp(g1, g2);
+    op.setSelfNoded(true);
+    assertEquals(expected.toString(), op.getIntersectionMatrix().toString());
+  }
+
   void runRelateTest(String wkt1, String wkt2, String expectedIM)
       throws ParseException
   {
@@ -0,0 +1,102 @@
+/*
+ * The JTS Topology Suite is a collection of Java classes that
+ * implement the fundamental operations required to validate a given
+ * geo-spatial data set to a known topological specification.
+ *
+ * Copyright (C) 2016 Vivid Solutions
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * (http://www.eclipse.org/legal/epl-v10.html), and the Vivid Solutions BSD
+ * License v1.0 (found at the root of the repository).
+ *
+ */
+
+package org.locationtech.jts.simplify;
+
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import org.locationtech.jts.geom.Coordinate;
+import org.locationtech.jts.geom.Envelope;
+import org.locationtech.jts.geom.GeometryFactory;
+import org.locationtech.jts.geom.LineSegment;
+import org.locationtech.jts.geom.LineString;
+
+import junit.framework.TestCase;
+
+public class LineSegmentIndexTest
+    extends TestCase
+{
+  public LineSegmentIndexTest(String name) {
+    super(name);
+  }
+
+  public static void main(String[] args) {
+    junit.textui.TestRunner.run(LineSegmentIndexTest.class);
+  }
+
+  public void testLineRemove() {
+    GeometryFactory fact = new GeometryFactory();
+    LineString line = fact.createLineString(new Coordinate[] {
+        new Coordinate(0, 0), new Coordinate(10, 0), new Coordinate(10, 10), new Coordinate(0, 10) });
+    TaggedLineString taggedLine = new TaggedLineString(line);
+    LineSegmentIndex index = new LineSegmentIndex();
+    index.add(taggedLine);
+    LineSegment query = new LineSegment(new Coordinate(5, -1), new Coordinate(5, 1));
+    assertEquals(1, index.query(query).size());
+    index.remove(taggedLine.getSegment(0));
+    assertEquals(0, index.query(query).size());
+    assertEquals(2, index.query(new LineSegment(new Coordinate(0, 0), new Coordinate(10, 10))).size());
+  }
+
+  /**
+   * Checks random additions, removals and queries against a brute-force scan.
+   */
+  public void testRandom() {
+    Random rnd = new Random(1);
+    LineSegmentIndex index = new LineSegmentIndex();
+    List segs = new ArrayList();
+    for (int i = 0; i < 3000; i++) {
+      // add segments in bulk first
+      int op = i < 500 ? 0 : rnd.nextInt(3);
+      if (op < 2) {
+        LineSegment seg = randomSegment(rnd, 5);
+        index.add(seg);
+        segs.add(seg);
+      }
+      else if (! segs.isEmpty()) {
+        index.remove((LineSegment) segs.remove(rnd.nextInt(segs.size())));
+      }
+      checkQuery(index, segs, randomSegment(rnd, 10));
+    }
+  }
+
+  private static LineSegment randomSegment(Random rnd, double size) {
+    double x = rnd.nextDouble() * 100;
+    double y = rnd.nextDouble() * 100;
+    return new LineSegment(new Coordinate(x, y),
+        new Coordinate(x + rnd.nextDouble() * size, y - rnd.nextDouble() * size));
+  }
+
+  private static void checkQuery(LineSegmentIndex index, List segs, LineSegment query) {
+    List result = index.query(query);
+    Map found = new IdentityHashMap();
+    for (int i = 0; i < result.size(); i++) {
+      found.put(result.get(i), result.get(i));
+    }
+    assertEquals(result.size(), found.size());
+    int expectedSize = 0;
+    for (int i = 0; i < segs.size(); i++) {
+      LineSegment seg = (LineSegment) segs.get(i);
+      if (Envelope.intersects(seg.p0, seg.p1, query.p0, query.p1)) {
+        expectedSize++;
+        assertTrue(found.containsKey(seg));
+      }
+    }
+    assertEquals(expectedSize, result.size());
+  }
+}
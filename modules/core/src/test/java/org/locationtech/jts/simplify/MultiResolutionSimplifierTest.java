@@ -0,0 +1,96 @@
+/*
+ * The JTS Topology Suite is a collection of Java classes that
+ * implement the fundamental operations required to validate a given
+ * geo-spatial data set to a known topological specification.
+ *
+ * Copyright (C) 2016 Vivid Solutions
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * (http://www.eclipse.org/legal/epl-v10.html), and the Vivid Solutions BSD
+ * License v1.0 (found at the root of the repository).
+ *
+ */
+
+package org.locationtech.jts.simplify;
+
+import java.util.Random;
+
+import org.locationtech.jts.geom.Coordinate;
+import org.locationtech.jts.geom.Geometry;
+import org.locationtech.jts.geom.GeometryFactory;
+import org.locationtech.jts.io.WKTReader;
+
+import junit.framework.TestCase;
+
+public class MultiResolutionSimplifierTest
+    extends TestCase
+{
+  private static WKTReader rdr = new WKTReader();
+
+  public MultiResolutionSimplifierTest(String name) {
+    super(name);
+  }
+
+  public static void main(String[] args) {
+    junit.textui.TestRunner.run(MultiResolutionSimplifierTest.class);
+  }
+
+  public void testPolygonWithHole() throws Exception {
+    checkAll("POLYGON ((0 0, 5 1, 10 0, 11 5, 10 10, 5 9, 0 10, 1 5, 0 0), (3 3, 4 5, 3 7, 7 7, 6 5, 7 3, 3 3))");
+  }
+
+  public void testCollection() throws Exception {
+    checkAll("GEOMETRYCOLLECTION (LINESTRING (0 0, 1 1, 2 0, 3 1, 3 1, 4 0), "
+        + "MULTIPOLYGON (((20 0, 21 3, 20 6, 26 6, 25 3, 26 0, 20 0))))");
+  }
+
+  public void testRandomLines() throws Exception {
+    GeometryFactory fact = new GeometryFactory();
+    Random rnd = new Random(1);
+    for (int n = 0; n < 50; n++) {
+      // integer coordinates produce many ties between significances
+      Coordinate[] pts = new Coordinate[2 + rnd.nextInt(200)];
+      int x = 0;
+      int y = 0;
+      for (int i = 0; i < pts.length; i++) {
+        x += rnd.nextInt(5) - 1;
+        y += rnd.nextInt(5) - 2;
+        pts[i] = new Coordinate(x, y);
+      }
+      checkAll(fact.createLineString(pts));
+    }
+  }
+
+  public void testCache() throws Exception {
+    SimplifierCache cache = new SimplifierCache(MultiResolutionSimplifier.DOUGLAS_PEUCKER, 2);
+    Geometry a = rdr.read("LINESTRING (0 0, 1 1, 2 0)");
+    Geometry b = rdr.read("LINESTRING (0 0, 1 2, 2 0)");
+    Geometry c = rdr.read("LINESTRING (0 0, 1 3, 2 0)");
+    MultiResolutionSimplifier simpA = cache.getSimplifier(a);
+    // an equal geometry uses the same simplifier
+    assertTrue(simpA == cache.getSimplifier(rdr.read("LINESTRING (0 0, 1 1, 2 0)")));
+    cache.getSimplifier(b);
+    cache.getSimplifier(a);
+    cache.getSimplifier(c);
+    assertEquals(2, cache.size());
+    // b was least recently used, so was discarded
+    assertTrue(simpA == cache.getSimplifier(a));
+    assertEquals("LINESTRING (0 0, 2 0)", cache.simplify(b, 2.5).toText());
+  }
+
+  private void checkAll(String wkt) throws Exception {
+    checkAll(rdr.read(wkt));
+  }
+
+  private void checkAll(Geometry geom) {
+    MultiResolutionSimplifier dp = new MultiResolutionSimplifier(geom, MultiResolutionSimplifier.DOUGLAS_PEUCKER);
+    MultiResolutionSimplifier vw = new MultiResolutionSimplifier(geom, MultiResolutionSimplifier.VISVALINGAM_WHYATT);
+    for (double tol = 0.0; tol < 20; tol = 1.3 * tol + 0.1) {
+      assertEquals(DouglasPeuckerSimplifier.simplify(geom, tol).toText(),
+          dp.getResultGeometry(tol).toText());
+      assertEquals(VWSimplifier.simplify(geom, tol).toText(),
+          vw.getResultGeometry(tol).toText());
+    }
+  }
+}
@@ -14,10 +14,18 @@
 
 package org.locationtech.jts.simplify;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.locationtech.jts.densify.Densifier;
+import org.locationtech.jts.geom.Coordinate;
 import org.locationtech.jts.geom.Geometry;
+import org.locationtech.jts.geom.GeometryFactory;
 import org.locationtech.jts.io.ParseException;
 import org.locationtech.jts.io.WKTReader;
 import org.locationtech.jts.simplify.TopologyPreservingSimplifier;
+import org.locationtech.jts.triangulate.VoronoiDiagramBuilder;
 
 import junit.framework.TestCase;
 
@@ -190,6 +198,31 @@ public class TopologyPreservingSimplifierTest
       ,10.0))
         .test();
   }
+
+  /**
+   * Tests that parallel simplification of a polygonal coverage
+   * gives the same result as sequential simplification.
+   */
+  public void testParallelCoverage() throws Exception {
+    GeometryFactory fact = new GeometryFactory();
+    Random rnd = new Random(1);
+    List sites = new ArrayList();
+    for (int i = 0; i < 300; i++) {
+      sites.add(new Coordinate(rnd.nextDouble() * 100, rnd.nextDouble() * 100));
+    }
+    VoronoiDiagramBuilder builder = new VoronoiDiagramBuilder();
+    builder.setSites(sites);
+    Geometry coverage = Densifier.densify(builder.getDiagram(fact), 0.5);
+
+    for (double tol = 0.5; tol <= 8; tol *= 2) {
+      TopologyPreservingSimplifier seq = new TopologyPreservingSimplifier(coverage);
+      seq.setDistanceTolerance(tol);
+      TopologyPreservingSimplifier par = new TopologyPreservingSimplifier(coverage);
+      par.setDistanceTolerance(tol);
+      par.setParallel(true);
+      assertTrue(seq.getResultGeometry().equalsExact(par.getResultGeometry()));
+    }
+  }
 }
 
 class TPSimplifierResult
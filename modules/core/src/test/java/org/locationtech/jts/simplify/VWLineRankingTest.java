@@ -0,0 +1,89 @@
+/*
+ * The JTS Topology Suite is a collection of Java classes that
+ * implement the fundamental operations required to validate a given
+ * geo-spatial data set to a known topological specification.
+ *
+ * Copyright (C) 2016 Vivid Solutions
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * (http://www.eclipse.org/legal/epl-v10.html), and the Vivid Solutions BSD
+ * License v1.0 (found at the root of the repository).
+ *
+ */
+
+package org.locationtech.jts.simplify;
+
+import java.util.Random;
+
+import org.locationtech.jts.geom.Coordinate;
+import org.locationtech.jts.geom.CoordinateArrays;
+
+import junit.framework.TestCase;
+
+public class VWLineRankingTest
+    extends TestCase
+{
+  public VWLineRankingTest(String name) {
+    super(name);
+  }
+
+  public static void main(String[] args) {
+    junit.textui.TestRunner.run(VWLineRankingTest.class);
+  }
+
+  public void testEffectiveArea() {
+    VWLineRanking ranking = new VWLineRanking(new Coordinate[] {
+        new Coordinate(0, 0), new Coordinate(1, 1), new Coordinate(2, 0),
+        new Coordinate(10, 0), new Coordinate(10, 10) });
+    assertEquals(Double.MAX_VALUE, ranking.getEffectiveArea(0), 0.0);
+    assertEquals(1.0, ranking.getEffectiveArea(1), 0.0);
+    // the area of (0 0, 2 0, 10 0) is 0, so it takes the area of the vertex removed before it
+    assertEquals(1.0, ranking.getEffectiveArea(2), 0.0);
+    assertEquals(50.0, ranking.getEffectiveArea(3), 0.0);
+    assertEquals(Double.MAX_VALUE, ranking.getEffectiveArea(4), 0.0);
+  }
+
+  public void testThreshold() {
+    Coordinate[] pts = new Coordinate[] {
+        new Coordinate(0, 0), new Coordinate(1, 1), new Coordinate(2, 0),
+        new Coordinate(10, 0), new Coordinate(10, 10) };
+    VWLineRanking ranking = new VWLineRanking(pts);
+    // a vertex with area equal to the tolerance is kept
+    checkThreshold(pts, ranking, 1.0, pts);
+    checkThreshold(pts, ranking, 2.0, new Coordinate[] {
+        new Coordinate(0, 0), new Coordinate(10, 0), new Coordinate(10, 10) });
+    checkThreshold(pts, ranking, 100.0, new Coordinate[] {
+        new Coordinate(0, 0), new Coordinate(10, 10) });
+  }
+
+  private void checkThreshold(Coordinate[] pts, VWLineRanking ranking, double tol,
+      Coordinate[] expected) {
+    assertTrue(CoordinateArrays.equals(expected, ranking.getCoordinates(tol)));
+    assertTrue(CoordinateArrays.equals(expected, VWLineSimplifier.simplify(pts, tol)));
+  }
+
+  /**
+   * Tests that thresholding the ranking gives the same result
+   * as simplifying with each tolerance.
+   */
+  public void testThresholdRandom() {
+    Random rnd = new Random(1);
+    for (int n = 0; n < 100; n++) {
+      // integer coordinates produce many ties between areas
+      Coordinate[] pts = new Coordinate[2 + rnd.nextInt(100)];
+      int x = 0;
+      int y = 0;
+      for (int i = 0; i < pts.length; i++) {
+        x += rnd.nextInt(5) - 1;
+        y += rnd.nextInt(5) - 2;
+        pts[i] = new Coordinate(x, y);
+      }
+      VWLineRanking ranking = new VWLineRanking(pts);
+      for (double tol = 0.1; tol < 20; tol *= 1.5) {
+        Coordinate[] expected = VWLineSimplifier.simplify(pts, tol);
+        assertTrue(CoordinateArrays.equals(expected, ranking.getCoordinates(tol)));
+      }
+    }
+  }
+}
@@ -0,0 +1,158 @@
+/*
+ * The JTS Topology Suite is a collection of Java classes that
+ * implement the fundamental operations required to validate a given
+ * geo-spatial data set to a known topological specification.
+ *
+ * Copyright (C) 2016 Vivid Solutions
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * (http://www.eclipse.org/legal/epl-v10.html), and the Vivid Solutions BSD
+ * License v1.0 (found at the root of the repository).
+ *
+ */
+package org.locationtech.jts.triangulate;
+
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+
+import org.locationtech.jts.geom.*;
+import org.locationtech.jts.io.*;
+
+import junit.framework.TestCase;
+import junit.textui.TestRunner;
+
+/**
+ * Tests {@link CompactDelaunayTriangulator} and {@link TriangleMesh}.
+ */
+public class CompactDelaunayTriangulatorTest extends TestCase {
+
+  public static void main(String args[]) {
+    TestRunner.run(CompactDelaunayTriangulatorTest.class);
+  }
+
+  private GeometryFactory geomFact = new GeometryFactory();
+  private WKTReader reader = new WKTReader();
+
+  public CompactDelaunayTriangulatorTest(String name) { super(name); }
+
+  public void testTriangle()
+  throws ParseException
+  {
+    checkMesh(reader.read("MULTIPOINT ((10 10), (10 20), (20 20))"));
+  }
+
+  public void testGrid()
+  throws ParseException
+  {
+    checkMesh(reader.read("MULTIPOINT ((10 10), (10 20), (20 20), (20 10), (20 0), (10 0), (0 0), (0 10), (0 20))"));
+  }
+
+  public void testRandom()
+  {
+    checkMesh(randomPoints(2000, 1));
+  }
+
+  public void testCollinear()
+  {
+    Coordinate[] pts = new Coordinate[] {
+        new Coordinate(0, 0), new Coordinate(10, 10), new Coordinate(20, 20) };
+    TriangleMesh mesh = new CompactDelaunayTriangulator(pts).triangulate();
+    assertEquals(3, mesh.getNumVertices());
+    assertEquals(0, mesh.getNumTriangles());
+  }
+
+  public void testDuplicates()
+  {
+    double[] xy = new double[] { 0, 0, 10, 0, 0, 0, 10, 10, 10, 0, 0, 10 };
+    TriangleMesh mesh = new CompactDelaunayTriangulator(xy).triangulate();
+    assertEquals(6, mesh.getNumVertices());
+    assertEquals(2, mesh.getNumTriangles());
+    checkHalfEdges(mesh);
+  }
+
+  public void testFromSubdivision()
+  {
+    Geometry sites = randomPoints(500, 2);
+    DelaunayTriangulationBuilder builder = new DelaunayTriangulationBuilder();
+    builder.setSites(sites);
+    Geometry expected = builder.getTriangles(geomFact);
+    TriangleMesh mesh = builder.getMesh();
+    checkHalfEdges(mesh);
+    checkEqual(expected, mesh.getTriangles(geomFact));
+    checkEqual(builder.getEdges(geomFact), mesh.getEdges(geomFact));
+  }
+
+  private Geometry randomPoints(int n, long seed)
+  {
+    Random rnd = new Random(seed);
+    Coordinate[] pts = new Coordinate[n];
+    for (int i = 0; i < n; i++) {
+      pts[i] = new Coordinate(rnd.nextDouble() * 1000, rnd.nextDouble() * 1000);
+    }
+    return geomFact.createMultiPoint(pts);
+  }
+
+  static final double COMPARISON_TOLERANCE = 1.0e-7;
+
+  private void checkMesh(Geometry sites)
+  {
+    DelaunayTriangulationBuilder builder = new DelaunayTriangulationBuilder();
+    builder.setSites(sites);
+    Geometry expectedTri = builder.getTriangles(geomFact);
+    Geometry expectedEdges = builder.getEdges(geomFact);
+
+    DelaunayTriangulationBuilder dcBuilder = new DelaunayTriangulationBuilder();
+    dcBuilder.setDivideAndConquer(true);
+    dcBuilder.setSites(sites);
+    TriangleMesh mesh = dcBuilder.getMesh();
+
+    checkHalfEdges(mesh);
+    // the frame-based triangulation may omit thin triangles along the convex hull
+    Geometry tri = mesh.getTriangles(geomFact);
+    checkContains(tri, expectedTri);
+    checkContains(mesh.getEdges(geomFact), expectedEdges);
+    // the triangles cover the convex hull
+    assertEquals(sites.convexHull().getArea(), tri.getArea(), 1.0e-6);
+  }
+
+  /**
+   * Checks that every element of a collection is present in another one.
+   */
+  private static void checkContains(Geometry actual, Geometry expected)
+  {
+    Set elements = new HashSet();
+    for (int i = 0; i < actual.getNumGeometries(); i++) {
+      Geometry g = actual.getGeometryN(i);
+      g.normalize();
+      elements.add(g);
+    }
+    for (int i = 0; i < expected.getNumGeometries(); i++) {
+      Geometry g = expected.getGeometryN(i);
+      g.normalize();
+      assertTrue(g.toString(), elements.contains(g));
+    }
+  }
+
+  /**
+   * Checks that opposite half-edges are symmetric and join the same vertices.
+   */
+  private static void checkHalfEdges(TriangleMesh mesh)
+  {
+    for (int h = 0; h < 3 * mesh.getNumTriangles(); h++) {
+      int opp = mesh.getOpposite(h);
+      if (opp < 0) continue;
+      assertEquals(h, mesh.getOpposite(opp));
+      assertEquals(mesh.getVertex(h), mesh.getVertex(TriangleMesh.nextHalfEdge(opp)));
+      assertEquals(mesh.getVertex(opp), mesh.getVertex(TriangleMesh.nextHalfEdge(h)));
+    }
+  }
+
+  private static void checkEqual(Geometry expected, Geometry actual)
+  {
+    expected.normalize();
+    actual.normalize();
+    assertTrue(expected.equalsExact(actual, COMPARISON_TOLERANCE));
+  }
+}
@@ -0,0 +1,159 @@
+/*
+ * The JTS Topology Suite is a collection of Java classes that
+ * implement the fundamental operations required to validate a given
+ * geo-spatial data set to a known topological specification.
+ *
+ * Copyright (C) 2016 Vivid Solutions
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * (http://www.eclipse.org/legal/epl-v10.html), and the Vivid Solutions BSD
+ * License v1.0 (found at the root of the repository).
+ *
+ */
+package org.locationtech.jts.triangulate;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Random;
+import java.util.TreeMap;
+
+import org.locationtech.jts.geom.*;
+import org.locationtech.jts.triangulate.quadedge.QuadEdgeSubdivision;
+
+import junit.framework.TestCase;
+import junit.textui.TestRunner;
+
+/**
+ * Tests {@link ConformingDelaunayTriangulator}
+ * with indexed and parallel constraint enforcement.
+ */
+public class ConformingDelaunayTriangulatorTest extends TestCase {
+
+  public static void main(String args[]) {
+    TestRunner.run(ConformingDelaunayTriangulatorTest.class);
+  }
+
+  private GeometryFactory geomFact = new GeometryFactory();
+
+  public ConformingDelaunayTriangulatorTest(String name) { super(name); }
+
+  public void testConforms()
+  {
+    ConformingDelaunayTriangulator cdt = triangulate(corridors(20, 60), randomSites(500, 1), false);
+    checkConforms(cdt);
+    assertTrue(cdt.getSplitCount() > 0);
+    // only segments near inserted sites are retested
+    assertTrue(cdt.getEncroachmentTestCount()
+        < cdt.getIterationCount() * cdt.getConstraintSegments().size());
+  }
+
+  public void testParallelSameAsSequential()
+  {
+    List lines = corridors(40, 80);
+    List sites = randomSites(2000, 2);
+    ConformingDelaunayTriangulator seq = triangulate(lines, sites, false);
+    ConformingDelaunayTriangulator par = triangulate(lines, sites, true);
+    checkConforms(par);
+    assertEquals(seq.getIterationCount(), par.getIterationCount());
+    assertEquals(seq.getSplitCount(), par.getSplitCount());
+
+    Geometry expected = seq.getSubdivision().getEdges(geomFact);
+    Geometry actual = par.getSubdivision().getEdges(geomFact);
+    expected.normalize();
+    actual.normalize();
+    assertTrue(expected.equalsExact(actual));
+  }
+
+  public void testListener()
+  {
+    final List iterations = new ArrayList();
+    ConformingDelaunayTriangulator cdt = createTriangulator(corridors(10, 40), randomSites(200, 3));
+    cdt.setEnforcementListener(new ConstraintEnforcementListener() {
+      public void iterationCompleted(int iteration, int numSplits, int numSegments) {
+        iterations.add(new int[] { iteration, numSplits });
+      }
+    });
+    cdt.formInitialDelaunay();
+    cdt.enforceConstraints();
+    assertEquals(cdt.getIterationCount(), iterations.size());
+    int splits = 0;
+    for (int i = 0; i < iterations.size(); i++) {
+      int[] iter = (int[]) iterations.get(i);
+      assertEquals(i + 1, iter[0]);
+      splits += iter[1];
+    }
+    assertEquals(cdt.getSplitCount(), splits);
+  }
+
+  /**
+   * Checks that every constraint segment is an edge of the triangulation.
+   */
+  private void checkConforms(ConformingDelaunayTriangulator cdt)
+  {
+    QuadEdgeSubdivision subdiv = cdt.getSubdivision();
+    for (Iterator i = cdt.getConstraintSegments().iterator(); i.hasNext(); ) {
+      Segment seg = (Segment) i.next();
+      assertTrue(seg.toString(), subdiv.locate(seg.getStart(), seg.getEnd()) != null);
+    }
+  }
+
+  private ConformingDelaunayTriangulator triangulate(List lines, List sites, boolean isParallel)
+  {
+    ConformingDelaunayTriangulator cdt = createTriangulator(lines, sites);
+    cdt.setParallel(isParallel);
+    cdt.formInitialDelaunay();
+    cdt.enforceConstraints();
+    return cdt;
+  }
+
+  private ConformingDelaunayTriangulator createTriangulator(List lines, List siteCoords)
+  {
+    TreeMap vertexMap = new TreeMap();
+    List segments = new ArrayList();
+    for (Iterator i = lines.iterator(); i.hasNext(); ) {
+      Coordinate[] pts = ((LineString) i.next()).getCoordinates();
+      for (int j = 0; j < pts.length; j++) {
+        vertexMap.put(pts[j], new ConstraintVertex(pts[j]));
+        if (j > 0) segments.add(new Segment(pts[j - 1], pts[j]));
+      }
+    }
+    List sites = new ArrayList();
+    for (Iterator i = siteCoords.iterator(); i.hasNext(); ) {
+      Coordinate p = (Coordinate) i.next();
+      if (! vertexMap.containsKey(p)) sites.add(new ConstraintVertex(p));
+    }
+    ConformingDelaunayTriangulator cdt = new ConformingDelaunayTriangulator(sites, 0.0);
+    cdt.setConstraints(segments, new ArrayList(vertexMap.values()));
+    return cdt;
+  }
+
+  /**
+   * Creates a set of parallel, non-intersecting zig-zag lines
+   * (e.g. the edges of road corridors).
+   */
+  private List corridors(int numLines, int numPts)
+  {
+    List lines = new ArrayList();
+    for (int i = 0; i < numLines; i++) {
+      Coordinate[] pts = new Coordinate[numPts];
+      for (int j = 0; j < numPts; j++) {
+        double y = i * 25 + ((j % 2 == 0) ? 0 : 10);
+        pts[j] = new Coordinate(j * 1000.0 / numPts, y);
+      }
+      lines.add(geomFact.createLineString(pts));
+    }
+    return lines;
+  }
+
+  private List randomSites(int n, long seed)
+  {
+    Random rnd = new Random(seed);
+    List sites = new ArrayList();
+    for (int i = 0; i < n; i++) {
+      sites.add(new Coordinate(rnd.nextDouble() * 1000, rnd.nextDouble() * 1000));
+    }
+    return sites;
+  }
+}
@@ -0,0 +1,113 @@
+/*
+ * The JTS Topology Suite is a collection of Java classes that
+ * implement the fundamental operations required to validate a given
+ * geo-spatial data set to a known topological specification.
+ *
+ * Copyright (C) 2016 Vivid Solutions
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * (http://www.eclipse.org/legal/epl-v10.html), and the Vivid Solutions BSD
+ * License v1.0 (found at the root of the repository).
+ *
+ */
+package org.locationtech.jts.triangulate;
+
+import java.util.Random;
+
+import org.locationtech.jts.geom.*;
+import org.locationtech.jts.io.*;
+
+import junit.framework.TestCase;
+import junit.textui.TestRunner;
+
+/**
+ * Tests {@link DivideAndConquerDelaunayTriangulator}
+ * against the incremental triangulation.
+ */
+public class DivideAndConquerDelaunayTest extends TestCase {
+
+  public static void main(String args[]) {
+    TestRunner.run(DivideAndConquerDelaunayTest.class);
+  }
+
+  private GeometryFactory geomFact = new GeometryFactory();
+  private WKTReader reader = new WKTReader();
+
+  public DivideAndConquerDelaunayTest(String name) { super(name); }
+
+  public void testTriangle()
+  throws ParseException
+  {
+    checkSameAsIncremental(reader.read("MULTIPOINT ((10 10), (10 20), (20 20))"));
+  }
+
+  public void testCollinear()
+  throws ParseException
+  {
+    checkSameAsIncremental(reader.read("MULTIPOINT ((0 0), (10 10), (20 20), (30 30), (40 40))"));
+  }
+
+  public void testDuplicate()
+  throws ParseException
+  {
+    checkSameAsIncremental(reader.read("MULTIPOINT ((50 40), (140 70), (80 100), (140 70), (30 150), (50 40))"));
+  }
+
+  public void testRandom()
+  {
+    checkSameAsIncremental(randomPoints(1000, 1));
+  }
+
+  public void testVoronoi()
+  {
+    Geometry sites = randomPoints(200, 2);
+    DelaunayTriangulationBuilder builder = new DelaunayTriangulationBuilder();
+    builder.setSites(sites);
+    Geometry expected = builder.getSubdivision().getVoronoiDiagram(geomFact);
+
+    DelaunayTriangulationBuilder dtb = new DelaunayTriangulationBuilder();
+    dtb.setDivideAndConquer(true);
+    dtb.setSites(sites);
+    Geometry actual = dtb.getSubdivision().getVoronoiDiagram(geomFact);
+
+    assertEquals(expected.getNumGeometries(), actual.getNumGeometries());
+    assertEquals(expected.getArea(), actual.getArea(), 1.0e-6);
+  }
+
+  private Geometry randomPoints(int n, long seed)
+  {
+    Random rnd = new Random(seed);
+    Coordinate[] pts = new Coordinate[n];
+    for (int i = 0; i < n; i++) {
+      pts[i] = new Coordinate(rnd.nextDouble() * 1000, rnd.nextDouble() * 1000);
+    }
+    return geomFact.createMultiPoint(pts);
+  }
+
+  static final double COMPARISON_TOLERANCE = 1.0e-7;
+
+  private void checkSameAsIncremental(Geometry sites)
+  {
+    DelaunayTriangulationBuilder builder = new DelaunayTriangulationBuilder();
+    builder.setSites(sites);
+    Geometry expectedEdges = builder.getEdges(geomFact);
+    Geometry expectedTri = builder.getTriangles(geomFact);
+
+    DelaunayTriangulationBuilder dcBuilder = new DelaunayTriangulationBuilder();
+    dcBuilder.setDivideAndConquer(true);
+    dcBuilder.setSites(sites);
+    Geometry edges = dcBuilder.getEdges(geomFact);
+    Geometry tri = dcBuilder.getTriangles(geomFact);
+
+    checkEqual(expectedEdges, edges);
+    checkEqual(expectedTri, tri);
+  }
+
+  private static void checkEqual(Geometry expected, Geometry actual)
+  {
+    expected.normalize();
+    actual.normalize();
+    assertTrue(expected.equalsExact(actual, COMPARISON_TOLERANCE));
+  }
+}
@@ -0,0 +1,145 @@
+/*
+ * The JTS Topology Suite is a collection of Java classes that
+ * implement the fundamental operations required to validate a given
+ * geo-spatial data set to a known topological specification.
+ *
+ * Copyright (C) 2016 Vivid Solutions
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * (http://www.eclipse.org/legal/epl-v10.html), and the Vivid Solutions BSD
+ * License v1.0 (found at the root of the repository).
+ *
+ */
+package org.locationtech.jts.triangulate;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+
+import org.locationtech.jts.geom.*;
+import org.locationtech.jts.triangulate.quadedge.QuadEdgeSubdivision;
+import org.locationtech.jts.triangulate.quadedge.SamplingQuadEdgeLocator;
+import org.locationtech.jts.triangulate.quadedge.Vertex;
+
+import junit.framework.TestCase;
+import junit.textui.TestRunner;
+
+/**
+ * Tests {@link InsertionOrder} and {@link SamplingQuadEdgeLocator}.
+ */
+public class InsertionOrderTest extends TestCase {
+
+  public static void main(String args[]) {
+    TestRunner.run(InsertionOrderTest.class);
+  }
+
+  private GeometryFactory geomFact = new GeometryFactory();
+
+  public InsertionOrderTest(String name) { super(name); }
+
+  public void testHilbertCode()
+  {
+    assertEquals(0, InsertionOrder.hilbertCode(1, 0, 0));
+    assertEquals(1, InsertionOrder.hilbertCode(1, 0, 1));
+    assertEquals(2, InsertionOrder.hilbertCode(1, 1, 1));
+    assertEquals(3, InsertionOrder.hilbertCode(1, 1, 0));
+    // consecutive cells are adjacent
+    int n = 1 << 4;
+    int[][] cell = new int[n * n][];
+    for (int x = 0; x < n; x++) {
+      for (int y = 0; y < n; y++) {
+        cell[InsertionOrder.hilbertCode(4, x, y)] = new int[] { x, y };
+      }
+    }
+    for (int i = 1; i < cell.length; i++) {
+      int dist = Math.abs(cell[i][0] - cell[i - 1][0]) + Math.abs(cell[i][1] - cell[i - 1][1]);
+      assertEquals(1, dist);
+    }
+  }
+
+  public void testSortIsPermutation()
+  {
+    List verts = randomVertices(1000, 1);
+    List hilbert = new ArrayList(verts);
+    InsertionOrder.sort(hilbert, InsertionOrder.HILBERT);
+    assertEquals(new HashSet(verts), new HashSet(hilbert));
+    List brio = new ArrayList(verts);
+    InsertionOrder.sort(brio, InsertionOrder.BRIO);
+    assertEquals(new HashSet(verts), new HashSet(brio));
+  }
+
+  public void testSameTriangulation()
+  {
+    Geometry sites = randomPoints(2000, 2);
+    Geometry expected = triangulate(sites, InsertionOrder.NONE).getEdges(geomFact);
+    checkEqual(expected, triangulate(sites, InsertionOrder.HILBERT).getEdges(geomFact));
+    checkEqual(expected, triangulate(sites, InsertionOrder.BRIO).getEdges(geomFact));
+  }
+
+  public void testHilbertWalkLength()
+  {
+    Geometry sites = randomPoints(5000, 3);
+    QuadEdgeSubdivision sorted = triangulate(sites, InsertionOrder.NONE);
+    QuadEdgeSubdivision hilbert = triangulate(sites, InsertionOrder.HILBERT);
+    assertEquals(sorted.getLocateCount(), hilbert.getLocateCount());
+    assertTrue(hilbert.getLocateWalkLength() < sorted.getLocateWalkLength());
+    assertTrue(hilbert.getMaxLocateWalkLength() > 0);
+  }
+
+  public void testSamplingLocator()
+  {
+    List verts = randomVertices(3000, 4);
+    Envelope env = new Envelope();
+    for (int i = 0; i < verts.size(); i++) {
+      env.expandToInclude(((Vertex) verts.get(i)).getCoordinate());
+    }
+
+    QuadEdgeSubdivision lastFound = new QuadEdgeSubdivision(env, 0.0);
+    new IncrementalDelaunayTriangulator(lastFound).insertSites(verts);
+
+    QuadEdgeSubdivision sampling = new QuadEdgeSubdivision(env, 0.0);
+    sampling.setLocator(new SamplingQuadEdgeLocator(sampling));
+    new IncrementalDelaunayTriangulator(sampling).insertSites(verts);
+
+    checkEqual(lastFound.getEdges(geomFact), sampling.getEdges(geomFact));
+    // random insertion order makes walks from the last edge long
+    assertTrue(sampling.getLocateWalkLength() < lastFound.getLocateWalkLength());
+  }
+
+  private QuadEdgeSubdivision triangulate(Geometry sites, int order)
+  {
+    DelaunayTriangulationBuilder builder = new DelaunayTriangulationBuilder();
+    builder.setInsertionOrder(order);
+    builder.setSites(sites);
+    return builder.getSubdivision();
+  }
+
+  private Geometry randomPoints(int n, long seed)
+  {
+    Random rnd = new Random(seed);
+    Coordinate[] pts = new Coordinate[n];
+    for (int i = 0; i < n; i++) {
+      pts[i] = new Coordinate(rnd.nextDouble() * 1000, rnd.nextDouble() * 1000);
+    }
+    return geomFact.createMultiPoint(pts);
+  }
+
+  private List randomVertices(int n, long seed)
+  {
+    Random rnd = new Random(seed);
+    List verts = new ArrayList();
+    for (int i = 0; i < n; i++) {
+      verts.add(new Vertex(rnd.nextDouble() * 1000, rnd.nextDouble() * 1000));
+    }
+    return verts;
+  }
+
+  private static void checkEqual(Geometry expected, Geometry actual)
+  {
+    expected.normalize();
+    actual.normalize();
+    assertTrue(expected.equalsExact(actual, 1.0e-7));
+  }
+}
@@ -0,0 +1,179 @@
+/*
+ * The JTS Topology Suite is a collection of Java classes that
+ * implement the fundamental operations required to validate a given
+ * geo-spatial data set to a known topological specification.
+ *
+ * Copyright (C) 2016 Vivid Solutions
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * (http://www.eclipse.org/legal/epl-v10.html), and the Vivid Solutions BSD
+ * License v1.0 (found at the root of the repository).
+ *
+ */
+package org.locationtech.jts.triangulate;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import org.locationtech.jts.geom.*;
+import org.locationtech.jts.io.*;
+
+import junit.framework.TestCase;
+import junit.textui.TestRunner;
+
+/**
+ * Tests {@link VoronoiDiagramBuilder} and {@link VoronoiCellBuilder}
+ * against cells clipped by overlay.
+ */
+public class VoronoiDiagramBuilderTest extends TestCase {
+
+  public static void main(String args[]) {
+    TestRunner.run(VoronoiDiagramBuilderTest.class);
+  }
+
+  private GeometryFactory geomFact = new GeometryFactory();
+  private WKTReader reader = new WKTReader();
+
+  public VoronoiDiagramBuilderTest(String name) { super(name); }
+
+  public void testSimple()
+  throws ParseException
+  {
+    checkDiagram(reader.read("MULTIPOINT ((10 10), (20 70), (60 30), (80 70))"), null, false);
+  }
+
+  public void testGrid()
+  throws ParseException
+  {
+    checkDiagram(reader.read("MULTIPOINT ((10 10), (10 20), (20 20), (20 10), (20 0), (10 0), (0 0), (0 10), (0 20))"), null, false);
+  }
+
+  public void testClipEnvelope()
+  {
+    checkDiagram(randomPoints(500, 1), new Envelope(200, 400, 300, 700), false);
+  }
+
+  public void testRandom()
+  {
+    checkDiagram(randomPoints(3000, 2), null, false);
+  }
+
+  public void testParallel()
+  {
+    checkDiagram(randomPoints(5000, 3), null, true);
+  }
+
+  public void testSingleSite()
+  throws ParseException
+  {
+    checkSingleCell(reader.read("POINT (40 40)"));
+  }
+
+  public void testCoincidentSites()
+  throws ParseException
+  {
+    checkSingleCell(reader.read("MULTIPOINT ((40 40), (40 40), (40 40))"));
+  }
+
+  /**
+   * Sites at a single point have one cell,
+   * which is the clip envelope.
+   */
+  private void checkSingleCell(Geometry sites)
+  {
+    VoronoiDiagramBuilder builder = new VoronoiDiagramBuilder();
+    builder.setSites(sites);
+    builder.setClipEnvelope(new Envelope(20, 73, 20, 60));
+    Geometry diagram = builder.getDiagram(geomFact);
+    assertEquals(1, diagram.getNumGeometries());
+    assertEquals(2120.0, diagram.getGeometryN(0).getArea(), 1.0e-6);
+  }
+
+  public void testTolerance()
+  {
+    Geometry sites = randomPoints(300, 4);
+    VoronoiDiagramBuilder builder = new VoronoiDiagramBuilder();
+    builder.setSites(sites);
+    builder.setTolerance(1.0e-6);
+    Geometry diagram = builder.getDiagram(geomFact);
+    assertEquals(300, diagram.getNumGeometries());
+  }
+
+  public void testClip()
+  throws ParseException
+  {
+    Envelope env = new Envelope(0, 10, 0, 10);
+    checkClip("POLYGON ((5 -5, -5 5, 5 15, 15 5, 5 -5))", env);
+    checkClip("POLYGON ((2 2, 2 8, 8 8, 8 2, 2 2))", env);
+    checkClip("POLYGON ((5 5, 5 20, 20 20, 20 5, 5 5))", env);
+    checkClip("POLYGON ((-5 12, -5 20, 20 20, 20 12, -5 12))", env);
+  }
+
+  private void checkClip(String wkt, Envelope env)
+  throws ParseException
+  {
+    Polygon poly = (Polygon) reader.read(wkt);
+    Geometry expected = poly.intersection(geomFact.toGeometry(env));
+    Polygon actual = VoronoiCellBuilder.clip(poly, env);
+    if (expected.isEmpty()) {
+      assertTrue(actual == null);
+      return;
+    }
+    checkEqual(expected, actual);
+  }
+
+  /**
+   * Compares the diagram with the subdivision cells
+   * clipped by overlay.
+   */
+  private void checkDiagram(Geometry sites, Envelope clipEnv, boolean isParallel)
+  {
+    VoronoiDiagramBuilder builder = new VoronoiDiagramBuilder();
+    builder.setSites(sites);
+    if (clipEnv != null) builder.setClipEnvelope(clipEnv);
+    builder.setParallel(isParallel);
+    Geometry diagram = builder.getDiagram(geomFact);
+
+    Envelope siteEnv = sites.getEnvelopeInternal();
+    Envelope diagramEnv = new Envelope(siteEnv);
+    diagramEnv.expandBy(Math.max(siteEnv.getWidth(), siteEnv.getHeight()));
+    if (clipEnv != null) diagramEnv.expandToInclude(clipEnv);
+    Geometry clipPoly = geomFact.toGeometry(diagramEnv);
+
+    List cells = builder.getSubdivision().getVoronoiCellPolygons(geomFact);
+    Map expected = new HashMap();
+    for (int i = 0; i < cells.size(); i++) {
+      Geometry cell = (Geometry) cells.get(i);
+      expected.put(cell.getUserData(), cell.intersection(clipPoly));
+    }
+    assertEquals(expected.size(), diagram.getNumGeometries());
+    for (int i = 0; i < diagram.getNumGeometries(); i++) {
+      Geometry cell = diagram.getGeometryN(i);
+      Geometry expectedCell = (Geometry) expected.get(cell.getUserData());
+      assertTrue(expectedCell != null);
+      assertEquals(expectedCell.getArea(), cell.getArea(), 1.0e-6 * expectedCell.getArea());
+      assertTrue(expectedCell.getEnvelopeInternal().equals(cell.getEnvelopeInternal())
+          || expectedCell.symDifference(cell).getArea() < 1.0e-6);
+    }
+  }
+
+  private Geometry randomPoints(int n, long seed)
+  {
+    Random rnd = new Random(seed);
+    Coordinate[] pts = new Coordinate[n];
+    for (int i = 0; i < n; i++) {
+      pts[i] = new Coordinate(rnd.nextDouble() * 1000, rnd.nextDouble() * 1000);
+    }
+    return geomFact.createMultiPoint(pts);
+  }
+
+  private static void checkEqual(Geometry expected, Geometry actual)
+  {
+    expected.normalize();
+    actual.normalize();
+    assertTrue(actual.toString(), expected.equalsExact(actual, 1.0e-7));
+  }
+}
@@ -0,0 +1,116 @@
+/*
+ * The JTS Topology Suite is a collection of Java classes that
+ * implement the fundamental operations required to validate a given
+ * geo-spatial data set to a known topological specification.
+ *
+ * Copyright (C) 2016 Vivid Solutions
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * (http://www.eclipse.org/legal/epl-v10.html), and the Vivid Solutions BSD
+ * License v1.0 (found at the root of the repository).
+ *
+ */
+
+package org.locationtech.jts.util;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Random;
+import java.util.TreeMap;
+
+import org.locationtech.jts.geom.Coordinate;
+
+import junit.framework.TestCase;
+
+public class CoordinateHashMapTest
+    extends TestCase
+{
+  public CoordinateHashMapTest(String name) {
+    super(name);
+  }
+
+  public static void main(String[] args) {
+    junit.textui.TestRunner.run(CoordinateHashMapTest.class);
+  }
+
+  public void testPutGet() {
+    CoordinateHashMap map = new CoordinateHashMap();
+    assertTrue(map.isEmpty());
+    assertTrue(map.put(new Coordinate(1, 2), "a") == null);
+    assertEquals("a", map.put(new Coordinate(1, 2, 5), "b"));
+    assertEquals(1, map.size());
+    assertEquals("b", map.get(new Coordinate(1, 2)));
+    assertEquals("b", map.get(1, 2));
+    assertTrue(map.get(new Coordinate(2, 1)) == null);
+  }
+
+  public void testNegativeZero() {
+    CoordinateHashMap map = new CoordinateHashMap();
+    map.put(new Coordinate(0.0, -0.0), "a");
+    assertEquals("a", map.get(new Coordinate(-0.0, 0.0)));
+  }
+
+  public void testRemove() {
+    CoordinateHashMap map = new CoordinateHashMap();
+    map.put(new Coordinate(1, 1), "a");
+    map.put(new Coordinate(2, 2), "b");
+    assertEquals("a", map.remove(new Coordinate(1, 1)));
+    assertTrue(map.remove(new Coordinate(1, 1)) == null);
+    assertEquals(1, map.size());
+    assertEquals("b", map.get(new Coordinate(2, 2)));
+  }
+
+  public void testValuesOrder() {
+    CoordinateHashMap map = new CoordinateHashMap();
+    Collection values = map.values();
+    map.put(new Coordinate(2, 1), "c");
+    map.put(new Coordinate(1, 5), "b");
+    map.put(new Coordinate(1, 0), "a");
+    checkValues(values, new String[] { "a", "b", "c" });
+    map.remove(new Coordinate(1, 5));
+    map.put(new Coordinate(3, 0), "d");
+    checkValues(values, new String[] { "a", "c", "d" });
+  }
+
+  /**
+   * Checks random puts, gets and removes against a TreeMap.
+   */
+  public void testRandom() {
+    Random rnd = new Random(1);
+    TreeMap expected = new TreeMap();
+    CoordinateHashMap map = new CoordinateHashMap();
+    for (int i = 0; i < 20000; i++) {
+      Coordinate p = new Coordinate(rnd.nextInt(100), rnd.nextInt(100));
+      int op = rnd.nextInt(3);
+      if (op == 0) {
+        assertEquals(expected.remove(p), map.remove(p));
+      }
+      else {
+        Integer value = new Integer(i);
+        assertEquals(expected.put(p, value), map.put(p, value));
+      }
+      assertEquals(expected.size(), map.size());
+    }
+    for (int x = 0; x < 100; x++) {
+      for (int y = 0; y < 100; y++) {
+        Coordinate p = new Coordinate(x, y);
+        assertEquals(expected.get(p), map.get(p));
+      }
+    }
+    assertEquals(new ArrayList(expected.values()), new ArrayList(map.values()));
+  }
+
+  private void checkValues(Collection values, String[] expected) {
+    assertEquals(expected.length, values.size());
+    List actual = new ArrayList();
+    for (Iterator i = values.iterator(); i.hasNext(); ) {
+      actual.add(i.next());
+    }
+    for (int i = 0; i < expected.length; i++) {
+      assertEquals(expected[i], actual.get(i));
+    }
+  }
+}
@@ -0,0 +1,79 @@
+/*
+ * The JTS Topology Suite is a collection of Java classes that
+ * implement the fundamental operations required to validate a given
+ * geo-spatial data set to a known topological specification.
+ *
+ * Copyright (C) 2016 Vivid Solutions
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * (http://www.eclipse.org/legal/epl-v10.html), and the Vivid Solutions BSD
+ * License v1.0 (found at the root of the repository).
+ *
+ */
+
+package org.locationtech.jts.util;
+
+import java.util.Iterator;
+import java.util.Random;
+import java.util.TreeMap;
+
+import org.locationtech.jts.geom.Coordinate;
+
+import junit.framework.TestCase;
+
+public class CoordinateIndexMapTest
+    extends TestCase
+{
+  public CoordinateIndexMapTest(String name) {
+    super(name);
+  }
+
+  public static void main(String[] args) {
+    junit.textui.TestRunner.run(CoordinateIndexMapTest.class);
+  }
+
+  public void testAdd() {
+    CoordinateIndexMap map = new CoordinateIndexMap();
+    assertEquals(0, map.size());
+    assertEquals(0, map.add(new Coordinate(1, 2)));
+    assertEquals(1, map.add(new Coordinate(2, 1)));
+    assertEquals(0, map.add(new Coordinate(1, 2, 5)));
+    assertEquals(2, map.size());
+    assertEquals(1, map.indexOf(new Coordinate(2, 1)));
+    assertEquals(-1, map.indexOf(new Coordinate(3, 3)));
+    assertEquals(2.0, map.getX(1), 0.0);
+    assertEquals(1.0, map.getY(1), 0.0);
+  }
+
+  public void testNegativeZero() {
+    CoordinateIndexMap map = new CoordinateIndexMap();
+    map.add(new Coordinate(0.0, -0.0));
+    assertEquals(0, map.indexOf(new Coordinate(-0.0, 0.0)));
+  }
+
+  public void testRandom() {
+    Random rnd = new Random(1);
+    CoordinateIndexMap map = new CoordinateIndexMap();
+    TreeMap expected = new TreeMap();
+    for (int i = 0; i < 10000; i++) {
+      Coordinate p = new Coordinate(rnd.nextInt(100), rnd.nextInt(100));
+      int index = map.add(p);
+      Integer prev = (Integer) expected.get(p);
+      if (prev == null) {
+        assertEquals(expected.size(), index);
+        expected.put(p, new Integer(index));
+      }
+      else {
+        assertEquals(prev.intValue(), index);
+      }
+    }
+    assertEquals(expected.size(), map.size());
+
+    int[] sorted = map.sortedIndexes();
+    int k = 0;
+    for (Iterator it = expected.values().iterator(); it.hasNext(); ) {
+      assertEquals(((Integer) it.next()).intValue(), sorted[k++]);
+    }
+  }
+}